@@ -25,6 +25,7 @@ import ch.usi.si.codelounge.jsicko.plugin.OldValuesTable;
 import ch.usi.si.codelounge.jsicko.plugin.utils.ConditionChecker;
 
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
 import java.lang.annotation.Target;
 
 public interface Contract {
@@ -59,32 +60,94 @@ public interface Contract {
     /*
      * A basic form of purity check
      * that relies on proper implementation of
-     * equality.
+     * equality. When used as a postcondition clause
+     * (and not overridden), the compiler checks it
+     * as a frame condition without modifiable fields.
      */
     default public boolean pure() {
         return this.equals(old(this));
     }
 
+    /**
+     * The evaluation cost of clauses, used to select the clauses to check at runtime.
+     */
+    enum Cost {
+        /**
+         * Constant-time clauses, e.g., argument guards; always checked.
+         */
+        CHEAP,
+        /**
+         * Clauses of ordinary cost, the default.
+         */
+        NORMAL,
+        /**
+         * Clauses whose cost depends on the size of the state, e.g., quantifiers over collections.
+         */
+        EXPENSIVE
+    }
+
     /**
      * Declares the preconditions of a method.
      *
      * The value of this class corresponds to the name of a boolean method
-     * implementing a clause.
+     * implementing a clause. The annotation can be repeated, e.g., to declare
+     * clauses of different costs; all the clauses are conjoined.
      */
     @Target({ElementType.METHOD, ElementType.CONSTRUCTOR})
+    @Repeatable(Requires.List.class)
     public static @interface Requires {
         String[] value();
+
+        /**
+         * The cost of the clauses.
+         */
+        Cost cost() default Cost.NORMAL;
+
+        /**
+         * Whether the clauses, if expensive, are evaluated concurrently with the other expensive clauses
+         * of the same method marked as parallel (see {@link Parallel}).
+         */
+        boolean parallel() default false;
+
+        /**
+         * Container of repeated {@link Requires} annotations.
+         */
+        @Target({ElementType.METHOD, ElementType.CONSTRUCTOR})
+        @interface List {
+            Requires[] value();
+        }
     }
 
     /**
      * Declares the postconditions of a method.
      *
      * The value of this class corresponds to the name of a boolean method
-     * implementing a clause.
+     * implementing a clause. The annotation can be repeated, e.g., to declare
+     * clauses of different costs; all the clauses are conjoined.
      */
     @Target({ElementType.METHOD, ElementType.CONSTRUCTOR})
+    @Repeatable(Ensures.List.class)
     public static @interface Ensures {
         String[] value();
+
+        /**
+         * The cost of the clauses.
+         */
+        Cost cost() default Cost.NORMAL;
+
+        /**
+         * Whether the clauses, if expensive, are evaluated concurrently with the other expensive clauses
+         * of the same method marked as parallel (see {@link Parallel}).
+         */
+        boolean parallel() default false;
+
+        /**
+         * Container of repeated {@link Ensures} annotations.
+         */
+        @Target({ElementType.METHOD, ElementType.CONSTRUCTOR})
+        @interface List {
+            Ensures[] value();
+        }
     }
 
     /**
@@ -94,6 +157,16 @@ public interface Contract {
     @Target({ElementType.METHOD})
     public static @interface Invariant {
 
+        /**
+         * The cost of the invariant.
+         */
+        Cost cost() default Cost.NORMAL;
+
+        /**
+         * Whether the invariant, if expensive, is evaluated concurrently with the other expensive invariants
+         * marked as parallel (see {@link Parallel}).
+         */
+        boolean parallel() default false;
     }
 
     /**
@@ -105,6 +178,53 @@ public interface Contract {
 
     }
 
+    /**
+     * Declares the class as immutable, i.e., declaring only final instance fields, which the compiler checks.
+     *
+     * The check is shallow: the objects referenced by the fields may still change, and the annotation is not
+     * inherited by subclasses. The invariants of an immutable class are checked only at the end of its constructors.
+     * The contracts of its pure methods without parameters are checked only at the first call on each instance, but
+     * only if the class is final, and the instance fields of the class and of its superclasses are final and are not
+     * arrays, collections, or maps; otherwise they are checked at every call. Fields of other mutable types (e.g.,
+     * {@link StringBuilder}) are not detected, and must not be read by the clauses of those methods.
+     */
+    @Target({ElementType.TYPE})
+    public static @interface Immutable {
+
+    }
+
+    /**
+     * Declares that the expensive clauses of the contracts declared in the class are evaluated concurrently,
+     * as if all its annotations were marked as parallel.
+     *
+     * Parallel clauses of the same group (e.g., the postconditions declared by a method) are evaluated on a
+     * fork-join pool while the calling thread evaluates the other clauses of the group, in declaration
+     * order; evaluation stops at the first violated clause, cancelling the clauses declared after it. The result,
+     * including the reported violation and the exceptions raised by clauses, is the same as sequential evaluation,
+     * so clauses must be side-effect free and must not depend on the calling thread.
+     */
+    @Target({ElementType.TYPE})
+    public static @interface Parallel {
+
+    }
+
+    /**
+     * Declares the fields of the receiver the method may modify (its frame condition); all the other
+     * instance fields declared by its class must not change.
+     *
+     * The compiler checks the condition as a postcondition, comparing primitive fields by value and reference
+     * fields by identity (and by hash code with the <code>frames=contents</code> plugin option), without cloning
+     * the receiver. An empty list declares that the method modifies no field.
+     */
+    @Target({ElementType.METHOD})
+    public static @interface Modifies {
+
+        /**
+         * The names of the modifiable fields; each element may also list several comma-separated names.
+         */
+        String[] value() default {};
+    }
+
     /**
      * Abstract class representing generic contract condition violations.
      */
@@ -24,11 +24,13 @@ import com.google.common.collect.Ordering;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.BooleanSupplier;
+import java.util.function.DoublePredicate;
 import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
-import java.util.stream.IntStream;
 
 /**
  * Utils to simplify the formulation of properties in contracts.
@@ -103,13 +105,19 @@ public abstract class ContractUtils {
     /**
      * Represents a universal qualification over a finite set (i.e., a range) of integers.
      *
+     * Like the quantifiers over arrays, it is a plain loop that stops at the first counterexample, without boxing.
      * @param lower the lower bound of the set.
      * @param upper the upper (excluded) bound of the integer set.
      * @param argument an integer predicate as the argument of the quantification.
      * @return <code>true</code> iff <code>argument</code> holds for every integer between <code>lower</code> (included) and <code>upper</code> excluded.
      */
     public static boolean forAllInts(int lower, int upper, IntPredicate argument) {
-        return IntStream.range(lower,upper).allMatch(argument);
+        for (int i = lower; i < upper; i++) {
+            if (!argument.test(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -123,6 +131,124 @@ public abstract class ContractUtils {
         return collection.stream().allMatch(argument);
     }
 
+    /**
+     * Represents a universal qualification over the elements of an array.
+     * @param array an array of integers.
+     * @param argument an integer predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for every element in the <code>array</code>.
+     */
+    public static boolean forAll(int[] array, IntPredicate argument) {
+        return forAll(array, 0, array.length, argument);
+    }
+
+    /**
+     * Represents a universal qualification over the elements of a range of an array.
+     * @param array an array of integers.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument an integer predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for every element in the range.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static boolean forAll(int[] array, int from, int to, IntPredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        for (int i = from; i < to; i++) {
+            if (!argument.test(array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Represents a universal qualification over the elements of an array.
+     * @param array an array of longs.
+     * @param argument a long predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for every element in the <code>array</code>.
+     */
+    public static boolean forAll(long[] array, LongPredicate argument) {
+        return forAll(array, 0, array.length, argument);
+    }
+
+    /**
+     * Represents a universal qualification over the elements of a range of an array.
+     * @param array an array of longs.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a long predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for every element in the range.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static boolean forAll(long[] array, int from, int to, LongPredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        for (int i = from; i < to; i++) {
+            if (!argument.test(array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Represents a universal qualification over the elements of an array.
+     * @param array an array of doubles.
+     * @param argument a double predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for every element in the <code>array</code>.
+     */
+    public static boolean forAll(double[] array, DoublePredicate argument) {
+        return forAll(array, 0, array.length, argument);
+    }
+
+    /**
+     * Represents a universal qualification over the elements of a range of an array.
+     * @param array an array of doubles.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a double predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for every element in the range.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static boolean forAll(double[] array, int from, int to, DoublePredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        for (int i = from; i < to; i++) {
+            if (!argument.test(array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Represents a universal qualification over the elements of an array.
+     * @param array an array of elements.
+     * @param argument a predicate over <code>E</code>.
+     * @param <E> the type of the elements in the array.
+     * @return <code>true</code> iff <code>argument</code> holds for every element in the <code>array</code>.
+     */
+    public static <E> boolean forAll(E[] array, Predicate<? super E> argument) {
+        return forAll(array, 0, array.length, argument);
+    }
+
+    /**
+     * Represents a universal qualification over the elements of a range of an array.
+     * @param array an array of elements.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a predicate over <code>E</code>.
+     * @param <E> the type of the elements in the array.
+     * @return <code>true</code> iff <code>argument</code> holds for every element in the range.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static <E> boolean forAll(E[] array, int from, int to, Predicate<? super E> argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        for (int i = from; i < to; i++) {
+            if (!argument.test(array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Represents an existential qualification over a finite set (i.e., a range) of integers.
      * @param lower the lower bound of the set.
@@ -131,7 +257,12 @@ public abstract class ContractUtils {
      * @return <code>true</code> iff <code>argument</code> holds for at least one integer between <code>lower</code> (included) and <code>upper</code> excluded.
      */
     public static boolean existsInt(int lower, int upper, IntPredicate argument) {
-        return IntStream.range(lower,upper).anyMatch(argument);
+        for (int i = lower; i < upper; i++) {
+            if (argument.test(i)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -145,6 +276,124 @@ public abstract class ContractUtils {
         return collection.stream().anyMatch(argument);
     }
 
+    /**
+     * Represents an existential qualification over the elements of an array.
+     * @param array an array of integers.
+     * @param argument an integer predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for at least one element in the <code>array</code>.
+     */
+    public static boolean exists(int[] array, IntPredicate argument) {
+        return exists(array, 0, array.length, argument);
+    }
+
+    /**
+     * Represents an existential qualification over the elements of a range of an array.
+     * @param array an array of integers.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument an integer predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for at least one element in the range.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static boolean exists(int[] array, int from, int to, IntPredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        for (int i = from; i < to; i++) {
+            if (argument.test(array[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Represents an existential qualification over the elements of an array.
+     * @param array an array of longs.
+     * @param argument a long predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for at least one element in the <code>array</code>.
+     */
+    public static boolean exists(long[] array, LongPredicate argument) {
+        return exists(array, 0, array.length, argument);
+    }
+
+    /**
+     * Represents an existential qualification over the elements of a range of an array.
+     * @param array an array of longs.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a long predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for at least one element in the range.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static boolean exists(long[] array, int from, int to, LongPredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        for (int i = from; i < to; i++) {
+            if (argument.test(array[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Represents an existential qualification over the elements of an array.
+     * @param array an array of doubles.
+     * @param argument a double predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for at least one element in the <code>array</code>.
+     */
+    public static boolean exists(double[] array, DoublePredicate argument) {
+        return exists(array, 0, array.length, argument);
+    }
+
+    /**
+     * Represents an existential qualification over the elements of a range of an array.
+     * @param array an array of doubles.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a double predicate.
+     * @return <code>true</code> iff <code>argument</code> holds for at least one element in the range.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static boolean exists(double[] array, int from, int to, DoublePredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        for (int i = from; i < to; i++) {
+            if (argument.test(array[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Represents an existential qualification over the elements of an array.
+     * @param array an array of elements.
+     * @param argument a predicate over <code>E</code>.
+     * @param <E> the type of the elements in the array.
+     * @return <code>true</code> iff <code>argument</code> holds for at least one element in the <code>array</code>.
+     */
+    public static <E> boolean exists(E[] array, Predicate<? super E> argument) {
+        return exists(array, 0, array.length, argument);
+    }
+
+    /**
+     * Represents an existential qualification over the elements of a range of an array.
+     * @param array an array of elements.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a predicate over <code>E</code>.
+     * @param <E> the type of the elements in the array.
+     * @return <code>true</code> iff <code>argument</code> holds for at least one element in the range.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static <E> boolean exists(E[] array, int from, int to, Predicate<? super E> argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        for (int i = from; i < to; i++) {
+            if (argument.test(array[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Counts the elements of a collection that satisfy a given predicate.
      * @param collection A collection of elements.
@@ -156,6 +405,128 @@ public abstract class ContractUtils {
         return collection.stream().filter(argument).count();
     }
 
+    /**
+     * Counts the elements of an array that satisfy a given predicate.
+     * @param array an array of integers.
+     * @param argument an integer predicate.
+     * @return the number of elements in the <code>array</code> that satisfy the argument.
+     */
+    public static long count(int[] array, IntPredicate argument) {
+        return count(array, 0, array.length, argument);
+    }
+
+    /**
+     * Counts the elements of a range of an array that satisfy a given predicate.
+     * @param array an array of integers.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument an integer predicate.
+     * @return the number of elements in the range that satisfy the argument.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static long count(int[] array, int from, int to, IntPredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (argument.test(array[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the elements of an array that satisfy a given predicate.
+     * @param array an array of longs.
+     * @param argument a long predicate.
+     * @return the number of elements in the <code>array</code> that satisfy the argument.
+     */
+    public static long count(long[] array, LongPredicate argument) {
+        return count(array, 0, array.length, argument);
+    }
+
+    /**
+     * Counts the elements of a range of an array that satisfy a given predicate.
+     * @param array an array of longs.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a long predicate.
+     * @return the number of elements in the range that satisfy the argument.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static long count(long[] array, int from, int to, LongPredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (argument.test(array[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the elements of an array that satisfy a given predicate.
+     * @param array an array of doubles.
+     * @param argument a double predicate.
+     * @return the number of elements in the <code>array</code> that satisfy the argument.
+     */
+    public static long count(double[] array, DoublePredicate argument) {
+        return count(array, 0, array.length, argument);
+    }
+
+    /**
+     * Counts the elements of a range of an array that satisfy a given predicate.
+     * @param array an array of doubles.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a double predicate.
+     * @return the number of elements in the range that satisfy the argument.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static long count(double[] array, int from, int to, DoublePredicate argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (argument.test(array[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the elements of an array that satisfy a given predicate.
+     * @param array an array of elements.
+     * @param argument a predicate over <code>E</code>.
+     * @param <E> the type of the elements in the array.
+     * @return the number of elements in the <code>array</code> that satisfy the argument.
+     */
+    public static <E> long count(E[] array, Predicate<? super E> argument) {
+        return count(array, 0, array.length, argument);
+    }
+
+    /**
+     * Counts the elements of a range of an array that satisfy a given predicate.
+     * @param array an array of elements.
+     * @param from the first index of the range.
+     * @param to the upper (excluded) index of the range.
+     * @param argument a predicate over <code>E</code>.
+     * @param <E> the type of the elements in the array.
+     * @return the number of elements in the range that satisfy the argument.
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of the array.
+     */
+    public static <E> long count(E[] array, int from, int to, Predicate<? super E> argument) {
+        Objects.checkFromToIndex(from, to, array.length);
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (argument.test(array[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Checks if a given collection is sorted.
      * @param returns the collection to be checked.
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko;
+
+import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import ch.usi.si.codelounge.jsicko.plugin.utils.DeferredInvariants;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Scoped enablement of contract checks, e.g., to fully check only canary or debug requests.
+ *
+ * Within a scope, the level of the scope replaces the runtime configuration for the current thread:
+ * the enabled condition types are those of the level, and sampling is bypassed. Scopes nest, and are
+ * not inherited by the threads started within them: tasks run by other threads (or submitted to executors)
+ * can carry the current scope with {@link #propagating(Runnable)} and {@link #propagating(Callable)}.
+ *
+ * Invariant checks on specific objects can also be deferred to the end of a scope with
+ * {@link #deferInvariants(Object...)}, e.g., during batch imports.
+ */
+public abstract class Contracts {
+
+    private Contracts() { }
+
+    /**
+     * The checks enabled in a scope.
+     */
+    public enum Level {
+        /**
+         * No checks.
+         */
+        NONE(EnumSet.noneOf(ContractConditionEnum.class)),
+        /**
+         * Only preconditions.
+         */
+        PRECONDITIONS(EnumSet.of(ContractConditionEnum.PRECONDITION)),
+        /**
+         * All the checks, on all the calls.
+         */
+        ALL(EnumSet.allOf(ContractConditionEnum.class));
+
+        private final Set<ContractConditionEnum> enabledConditions;
+
+        Level(Set<ContractConditionEnum> enabledConditions) {
+            this.enabledConditions = enabledConditions;
+        }
+
+        /**
+         * Checks if a condition type is enabled at this level.
+         * @param conditionType the condition type.
+         * @return <code>true</code> iff the condition must be checked.
+         */
+        public boolean isEnabled(ContractConditionEnum conditionType) {
+            return enabledConditions.contains(conditionType);
+        }
+    }
+
+    /**
+     * Runs an action with the checks of a level.
+     * @param level the level of the scope.
+     * @param action the action.
+     */
+    public static void withChecks(Level level, Runnable action) {
+        var previous = ContractConfiguration.enterScope(level);
+        try {
+            action.run();
+        } finally {
+            ContractConfiguration.exitScope(previous);
+        }
+    }
+
+    /**
+     * Calls a computation with the checks of a level.
+     * @param level the level of the scope.
+     * @param computation the computation.
+     * @param <T> the type of the result.
+     * @return the result of the computation.
+     * @throws Exception if the computation throws.
+     */
+    public static <T> T withChecks(Level level, Callable<T> computation) throws Exception {
+        var previous = ContractConfiguration.enterScope(level);
+        try {
+            return computation.call();
+        } finally {
+            ContractConfiguration.exitScope(previous);
+        }
+    }
+
+    /**
+     * Returns the level of the innermost scope of the current thread.
+     * @return the current level, or empty outside scopes.
+     */
+    public static Optional<Level> currentLevel() {
+        return Optional.ofNullable(ContractConfiguration.scopeLevel());
+    }
+
+    /**
+     * Wraps an action so that it runs in the scope current at wrapping time, e.g., in another thread.
+     * @param action the action.
+     * @return the wrapped action, or the action itself outside scopes.
+     */
+    public static Runnable propagating(Runnable action) {
+        var level = ContractConfiguration.scopeLevel();
+        return level == null ? action : () -> withChecks(level, action);
+    }
+
+    /**
+     * Wraps a computation so that it runs in the scope current at wrapping time, e.g., in another thread.
+     * @param computation the computation.
+     * @param <T> the type of the result.
+     * @return the wrapped computation, or the computation itself outside scopes.
+     */
+    public static <T> Callable<T> propagating(Callable<T> computation) {
+        var level = ContractConfiguration.scopeLevel();
+        return level == null ? computation : () -> withChecks(level, computation);
+    }
+
+    /**
+     * Defers the invariant checks on some objects, for the current thread, until the returned scope is closed,
+     * e.g., <code>try (var batch = Contracts.deferInvariants(list)) { ... }</code>.
+     *
+     * Within the scope, the instrumented calls on the objects do not check their invariants; the invariants of
+     * each object are checked once when the scope closes, reporting the number of operations of the batch and
+     * the last one on violation.
+     * @param objects the objects whose invariants are deferred.
+     * @return the scope, to be closed by the current thread.
+     */
+    public static DeferredInvariants deferInvariants(Object... objects) {
+        return DeferredInvariants.defer(objects);
+    }
+
+}
@@ -51,6 +51,8 @@ public class ConditionClause {
     private final Name methodName;
     private final ContractConditionEnum conditionType;
     private final String clauseRep;
+    private final Contract.Cost cost;
+    private final boolean parallel;
     private Optional<MethodSymbol> resolvedMethodSymbol;
     private final Symbol declaringSymbol;
 
@@ -60,8 +62,11 @@ public class ConditionClause {
      * @param declaringSymbol the symbol where the clause is used.
      * @param clauseRep the clause representation.
      * @param conditionType the condition type.
+     * @param cost the evaluation cost of the clause.
+     * @param parallel whether the annotation marks the clause as parallel.
      */
-    private ConditionClause(JSickoContractCompilerState state, JavacUtils javac, Symbol declaringSymbol, String clauseRep, ContractConditionEnum conditionType) {
+    private ConditionClause(JSickoContractCompilerState state, JavacUtils javac, Symbol declaringSymbol, String clauseRep, ContractConditionEnum conditionType,
+                            Contract.Cost cost, boolean parallel) {
         var clauseRepFormatMatcher = clauseFormatRegexp.matcher(clauseRep);
         if (!clauseRepFormatMatcher.matches())
             throw new IllegalArgumentException("Clause specification name \"" + clauseRep + "\" is malformed. Please use a valid Java identifier / match regexp " + clauseFormatRegexp.toString());
@@ -73,6 +78,9 @@ public class ConditionClause {
         this.clauseRep = "clause " + clauseRep + " in " + declaringSymbol.owner.getSimpleName() + "#" + declaringSymbol.toString();
         this.declaringSymbol = declaringSymbol;
         this.conditionType = conditionType;
+        this.cost = cost;
+        this.parallel = parallel || isParallelClass(declaringSymbol.owner);
+        this.resolvedMethodSymbol = Optional.empty();
     }
 
     /**
@@ -89,6 +97,12 @@ public class ConditionClause {
         this.methodName = invariantSymbol.name;
         this.clauseRep = "clause " +  invariantSymbol + " in " + invariantSymbol.owner.getSimpleName();
         this.conditionType = ContractConditionEnum.INVARIANT;
+        this.cost = Optional.ofNullable(invariantSymbol.getAnnotation(Contract.Invariant.class))
+                .map(Contract.Invariant::cost)
+                .orElse(Contract.Cost.NORMAL);
+        this.parallel = Optional.ofNullable(invariantSymbol.getAnnotation(Contract.Invariant.class))
+                .map(Contract.Invariant::parallel)
+                .orElse(false) || isParallelClass(invariantSymbol.owner);
         this.declaringSymbol = invariantSymbol.owner;
         this.resolvedMethodSymbol = Optional.of(invariantSymbol);
     }
@@ -162,7 +176,8 @@ public class ConditionClause {
      */
     public static List<ConditionClause> from(Contract.Ensures postconditionAnnotation, Symbol declaringSymbol, JavacUtils javac, JSickoContractCompilerState state) {
         return Arrays.stream(postconditionAnnotation.value())
-                .map((String clauseRep) -> new ConditionClause(state, javac, declaringSymbol, clauseRep, ContractConditionEnum.POSTCONDITION))
+                .map((String clauseRep) -> new ConditionClause(state, javac, declaringSymbol, clauseRep, ContractConditionEnum.POSTCONDITION,
+                        postconditionAnnotation.cost(), postconditionAnnotation.parallel()))
                 .collect(List.collector());
     }
 
@@ -174,7 +189,8 @@ public class ConditionClause {
      */
     public static List<ConditionClause> from(Contract.Requires preconditionAnnotation,  Symbol declaringSymbol, JavacUtils javac, JSickoContractCompilerState state) {
         return Arrays.stream(preconditionAnnotation.value())
-                .map((String clauseRep) -> new ConditionClause(state, javac, declaringSymbol, clauseRep, ContractConditionEnum.PRECONDITION))
+                .map((String clauseRep) -> new ConditionClause(state, javac, declaringSymbol, clauseRep, ContractConditionEnum.PRECONDITION,
+                        preconditionAnnotation.cost(), preconditionAnnotation.parallel()))
                 .collect(List.collector());
     }
 
@@ -190,13 +206,45 @@ public class ConditionClause {
                 .collect(List.collector());
     }
 
+    /**
+     * Returns the evaluation cost of the clause.
+     * @return the cost of the clause.
+     */
+    public Contract.Cost getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns <code>true</code> iff the clause is evaluated concurrently, i.e., it is expensive and
+     * either its annotation or the class declaring it is marked as parallel.
+     * @return <code>true</code> iff the clause is parallel.
+     */
+    public boolean isParallel() {
+        return parallel && cost == Contract.Cost.EXPENSIVE;
+    }
+
+    private static boolean isParallelClass(Symbol classSymbol) {
+        return classSymbol != null && classSymbol.getAnnotation(Contract.Parallel.class) != null;
+    }
+
+    /**
+     * Creates an expression referencing the cost constant of this clause.
+     * @return the cost expression.
+     */
+    JCExpression createCostExpression() {
+        var costClassSymbol = (ClassSymbol) javac.retrieveMemberFromClassByName(javac.unnamedModule(), Contract.class.getName(), Contract.Cost.class.getSimpleName()).get();
+        return factory.QualIdent(costClassSymbol.members().findFirst(javac.Name(cost.name())));
+    }
+
     /**
      * Creates a condition lambda, i.e., a lambda function that evaluates the condition method
      * and optionally returns a string representing the condition violation.
+     * @param checkerVarDef the checker variable (or parameter) definition.
      * @param methodDecl the declaring method, used for reporting purposes.
+     * @param memoized whether the clause result is evaluated through the memo of the checker.
      * @return a lambda expression representing an optional-string supplier.
      */
-    JCLambda createConditionLambda(JCVariableDecl checkerVarDef, JCMethodDecl methodDecl) {
+    JCLambda createConditionLambda(JCVariableDecl checkerVarDef, JCMethodDecl methodDecl, boolean memoized) {
 
         var stringBuilderType = javac.retrieveType(javac.javaBaseModule(),"java.lang.StringBuilder");
         var varSymbol = new VarSymbol(0,
@@ -213,7 +261,7 @@ public class ConditionClause {
         stringBuilderIdent.sym = varSymbol;
 
 
-        var stmts = createParamValuesStringExpression(checkerVarDef, stringBuilderIdent, methodDecl, List.of(factory.Literal(this.clauseRep + "; params: ")));
+        var stmts = createParamValuesStringExpression(checkerVarDef, stringBuilderIdent, methodDecl, List.of(factory.Literal(this.clauseRep + Constants.CLAUSE_PARAMS_SEPARATOR_STRING)));
         var binaryPlus = javac.MethodInvocation(javac.javaBaseModule(), stringBuilderIdent, javac.Name("toString"), List.nil());
 
         JCStatement optionalOfCall = factory.Return(javac.MethodInvocation(javac.unnamedModule(), javac.Expression(javac.unnamedModule(), "java.util.Optional"), javac.Name("of"),
@@ -222,7 +270,7 @@ public class ConditionClause {
         var allStmts = stmts.prepend(varDef).append(optionalOfCall);
         var ifThen = factory.Block(0, allStmts);
         var optionalEmptyCall = javac.MethodInvocation(javac.unnamedModule(), javac.Expression(javac.unnamedModule(), "java.util.Optional"), javac.Name("empty"));
-        var lambdaBody = factory.If(createConditionCheckExpression(methodDecl),
+        var lambdaBody = factory.If(createConditionCheckExpression(checkerVarDef, methodDecl, memoized),
                 ifThen,
                 factory.Return(optionalEmptyCall));
         var lambda =  factory.Lambda(List.nil(), factory.Block(0, List.of(lambdaBody)));
@@ -233,10 +281,12 @@ public class ConditionClause {
 
     /**
      * Creates the condition check expression for this clause.
+     * @param checkerVarDef the checker variable (or parameter) definition.
      * @param methodDecl the declaring method, used for reporting purposes.
+     * @param memoized whether the clause result is evaluated through the memo of the checker.
      * @return an expression representing the condition to be checked, true when the clause fails.
      */
-    private JCExpression createConditionCheckExpression(JCMethodDecl methodDecl) {
+    private JCExpression createConditionCheckExpression(JCVariableDecl checkerVarDef, JCMethodDecl methodDecl, boolean memoized) {
         var factory = javac.getFactory();
 
         var clauseSymbol = resolvedMethodSymbol.get();
@@ -288,7 +338,13 @@ public class ConditionClause {
         var ident = factory.Ident(resolvedMethodSymbol.get());
         ident.setType(resolvedMethodSymbol.get().type);
         ident.sym = resolvedMethodSymbol.get();
-        var call = factory.App(ident, List.from(args.toArray( new JCExpression[] {})));
+        JCExpression call = factory.App(ident, List.from(args.toArray( new JCExpression[] {})));
+        if (memoized) {
+            var clauseLambda = factory.Lambda(List.nil(), call);
+            javac.visitClauseLambda(clauseLambda);
+            call = javac.MethodInvocation(javac.unnamedModule(), factory.Ident(checkerVarDef), javac.Name("evaluateClause"),
+                    List.of(factory.Literal(getClauseKey()), clauseLambda));
+        }
         var unaryOp = factory.Unary(Tag.NOT,call);
         this.javac.setOperator(unaryOp);
         var potentiallyNegatedCall = (this.isNegated() ? call: unaryOp);
@@ -389,14 +445,7 @@ public class ConditionClause {
      * @param classDecl the class where the clause is used.
      */
     List<JSickoDiagnostic.JSickoError> resolveContractMethod(JCClassDecl classDecl) {
-        var classType = classDecl.sym.type;
-        var closure = javac.typeClosure(classType);
-
-        var optionalContractMethod = closure.stream().flatMap((Type closureElem) ->
-                closureElem.asElement().getEnclosedElements().stream()
-                        .filter((Symbol contractElement) -> contractElement.name.equals(this.methodName))
-                        .map((Symbol contractElement) -> (MethodSymbol) contractElement))
-                .findFirst();
+        var optionalContractMethod = findContractMethod(classDecl.sym.type);
 
         if (optionalContractMethod.isPresent()) {
             var resolvedMethod = optionalContractMethod.get();
@@ -413,6 +462,104 @@ public class ConditionClause {
         return List.nil();
     }
 
+    /**
+     * Looks up the condition method in the type closure of a given type, without resolving the clause.
+     * @param classType the type where the clause is used.
+     * @return the first method with the clause name in the type closure, if any.
+     */
+    private Optional<MethodSymbol> findContractMethod(Type classType) {
+        var closure = javac.typeClosure(classType);
+
+        return closure.stream().flatMap((Type closureElem) ->
+                closureElem.asElement().getEnclosedElements().stream()
+                        .filter((Symbol contractElement) -> contractElement.name.equals(this.methodName))
+                        .map((Symbol contractElement) -> (MethodSymbol) contractElement))
+                .findFirst();
+    }
+
+    /**
+     * Checks, without reporting any error, if the clause can be checked in the type declaring it, i.e.,
+     * if its method resolves in the declaring type and all its parameters bind to the parameters
+     * (or to the returns/raises values) of the declaring method.
+     *
+     * The clause itself is not resolved by this method.
+     * @return the condition method resolved in the declaring type, iff the clause can be checked there.
+     */
+    Optional<MethodSymbol> resolveInDeclaringType() {
+        if (!(this.declaringSymbol instanceof MethodSymbol)) {
+            return Optional.empty();
+        }
+        var declaringMethod = (MethodSymbol) this.declaringSymbol;
+        return findContractMethod(declaringMethod.owner.type).filter((MethodSymbol clauseMethod) -> {
+            if (clauseMethod.getReturnType() == null || !clauseMethod.getReturnType().equals(javac.booleanType())) {
+                return false;
+            }
+            return clauseMethod.params().stream().allMatch((VarSymbol clauseParamSymbol) -> {
+                var clauseParamName = clauseParamSymbol.name.toString();
+                var isPostcondition = this.conditionType.equals(ContractConditionEnum.POSTCONDITION);
+                if (clauseParamName.equals(Constants.RETURNS_CLAUSE_PARAMETER_IDENTIFIER_STRING)) {
+                    var returnType = declaringMethod.getReturnType();
+                    return isPostcondition && !returnType.equals(javac.voidType()) && javac.isErasedTypeAssignable(returnType, clauseParamSymbol.type);
+                } else if (clauseParamName.equals(Constants.RAISES_CLAUSE_PARAMETER_IDENTIFIER_STRING)) {
+                    return isPostcondition && javac.isErasedTypeAssignable(javac.throwableType(), clauseParamSymbol.type);
+                } else {
+                    return declaringMethod.params().stream().anyMatch((VarSymbol param) ->
+                            param.name.equals(clauseParamSymbol.name) && javac.isTypeAssignable(param, clauseParamSymbol));
+                }
+            });
+        });
+    }
+
+    /**
+     * Returns the symbol where the clause is declared, i.e., a method for pre- and postconditions,
+     * and a class for invariants.
+     * @return the declaring symbol.
+     */
+    public Symbol getDeclaringSymbol() {
+        return declaringSymbol;
+    }
+
+    /**
+     * Returns the resolved clause method, if the clause has been resolved.
+     * @return the resolved clause method.
+     */
+    public Optional<MethodSymbol> getResolvedMethodSymbol() {
+        return resolvedMethodSymbol;
+    }
+
+    /**
+     * Returns the key identifying the result of the resolved clause method at an evaluation point, i.e., its signature.
+     * @return the signature of the resolved clause method.
+     */
+    public String getClauseKey() {
+        return resolvedMethodSymbol.get().toString();
+    }
+
+    /**
+     * Checks if this clause always evaluates as another clause of the same instrumented method.
+     *
+     * Both clauses must be resolved in the instrumented class. Their parameters are bound by name to the same
+     * method, so clauses with the same negation are identical checks if they resolve to the same clause method,
+     * or to methods overriding one another, which dispatch to the same implementation unless they are private
+     * or static.
+     * @param other another clause.
+     * @return <code>true</code> iff the two clauses represent the same check.
+     */
+    boolean isEquivalentTo(ConditionClause other) {
+        if (this.isNegated != other.isNegated || !this.methodName.equals(other.methodName) ||
+                this.resolvedMethodSymbol.isEmpty() || other.resolvedMethodSymbol.isEmpty()) {
+            return false;
+        }
+        var method = this.resolvedMethodSymbol.get();
+        var otherMethod = other.resolvedMethodSymbol.get();
+        if (method == otherMethod) {
+            return true;
+        }
+        var isDispatched = Stream.of(method, otherMethod).noneMatch((MethodSymbol clauseMethod) ->
+                clauseMethod.getModifiers().contains(Modifier.PRIVATE) || clauseMethod.getModifiers().contains(Modifier.STATIC));
+        return isDispatched && (javac.overrides(method, otherMethod) || javac.overrides(otherMethod, method));
+    }
+
     public boolean isClauseMethodStatic() {
         if (!this.isResolved()) {
             throw new IllegalStateException("Contract method not resolved yet");
@@ -76,6 +76,13 @@ public final class Constants {
      */
     public static final String STATIC_OLD_FIELD_IDENTIFIER_STRING = "$staticOldValuesTable";
 
+    /**
+     * The name of the synthetic static field holding the handle of an instrumented class to its runtime configuration.
+     *
+     * @see ch.usi.si.codelounge.jsicko.plugin.utils.ConfigurationHandle
+     */
+    public static final String CONFIGURATION_HANDLE_FIELD_IDENTIFIER_STRING = "$configurationHandle";
+
     /**
      * The name of the method called to retrieve old values in instance method calls.
      *
@@ -98,10 +105,109 @@ public final class Constants {
      */
     public static final String STATIC_OLD_METHOD_IDENTIFIER_STRING = "staticOld";
 
+    /**
+     * The name of the purity clause declared by the contract interface, checked as a frame condition.
+     *
+     * @see ch.usi.si.codelounge.jsicko.Contract#pure()
+     */
+    public static final String PURITY_CLAUSE_IDENTIFIER_STRING = "pure";
+
     /**
      * The name of the method called to clone objects with Kryo.
      *
      * @see ch.usi.si.codelounge.jsicko.plugin.utils.CloneUtils#kryoClone(Object) kryoClone
      */
     public static final String KRYO_CLONE_METHOD_QUALIFIED_IDENTIFIER = "ch.usi.si.codelounge.jsicko.plugin.utils.CloneUtils.kryoClone";
+
+    /**
+     * The prefix of the synthetic method that holds the precondition checks and the
+     * old values snapshot of an instrumented method.
+     *
+     * Outlining these statements keeps the instrumented method small enough to be
+     * inlined by the JIT compiler.
+     */
+    public static final String PRECONDITION_METHOD_PREFIX = "$pre$";
+
+    /**
+     * The prefix of the synthetic method that holds the postcondition and invariant checks
+     * of an instrumented method.
+     */
+    public static final String POSTCONDITION_METHOD_PREFIX = "$post$";
+
+    /**
+     * The name used in synthetic method names in place of <code>&lt;init&gt;</code>
+     * for instrumented constructors.
+     */
+    public static final String CONSTRUCTOR_SYNTHETIC_NAME = "new";
+
+    /**
+     * The synthetic local variable holding the result of the precondition method in an
+     * instrumented method, i.e., whether the current call is sampled for checking.
+     */
+    public static final String SAMPLED_SYNTHETIC_IDENTIFIER_STRING = "$sampled";
+
+    /**
+     * The synthetic local variable holding whether the current call of an instrumented method is tracked
+     * by {@link ch.usi.si.codelounge.jsicko.plugin.utils.OutermostCalls}.
+     */
+    public static final String TRACKED_SYNTHETIC_IDENTIFIER_STRING = "$tracked";
+
+    /**
+     * The synthetic local variable holding whether postconditions are checked in the current call of an
+     * instrumented method, decided once per call and passed to both synthetic check methods.
+     */
+    public static final String POSTCHECKED_SYNTHETIC_IDENTIFIER_STRING = "$postchecked";
+
+    /**
+     * The synthetic local variable holding the fingerprints of the fields captured before the current call
+     * of an instrumented method with a frame condition, passed to its postcondition method.
+     */
+    public static final String FRAME_SYNTHETIC_IDENTIFIER_STRING = "$frame";
+
+    /**
+     * The synthetic local variable holding whether the caller proved the preconditions of the current call
+     * of an instrumented method (see {@link ch.usi.si.codelounge.jsicko.plugin.PreconditionElision}).
+     */
+    public static final String ELIDED_SYNTHETIC_IDENTIFIER_STRING = "$elided";
+
+    /**
+     * The synthetic local variable holding whether the checks of a synthetic check method are timed,
+     * i.e., whether the instrumented method is sampled adaptively.
+     */
+    public static final String TIMED_SYNTHETIC_IDENTIFIER_STRING = "$timed";
+
+    /**
+     * The synthetic local variable holding the start time of the checks in synthetic check methods.
+     */
+    public static final String CHECK_START_SYNTHETIC_IDENTIFIER_STRING = "$checkStart";
+
+    /**
+     * The synthetic local variable (or parameter, in invariants check methods) holding the results of the pure
+     * clauses shared by the postconditions and the invariants checked by a postcondition method.
+     */
+    public static final String CLAUSE_RESULTS_SYNTHETIC_IDENTIFIER_STRING = "$clauseResults";
+
+    /**
+     * The name of the synthetic method, one per instrumented class, that checks
+     * all the class invariants.
+     */
+    public static final String CHECK_INVARIANTS_METHOD_IDENTIFIER_STRING = "$checkInvariants";
+
+    /**
+     * The prefix of the synthetic fields recording that the contracts of a pure method without parameters
+     * of an immutable class have been checked on an instance.
+     */
+    public static final String VERIFIED_FIELD_PREFIX = "$verified$";
+
+    /**
+     * The name of the condition checker parameter of the synthetic methods, one per
+     * contract-declaring method, that add the declared clauses to the checker of an overriding method.
+     */
+    public static final String CHECKER_PARAMETER_IDENTIFIER_STRING = "$checker";
+
+    /**
+     * The separator between the representation of a clause and the values of its parameters
+     * in violation messages.
+     */
+    public static final String CLAUSE_PARAMS_SEPARATOR_STRING = "; params: ";
 }
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Kinds;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The instrumentation profile of a compilation, given as plugin arguments, e.g.,
+ * <code>-Xplugin:"JSickoContractCompiler checks=pre cost=cheap visibility=public"</code>.
+ *
+ * The supported options are:
+ * <ul>
+ *     <li><code>checks</code>: the condition types instrumented, as a comma-separated list of <code>pre</code>,
+ *     <code>post</code>, <code>inv</code>, or one of <code>all</code> (the default) and <code>none</code>;</li>
+ *     <li><code>old</code>: <code>on</code> (the default) or <code>off</code>, to not save old values (postconditions
+ *     using <code>old</code> then fail);</li>
+ *     <li><code>cost</code>: the most expensive clauses instrumented, i.e., <code>cheap</code>, <code>normal</code>,
+ *     or <code>expensive</code> (the default);</li>
+ *     <li><code>visibility</code>: <code>public</code> to instrument only the public API, i.e., the public methods of
+ *     classes accessible outside their package, or <code>all</code> (the default) to instrument the public methods
+ *     of all the classes;</li>
+ *     <li><code>invariants</code>: <code>incremental</code> (the default) to check after each method only the invariants
+ *     reading fields that the method may write (see {@link FieldDependencies}), or <code>all</code> to check all of them;</li>
+ *     <li><code>purity</code>: <code>trusted</code> (the default) to assume that methods marked pure are pure, or
+ *     <code>fingerprint</code> to verify that they do not modify the instance fields of their class, as a frame condition
+ *     without modifiable fields (see {@link ch.usi.si.codelounge.jsicko.Contract.Modifies});</li>
+ *     <li><code>frames</code>: <code>identity</code> (the default) to fingerprint the reference fields of frame conditions
+ *     by identity, or <code>contents</code> to also hash their content, detecting in-place changes (e.g., of collections
+ *     and arrays) at a cost linear in their size (see {@link ch.usi.si.codelounge.jsicko.plugin.utils.FrameConditions});</li>
+ *     <li><code>elision</code>: <code>on</code> to skip the precondition checks of the calls proven safe at compile time
+ *     (see {@link PreconditionElision}), or <code>off</code> (the default);</li>
+ *     <li><code>include</code> and <code>exclude</code>: comma-separated lists of class (e.g., <code>com.example.Stack</code>,
+ *     including its nested classes) or package (e.g., <code>com.example.*</code>, including subpackages) patterns.
+ *     A class is instrumented if it matches an included pattern (or none is given) and no excluded pattern.</li>
+ * </ul>
+ * Code that is not needed is not generated at all: a disabled category has no runtime overhead.
+ */
+public final class ContractCompilerOptions {
+
+    public static final String CHECKS_OPTION = "checks";
+    public static final String OLD_OPTION = "old";
+    public static final String COST_OPTION = "cost";
+    public static final String VISIBILITY_OPTION = "visibility";
+    public static final String INVARIANTS_OPTION = "invariants";
+    public static final String PURITY_OPTION = "purity";
+    public static final String FRAMES_OPTION = "frames";
+    public static final String ELISION_OPTION = "elision";
+    public static final String INCLUDE_OPTION = "include";
+    public static final String EXCLUDE_OPTION = "exclude";
+
+    private static final String PACKAGE_WILDCARD = ".*";
+
+    private final Set<ContractConditionEnum> enabledConditions;
+    private final boolean oldValuesEnabled;
+    private final Contract.Cost maxCost;
+    private final boolean publicApiOnly;
+    private final boolean incrementalInvariants;
+    private final boolean purityVerified;
+    private final boolean frameContentsHashed;
+    private final boolean elisionEnabled;
+    private final List<String> includePatterns;
+    private final List<String> excludePatterns;
+
+    private ContractCompilerOptions(Set<ContractConditionEnum> enabledConditions, boolean oldValuesEnabled, Contract.Cost maxCost,
+                                    boolean publicApiOnly, boolean incrementalInvariants, boolean purityVerified,
+                                    boolean frameContentsHashed, boolean elisionEnabled, List<String> includePatterns,
+                                    List<String> excludePatterns) {
+        this.enabledConditions = enabledConditions;
+        this.oldValuesEnabled = oldValuesEnabled;
+        this.maxCost = maxCost;
+        this.publicApiOnly = publicApiOnly;
+        this.incrementalInvariants = incrementalInvariants;
+        this.purityVerified = purityVerified;
+        this.frameContentsHashed = frameContentsHashed;
+        this.elisionEnabled = elisionEnabled;
+        this.includePatterns = includePatterns;
+        this.excludePatterns = excludePatterns;
+    }
+
+    /**
+     * Parses the plugin arguments.
+     * @param args the plugin arguments, each one of the form <code>option=value</code>.
+     * @return the compiler options.
+     * @throws IllegalArgumentException if an argument is malformed.
+     */
+    public static ContractCompilerOptions parse(String... args) {
+        Set<ContractConditionEnum> enabledConditions = EnumSet.allOf(ContractConditionEnum.class);
+        var oldValuesEnabled = true;
+        var maxCost = Contract.Cost.EXPENSIVE;
+        var publicApiOnly = false;
+        var incrementalInvariants = true;
+        var purityVerified = false;
+        var frameContentsHashed = false;
+        var elisionEnabled = false;
+        List<String> includePatterns = List.of();
+        List<String> excludePatterns = List.of();
+        for (var arg : args) {
+            var separatorIndex = arg.indexOf('=');
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("[jsicko] malformed plugin option " + arg + ", expected option=value");
+            }
+            var option = arg.substring(0, separatorIndex).trim();
+            var value = arg.substring(separatorIndex + 1).trim();
+            switch (option) {
+                case CHECKS_OPTION:
+                    enabledConditions = ContractConfiguration.parseConditions(value);
+                    break;
+                case OLD_OPTION:
+                    oldValuesEnabled = parseSwitch(option, value);
+                    break;
+                case COST_OPTION:
+                    maxCost = ContractConfiguration.parseCost(value);
+                    break;
+                case VISIBILITY_OPTION:
+                    if (!value.equals("public") && !value.equals("all")) {
+                        throw new IllegalArgumentException("[jsicko] malformed plugin option " + arg + ", expected public or all");
+                    }
+                    publicApiOnly = value.equals("public");
+                    break;
+                case INVARIANTS_OPTION:
+                    if (!value.equals("incremental") && !value.equals("all")) {
+                        throw new IllegalArgumentException("[jsicko] malformed plugin option " + arg + ", expected incremental or all");
+                    }
+                    incrementalInvariants = value.equals("incremental");
+                    break;
+                case PURITY_OPTION:
+                    if (!value.equals("trusted") && !value.equals("fingerprint")) {
+                        throw new IllegalArgumentException("[jsicko] malformed plugin option " + arg + ", expected trusted or fingerprint");
+                    }
+                    purityVerified = value.equals("fingerprint");
+                    break;
+                case FRAMES_OPTION:
+                    if (!value.equals("identity") && !value.equals("contents")) {
+                        throw new IllegalArgumentException("[jsicko] malformed plugin option " + arg + ", expected identity or contents");
+                    }
+                    frameContentsHashed = value.equals("contents");
+                    break;
+                case ELISION_OPTION:
+                    elisionEnabled = parseSwitch(option, value);
+                    break;
+                case INCLUDE_OPTION:
+                    includePatterns = parsePatterns(value);
+                    break;
+                case EXCLUDE_OPTION:
+                    excludePatterns = parsePatterns(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("[jsicko] unknown plugin option " + option);
+            }
+        }
+        return new ContractCompilerOptions(enabledConditions, oldValuesEnabled, maxCost, publicApiOnly, incrementalInvariants,
+                purityVerified, frameContentsHashed, elisionEnabled, includePatterns, excludePatterns);
+    }
+
+    /**
+     * Checks if a condition type is instrumented.
+     * @param conditionType the condition type.
+     * @return <code>true</code> iff the checks of the condition type must be generated.
+     */
+    public boolean isEnabled(ContractConditionEnum conditionType) {
+        return enabledConditions.contains(conditionType);
+    }
+
+    /**
+     * Checks if old values are saved, i.e., if they are enabled and postconditions are instrumented.
+     * @return <code>true</code> iff the code saving old values must be generated.
+     */
+    public boolean isOldValuesEnabled() {
+        return oldValuesEnabled && isEnabled(ContractConditionEnum.POSTCONDITION);
+    }
+
+    /**
+     * Checks if the clauses of a given cost are instrumented.
+     * @param cost the cost of a clause.
+     * @return <code>true</code> iff the clauses of the given cost must be checked.
+     */
+    public boolean isCostEnabled(Contract.Cost cost) {
+        return cost.compareTo(maxCost) <= 0;
+    }
+
+    /**
+     * Checks if each method checks only the invariants it may break.
+     * @return <code>true</code> iff invariants are checked incrementally.
+     */
+    public boolean isIncrementalInvariants() {
+        return incrementalInvariants;
+    }
+
+    /**
+     * Checks if the methods marked pure are verified not to modify the fields of their class.
+     * @return <code>true</code> iff purity is verified by field fingerprints.
+     */
+    public boolean isPurityVerified() {
+        return purityVerified;
+    }
+
+    /**
+     * Checks if the reference fields of frame conditions are fingerprinted by content, besides identity.
+     * @return <code>true</code> iff the content of reference fields is hashed.
+     */
+    public boolean isFrameContentsHashed() {
+        return frameContentsHashed;
+    }
+
+    /**
+     * Checks if the precondition checks of the calls proven safe at compile time are skipped.
+     * @return <code>true</code> iff the static elision pass is enabled.
+     */
+    public boolean isElisionEnabled() {
+        return elisionEnabled && isEnabled(ContractConditionEnum.PRECONDITION);
+    }
+
+    /**
+     * Checks if the methods of a class are instrumented, according to the visibility and the class patterns.
+     * @param classSymbol the class symbol.
+     * @return <code>true</code> iff the class must be instrumented.
+     */
+    public boolean isInstrumented(ClassSymbol classSymbol) {
+        if (publicApiOnly && !isPublicApi(classSymbol)) {
+            return false;
+        }
+        var className = classSymbol.flatName().toString();
+        return (includePatterns.isEmpty() || includePatterns.stream().anyMatch((String pattern) -> matches(pattern, className))) &&
+                excludePatterns.stream().noneMatch((String pattern) -> matches(pattern, className));
+    }
+
+    private static boolean isPublicApi(ClassSymbol classSymbol) {
+        Symbol symbol = classSymbol;
+        while (symbol.kind == Kinds.Kind.TYP) {
+            if ((symbol.flags() & Flags.PUBLIC) == 0) {
+                return false;
+            }
+            symbol = symbol.owner;
+        }
+        return symbol.kind == Kinds.Kind.PCK;
+    }
+
+    private static boolean matches(String pattern, String className) {
+        if (pattern.endsWith(PACKAGE_WILDCARD)) {
+            return className.startsWith(pattern.substring(0, pattern.length() - 1));
+        }
+        return className.equals(pattern) || className.startsWith(pattern + "$");
+    }
+
+    private static boolean parseSwitch(String option, String value) {
+        if (!value.equals("on") && !value.equals("off")) {
+            throw new IllegalArgumentException("[jsicko] malformed plugin option " + option + "=" + value + ", expected on or off");
+        }
+        return value.equals("on");
+    }
+
+    private static List<String> parsePatterns(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter((String pattern) -> !pattern.isEmpty())
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+}
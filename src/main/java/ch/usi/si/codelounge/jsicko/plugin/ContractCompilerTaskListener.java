@@ -33,9 +33,15 @@ import java.util.ResourceBundle;
 public class ContractCompilerTaskListener implements TaskListener {
 
     private final JavacTask task;
+    private final ContractCompilerOptions options;
 
     public ContractCompilerTaskListener(JavacTask task) {
+        this(task, ContractCompilerOptions.parse());
+    }
+
+    public ContractCompilerTaskListener(JavacTask task, ContractCompilerOptions options) {
         this.task = task;
+        this.options = options;
         var context = ((BasicJavacTask) task).getContext();
         var messages = JavacMessages.instance(context);
         var jsickoBundle = ResourceBundle.getBundle("jsicko");
@@ -52,7 +58,7 @@ public class ContractCompilerTaskListener implements TaskListener {
     @Override
     public void finished(TaskEvent e) {
         if (e.getKind() == TaskEvent.Kind.ANALYZE) {
-            e.getCompilationUnit().accept(new ContractCompilerTreeScanner((BasicJavacTask) task), new ArrayDeque<>());
+            e.getCompilationUnit().accept(new ContractCompilerTreeScanner((BasicJavacTask) task, options), new ArrayDeque<>());
         }
 
     }
@@ -22,9 +22,16 @@ package ch.usi.si.codelounge.jsicko.plugin;
 
 import ch.usi.si.codelounge.jsicko.Contract;
 import ch.usi.si.codelounge.jsicko.plugin.diagnostics.JSickoDiagnostic;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ClauseResults;
 import ch.usi.si.codelounge.jsicko.plugin.utils.ConditionChecker;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ConfigurationHandle;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import ch.usi.si.codelounge.jsicko.plugin.utils.DeferredInvariants;
+import ch.usi.si.codelounge.jsicko.plugin.utils.FrameConditions;
 import ch.usi.si.codelounge.jsicko.plugin.utils.JavacUtils;
+import ch.usi.si.codelounge.jsicko.plugin.utils.OutermostCalls;
 
+import com.google.common.collect.Streams;
 import com.sun.source.tree.*;
 import com.sun.source.util.TreeScanner;
 import com.sun.tools.javac.api.BasicJavacTask;
@@ -32,16 +39,26 @@ import com.sun.tools.javac.code.*;
 import com.sun.tools.javac.code.Symbol.*;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.JCTree.*;
+import com.sun.tools.javac.tree.TreeInfo;
 import com.sun.tools.javac.tree.TreeMaker;
 import com.sun.tools.javac.util.Assert;
 import com.sun.tools.javac.util.JCDiagnostic;
 import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
 
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.Modifier;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The tree scanner implementing the compiler for jSicko contracts.
@@ -51,8 +68,10 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
     private final JavacUtils javac;
     private final JSickoContractCompilerState state;
     private final TreeMaker factory;
+    private final ContractCompilerOptions options;
 
-    ContractCompilerTreeScanner(BasicJavacTask task) {
+    ContractCompilerTreeScanner(BasicJavacTask task, ContractCompilerOptions options) {
+        this.options = options;
         this.javac = new JavacUtils(task);
         this.state = new JSickoContractCompilerState(task);
         this.factory = javac.getFactory();
@@ -61,18 +80,105 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
     @Override
     public Void visitCompilationUnit(CompilationUnitTree node, Deque<Tree> relevantScope) {
         this.state.enterCompilationUnit((JCCompilationUnit)node);
+        optionalComputePreconditionElision((JCCompilationUnit) node);
         var w = super.visitCompilationUnit(node, relevantScope);
+        state.preconditionElision().ifPresent(this::recordProvenPreconditions);
         this.state.exitCompilationUnit();
         return w;
     }
 
+    /**
+     * Computes the calls whose preconditions are proven at compile time, before the methods of the compilation
+     * unit are instrumented, if the elision pass is enabled.
+     * @param compilationUnit the currently visited compilation unit.
+     */
+    private void optionalComputePreconditionElision(JCCompilationUnit compilationUnit) {
+        if (options.isElisionEnabled()) {
+            state.setPreconditionElision(PreconditionElision.of(compilationUnit, javac, this::constructDeclaredClauses));
+        }
+    }
+
+    /**
+     * Records the proofs of the elided calls of the compilation unit, i.e., inserts before each call statement
+     * a statement that makes the callee skip its precondition checks.
+     * @param elision the precondition elision of the compilation unit.
+     */
+    private void recordProvenPreconditions(PreconditionElision elision) {
+        var elidedCalls = elision.elidedCalls().stream()
+                .collect(Collectors.toMap(PreconditionElision.ElidedCall::statement, (PreconditionElision.ElidedCall call) -> call,
+                        (PreconditionElision.ElidedCall call, PreconditionElision.ElidedCall otherCall) -> call, IdentityHashMap::new));
+        if (elidedCalls.isEmpty()) {
+            return;
+        }
+        new com.sun.tools.javac.tree.TreeScanner() {
+            @Override
+            public void visitBlock(JCBlock block) {
+                super.visitBlock(block);
+                if (block.stats.stream().noneMatch(elidedCalls::containsKey)) {
+                    return;
+                }
+                var stats = new ListBuffer<JCStatement>();
+                for (var statement : block.stats) {
+                    var elidedCall = elidedCalls.get(statement);
+                    if (elidedCall != null) {
+                        stats.append(buildElidePreconditionStatement(elidedCall));
+                        state.logNote(elidedCall.invocation().pos(), JSickoDiagnostic.ElidedPreconditionNote(elidedCall.callee(), elidedCall.caller()));
+                    }
+                    stats.append(statement);
+                }
+                block.stats = stats.toList();
+            }
+        }.scan(state.currentCompilationUnitTree().get());
+    }
+
+    /**
+     * Builds the statement recording that the preconditions of an elided call are proven.
+     * @param elidedCall the elided call.
+     * @return the statement calling {@link ConditionChecker#elidePrecondition(Object, Class, String)}.
+     */
+    private JCStatement buildElidePreconditionStatement(PreconditionElision.ElidedCall elidedCall) {
+        var callee = elidedCall.callee();
+        JCExpression receiver;
+        JCExpression type;
+        if (callee.isStatic()) {
+            receiver = buildNullLiteral();
+            type = buildNullLiteral();
+        } else {
+            receiver = elidedCall.receiver()
+                    .map((JCExpression localVariable) -> (JCExpression) factory.Ident(((JCIdent) localVariable).sym))
+                    .orElseGet(() -> factory.This(elidedCall.caller().enclClass().type));
+            type = factory.ClassLiteral((ClassSymbol) callee.owner);
+        }
+        return javac.MethodCall(javac.unnamedModule(), javac.Expression(javac.unnamedModule(), ConditionChecker.class.getCanonicalName()),
+                javac.Name("elidePrecondition"), List.of(receiver, type, factory.Literal(elidedMethodKey(callee))));
+    }
+
+    private JCExpression buildNullLiteral() {
+        var nullLiteral = javac.nullLiteral();
+        nullLiteral.setType(javac.botType());
+        return nullLiteral;
+    }
+
+    /**
+     * Returns the key identifying a method in the proofs of elided calls, i.e., its class and its signature.
+     * @param methodSymbol the method.
+     * @return the key of the method.
+     */
+    private String elidedMethodKey(MethodSymbol methodSymbol) {
+        return ((ClassSymbol) methodSymbol.owner).flatname + "#" + methodSymbol;
+    }
+
     @Override
     public Void visitClass(ClassTree classTree, Deque<Tree> relevantScope) {
         var classDecl = (JCClassDecl) classTree;
+        this.checkImmutability(classDecl);
 
         this.state.currentCompilationUnitTree().ifPresent((CompilationUnitTree currentCompilationUnitTree) -> {
             this.state.enterClassDecl(classDecl);
             optionalDeclareOldVariableAndMethod();
+            optionalDeclareConfigurationHandleField(classDecl);
+            optionalComputeFieldDependencies(classDecl);
+            optionalComputeSharedClauses(classDecl);
         });
 
         var w = super.visitClass(classTree, relevantScope);
@@ -81,22 +187,62 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
         return w;
     }
 
+    /**
+     * Computes the fields read and written by the methods of a class with invariants, before its methods
+     * are instrumented, if invariants are checked incrementally.
+     * @param classDecl the currently visited class.
+     */
+    private void optionalComputeFieldDependencies(JCClassDecl classDecl) {
+        if (options.isIncrementalInvariants() && !state.classInvariants().isEmpty()) {
+            var classClosure = javac.typeClosure(classDecl.sym.type).stream()
+                    .map((Type type) -> (Symbol) type.tsym).collect(Collectors.toSet());
+            state.setFieldDependencies(FieldDependencies.of(classDecl, classClosure, this::isMarkedAsPureOrIsSpecialPureMethod));
+        }
+    }
+
+    /**
+     * Computes the pure invariant clauses of a class that are also postcondition clauses of some of its methods,
+     * before its methods are instrumented, so that the invariants check method can share their results with the
+     * postcondition methods (see {@link #optionalDeclareClauseResults(JCMethodDecl, JCMethodDecl, boolean, List)}).
+     * @param classDecl the currently visited class.
+     */
+    private void optionalComputeSharedClauses(JCClassDecl classDecl) {
+        if (!options.isEnabled(ContractConditionEnum.INVARIANT) || !options.isEnabled(ContractConditionEnum.POSTCONDITION) ||
+                state.classInvariants().isEmpty()) {
+            return;
+        }
+        var invariantNames = state.classInvariants().stream()
+                .filter((ConditionClause invariant) -> isMarkedAsPure(invariant.getResolvedMethodSymbol().get()))
+                .map(ConditionClause::getMethodName)
+                .collect(Collectors.toSet());
+        var sharedNames = classDecl.defs.stream()
+                .filter((JCTree def) -> def instanceof JCMethodDecl && ((JCMethodDecl) def).sym != null)
+                .flatMap((JCTree def) -> javac.findOverriddenMethods(classDecl, (JCMethodDecl) def).stream())
+                .flatMap((Symbol method) -> constructDeclaredClauses(ContractConditionEnum.POSTCONDITION, (MethodSymbol) method).stream())
+                .map(ConditionClause::getMethodName)
+                .filter(invariantNames::contains)
+                .collect(Collectors.toSet());
+        state.setSharedClauseNames(sharedNames);
+    }
+
     @Override
     public Void visitMethod(MethodTree methodTree, Deque<Tree> relevantScope) {
         var methodDecl = (JCMethodDecl) methodTree;
         this.checkAnnotations(methodDecl);
 
         this.state.enterMethodDecl(methodDecl);
+        declareSharedCheckMethods(methodDecl);
 
-        if (this.state.currentMethodShouldBeInstrumented()) {
+        if (this.state.currentMethodShouldBeInstrumented() && options.isInstrumented(state.currentClassDecl().get().sym)) {
 
             List<List<ConditionClause>> classInvariants = List.of(state.classInvariants());
 
-            final List<Symbol> overriddenMethods = state.findOverriddenMethodsOfCurrentMethod();
+            final List<Symbol> overriddenMethods = isConstructorOfImmutableClass(methodDecl) ?
+                    List.of(methodDecl.sym) : state.findOverriddenMethodsOfCurrentMethod();
 
             if (overriddenMethods.size() > 0) {
                 List<List<ConditionClause>> requireClausesByMethod = constructRequireClausesByMethod(overriddenMethods);
-                List<ConditionClause> ensuresClauses = constructEnsureClauses(overriddenMethods);
+                List<List<ConditionClause>> ensuresClausesByMethod = constructEnsureClausesByMethod(overriddenMethods);
                 var isMarkedPure = isAnyMethodMarkedAsOrMustBePure(overriddenMethods);
 
                 declareRaisesValueCatcher();
@@ -104,10 +250,33 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
                 optionalDeclareReturnValueCatcher();
                 appendRaisesValueCatcher();
 
-                addOldValuesTableInstrumentation(isMarkedPure, tryBlock);
-                addConditions(ContractConditionEnum.PRECONDITION, methodDecl.body, isMarkedPure, requireClausesByMethod);
-                addConditions(ContractConditionEnum.POSTCONDITION, tryBlock.finalizer, isMarkedPure, List.of(ensuresClauses));
-                addConditions(ContractConditionEnum.INVARIANT, tryBlock.finalizer, isMarkedPure, classInvariants);
+                var preconditionMethod = createSyntheticCheckMethod(methodDecl, Constants.PRECONDITION_METHOD_PREFIX, false);
+                var postconditionMethod = createSyntheticCheckMethod(methodDecl, Constants.POSTCONDITION_METHOD_PREFIX, true);
+
+                if (options.isOldValuesEnabled()) {
+                    addOldValuesTableInstrumentation(isMarkedPure, preconditionMethod, postconditionMethod);
+                }
+                var statsBeforePreconditions = preconditionMethod.getBody().stats;
+                addConditions(ContractConditionEnum.PRECONDITION, methodDecl, preconditionMethod, isMarkedPure, requireClausesByMethod, Optional.empty());
+                var elidedVarDecl = optionalAddPreconditionElision(methodDecl, preconditionMethod, statsBeforePreconditions);
+                var clauseResults = optionalDeclareClauseResults(methodDecl, postconditionMethod, isMarkedPure, ensuresClausesByMethod);
+                var clauseResultsSymbol = clauseResults.map((JCVariableDecl varDecl) -> varDecl.sym);
+                addConditions(ContractConditionEnum.POSTCONDITION, methodDecl, postconditionMethod, isMarkedPure, ensuresClausesByMethod, clauseResultsSymbol);
+                var checksInvariants = addInvariantsCheck(methodDecl, postconditionMethod, isMarkedPure, classInvariants, clauseResultsSymbol);
+                clauseResults.ifPresent((JCVariableDecl varDecl) ->
+                        postconditionMethod.body.stats = postconditionMethod.body.stats.prepend(varDecl));
+                var frameCapture = addFrameCondition(methodDecl, overriddenMethods, isMarkedPure, preconditionMethod, postconditionMethod);
+                var memoizesChecks = isMarkedPure && postconditionMethod.getBody().stats.nonEmpty() && isMemoizable(methodDecl);
+
+                outlineSyntheticCheckMethods(preconditionMethod, postconditionMethod, tryBlock, frameCapture);
+                if (checksInvariants) {
+                    addOutermostCallTracking(methodDecl, tryBlock);
+                }
+                if (memoizesChecks) {
+                    addChecksMemoization(methodDecl, preconditionMethod, postconditionMethod);
+                }
+                elidedVarDecl.ifPresent((JCVariableDecl varDecl) ->
+                        preconditionMethod.body.stats = preconditionMethod.body.stats.prepend(varDecl));
             }
         }
 
@@ -118,6 +287,77 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
         return w;
     }
 
+    /**
+     * Checks that a class declared immutable declares only final instance fields.
+     * @param classDecl the class declaration.
+     */
+    private void checkImmutability(JCClassDecl classDecl) {
+        if (isImmutable(classDecl.sym)) {
+            classDecl.defs.stream()
+                    .filter((JCTree def) -> def instanceof JCVariableDecl)
+                    .map((JCTree def) -> (JCVariableDecl) def)
+                    .filter((JCVariableDecl fieldDecl) -> (fieldDecl.sym.flags() & (Flags.STATIC | Flags.FINAL)) == 0)
+                    .forEach((JCVariableDecl fieldDecl) -> this.state.logError(fieldDecl.pos(), JSickoDiagnostic.ImmutableClassHasMutableField(classDecl, fieldDecl)));
+        }
+    }
+
+    private boolean isImmutable(Symbol classSymbol) {
+        return classSymbol.getAnnotation(Contract.Immutable.class) != null;
+    }
+
+    /**
+     * Checks if a method is a constructor of an immutable class, which is instrumented to check the invariants.
+     *
+     * Constructors are otherwise not instrumented (they are also called, e.g., when old values are cloned).
+     * @param methodDecl the method.
+     * @return <code>true</code> iff the method is a constructor of an immutable class.
+     */
+    private boolean isConstructorOfImmutableClass(JCMethodDecl methodDecl) {
+        return methodDecl.sym.isConstructor() && isImmutable(methodDecl.sym.owner);
+    }
+
+    /**
+     * Checks if the contracts of a pure method can be checked only at its first call on each instance, i.e.,
+     * if it is an instance method without parameters of an immutable class whose state cannot change: its result,
+     * and the result of its clauses, only depend on the (final) state of the receiver.
+     * @param methodDecl the instrumented method.
+     * @return <code>true</code> iff the checks of the method can be memoized.
+     */
+    private boolean isMemoizable(JCMethodDecl methodDecl) {
+        if (methodDecl.sym.isStatic() || methodDecl.sym.isConstructor() || !methodDecl.getParameters().isEmpty() ||
+                !isImmutable(methodDecl.sym.owner)) {
+            return false;
+        }
+        if (!hasImmutableState((ClassSymbol) methodDecl.sym.owner)) {
+            state.logNote(methodDecl.pos(), JSickoDiagnostic.UnmemoizedChecksNote(methodDecl.sym));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the state of the instances of an immutable class cannot change after construction, as far as
+     * the compiler can tell, since it only checks that the class declares final instance fields: the class must be
+     * final, since {@link Contract.Immutable} is not inherited, and the instance fields of the class and of its
+     * superclasses must be final, and must not be arrays, collections, or maps.
+     * @param classSymbol the immutable class.
+     * @return <code>true</code> iff the state of the instances of the class cannot change.
+     */
+    private boolean hasImmutableState(ClassSymbol classSymbol) {
+        if ((classSymbol.flags() & Flags.FINAL) == 0) {
+            return false;
+        }
+        for (Type type = classSymbol.type; type.hasTag(TypeTag.CLASS); type = javac.supertype(type)) {
+            for (Symbol member : type.tsym.members().getSymbols()) {
+                if (member.kind == Kinds.Kind.VAR && (member.flags() & (Flags.STATIC | Flags.SYNTHETIC)) == 0 &&
+                        ((member.flags() & Flags.FINAL) == 0 || javac.isContainerType(member.type))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * Check annotations on method declaration for usage errors.
      *
@@ -139,27 +379,83 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
                 this.state.logError(methodDecl.pos(), JSickoDiagnostic.InvariantIsNotBoolean(methodDecl));
             }
         }
+        declaredModifiableFields(methodDecl.sym).ifPresent((Set<String> fieldNames) -> {
+            var instanceFieldNames = declaredInstanceFields(methodDecl.sym.owner).stream()
+                    .map((VarSymbol fieldSymbol) -> fieldSymbol.getSimpleName().toString())
+                    .collect(Collectors.toSet());
+            fieldNames.stream()
+                    .filter((String fieldName) -> !instanceFieldNames.contains(fieldName))
+                    .sorted()
+                    .forEach((String fieldName) -> this.state.logError(methodDecl.pos(), JSickoDiagnostic.ModifiesUnknownField(methodDecl, fieldName)));
+        });
     }
 
     /**
      * From a list of method symbols that represent the sequence of overridden methods, constructs a list of
-     * condition clauses, each one representing a postcondition clause of a particular overridden method.
+     * lists of condition clauses, each one representing the postconditions of a particular overridden method.
      *
      * The order must respect a) the order of postcondition strengthenings, i.e. the order of overrides, and
-     * b) the clause order in a given postcondition annotation in a method.
+     * b) the clause order in a given postcondition annotation in a method. The returned list thus corresponds to
+     * a conjunction of conjunctions of clauses.
      *
      * @param overriddenMethods a list of symbols corresponding to the overridden symbols of a given method, including the
      *                          method itself.
-     * @return a list of condition clauses, representing the postconditions for a given method.
+     * @return a list of lists of condition clauses, representing the postcondition strengthenings.
      */
-    private List<ConditionClause> constructEnsureClauses(List<Symbol> overriddenMethods) {
-        return overriddenMethods.stream().flatMap((Symbol overriddenMethod) ->
-                Arrays.stream(overriddenMethod.getAnnotationsByType(Contract.Ensures.class))
-                .flatMap((Contract.Ensures ensuresClauseGroup) -> ConditionClause.from(ensuresClauseGroup, overriddenMethod, this.javac, this.state)
-                        .stream()))
+    private List<List<ConditionClause>> constructEnsureClausesByMethod(List<Symbol> overriddenMethods) {
+        return overriddenMethods.stream()
+                .map((Symbol overriddenMethod) -> constructDeclaredClauses(ContractConditionEnum.POSTCONDITION, (MethodSymbol) overriddenMethod))
+                .filter(List::nonEmpty)
                 .collect(List.collector());
     }
 
+    /**
+     * Constructs the clauses of a given condition type declared by a method, flattened in a single group
+     * (a method can repeat the annotations, e.g., to declare clauses of different costs).
+     * @param conditionType the condition type, either precondition or postcondition.
+     * @param methodSymbol the method declaring the clauses.
+     * @return the list of clauses declared by the method.
+     */
+    private List<ConditionClause> constructDeclaredClauses(ContractConditionEnum conditionType, MethodSymbol methodSymbol) {
+        if (conditionType.equals(ContractConditionEnum.PRECONDITION)) {
+            return Arrays.stream(methodSymbol.getAnnotationsByType(Contract.Requires.class))
+                    .flatMap((Contract.Requires requiresClauseGroup) -> ConditionClause.from(requiresClauseGroup, methodSymbol, this.javac, this.state).stream())
+                    .collect(List.collector());
+        } else {
+            return Arrays.stream(methodSymbol.getAnnotationsByType(Contract.Ensures.class))
+                    .flatMap((Contract.Ensures ensuresClauseGroup) -> ConditionClause.from(ensuresClauseGroup, methodSymbol, this.javac, this.state).stream())
+                    .filter((ConditionClause clause) -> !isContractPurityClause(clause))
+                    .collect(List.collector());
+        }
+    }
+
+    /**
+     * Checks if a method declares the purity postcondition of {@link Contract#pure()}.
+     * @param methodSymbol the method.
+     * @return <code>true</code> iff the method has a <code>pure</code> clause resolving to {@link Contract#pure()}.
+     */
+    private boolean declaresContractPurityClause(Symbol methodSymbol) {
+        return Arrays.stream(methodSymbol.getAnnotationsByType(Contract.Ensures.class))
+                .flatMap((Contract.Ensures ensuresClauseGroup) -> ConditionClause.from(ensuresClauseGroup, methodSymbol, this.javac, this.state).stream())
+                .anyMatch(this::isContractPurityClause);
+    }
+
+    /**
+     * Checks if a postcondition clause is the purity check of {@link Contract#pure()}, i.e., if it is not negated and
+     * resolves to the default method of {@link Contract} (and not to an override) in the type declaring it.
+     *
+     * Such clauses are not evaluated as <code>this.equals(old(this))</code>, which needs a deep snapshot of the receiver
+     * before each call: they are checked as a frame condition with no modifiable fields.
+     * @param clause a postcondition clause.
+     * @return <code>true</code> iff the clause is the purity check of the contract interface.
+     */
+    private boolean isContractPurityClause(ConditionClause clause) {
+        return !clause.isNegated() && clause.getMethodName().contentEquals(Constants.PURITY_CLAUSE_IDENTIFIER_STRING) &&
+                clause.resolveInDeclaringType()
+                        .map((MethodSymbol clauseMethod) -> clauseMethod.owner.getQualifiedName().contentEquals(Contract.class.getCanonicalName()))
+                        .orElse(false);
+    }
+
     /**
      * From a list of method symbols that represent the sequence of overridden methods, constructs a list of
      * lists of condition clauses, each one representing the preconditions of a particular overridden method.
@@ -173,10 +469,9 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
      */
     private List<List<ConditionClause>> constructRequireClausesByMethod(List<Symbol> overriddenMethods) {
         return overriddenMethods.stream()
-                .flatMap((Symbol overriddenMethod) -> {
-                    return Arrays.stream(overriddenMethod.getAnnotationsByType(Contract.Requires.class))
-                            .map((Contract.Requires requiresClauseGroup) -> ConditionClause.from(requiresClauseGroup, overriddenMethod, this.javac, this.state));
-                }).collect(List.collector());
+                .map((Symbol overriddenMethod) -> constructDeclaredClauses(ContractConditionEnum.PRECONDITION, (MethodSymbol) overriddenMethod))
+                .filter(List::nonEmpty)
+                .collect(List.collector());
     }
 
     /**
@@ -227,58 +522,88 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
      * Adds statements to support saving and retrieving old values.
      *
      * In particular, it appends the enter/leave scope statement for the old value table,
-     * and saves the pre-values of this and the input parameters.
+     * and saves the pre-values of this and the input parameters. Since old values are used only
+     * by postconditions, these statements are executed only if postconditions are checked in the current
+     * call, as decided once by the postcondition gate of the method (see {@link #addPostconditionGate}):
+     * then every scope entered is left, even if the runtime configuration changes during the call.
      * @param isMarkedPure a cached value for the purity of the declaring method.
-     * @param tryBlock the block where to add the instrumentation statements.
+     * @param preconditionMethod the synthetic method where to add the enter scope and save statements.
+     * @param postconditionMethod the synthetic method where to add the leave scope statement.
      */
-    private void addOldValuesTableInstrumentation(boolean isMarkedPure, JCTry tryBlock) {
+    private void addOldValuesTableInstrumentation(boolean isMarkedPure, JCMethodDecl preconditionMethod, JCMethodDecl postconditionMethod) {
         this.state.ifMethodDeclPresent((JCMethodDecl methodDecl) -> {
             if (!methodDecl.sym.isConstructor() && !isMarkedPure) {
-                optionalSaveOldState();
-                addEnterScopeStatement();
-                addLeaveScopeStatement(tryBlock.finalizer);
+                optionalSaveOldState(preconditionMethod);
+                addEnterScopeStatement(methodDecl.sym, preconditionMethod.getBody());
+                addLeaveScopeStatement(postconditionMethod.getBody());
+                addPostconditionGate(preconditionMethod, postconditionMethod);
+                preconditionMethod.body.stats = buildGatedStatements(ContractConditionEnum.POSTCONDITION, methodDecl, preconditionMethod, preconditionMethod.body.stats);
+                postconditionMethod.body.stats = buildGatedStatements(ContractConditionEnum.POSTCONDITION, methodDecl, postconditionMethod, postconditionMethod.body.stats);
             }
         });
     }
 
+    /**
+     * Adds the postcondition gate to the synthetic check methods of an instrumented method, i.e., a parameter
+     * holding whether postconditions are checked in the current call, unless already added.
+     *
+     * The instrumented method decides it once per call, before calling the precondition method, so that the
+     * statements preparing the postcondition checks (e.g., saving old values) and the checks themselves are
+     * either both executed or both skipped. Postcondition statements added afterwards are guarded by the gate
+     * instead of the runtime configuration (see {@link #buildGatedStatements(ContractConditionEnum, JCMethodDecl, JCMethodDecl, List)}).
+     * @param preconditionMethod the synthetic precondition method.
+     * @param postconditionMethod the synthetic postcondition method.
+     */
+    private void addPostconditionGate(JCMethodDecl preconditionMethod, JCMethodDecl postconditionMethod) {
+        if (findSyntheticParam(preconditionMethod, Constants.POSTCHECKED_SYNTHETIC_IDENTIFIER_STRING).isEmpty()) {
+            appendSyntheticParam(preconditionMethod, Constants.POSTCHECKED_SYNTHETIC_IDENTIFIER_STRING, javac.booleanType());
+            appendSyntheticParam(postconditionMethod, Constants.POSTCHECKED_SYNTHETIC_IDENTIFIER_STRING, javac.booleanType());
+        }
+    }
+
     /**
      * Appends the enter scope statement for the old values table.
+     * @param methodSymbol the instrumented method, i.e., the scope to enter to.
+     * @param block the block where to prepend the statement.
      */
-    private void addEnterScopeStatement() {
-        this.state.ifMethodDeclPresent((JCMethodDecl methodDecl) -> this.state.optionalOldValuesTableField().ifPresent((JCVariableDecl oldValuesTableField) -> {
-            JCMethodInvocation enterScopeStatement = buildEnterScopeStatement(methodDecl.sym);
-            methodDecl.getBody().stats = methodDecl.getBody().stats.prepend(factory.Exec(enterScopeStatement));
-        }));
+    private void addEnterScopeStatement(MethodSymbol methodSymbol, JCBlock block) {
+        this.state.optionalOldValuesTableField().ifPresent((JCVariableDecl oldValuesTableField) -> {
+            JCMethodInvocation enterScopeStatement = buildEnterScopeStatement(methodSymbol);
+            block.stats = block.stats.prepend(factory.Exec(enterScopeStatement));
+        });
     }
 
     /**
      * Add the leave-scope statement for the old values table.
-     * @param finalizer the finalizer block of the instrumentation try-catch-finally statement.
+     * @param block the block where to prepend the statement.
      */
-    private void addLeaveScopeStatement(JCBlock finalizer) {
+    private void addLeaveScopeStatement(JCBlock block) {
         JCMethodInvocation leaveScopeStatement = buildLeaveScopeStatement();
-        finalizer.stats = finalizer.stats.prepend(factory.Exec(leaveScopeStatement));
+        block.stats = block.stats.prepend(factory.Exec(leaveScopeStatement));
     }
 
     /**
      * Optionally adds statements to save the old state of this/local variables in the old values table.
+     * @param preconditionMethod the synthetic method where to add the statements, whose parameters
+     *                           mirror the ones of the instrumented method.
      */
-    private void optionalSaveOldState() {
+    private void optionalSaveOldState(JCMethodDecl preconditionMethod) {
         this.state.ifMethodDeclPresent((JCMethodDecl methodDecl) ->
                 this.state.optionalOldValuesTableField().ifPresent((JCVariableDecl oldValuesTableField) -> {
 
             var oldValuesTableFieldDecl = this.state.oldValuesTableFieldDeclByMethodType();
+            var block = preconditionMethod.getBody();
 
             if (!methodDecl.sym.isStatic()) {
                 JCStatement saveThisOldValueStatement = buildStatementToSaveThisOldValue(oldValuesTableFieldDecl);
-                methodDecl.getBody().stats = methodDecl.getBody().stats.prepend(saveThisOldValueStatement);
+                block.stats = block.stats.prepend(saveThisOldValueStatement);
             }
 
-            var saveLocalVariableOldValueStatements = methodDecl.getParameters().stream().map((JCVariableDecl paramDecl) ->
+            var saveLocalVariableOldValueStatements = preconditionMethod.getParameters().stream().map((JCVariableDecl paramDecl) ->
                     buildStatementToSaveLocalVariableOldValue(oldValuesTableFieldDecl, paramDecl))
                     .collect(List.collector());
 
-            methodDecl.getBody().stats = methodDecl.getBody().stats.prependList(saveLocalVariableOldValueStatements);
+            block.stats = block.stats.prependList(saveLocalVariableOldValueStatements);
 
         }));
     }
@@ -418,6 +743,55 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
         });
     }
 
+    /**
+     * Optionally declares the field holding the handle of the currently instrumented class to its runtime
+     * configuration, so that checks read the field instead of looking up the class by name.
+     *
+     * Enums do not declare it, since their constants, and thus their instrumented constructors, are initialized
+     * before any other static field: their checks look up the handle by name (see {@link #buildConfigurationHandle}).
+     * @param classDecl the currently visited class.
+     */
+    private void optionalDeclareConfigurationHandleField(JCClassDecl classDecl) {
+        if (!state.currentClassHasContract() || !state.currentClassCanHaveStaticDecls() || (classDecl.sym.flags() & Flags.ENUM) != 0) {
+            return;
+        }
+        var handleType = javac.retrieveType(javac.unnamedModule(), ConfigurationHandle.class.getCanonicalName());
+        var varSymbol = new VarSymbol(Flags.PUBLIC | Flags.STATIC | Flags.FINAL | Flags.SYNTHETIC,
+                javac.Name(Constants.CONFIGURATION_HANDLE_FIELD_IDENTIFIER_STRING), handleType, classDecl.sym);
+        state.appendConfigurationHandleField(factory.VarDef(varSymbol, buildConfigurationHandleLookup(classDecl.sym)));
+    }
+
+    /**
+     * Builds the expression evaluating to the handle of the class declaring an instrumented method, i.e., its
+     * synthetic field, if declared, and otherwise a lookup by name.
+     *
+     * The field is read only if already initialized, since a class can be called during its own initialization
+     * (e.g., by the static initializer of a superclass).
+     * @param methodDecl the instrumented method.
+     * @return the expression of the handle.
+     */
+    private JCExpression buildConfigurationHandle(JCMethodDecl methodDecl) {
+        var classSymbol = (ClassSymbol) methodDecl.sym.owner;
+        return state.optionalConfigurationHandleField().<JCExpression>map((JCVariableDecl handleField) -> {
+            var isInitialized = factory.Binary(Tag.NE, factory.Ident(handleField.sym), buildNullLiteral());
+            javac.setReferenceInequalityOperator(isInitialized);
+            var handle = factory.Conditional(isInitialized, factory.Ident(handleField.sym), buildConfigurationHandleLookup(classSymbol));
+            handle.setType(handleField.sym.type);
+            return handle;
+        }).orElseGet(() -> buildConfigurationHandleLookup(classSymbol));
+    }
+
+    /**
+     * Builds the invocation looking up the handle of a class by name.
+     * @param classSymbol the instrumented class.
+     * @return the invocation expression.
+     */
+    private JCMethodInvocation buildConfigurationHandleLookup(ClassSymbol classSymbol) {
+        return javac.MethodInvocation(javac.unnamedModule(),
+                javac.Expression(javac.unnamedModule(), ContractConfiguration.class.getCanonicalName()), javac.Name("handle"),
+                List.of(factory.Literal(classSymbol.flatname.toString())));
+    }
+
     /**
      * Declares the old values table field.
      * @param declareTheStaticOne if the method needs to declare the static one.
@@ -587,30 +961,859 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
     }
 
     /**
-     * Adds conditions to the instrumented method.
+     * Adds conditions to the synthetic check method of an instrumented method.
      * @param conditionType the type of the condition (precondition, postcondition, invariant).
-     * @param block the block where to append the conditions.
+     * @param methodDecl the instrumented method.
+     * @param checkMethod the synthetic method where to append the conditions.
      * @param isMarkedPure if the method is marked pure.
-     * @param groupedClauses the list of clauses grouped by overriding method, and ordered by hierarchy (starting from
-     *                       the method in the topmost class).
+     * @param clauses the list of clauses grouped by overriding method, and ordered by hierarchy (starting from
+     *                the method in the topmost class).
+     * @param clauseResults the local variable holding the clause results shared with the invariants check, if any.
      */
-    private void addConditions(ContractConditionEnum conditionType, JCBlock block, boolean isMarkedPure, List<List<ConditionClause>> groupedClauses) {
-        this.state.ifMethodDeclPresent((JCMethodDecl methodDecl) -> {
-            if (shouldAddConditions(conditionType, methodDecl, isMarkedPure, groupedClauses)) {
-                if (groupedClauses.size() > 0) {
-                    state.logNote(methodDecl.pos(), JSickoDiagnostic.ConditionCheckNote(methodDecl.sym, conditionType, groupedClauses));
+    private void addConditions(ContractConditionEnum conditionType, JCMethodDecl methodDecl, JCMethodDecl checkMethod, boolean isMarkedPure,
+                               List<List<ConditionClause>> clauses, Optional<VarSymbol> clauseResults) {
+        var deduplications = new ListBuffer<String>();
+        var groupedClauses = normalizeConditions(conditionType, selectInstrumentedConditions(conditionType, clauses), deduplications);
+        if (shouldAddConditions(conditionType, methodDecl, isMarkedPure, groupedClauses)) {
+            if (groupedClauses.size() > 0) {
+                state.logNote(methodDecl.pos(), JSickoDiagnostic.ConditionCheckNote(methodDecl.sym, conditionType, groupedClauses, deduplications.toList()));
+            }
+
+            /*
+             * Postcondition clauses are bound to the returns and raises parameters of the synthetic method.
+             * Precondition clauses keep the original bindings, so misuses of returns and raises are reported as usual.
+             */
+            var raisesVarDecl = findSyntheticParam(checkMethod, Constants.RAISES_SYNTHETIC_IDENTIFIER_STRING);
+            var body = checkMethod.getBody();
+            if (raisesVarDecl.isPresent()) {
+                var returnVarDecl = findSyntheticParam(checkMethod, Constants.RETURNS_SYNTHETIC_IDENTIFIER_STRING);
+                state.withReturnAndRaisesVarDecls(returnVarDecl, raisesVarDecl, () ->
+                        body.stats = body.stats.prependList(buildGatedStatements(conditionType, methodDecl, checkMethod,
+                                buildConditionsChecker(conditionType, methodDecl, checkMethod, groupedClauses, clauseResults))));
+            } else {
+                body.stats = body.stats.prependList(buildGatedStatements(conditionType, methodDecl, checkMethod,
+                        buildConditionsChecker(conditionType, methodDecl, checkMethod, groupedClauses, clauseResults)));
+            }
+        }
+    }
+
+    /**
+     * Selects the clauses instrumented according to the compiler options, i.e., the enabled condition
+     * types and the clauses within the compile-time cost threshold.
+     *
+     * Clauses above the threshold are considered satisfied: postconditions and invariants drop them (and the
+     * groups left empty), while a precondition weakening left empty is trivially satisfied, and so is the
+     * whole precondition.
+     * @param conditionType the type of the condition.
+     * @param groupedClauses the clauses grouped by overriding method.
+     * @return the instrumented clauses, grouped by overriding method.
+     */
+    private List<List<ConditionClause>> selectInstrumentedConditions(ContractConditionEnum conditionType, List<List<ConditionClause>> groupedClauses) {
+        if (!options.isEnabled(conditionType)) {
+            return List.nil();
+        }
+        var selectedClauses = groupedClauses.map((List<ConditionClause> conditionGroup) ->
+                conditionGroup.stream().filter((ConditionClause clause) -> options.isCostEnabled(clause.getCost())).collect(List.collector()));
+        if (conditionType.equals(ContractConditionEnum.PRECONDITION) &&
+                Streams.zip(groupedClauses.stream(), selectedClauses.stream(), (List<ConditionClause> group, List<ConditionClause> selectedGroup) ->
+                        group.nonEmpty() && selectedGroup.isEmpty()).anyMatch(Boolean::booleanValue)) {
+            return List.nil();
+        }
+        return selectedClauses.stream().filter(List::nonEmpty).collect(List.collector());
+    }
+
+    /**
+     * Normalizes the clauses of a condition, so that the same check is not evaluated twice, e.g., when a clause is
+     * inherited through several paths in the contract hierarchy or is re-declared by an overriding method.
+     *
+     * Pre- and postcondition clauses are first resolved in the instrumented class (errors are reported when their
+     * checks are built), and clauses are compared by the clause methods they resolve to (see
+     * {@link ConditionClause#isEquivalentTo(ConditionClause)}), and among equivalent clauses the cheapest one is kept,
+     * so that a clause declared cheap somewhere is not dropped by a cost threshold.
+     * Postconditions and invariants are conjunctions, so only one of the equivalent clauses is kept
+     * (and the groups left empty are removed). Preconditions are disjunctions of conjunctions: duplicate clauses
+     * are removed from each group, and groups implied by another group (i.e., with a superset of its clauses) are
+     * folded into it, since they can not weaken the precondition.
+     * @param conditionType the type of the condition.
+     * @param groupedClauses the clauses grouped by overriding method.
+     * @param deduplications a buffer collecting a description of each deduplication, for reporting purposes.
+     * @return the normalized clauses, grouped by overriding method.
+     */
+    private List<List<ConditionClause>> normalizeConditions(ContractConditionEnum conditionType, List<List<ConditionClause>> groupedClauses, ListBuffer<String> deduplications) {
+        if (!conditionType.equals(ContractConditionEnum.INVARIANT)) {
+            var classDecl = state.currentClassDecl().get();
+            groupedClauses.forEach((List<ConditionClause> group) -> group.forEach((ConditionClause clause) -> clause.resolveContractMethod(classDecl)));
+        }
+        if (conditionType.equals(ContractConditionEnum.PRECONDITION)) {
+            var conjunctions = groupedClauses.map((List<ConditionClause> group) ->
+                    removeDuplicateConjuncts(group, group, deduplications));
+            return foldDuplicateDisjuncts(conjunctions, deduplications);
+        }
+        var allClauses = groupedClauses.stream().flatMap(List::stream).collect(List.collector());
+        return groupedClauses.stream()
+                .map((List<ConditionClause> group) -> removeDuplicateConjuncts(group, allClauses, deduplications))
+                .filter((List<ConditionClause> group) -> group.nonEmpty())
+                .collect(List.collector());
+    }
+
+    /**
+     * Removes from a conjunction of clauses the ones for which an equivalent clause is kept instead.
+     * @param group a conjunction of clauses.
+     * @param conjunction all the clauses of the conjunction, including the group.
+     * @param deduplications a buffer collecting a description of each removed clause.
+     * @return the clauses of the group that are kept.
+     */
+    private List<ConditionClause> removeDuplicateConjuncts(List<ConditionClause> group, List<ConditionClause> conjunction, ListBuffer<String> deduplications) {
+        var keptClauses = new ListBuffer<ConditionClause>();
+        for (var clause: group) {
+            var keptClause = keptEquivalentClause(clause, conjunction);
+            if (keptClause != clause) {
+                deduplications.append(clause.getClauseRep() + " (same as " + keptClause.getClauseRep() + ")");
+            } else {
+                keptClauses.append(clause);
+            }
+        }
+        return keptClauses.toList();
+    }
+
+    /**
+     * Returns the clause kept among the clauses of a conjunction equivalent to a given one, i.e., the first
+     * of the cheapest ones.
+     * @param clause a clause.
+     * @param conjunction the clauses of the conjunction containing the clause.
+     * @return the kept clause, i.e., the clause itself if no other clause is preferred to it.
+     */
+    private ConditionClause keptEquivalentClause(ConditionClause clause, List<ConditionClause> conjunction) {
+        return conjunction.stream()
+                .filter((ConditionClause other) -> other == clause || other.isEquivalentTo(clause))
+                .min(Comparator.comparing(ConditionClause::getCost))
+                .orElse(clause);
+    }
+
+    /**
+     * Folds the groups of a disjunction that are implied by another group, i.e., that contain all its clauses.
+     * Among identical groups, the first one is kept.
+     * @param groupedClauses a disjunction of conjunctions of clauses.
+     * @param deduplications a buffer collecting a description of each folded group.
+     * @return the groups that are not implied by other groups.
+     */
+    private List<List<ConditionClause>> foldDuplicateDisjuncts(List<List<ConditionClause>> groupedClauses, ListBuffer<String> deduplications) {
+        var keptGroups = new ListBuffer<List<ConditionClause>>();
+        for (int i = 0; i < groupedClauses.size(); i++) {
+            var group = groupedClauses.get(i);
+            Optional<List<ConditionClause>> weakerGroup = Optional.empty();
+            for (int j = 0; j < groupedClauses.size() && weakerGroup.isEmpty(); j++) {
+                var other = groupedClauses.get(j);
+                if (j != i && containsAll(group, other) && (j < i || !containsAll(other, group))) {
+                    weakerGroup = Optional.of(other);
+                }
+            }
+            if (weakerGroup.isPresent()) {
+                deduplications.append(describeConjunction(group) + " (folded into " + describeConjunction(weakerGroup.get()) + ")");
+            } else {
+                keptGroups.append(group);
+            }
+        }
+        return keptGroups.toList();
+    }
+
+    /**
+     * Checks if a conjunction of clauses contains clauses equivalent to all the ones of another conjunction.
+     * @param group a conjunction of clauses.
+     * @param other another conjunction of clauses.
+     * @return <code>true</code> iff each clause in other has an equivalent clause in group.
+     */
+    private boolean containsAll(List<ConditionClause> group, List<ConditionClause> other) {
+        return other.stream().allMatch((ConditionClause otherClause) -> group.stream().anyMatch(otherClause::isEquivalentTo));
+    }
+
+    /**
+     * Describes a conjunction of clauses, for reporting purposes.
+     * @param group a conjunction of clauses.
+     * @return the description of the clauses.
+     */
+    private String describeConjunction(List<ConditionClause> group) {
+        return "(" + group.map(ConditionClause::getClauseRep).toString(" && ") + ")";
+    }
+
+    /**
+     * Adds the class invariants check to the synthetic postcondition method of an instrumented method.
+     *
+     * Invariants are checked by a single synthetic method per class, declared the first time it is needed,
+     * so the invariant checking code is not replicated in every instrumented method. The check is skipped at
+     * runtime in nested calls on the same object, if invariants are checked only at outermost calls, and on
+     * objects whose invariants are deferred by the current thread (see {@link DeferredInvariants}).
+     *
+     * If invariants are checked incrementally, a method checks on instances of its own class only the invariants it
+     * may break, through a synthetic method per subset of invariants; instances of subclasses, which may redefine
+     * the invariants or the methods they call, still check all of them.
+     * @param methodDecl the instrumented method.
+     * @param postconditionMethod the synthetic postcondition method of the instrumented method.
+     * @param isMarkedPure if the method is marked pure.
+     * @param invariants the class invariants, as a single group of clauses.
+     * @param clauseResults the local variable holding the clause results shared with the postconditions, if any.
+     * @return <code>true</code> iff the invariants check was added.
+     */
+    private boolean addInvariantsCheck(JCMethodDecl methodDecl, JCMethodDecl postconditionMethod, boolean isMarkedPure, List<List<ConditionClause>> invariants,
+                                       Optional<VarSymbol> clauseResults) {
+        var deduplications = new ListBuffer<String>();
+        var classInvariants = normalizeConditions(ContractConditionEnum.INVARIANT, selectInstrumentedConditions(ContractConditionEnum.INVARIANT, invariants), deduplications);
+        if (shouldAddConditions(ContractConditionEnum.INVARIANT, methodDecl, isMarkedPure, classInvariants)) {
+            state.logNote(methodDecl.pos(), JSickoDiagnostic.ConditionCheckNote(methodDecl.sym, ContractConditionEnum.INVARIANT, classInvariants, deduplications.toList()));
+
+            var invariantsCheckMethod = state.invariantsCheckMethod().orElseGet(() -> {
+                var checkMethod = declareInvariantsCheckMethod(methodDecl,
+                        state.freshSyntheticMethodName(Constants.CHECK_INVARIANTS_METHOD_IDENTIFIER_STRING), classInvariants);
+                state.setInvariantsCheckMethod(checkMethod);
+                return checkMethod;
+            });
+            JCStatement invariantsCheck = buildInvariantsCheckCall(invariantsCheckMethod.sym, clauseResults);
+
+            var checkedInvariants = selectBreakableInvariants(methodDecl, classInvariants.head);
+            if (checkedInvariants.size() < classInvariants.head.size()) {
+                var skippedInvariants = classInvariants.head.diff(checkedInvariants);
+                state.logNote(methodDecl.pos(), JSickoDiagnostic.InvariantsSkippedNote(methodDecl.sym, skippedInvariants));
+                var hasExactClass = javac.MethodInvocation(javac.unnamedModule(),
+                        javac.Expression(javac.unnamedModule(), ConditionChecker.class.getCanonicalName()), javac.Name("hasExactClass"),
+                        List.of(buildThisArgument(methodDecl), factory.ClassLiteral(methodDecl.sym.enclClass())));
+                if (checkedInvariants.isEmpty()) {
+                    var isSubclassInstance = factory.Unary(Tag.NOT, hasExactClass);
+                    javac.setOperator(isSubclassInstance);
+                    invariantsCheck = factory.If(isSubclassInstance, invariantsCheck, null);
+                } else {
+                    var key = checkedInvariants.map((ConditionClause clause) -> clause.getClauseRep()).toString(",");
+                    var partialInvariantsCheckMethod = state.partialInvariantsCheckMethod(key).orElseGet(() -> {
+                        var checkMethod = declareInvariantsCheckMethod(methodDecl,
+                                state.freshSyntheticMethodName(Constants.CHECK_INVARIANTS_METHOD_IDENTIFIER_STRING), List.of(checkedInvariants));
+                        state.setPartialInvariantsCheckMethod(key, checkMethod);
+                        return checkMethod;
+                    });
+                    invariantsCheck = factory.If(hasExactClass, buildInvariantsCheckCall(partialInvariantsCheckMethod.sym, clauseResults), invariantsCheck);
                 }
+            }
+
+            var isOutermostCall = javac.MethodInvocation(javac.unnamedModule(),
+                    javac.Expression(javac.unnamedModule(), OutermostCalls.class.getCanonicalName()), javac.Name("isOutermost"),
+                    List.of(buildConfigurationHandle(methodDecl), buildThisArgument(methodDecl)));
+            var isCheckedNow = javac.MethodInvocation(javac.unnamedModule(),
+                    javac.Expression(javac.unnamedModule(), DeferredInvariants.class.getCanonicalName()), javac.Name("isCheckedNow"),
+                    List.of(buildThisArgument(methodDecl), factory.Literal(instrumentedMethodName(methodDecl))));
+            var body = postconditionMethod.getBody();
+            body.stats = body.stats.prependList(buildGatedStatements(ContractConditionEnum.INVARIANT, methodDecl,
+                    List.of(factory.If(isOutermostCall, factory.If(isCheckedNow, invariantsCheck, null), null))));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Builds a call to an invariants check method, passing the clause results shared with the postconditions,
+     * or <code>null</code> if the invariants are checked alone.
+     * @param invariantsCheckMethod the invariants check method.
+     * @param clauseResults the local variable holding the shared clause results, if any.
+     * @return the call statement.
+     */
+    private JCStatement buildInvariantsCheckCall(MethodSymbol invariantsCheckMethod, Optional<VarSymbol> clauseResults) {
+        if (clauseResults.isPresent()) {
+            return buildSyntheticMethodCall(invariantsCheckMethod, List.of(clauseResults.get()));
+        }
+        JCLiteral noClauseResults = javac.nullLiteral();
+        noClauseResults.type = javac.botType();
+        var call = factory.Apply(List.nil(), factory.Ident(invariantsCheckMethod), List.of(noClauseResults));
+        call.setType(invariantsCheckMethod.type.getReturnType());
+        return factory.Exec(call);
+    }
+
+    /**
+     * Declares (but does not append) the local variable of a postcondition method holding the clause results
+     * shared by its postconditions and the invariants it checks, if the instrumented method checks invariants
+     * and some of its postcondition clauses are also invariant clauses (see
+     * {@link #optionalComputeSharedClauses(JCClassDecl)}).
+     *
+     * The results are created once per call, so that a pure clause without parameters that is both a
+     * postcondition and an invariant is evaluated once; other methods pay no memoization overhead.
+     * @param methodDecl the instrumented method.
+     * @param postconditionMethod the synthetic postcondition method of the instrumented method.
+     * @param isMarkedPure if the method is marked pure.
+     * @param ensuresClausesByMethod the postcondition clauses of the method, grouped by overridden method.
+     * @return the variable declaration, if the postconditions share clauses with the invariants.
+     */
+    private Optional<JCVariableDecl> optionalDeclareClauseResults(JCMethodDecl methodDecl, JCMethodDecl postconditionMethod, boolean isMarkedPure,
+                                                                  List<List<ConditionClause>> ensuresClausesByMethod) {
+        var sharedClauseNames = state.sharedClauseNames();
+        var sharesClauses = ensuresClausesByMethod.stream()
+                .flatMap((List<ConditionClause> clauses) -> clauses.stream())
+                .anyMatch((ConditionClause clause) -> sharedClauseNames.contains(clause.getMethodName()));
+        if (!sharesClauses || !shouldAddConditions(ContractConditionEnum.INVARIANT, methodDecl, isMarkedPure, List.of(state.classInvariants()))) {
+            return Optional.empty();
+        }
+        var clauseResultsType = javac.retrieveType(javac.unnamedModule(), ClauseResults.class.getCanonicalName());
+        var varSymbol = new VarSymbol(0, javac.Name(Constants.CLAUSE_RESULTS_SYNTHETIC_IDENTIFIER_STRING), clauseResultsType, postconditionMethod.sym);
+        var varDef = factory.VarDef(varSymbol, javac.MethodInvocation(javac.unnamedModule(),
+                javac.Expression(javac.unnamedModule(), ConditionChecker.class.getCanonicalName()), javac.Name("newClauseResults"), List.nil()));
+        varDef.setType(clauseResultsType);
+        return Optional.of(varDef);
+    }
+
+    /**
+     * Selects the invariants that an instrumented method may break, i.e., those reading a field that the method
+     * may write, according to the {@link FieldDependencies} of the class.
+     *
+     * Constructors establish all invariants, and must check them all; so do methods of classes whose dependencies
+     * have not been computed because invariants are checked in full.
+     * @param methodDecl the instrumented method.
+     * @param invariants the class invariants.
+     * @return the invariants that the method may break.
+     */
+    private List<ConditionClause> selectBreakableInvariants(JCMethodDecl methodDecl, List<ConditionClause> invariants) {
+        var fieldDependencies = state.fieldDependencies();
+        if (fieldDependencies.isEmpty() || methodDecl.sym.isConstructor()) {
+            return invariants;
+        }
+        return invariants.stream().filter((ConditionClause invariant) -> invariant.getResolvedMethodSymbol()
+                .map((MethodSymbol invariantSymbol) -> fieldDependencies.get().mayBreak(methodDecl.sym, invariantSymbol))
+                .orElse(true)).collect(List.collector());
+    }
+
+    /**
+     * Tracks the calls of an instrumented method that checks invariants, so that nested calls on the same
+     * object can skip them.
+     *
+     * The instrumented method starts tracking the call (if enabled at runtime) right before the try statement
+     * boxing its body, and stops tracking it after all the other statements of the finally block, including
+     * the postcondition checks, even if they fail.
+     * @param methodDecl the instrumented method.
+     * @param tryBlock the try statement boxing the body of the instrumented method.
+     */
+    private void addOutermostCallTracking(JCMethodDecl methodDecl, JCTry tryBlock) {
+        var outermostCallsClass = javac.Expression(javac.unnamedModule(), OutermostCalls.class.getCanonicalName());
+        var trackedVarSymbol = new VarSymbol(Flags.LocalVarFlags,
+                javac.Name(Constants.TRACKED_SYNTHETIC_IDENTIFIER_STRING), javac.booleanType(), methodDecl.sym);
+        var trackedVarDef = factory.VarDef(trackedVarSymbol, javac.MethodInvocation(javac.unnamedModule(), outermostCallsClass,
+                javac.Name("track"), List.of(buildConfigurationHandle(methodDecl), buildThisArgument(methodDecl))));
+        var untrackCall = javac.MethodCall(javac.unnamedModule(), outermostCallsClass, javac.Name("untrack"), List.of(buildThisArgument(methodDecl)));
+
+        var block = methodDecl.getBody();
+        var statsBeforeTry = new ListBuffer<JCStatement>();
+        for (var stat : block.stats) {
+            if (stat == tryBlock) {
+                statsBeforeTry.append(trackedVarDef);
+            }
+            statsBeforeTry.append(stat);
+        }
+        block.stats = statsBeforeTry.toList();
+
+        var finalizer = tryBlock.finalizer;
+        var untrackBlock = factory.Block(0, List.of(factory.If(factory.Ident(trackedVarSymbol), untrackCall, null)));
+        tryBlock.finalizer = factory.Block(0, List.of(factory.Try(finalizer, List.nil(), untrackBlock)));
+    }
+
+    /**
+     * Builds a reference to the receiver of an instrumented method, typed as an object.
+     * @param methodDecl the instrumented method.
+     * @return the this expression.
+     */
+    private JCExpression buildThisArgument(JCMethodDecl methodDecl) {
+        var arg = factory.This(methodDecl.sym.owner.type);
+        arg.setType(javac.objectType());
+        return arg;
+    }
+
+    /**
+     * Declares a synthetic method that checks (some of) the class invariants of the currently visited class.
+     * @param methodDecl the first instrumented method that needs the invariants check, used for reporting purposes.
+     * @param name the name of the invariants check method.
+     * @param classInvariants the class invariants, as a single group of clauses.
+     * @return the declaration of the invariants check method.
+     */
+    private JCMethodDecl declareInvariantsCheckMethod(JCMethodDecl methodDecl, String name, List<List<ConditionClause>> classInvariants) {
+        var invariantsCheckMethodSymbol = new MethodSymbol(Flags.PRIVATE | Flags.SYNTHETIC,
+                javac.Name(name),
+                new Type.MethodType(List.nil(), javac.voidType(), List.nil(), javac.methodClass()),
+                methodDecl.sym.owner);
+        invariantsCheckMethodSymbol.params = List.nil();
+        var invariantsCheckMethod = factory.MethodDef(invariantsCheckMethodSymbol, factory.Block(0, List.nil()));
+        invariantsCheckMethod.pos = methodDecl.pos;
+        var clauseResults = appendSyntheticParam(invariantsCheckMethod, Constants.CLAUSE_RESULTS_SYNTHETIC_IDENTIFIER_STRING,
+                javac.retrieveType(javac.unnamedModule(), ClauseResults.class.getCanonicalName()));
+
+        invariantsCheckMethod.body.stats = buildConditionsChecker(ContractConditionEnum.INVARIANT, methodDecl, invariantsCheckMethod, classInvariants,
+                Optional.of(clauseResults.sym));
+
+        state.appendSyntheticMethod(invariantsCheckMethod);
+        return invariantsCheckMethod;
+    }
+
+    /**
+     * Creates (but does not append) a synthetic method that will hold part of the checking code of an instrumented method.
+     *
+     * The synthetic method is private, static iff the instrumented method is static, and has the same
+     * parameters (names and types) of the instrumented method, so that clauses can be bound by name as usual.
+     * Postcondition methods also receive the returns (if any) and raises synthetic variables, while
+     * precondition methods return whether the current call is sampled for checking.
+     * Keeping the checking code out of the instrumented method lets the JIT compiler inline the
+     * latter in its callers, which would be impossible with all the checking code inlined in its body.
+     *
+     * @param methodDecl the instrumented method.
+     * @param prefix the prefix of the synthetic method name.
+     * @param withPostconditionParams iff the synthetic method must receive the returns and raises variables.
+     * @return the synthetic method declaration, with an empty body.
+     */
+    private JCMethodDecl createSyntheticCheckMethod(JCMethodDecl methodDecl, String prefix, boolean withPostconditionParams) {
+        var methodSymbol = methodDecl.sym;
+        var baseName = prefix + (methodSymbol.isConstructor() ? Constants.CONSTRUCTOR_SYNTHETIC_NAME : methodSymbol.name.toString());
+        var flags = Flags.PRIVATE | Flags.SYNTHETIC | (methodSymbol.isStatic() ? Flags.STATIC : 0);
+        var syntheticSymbol = new MethodSymbol(flags, javac.Name(state.freshSyntheticMethodName(baseName)), null, methodSymbol.owner);
+
+        var params = methodSymbol.params().map((VarSymbol param) -> new VarSymbol(Flags.PARAMETER, param.name, param.type, syntheticSymbol));
+        if (withPostconditionParams) {
+            var returnParams = state.currentMethodReturnVarDecl().stream()
+                    .map((JCVariableDecl varDecl) -> new VarSymbol(Flags.PARAMETER, varDecl.sym.name, varDecl.sym.type, syntheticSymbol));
+            var raisesParams = state.currentMethodRaisesVarDecl().stream()
+                    .map((JCVariableDecl varDecl) -> new VarSymbol(Flags.PARAMETER, varDecl.sym.name, varDecl.sym.type, syntheticSymbol));
+            params = params.appendList(Stream.concat(returnParams, raisesParams).collect(List.collector()));
+        }
+        syntheticSymbol.params = params;
+
+        var returnType = withPostconditionParams ? javac.voidType() : javac.booleanType();
+        Type syntheticMethodType = new Type.MethodType(params.map((VarSymbol param) -> param.type), returnType, List.nil(), javac.methodClass());
+        if (methodSymbol.type instanceof Type.ForAll) {
+            syntheticMethodType = new Type.ForAll(((Type.ForAll) methodSymbol.type).tvars, syntheticMethodType);
+        }
+        syntheticSymbol.type = syntheticMethodType;
+
+        var syntheticMethod = factory.MethodDef(syntheticSymbol, factory.Block(0, List.nil()));
+        syntheticMethod.pos = methodDecl.pos;
+        return syntheticMethod;
+    }
+
+    /**
+     * Finds a synthetic parameter (i.e., returns or raises) of a synthetic check method.
+     * @param checkMethod a synthetic check method.
+     * @param name the name of the synthetic parameter.
+     * @return the parameter declaration, if present.
+     */
+    private Optional<JCVariableDecl> findSyntheticParam(JCMethodDecl checkMethod, String name) {
+        return checkMethod.getParameters().stream()
+                .filter((JCVariableDecl param) -> param.getName().contentEquals(name))
+                .findFirst();
+    }
+
+    /**
+     * Appends a synthetic parameter to a synthetic check method, updating its symbol and type.
+     * @param checkMethod a synthetic check method.
+     * @param name the name of the synthetic parameter.
+     * @param type the type of the synthetic parameter.
+     * @return the parameter declaration.
+     */
+    private JCVariableDecl appendSyntheticParam(JCMethodDecl checkMethod, String name, Type type) {
+        var syntheticSymbol = checkMethod.sym;
+        var paramSymbol = new VarSymbol(Flags.PARAMETER, javac.Name(name), type, syntheticSymbol);
+        syntheticSymbol.params = syntheticSymbol.params.append(paramSymbol);
+
+        var methodType = syntheticSymbol.type.asMethodType();
+        Type syntheticMethodType = new Type.MethodType(methodType.argtypes.append(type), methodType.restype, List.nil(), javac.methodClass());
+        if (syntheticSymbol.type instanceof Type.ForAll) {
+            syntheticMethodType = new Type.ForAll(((Type.ForAll) syntheticSymbol.type).tvars, syntheticMethodType);
+        }
+        syntheticSymbol.type = syntheticMethodType;
+
+        var paramDecl = factory.VarDef(paramSymbol, null);
+        checkMethod.params = checkMethod.params.append(paramDecl);
+        return paramDecl;
+    }
 
-                buildConditionsChecker(conditionType, methodDecl, block, groupedClauses);
+    /**
+     * Appends the synthetic check methods to the current class, and calls them from the instrumented method.
+     *
+     * The precondition method first decides whether the current call is sampled, skipping all of its checks
+     * otherwise, and returns its decision, stored in a synthetic local variable of the instrumented method.
+     * The postcondition method is then called only for sampled calls, so that sampling is decided once per call
+     * and the old values saved in the precondition method are always matched by the postcondition method.
+     * If the methods have a postcondition gate, the instrumented method decides it first, and passes it to both;
+     * the fields of a frame condition are then captured, for sampled calls with postconditions checked, in another
+     * synthetic local variable passed to the postcondition method.
+     * Nothing happens if both synthetic methods have empty bodies.
+     * @param preconditionMethod the synthetic precondition method.
+     * @param postconditionMethod the synthetic postcondition method.
+     * @param tryBlock the try statement boxing the body of the instrumented method.
+     * @param frameCapture the expression capturing the fields of the frame condition of the method, if any.
+     */
+    private void outlineSyntheticCheckMethods(JCMethodDecl preconditionMethod, JCMethodDecl postconditionMethod, JCTry tryBlock,
+                                              Optional<JCExpression> frameCapture) {
+        var hasPostconditionChecks = postconditionMethod.getBody().stats.nonEmpty();
+        if (preconditionMethod.getBody().stats.isEmpty() && !hasPostconditionChecks) {
+            return;
+        }
+        this.state.ifMethodDeclPresent((JCMethodDecl methodDecl) -> {
+            addSamplingStatements(methodDecl, preconditionMethod);
+            state.appendSyntheticMethod(preconditionMethod);
+
+            var gateArgs = List.<VarSymbol>nil();
+            var checkVarDefs = List.<JCStatement>nil();
+            if (findSyntheticParam(preconditionMethod, Constants.POSTCHECKED_SYNTHETIC_IDENTIFIER_STRING).isPresent()) {
+                var postcheckedVarSymbol = new VarSymbol(Flags.LocalVarFlags,
+                        javac.Name(Constants.POSTCHECKED_SYNTHETIC_IDENTIFIER_STRING), javac.booleanType(), methodDecl.sym);
+                gateArgs = List.of(postcheckedVarSymbol);
+                checkVarDefs = List.of(factory.VarDef(postcheckedVarSymbol, buildIsEnabledInvocation(ContractConditionEnum.POSTCONDITION, methodDecl)));
+            }
+
+            var sampledVarSymbol = new VarSymbol(Flags.LocalVarFlags,
+                    javac.Name(Constants.SAMPLED_SYNTHETIC_IDENTIFIER_STRING), javac.booleanType(), methodDecl.sym);
+            checkVarDefs = checkVarDefs.append(factory.VarDef(sampledVarSymbol,
+                    buildSyntheticMethodInvocation(preconditionMethod.sym, methodDecl.sym.params().appendList(gateArgs))));
+            if (frameCapture.isPresent()) {
+                var frameVarSymbol = new VarSymbol(Flags.LocalVarFlags,
+                        javac.Name(Constants.FRAME_SYNTHETIC_IDENTIFIER_STRING), javac.longArrayType(), methodDecl.sym);
+                var capturedIfChecked = factory.Conditional(factory.Ident(gateArgs.head), frameCapture.get(), buildNullLiteral());
+                capturedIfChecked.setType(frameVarSymbol.type);
+                var capturedIfSampled = factory.Conditional(factory.Ident(sampledVarSymbol), capturedIfChecked, buildNullLiteral());
+                capturedIfSampled.setType(frameVarSymbol.type);
+                gateArgs = gateArgs.append(frameVarSymbol);
+                checkVarDefs = checkVarDefs.append(factory.VarDef(frameVarSymbol, capturedIfSampled));
+            }
+
+            var block = methodDecl.getBody();
+            if (javac.isSuperOrThisConstructorCall(block.stats.head)) {
+                block.stats = block.stats.tail.prependList(checkVarDefs).prepend(block.stats.head);
+            } else {
+                block.stats = block.stats.prependList(checkVarDefs);
+            }
+
+            if (hasPostconditionChecks) {
+                addTimingStatements(methodDecl, postconditionMethod, List.nil());
+                state.appendSyntheticMethod(postconditionMethod);
+                var catchers = Stream.concat(state.currentMethodReturnVarDecl().stream(), state.currentMethodRaisesVarDecl().stream())
+                        .map((JCVariableDecl varDecl) -> varDecl.sym)
+                        .collect(List.collector());
+                var postconditionCall = buildSyntheticMethodCall(postconditionMethod.sym, methodDecl.sym.params().appendList(catchers).appendList(gateArgs));
+                tryBlock.finalizer.stats = tryBlock.finalizer.stats.prepend(factory.If(factory.Ident(sampledVarSymbol), postconditionCall, null));
             }
         });
     }
 
+    /**
+     * Memoizes the checks of a pure method of an immutable class on each instance.
+     *
+     * A synthetic field per check of the method (e.g., its preconditions, its postconditions, and its frame condition)
+     * records that the check verified its condition on the instance, i.e., that it was enabled, evaluated all of its
+     * clauses, and signalled no violation (see {@link ConditionChecker#isVerified()}). Once all of them are set,
+     * the precondition method returns immediately, and the call is not checked. Checks that are disabled,
+     * cut by cost, or whose violations are thrown or only reported leave their field unset, and are repeated.
+     * @param methodDecl the instrumented method.
+     * @param preconditionMethod the synthetic precondition method.
+     * @param postconditionMethod the synthetic postcondition method.
+     */
+    private void addChecksMemoization(JCMethodDecl methodDecl, JCMethodDecl preconditionMethod, JCMethodDecl postconditionMethod) {
+        var verifiedFieldSymbols = new ListBuffer<VarSymbol>();
+        preconditionMethod.body.stats = addVerifiedFlags(methodDecl, preconditionMethod.body.stats, verifiedFieldSymbols);
+        postconditionMethod.body.stats = addVerifiedFlags(methodDecl, postconditionMethod.body.stats, verifiedFieldSymbols);
+        if (verifiedFieldSymbols.isEmpty()) {
+            return;
+        }
+
+        JCStatement skipChecks = factory.Return(javac.falseLiteral());
+        for (var verifiedFieldSymbol : verifiedFieldSymbols.toList().reverse()) {
+            state.appendSyntheticField(factory.VarDef(verifiedFieldSymbol, null));
+            skipChecks = factory.If(factory.Ident(verifiedFieldSymbol), skipChecks, null);
+        }
+        preconditionMethod.body.stats = preconditionMethod.body.stats.prepend(skipChecks);
+
+        state.logNote(methodDecl.pos(), JSickoDiagnostic.MemoizedChecksNote(methodDecl.sym));
+    }
+
+    /**
+     * Sets a new synthetic field after each check in a list of statements (and in the statements it nests)
+     * of a synthetic check method, if the check verified its condition.
+     * @param methodDecl the instrumented method.
+     * @param stats the statements of the synthetic check method.
+     * @param verifiedFieldSymbols the buffer where to append the synthetic fields.
+     * @return the statements, setting the synthetic fields.
+     */
+    private List<JCStatement> addVerifiedFlags(JCMethodDecl methodDecl, List<JCStatement> stats, ListBuffer<VarSymbol> verifiedFieldSymbols) {
+        var flaggedStats = new ListBuffer<JCStatement>();
+        for (var stat : stats) {
+            if (stat instanceof JCBlock) {
+                ((JCBlock) stat).stats = addVerifiedFlags(methodDecl, ((JCBlock) stat).stats, verifiedFieldSymbols);
+            } else if (stat instanceof JCIf) {
+                var ifStat = (JCIf) stat;
+                ifStat.thenpart = addVerifiedFlags(methodDecl, List.of(ifStat.thenpart), verifiedFieldSymbols).head;
+                if (ifStat.elsepart != null) {
+                    ifStat.elsepart = addVerifiedFlags(methodDecl, List.of(ifStat.elsepart), verifiedFieldSymbols).head;
+                }
+            }
+            var checkSymbol = stat instanceof JCExpressionStatement && ((JCExpressionStatement) stat).expr instanceof JCMethodInvocation ?
+                    TreeInfo.symbol(((JCMethodInvocation) ((JCExpressionStatement) stat).expr).meth) : null;
+            if (checkSymbol == null || !isVerifiableCheck(checkSymbol)) {
+                flaggedStats.append(stat);
+                continue;
+            }
+
+            var verifiedFieldSymbol = new VarSymbol(Flags.PRIVATE | Flags.TRANSIENT | Flags.SYNTHETIC,
+                    javac.Name(Constants.VERIFIED_FIELD_PREFIX + methodDecl.getName() + "$" + verifiedFieldSymbols.size()),
+                    javac.booleanType(), methodDecl.sym.owner);
+            verifiedFieldSymbols.append(verifiedFieldSymbol);
+            var setVerified = factory.Assign(factory.Ident(verifiedFieldSymbol), javac.trueLiteral());
+            setVerified.setType(javac.booleanType());
+
+            var checkInvocation = (JCMethodInvocation) ((JCExpressionStatement) stat).expr;
+            if (checkSymbol.type.getReturnType().hasTag(TypeTag.BOOLEAN)) {
+                flaggedStats.append(factory.If(checkInvocation, factory.Exec(setVerified), null));
+            } else {
+                var checkerSymbol = TreeInfo.symbol(((JCFieldAccess) checkInvocation.meth).selected);
+                var isVerifiedCall = javac.MethodInvocation(javac.unnamedModule(), factory.Ident(checkerSymbol), javac.Name("isVerified"));
+                flaggedStats.append(stat).append(factory.If(isVerifiedCall, factory.Exec(setVerified), null));
+            }
+        }
+        return flaggedStats.toList();
+    }
+
+    /**
+     * Checks if a method called by a synthetic check method is a check that can tell whether it verified its
+     * condition, i.e., {@link ConditionChecker#check(Object)} or {@link FrameConditions#verify}.
+     * @param methodSymbol the called method.
+     * @return <code>true</code> iff the method is a verifiable check.
+     */
+    private boolean isVerifiableCheck(Symbol methodSymbol) {
+        var ownerName = methodSymbol.owner.getQualifiedName().toString();
+        return (ownerName.equals(ConditionChecker.class.getCanonicalName()) && methodSymbol.name.contentEquals("check")) ||
+                (ownerName.equals(FrameConditions.class.getCanonicalName()) && methodSymbol.name.contentEquals("verify"));
+    }
+
+    /**
+     * Makes the precondition checks of a method skippable by the calls proving them (see {@link PreconditionElision}).
+     *
+     * The precondition checks are guarded by a synthetic variable, initialized by consuming the proof of the caller;
+     * its declaration must be the first statement of the precondition method, before the sampling decision.
+     * @param methodDecl the instrumented method.
+     * @param preconditionMethod the synthetic precondition method.
+     * @param statsBeforePreconditions the statements of the precondition method before the precondition checks were added.
+     * @return the declaration of the synthetic variable, if the method is the callee of an elided call.
+     */
+    private Optional<JCVariableDecl> optionalAddPreconditionElision(JCMethodDecl methodDecl, JCMethodDecl preconditionMethod,
+                                                                    List<JCStatement> statsBeforePreconditions) {
+        var body = preconditionMethod.getBody();
+        var preconditionStats = body.stats.take(body.stats.size() - statsBeforePreconditions.size());
+        if (preconditionStats.isEmpty() || state.preconditionElision().filter((PreconditionElision elision) -> elision.isCallee(methodDecl.sym)).isEmpty()) {
+            return Optional.empty();
+        }
+        state.preconditionElision().get().calleeInstrumented(methodDecl.sym);
+
+        var receiver = methodDecl.sym.isStatic() ? buildNullLiteral() : buildThisArgument(methodDecl);
+        var isElidedCall = javac.MethodInvocation(javac.unnamedModule(),
+                javac.Expression(javac.unnamedModule(), ConditionChecker.class.getCanonicalName()), javac.Name("isPreconditionElided"),
+                List.of(receiver, factory.Literal(elidedMethodKey(methodDecl.sym))));
+        var elidedVarSymbol = new VarSymbol(Flags.LocalVarFlags,
+                javac.Name(Constants.ELIDED_SYNTHETIC_IDENTIFIER_STRING), javac.booleanType(), preconditionMethod.sym);
+        var notElided = factory.Unary(Tag.NOT, factory.Ident(elidedVarSymbol));
+        javac.setOperator(notElided);
+        body.stats = statsBeforePreconditions.prepend(factory.If(notElided, factory.Block(0, preconditionStats), null));
+        return Optional.of(factory.VarDef(elidedVarSymbol, isElidedCall));
+    }
+
+    /**
+     * Adds the check of the frame condition of a method, i.e., that the instance fields of its class not listed
+     * in the {@link Contract.Modifies} annotations of the method (and of the methods it overrides) are not modified.
+     *
+     * The instrumented method captures a fingerprint of each such field after the precondition method, and the
+     * postcondition method compares them, before the other postconditions; both are guarded by the postcondition
+     * gate of the method (see {@link #addPostconditionGate(JCMethodDecl, JCMethodDecl)}). Static and constructor methods
+     * are not checked, and neither are pure methods unless their purity is verified: then, as for methods with the
+     * <code>pure</code> postcondition of {@link Contract#pure()}, no field is modifiable.
+     * @param methodDecl the instrumented method.
+     * @param overriddenMethods the overridden methods, including the method itself.
+     * @param isMarkedPure if the method is marked pure.
+     * @param preconditionMethod the synthetic precondition method.
+     * @param postconditionMethod the synthetic postcondition method.
+     * @return the expression capturing the fingerprints, to be evaluated by the instrumented method, if the method
+     * has a frame condition.
+     */
+    private Optional<JCExpression> addFrameCondition(JCMethodDecl methodDecl, List<Symbol> overriddenMethods, boolean isMarkedPure,
+                                                     JCMethodDecl preconditionMethod, JCMethodDecl postconditionMethod) {
+        if (methodDecl.sym.isStatic() || methodDecl.sym.isConstructor() || !options.isEnabled(ContractConditionEnum.POSTCONDITION)) {
+            return Optional.empty();
+        }
+        var verifiesPurity = (isMarkedPure && options.isPurityVerified()) ||
+                overriddenMethods.stream().anyMatch(this::declaresContractPurityClause);
+        if (isMarkedPure && !verifiesPurity) {
+            return Optional.empty();
+        }
+        var modifiableFields = verifiesPurity ? Optional.of(Set.<String>of()) : overriddenMethods.stream()
+                .flatMap((Symbol overriddenMethod) -> declaredModifiableFields(overriddenMethod).stream())
+                .reduce((Set<String> fields, Set<String> otherFields) -> fields.stream().filter(otherFields::contains).collect(Collectors.toSet()));
+        if (modifiableFields.isEmpty()) {
+            return Optional.empty();
+        }
+        var framedFields = declaredInstanceFields(methodDecl.sym.owner).stream()
+                .filter((VarSymbol fieldSymbol) -> !modifiableFields.get().contains(fieldSymbol.getSimpleName().toString()))
+                .collect(List.collector());
+        if (framedFields.isEmpty()) {
+            return Optional.empty();
+        }
+        var fieldNames = framedFields.stream()
+                .map((VarSymbol fieldSymbol) -> fieldSymbol.getSimpleName().toString())
+                .collect(List.collector());
+        state.logNote(methodDecl.pos(), JSickoDiagnostic.FrameConditionNote(methodDecl.sym, fieldNames));
+
+        addPostconditionGate(preconditionMethod, postconditionMethod);
+        var capturedParam = appendSyntheticParam(postconditionMethod, Constants.FRAME_SYNTHETIC_IDENTIFIER_STRING, javac.longArrayType());
+
+        var frameConditionsClass = javac.Expression(javac.unnamedModule(), FrameConditions.class.getCanonicalName());
+        var captureCall = javac.MethodInvocation(javac.unnamedModule(), frameConditionsClass, javac.Name("capture"),
+                framedFields.map(this::buildFieldFingerprint));
+        var verifyCall = javac.MethodInvocation(javac.unnamedModule(), frameConditionsClass, javac.Name("verify"),
+                framedFields.map(this::buildFieldFingerprint)
+                        .prepend(factory.Ident(capturedParam.sym))
+                        .prepend(factory.Literal(String.join(",", fieldNames)))
+                        .prepend(factory.Literal(instrumentedMethodName(methodDecl)))
+                        .prepend(buildConfigurationHandle(methodDecl))
+                        .prepend(buildThisArgument(methodDecl)));
+
+        var postconditionBody = postconditionMethod.getBody();
+        postconditionBody.stats = postconditionBody.stats.prependList(buildGatedStatements(ContractConditionEnum.POSTCONDITION, methodDecl,
+                postconditionMethod, List.of(factory.Exec(verifyCall))));
+        return Optional.of(captureCall);
+    }
+
+    /**
+     * Returns the fields a method declares as modifiable with {@link Contract.Modifies}, if any.
+     * @param methodSymbol the method.
+     * @return the names of the modifiable fields, or an empty optional if the method has no frame condition.
+     */
+    private Optional<Set<String>> declaredModifiableFields(Symbol methodSymbol) {
+        var modifiesAnnotation = methodSymbol.getAnnotation(Contract.Modifies.class);
+        if (modifiesAnnotation == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Arrays.stream(modifiesAnnotation.value())
+                .flatMap((String fieldNames) -> Arrays.stream(fieldNames.split(",")))
+                .map(String::trim)
+                .filter((String fieldName) -> !fieldName.isEmpty())
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Returns the instance fields declared by a class, in declaration order, excluding synthetic fields.
+     * @param classSymbol the class.
+     * @return the declared instance fields.
+     */
+    private List<VarSymbol> declaredInstanceFields(Symbol classSymbol) {
+        return classSymbol.getEnclosedElements().stream()
+                .filter((Symbol member) -> member.getKind() == ElementKind.FIELD)
+                .filter((Symbol member) -> (member.flags() & (Flags.STATIC | Flags.SYNTHETIC)) == 0)
+                .filter((Symbol member) -> !member.getSimpleName().toString().startsWith("$"))
+                .map((Symbol member) -> (VarSymbol) member)
+                .collect(List.collector());
+    }
+
+    /**
+     * Builds the fingerprint of a field of the receiver: integral fields are widened to long, boolean and floating
+     * point fields are converted to their bits, and reference fields are fingerprinted by identity, and also by
+     * content if {@link ContractCompilerOptions#isFrameContentsHashed()}.
+     * @param fieldSymbol the field.
+     * @return the expression computing the fingerprint.
+     */
+    private JCExpression buildFieldFingerprint(VarSymbol fieldSymbol) {
+        var fieldAccess = factory.Ident(fieldSymbol);
+        var frameConditionsClass = javac.Expression(javac.unnamedModule(), FrameConditions.class.getCanonicalName());
+        switch (fieldSymbol.type.getTag()) {
+            case BOOLEAN:
+            case FLOAT:
+            case DOUBLE:
+                return javac.MethodInvocation(javac.unnamedModule(), frameConditionsClass, javac.Name("bits"), List.of(fieldAccess));
+            case BYTE:
+            case CHAR:
+            case SHORT:
+            case INT:
+            case LONG:
+                return fieldAccess;
+            default:
+                var fingerprintMethodName = options.isFrameContentsHashed() ? "contentFingerprint" : "fingerprint";
+                return javac.MethodInvocation(javac.unnamedModule(), frameConditionsClass, javac.Name(fingerprintMethodName), List.of(fieldAccess));
+        }
+    }
+
+    /**
+     * Adds the sampling decision to a synthetic precondition method: the method returns <code>false</code>
+     * immediately for calls not sampled, and <code>true</code> after all of its (timed) checks otherwise.
+     * @param methodDecl the instrumented method.
+     * @param preconditionMethod the synthetic precondition method.
+     */
+    private void addSamplingStatements(JCMethodDecl methodDecl, JCMethodDecl preconditionMethod) {
+        var isSampledCall = javac.MethodInvocation(javac.unnamedModule(),
+                javac.Expression(javac.unnamedModule(), ContractConfiguration.class.getCanonicalName()), javac.Name("isSampled"),
+                List.of(buildConfigurationHandle(methodDecl), factory.Literal(instrumentedMethodName(methodDecl))));
+        var notSampled = factory.Unary(Tag.NOT, isSampledCall);
+        javac.setOperator(notSampled);
+
+        addTimingStatements(methodDecl, preconditionMethod, List.of(factory.Return(javac.trueLiteral())));
+        var body = preconditionMethod.getBody();
+        body.stats = body.stats.prepend(factory.If(notSampled, factory.Return(javac.falseLiteral()), null));
+    }
+
+    /**
+     * Measures the time spent in the checks of a synthetic check method, reporting it to the runtime
+     * configuration (e.g., to adjust adaptive sampling rates).
+     *
+     * The clock is read only if the runtime configuration needs the time, decided once at the start of the method.
+     * @param methodDecl the instrumented method.
+     * @param checkMethod the synthetic check method.
+     * @param finalStatements the statements to append after the time is reported.
+     */
+    private void addTimingStatements(JCMethodDecl methodDecl, JCMethodDecl checkMethod, List<JCStatement> finalStatements) {
+        var isTimedCall = javac.MethodInvocation(javac.unnamedModule(),
+                javac.Expression(javac.unnamedModule(), ContractConfiguration.class.getCanonicalName()), javac.Name("isTimed"),
+                List.of(buildConfigurationHandle(methodDecl), factory.Literal(instrumentedMethodName(methodDecl))));
+        var timedVarSymbol = new VarSymbol(Flags.LocalVarFlags,
+                javac.Name(Constants.TIMED_SYNTHETIC_IDENTIFIER_STRING), javac.booleanType(), checkMethod.sym);
+        var timedVarDef = factory.VarDef(timedVarSymbol, isTimedCall);
+
+        var nanoTimeCall = javac.MethodInvocation(javac.javaBaseModule(),
+                javac.Expression(javac.javaBaseModule(), System.class.getCanonicalName()), javac.Name("nanoTime"));
+        var checkStartVarSymbol = new VarSymbol(Flags.LocalVarFlags,
+                javac.Name(Constants.CHECK_START_SYNTHETIC_IDENTIFIER_STRING), nanoTimeCall.type, checkMethod.sym);
+        var checkStart = factory.Conditional(factory.Ident(timedVarSymbol), nanoTimeCall, factory.Literal(0L));
+        checkStart.setType(nanoTimeCall.type);
+        var checkStartVarDef = factory.VarDef(checkStartVarSymbol, checkStart);
+        var checkFinishedCall = javac.MethodCall(javac.unnamedModule(),
+                javac.Expression(javac.unnamedModule(), ContractConfiguration.class.getCanonicalName()), javac.Name("checkFinished"),
+                List.of(buildConfigurationHandle(methodDecl), factory.Literal(instrumentedMethodName(methodDecl)), factory.Ident(checkStartVarSymbol)));
+
+        var body = checkMethod.getBody();
+        body.stats = body.stats.prepend(checkStartVarDef).prepend(timedVarDef)
+                .append(factory.If(factory.Ident(timedVarSymbol), checkFinishedCall, null)).appendList(finalStatements);
+    }
+
+    /**
+     * Builds a call statement to a synthetic method.
+     * @param syntheticMethod the synthetic method to call.
+     * @param args the symbols of the variables to pass as arguments.
+     * @return the call statement.
+     */
+    private JCStatement buildSyntheticMethodCall(MethodSymbol syntheticMethod, List<VarSymbol> args) {
+        return factory.Exec(buildSyntheticMethodInvocation(syntheticMethod, args));
+    }
+
+    /**
+     * Builds an invocation of a synthetic method.
+     * @param syntheticMethod the synthetic method to call.
+     * @param args the symbols of the variables to pass as arguments.
+     * @return the invocation expression.
+     */
+    private JCMethodInvocation buildSyntheticMethodInvocation(MethodSymbol syntheticMethod, List<VarSymbol> args) {
+        var methodIdent = factory.Ident(syntheticMethod);
+        var argIdents = args.map((VarSymbol arg) -> (JCExpression) factory.Ident(arg));
+        var call = factory.Apply(List.nil(), methodIdent, argIdents);
+        call.setType(syntheticMethod.type.getReturnType());
+        return call;
+    }
+
     /**
      * Returns true if the conditions should be added or not, depending on the type.
      *
      * By default, the method returns <code>true</code> iff the clauses are not empty. For invariants,
-     * the method also checks if it is not marked pure and if it is not static.
+     * the method also checks if it is not marked pure, if it is not static, and if it is a constructor
+     * in case the class is immutable.
      * @param conditionType the type of the condition.
      * @param methodDecl the method to instrument.
      * @param isMarkedPure <code>true</code> if the method is marked as pure.
@@ -621,7 +1824,8 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
         BooleanSupplier defaultCheck = () -> groupedClauses.size() > 0 && groupedClauses.stream().allMatch((List<ConditionClause> clause) -> clause.size() > 0);
 
         if (conditionType == ContractConditionEnum.INVARIANT) {
-            return !isMarkedPure && !methodDecl.sym.isStatic() && defaultCheck.getAsBoolean();
+            return !isMarkedPure && !methodDecl.sym.isStatic() && (methodDecl.sym.isConstructor() || !isImmutable(methodDecl.sym.owner)) &&
+                    defaultCheck.getAsBoolean();
         }
         return defaultCheck.getAsBoolean();
     }
@@ -629,37 +1833,98 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
     /**
      * Builds the condition checker statements.
      *
-     * This method appends a statements that creates the condition checker object, a set of statements
+     * This method builds a statement that creates the condition checker object, a set of statements
      * that append the conditions themselves, and a statement that checks them, optionally throwing
      * a {@see ContractConditionViolation} exception.
      * @param conditionType the condition type.
-     * @param methodDecl the method to be instrumented.
-     * @param block the block where to prepend the statements.
+     * @param methodDecl the instrumented method, used for reporting purposes.
+     * @param checkMethod the synthetic method that will hold the statements.
      * @param conditionGroups the conditions grouped by overriding method.
+     * @param clauseResults the variable (or parameter) holding the clause results shared with another checker, if any.
+     * @return the condition checker statements, empty if there are no conditions.
      */
-    private void buildConditionsChecker(ContractConditionEnum conditionType, JCMethodDecl methodDecl, JCBlock block, List<List<ConditionClause>> conditionGroups) {
+    private List<JCStatement> buildConditionsChecker(ContractConditionEnum conditionType, JCMethodDecl methodDecl, JCMethodDecl checkMethod,
+                                                     List<List<ConditionClause>> conditionGroups, Optional<VarSymbol> clauseResults) {
         if (conditionGroups.size() > 0) {
-            var checkerVarDef = createCheckerDeclaration(conditionType, methodDecl.sym);
-            var lambdaCalls = buildLambdaCalls(methodDecl, checkerVarDef, conditionGroups);
-            var checkCall = buildCheckStatement(methodDecl.sym.owner.type, methodDecl.getModifiers().getFlags().contains(Modifier.STATIC), checkerVarDef);
+            var checkerVarDef = createCheckerDeclaration(conditionType, methodDecl, checkMethod.sym, clauseResults);
+            var lambdaCalls = buildLambdaCalls(methodDecl, checkMethod, checkerVarDef, conditionGroups, clauseResults.isPresent());
+            var checkCall = buildCheckStatement(checkMethod.sym.owner.type, checkMethod.getModifiers().getFlags().contains(Modifier.STATIC), checkerVarDef);
 
-            var conditionBlock = lambdaCalls.prepend(checkerVarDef).append(checkCall);
+            return lambdaCalls.prepend(checkerVarDef).append(checkCall);
+        }
+        return List.nil();
+    }
 
-            if (javac.isSuperOrThisConstructorCall(block.stats.head)) {
-                block.stats = block.stats.tail.prependList(conditionBlock).prepend(block.stats.head);
-            } else {
-                block.stats = block.stats.prependList(conditionBlock);
-            }
+    /**
+     * Guards a list of statements with the runtime configuration, so that they are executed iff
+     * a condition type is enabled for the instrumented method.
+     * @param conditionType the condition type.
+     * @param methodDecl the instrumented method.
+     * @param stats the statements to guard.
+     * @return a list with the guarded statement, empty if there are no statements to guard.
+     */
+    private List<JCStatement> buildGatedStatements(ContractConditionEnum conditionType, JCMethodDecl methodDecl, List<JCStatement> stats) {
+        if (stats.isEmpty()) {
+            return List.nil();
         }
+        return List.of(factory.If(buildIsEnabledInvocation(conditionType, methodDecl), factory.Block(0, stats), null));
+    }
+
+    /**
+     * Guards a list of statements of a synthetic check method, so that they are executed iff a condition type
+     * is checked in the current call: postcondition statements are guarded by the postcondition gate of the
+     * method, if any (see {@link #addPostconditionGate(JCMethodDecl, JCMethodDecl)}), all the others by the
+     * runtime configuration.
+     * @param conditionType the condition type.
+     * @param methodDecl the instrumented method.
+     * @param checkMethod the synthetic check method holding the statements.
+     * @param stats the statements to guard.
+     * @return a list with the guarded statement, empty if there are no statements to guard.
+     */
+    private List<JCStatement> buildGatedStatements(ContractConditionEnum conditionType, JCMethodDecl methodDecl, JCMethodDecl checkMethod, List<JCStatement> stats) {
+        var postconditionGate = findSyntheticParam(checkMethod, Constants.POSTCHECKED_SYNTHETIC_IDENTIFIER_STRING);
+        if (stats.isEmpty() || conditionType != ContractConditionEnum.POSTCONDITION || postconditionGate.isEmpty()) {
+            return buildGatedStatements(conditionType, methodDecl, stats);
+        }
+        return List.of(factory.If(factory.Ident(postconditionGate.get().sym), factory.Block(0, stats), null));
+    }
+
+    /**
+     * Builds the invocation asking the runtime configuration if a condition type is enabled for an instrumented method.
+     * @param conditionType the condition type.
+     * @param methodDecl the instrumented method.
+     * @return the invocation expression.
+     */
+    private JCMethodInvocation buildIsEnabledInvocation(ContractConditionEnum conditionType, JCMethodDecl methodDecl) {
+        var conditionTypeExpression = javac.Expression(javac.unnamedModule(), ContractConditionEnum.class.getCanonicalName(), conditionType.name());
+        return javac.MethodInvocation(javac.unnamedModule(),
+                javac.Expression(javac.unnamedModule(), ContractConfiguration.class.getCanonicalName()), javac.Name("isEnabled"),
+                List.of(buildConfigurationHandle(methodDecl), factory.Literal(instrumentedMethodName(methodDecl)), conditionTypeExpression));
+    }
+
+    /**
+     * Returns the name of an instrumented method, as used by the runtime configuration.
+     * @param methodDecl the instrumented method.
+     * @return the method name, or <code>new</code> for constructors.
+     */
+    private String instrumentedMethodName(JCMethodDecl methodDecl) {
+        return methodDecl.sym.isConstructor() ? Constants.CONSTRUCTOR_SYNTHETIC_NAME : methodDecl.sym.name.toString();
     }
 
     /**
      * Creates the local variable for the condition checker.
+     *
+     * The checker receives the class and the instrumented method (only the class for invariants, which are
+     * checked by a single method per class), so that it can decide at runtime if violations are only reported,
+     * and the clause results it shares with another checker, if any.
      * @param conditionType the type of the condition.
-     * @param owner the owner method symbol, i.e., the instrumented method.
+     * @param methodDecl the instrumented method.
+     * @param owner the owner method symbol, i.e., the synthetic check method.
+     * @param clauseResults the variable (or parameter) holding the shared clause results, if any.
      * @return the variable declaration for the condition checker.
      */
-    private JCVariableDecl createCheckerDeclaration(ContractConditionEnum conditionType, MethodSymbol owner) {
+    private JCVariableDecl createCheckerDeclaration(ContractConditionEnum conditionType, JCMethodDecl methodDecl, MethodSymbol owner,
+                                                    Optional<VarSymbol> clauseResults) {
         String lowerCaseConditionTypeName = conditionType.name().toLowerCase();
         String checkerConstructorMethodName = "new" + conditionType.toString() + "Checker";
 
@@ -668,8 +1933,15 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
                 javac.preconditionCheckerType(), owner);
 //        checkerVarSymbol.adr = 0;
 
+        List<JCExpression> checkerArgs = List.of(buildConfigurationHandle(methodDecl));
+        if (conditionType != ContractConditionEnum.INVARIANT) {
+            checkerArgs = checkerArgs.append(factory.Literal(instrumentedMethodName(methodDecl)));
+        }
+        if (clauseResults.isPresent()) {
+            checkerArgs = checkerArgs.append(factory.Ident(clauseResults.get()));
+        }
         var checkerVar = factory.VarDef(checkerVarSymbol, javac.MethodInvocation(javac.unnamedModule(),
-                javac.Expression(javac.unnamedModule(), ConditionChecker.class.getCanonicalName()), javac.Name(checkerConstructorMethodName)));
+                javac.Expression(javac.unnamedModule(), ConditionChecker.class.getCanonicalName()), javac.Name(checkerConstructorMethodName), checkerArgs));
         checkerVar.setType(javac.retrieveType(javac.unnamedModule(), ConditionChecker.class.getCanonicalName()));
         return checkerVar;
     }
@@ -677,12 +1949,15 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
     /**
      * Builds the lambda functions that check each condition clause, and creates
      * the addConditionGroup calls to the condition checker.
-     * @param methodDecl the currently instrumented method.
+     * @param methodDecl the currently instrumented method, used for reporting purposes.
+     * @param checkMethod the synthetic method that holds the checker.
      * @param checkerVarDef the checker variable definition.
      * @param conditionGroups the conditions grouped by overriding method.
+     * @param sharesClauseResults iff the checker shares its clause results with another checker.
      * @return the list of statements corresponding to the conditions to be added to the checker.
      */
-    private List<JCStatement> buildLambdaCalls(JCMethodDecl methodDecl, JCVariableDecl checkerVarDef, List<List<ConditionClause>> conditionGroups) {
+    private List<JCStatement> buildLambdaCalls(JCMethodDecl methodDecl, JCMethodDecl checkMethod, JCVariableDecl checkerVarDef,
+                                               List<List<ConditionClause>> conditionGroups, boolean sharesClauseResults) {
         var isMethodStatic = methodDecl.getModifiers().getFlags().contains(Modifier.STATIC);
         var allResolved = conditionGroups.stream().allMatch((List<ConditionClause> conditionGroup) -> conditionGroup.stream().allMatch(clause -> {
             var errors = clause.resolveContractMethod(state.currentClassDecl().get());
@@ -702,10 +1977,239 @@ class ContractCompilerTreeScanner extends TreeScanner<Void, Deque<Tree>> {
             return List.nil();
         }
 
+        var memoizedClauseKeys = findMemoizedClauseKeys(conditionGroups, sharesClauseResults);
         return conditionGroups.stream().map((List<ConditionClause> conditionGroup) -> {
-            var lambdas = conditionGroup.stream().map((ConditionClause clause) -> (JCExpression) clause.createConditionLambda(checkerVarDef, methodDecl)).collect(List.collector());
-            return javac.MethodCall(javac.unnamedModule(), factory.Ident(checkerVarDef), javac.Name("addConditionGroup"), lambdas);
+            var isGroupMemoized = conditionGroup.stream().anyMatch((ConditionClause clause) -> memoizedClauseKeys.contains(clause.getClauseKey()));
+            var sharedCheckMethod = isGroupMemoized ? Optional.<MethodSymbol>empty() : findSharedCheckMethod(checkMethod, conditionGroup);
+            return sharedCheckMethod
+                    .map((MethodSymbol sharedMethod) -> buildSharedCheckMethodCall(sharedMethod, checkMethod, checkerVarDef))
+                    .orElseGet(() -> buildAddConditionGroupCall(checkerVarDef, checkMethod, conditionGroup, memoizedClauseKeys));
+        }).collect(List.collector());
+    }
+
+    /**
+     * Finds the keys (i.e., the signatures) of the clause methods whose results are memoized by the checker.
+     *
+     * A clause is memoized when it is pure and occurs more than once in the same checker, e.g., in
+     * different precondition weakenings, or both negated and non-negated. Within a checker all the
+     * occurrences of a clause method are bound to the same arguments, so the signature identifies the result.
+     * If the checker shares its results with another checker of the same postcondition method, pure clauses
+     * without parameters shared by the postconditions and the invariants are memoized as well.
+     * Clauses evaluated once are called directly, and pay no memoization overhead.
+     * @param conditionGroups the resolved conditions of a checker.
+     * @param sharesClauseResults iff the checker shares its clause results with another checker.
+     * @return the set of keys of the memoized clause methods.
+     */
+    private Set<String> findMemoizedClauseKeys(List<List<ConditionClause>> conditionGroups, boolean sharesClauseResults) {
+        var sharedClauseNames = sharesClauseResults ? state.sharedClauseNames() : Set.<Name>of();
+        var occurrences = conditionGroups.stream()
+                .flatMap((List<ConditionClause> conditionGroup) -> conditionGroup.stream())
+                .map((ConditionClause clause) -> clause.getResolvedMethodSymbol().get())
+                .collect(Collectors.groupingBy(MethodSymbol::toString, Collectors.toList()));
+        return occurrences.entrySet().stream()
+                .filter((Map.Entry<String, java.util.List<MethodSymbol>> entry) -> isMarkedAsPure(entry.getValue().get(0)) &&
+                        (entry.getValue().size() > 1 || isSharedClause(entry.getValue().get(0), sharedClauseNames)))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Checks if a clause method is shared by the postconditions and the invariants, in which case its result
+     * only depends on the receiver.
+     * @param clauseMethod the clause method.
+     * @param sharedClauseNames the names of the shared clauses.
+     * @return <code>true</code> iff the clause has no parameters and is shared.
+     */
+    private boolean isSharedClause(MethodSymbol clauseMethod, Set<Name> sharedClauseNames) {
+        return clauseMethod.params().isEmpty() && sharedClauseNames.contains(clauseMethod.name);
+    }
+
+    /**
+     * Builds the lambda functions that check the clauses of a group, and the call that adds them
+     * as a group to the condition checker.
+     *
+     * Clauses that are not cheap are added through the checker, which drops those above the
+     * runtime cost threshold; cheap clauses are always checked, and added directly. Parallel
+     * clauses are then marked through the checker, which evaluates them concurrently.
+     * @param checkerVarDef the checker variable (or parameter) definition.
+     * @param checkMethod the synthetic method that holds the checker, binding the clause parameters.
+     * @param conditionGroup the group of conditions.
+     * @param memoizedClauseKeys the keys of the clause methods evaluated through the memo of the checker.
+     * @return the addConditionGroup call statement.
+     */
+    private JCStatement buildAddConditionGroupCall(JCVariableDecl checkerVarDef, JCMethodDecl checkMethod, List<ConditionClause> conditionGroup, Set<String> memoizedClauseKeys) {
+        var lambdas = conditionGroup.stream().map((ConditionClause clause) -> {
+            JCExpression lambda = clause.createConditionLambda(checkerVarDef, checkMethod, memoizedClauseKeys.contains(clause.getClauseKey()));
+            if (clause.getCost() == Contract.Cost.CHEAP) {
+                return lambda;
+            }
+            var costFiltered = (JCExpression) javac.MethodInvocation(javac.unnamedModule(), factory.Ident(checkerVarDef), javac.Name("atCost"),
+                    List.of(clause.createCostExpression(), lambda));
+            if (!clause.isParallel()) {
+                return costFiltered;
+            }
+            return (JCExpression) javac.MethodInvocation(javac.unnamedModule(), factory.Ident(checkerVarDef), javac.Name("inParallel"),
+                    List.of(costFiltered));
         }).collect(List.collector());
+        return javac.MethodCall(javac.unnamedModule(), factory.Ident(checkerVarDef), javac.Name("addConditionGroup"), lambdas);
+    }
+
+    /**
+     * Declares, in the currently visited class, the shared synthetic methods that add the preconditions
+     * and the postconditions declared by a method to a condition checker.
+     *
+     * Without them, the checking code of inherited clauses would be replicated in every overriding method;
+     * instead, each overriding method calls the shared method of the type that declares the clauses.
+     * Shared methods are declared only for clauses that can be checked in the declaring type, and a
+     * method symbol might have already been created by a subtype visited before the current class.
+     * @param methodDecl a method declaration of the currently visited class.
+     */
+    private void declareSharedCheckMethods(JCMethodDecl methodDecl) {
+        Stream.of(ContractConditionEnum.PRECONDITION, ContractConditionEnum.POSTCONDITION).forEach((ContractConditionEnum conditionType) -> {
+            var declaredClauses = constructDeclaredClauses(conditionType, methodDecl.sym);
+            if (!isShareable(methodDecl.sym, declaredClauses)) {
+                return;
+            }
+            var sharedCheckMethodSymbol = sharedCheckMethodSymbol(conditionType, methodDecl.sym).get();
+            if (state.currentClassDeclaresMethod(sharedCheckMethodSymbol)) {
+                return;
+            }
+
+            var sharedCheckMethod = factory.MethodDef(sharedCheckMethodSymbol, factory.Block(0, List.nil()));
+            sharedCheckMethod.pos = methodDecl.pos;
+            declaredClauses.forEach((ConditionClause clause) -> clause.resolveContractMethod(state.currentClassDecl().get()));
+
+            var checkerParamDecl = sharedCheckMethod.getParameters().head;
+            var returnVarDecl = findSyntheticParam(sharedCheckMethod, Constants.RETURNS_SYNTHETIC_IDENTIFIER_STRING);
+            var raisesVarDecl = findSyntheticParam(sharedCheckMethod, Constants.RAISES_SYNTHETIC_IDENTIFIER_STRING);
+            state.withReturnAndRaisesVarDecls(returnVarDecl, raisesVarDecl, () ->
+                    sharedCheckMethod.body.stats = List.of(buildAddConditionGroupCall(checkerParamDecl, sharedCheckMethod, declaredClauses, Set.of())));
+
+            state.appendSyntheticMethod(sharedCheckMethod);
+        });
+    }
+
+    /**
+     * Checks if the clauses declared by a method can be checked by a shared check method, declared in the same type.
+     *
+     * The method must be overridable, its type must be a contract type, and all the clauses must be resolved
+     * and bound in the declaring type. Since this method is used both by the declaring type and by its subtypes,
+     * it only depends on symbols.
+     * @param declaringMethod the method declaring the clauses.
+     * @param declaredClauses the declared clauses of a given condition type.
+     * @return <code>true</code> iff the clauses can be checked by a shared method.
+     */
+    private boolean isShareable(MethodSymbol declaringMethod, List<ConditionClause> declaredClauses) {
+        var declaringClass = (ClassSymbol) declaringMethod.owner;
+        return declaredClauses.nonEmpty() &&
+                !declaringMethod.isConstructor() &&
+                (declaringMethod.flags() & (Flags.STATIC | Flags.PRIVATE | Flags.FINAL)) == 0 &&
+                (declaringClass.flags() & Flags.FINAL) == 0 &&
+                !declaringClass.isAnonymous() &&
+                state.isContractType(declaringClass.type) &&
+                declaredClauses.stream().allMatch((ConditionClause clause) -> clause.resolveInDeclaringType().isPresent());
+    }
+
+    /**
+     * Returns the symbol of the shared check method for the clauses of a given type declared by a method.
+     *
+     * The symbol is created and entered in the declaring type if it does not exist yet, but only if the declaring
+     * type is being compiled from source, i.e., if its declaration will be (or is being) visited by jSicko.
+     * Declaring types already visited and generated keep the symbols of their shared check methods.
+     *
+     * The shared method is a public synthetic instance method (a default one for interfaces), whose name
+     * contains the declaring type to avoid accidental overrides. It receives the condition checker, the
+     * parameters of the declaring method, and (for postconditions) the returns and raises values.
+     * @param conditionType the condition type, either precondition or postcondition.
+     * @param declaringMethod the method declaring the clauses.
+     * @return the symbol of the shared check method, if any.
+     */
+    private Optional<MethodSymbol> sharedCheckMethodSymbol(ContractConditionEnum conditionType, MethodSymbol declaringMethod) {
+        var declaringClass = (ClassSymbol) declaringMethod.owner;
+        var isPostcondition = conditionType.equals(ContractConditionEnum.POSTCONDITION);
+        var prefix = (isPostcondition ? Constants.POSTCONDITION_METHOD_PREFIX : Constants.PRECONDITION_METHOD_PREFIX);
+        var name = javac.Name(prefix + declaringMethod.name + "$" + declaringClass.flatName().toString().replace('.', '$'));
+        var flags = Flags.PUBLIC | Flags.SYNTHETIC | (declaringClass.isInterface() ? Flags.DEFAULT : 0);
+        var sharedSymbol = new MethodSymbol(flags, name, null, declaringClass);
+
+        var checkerParam = new VarSymbol(Flags.PARAMETER, javac.Name(Constants.CHECKER_PARAMETER_IDENTIFIER_STRING), javac.preconditionCheckerType(), sharedSymbol);
+        var params = declaringMethod.params().map((VarSymbol param) -> new VarSymbol(Flags.PARAMETER, param.name, param.type, sharedSymbol)).prepend(checkerParam);
+        if (isPostcondition) {
+            if (!declaringMethod.getReturnType().equals(javac.voidType())) {
+                params = params.append(new VarSymbol(Flags.PARAMETER, javac.Name(Constants.RETURNS_SYNTHETIC_IDENTIFIER_STRING), declaringMethod.getReturnType(), sharedSymbol));
+            }
+            params = params.append(new VarSymbol(Flags.PARAMETER, javac.Name(Constants.RAISES_SYNTHETIC_IDENTIFIER_STRING), javac.throwableType(), sharedSymbol));
+        }
+        sharedSymbol.params = params;
+
+        Type sharedMethodType = new Type.MethodType(params.map((VarSymbol param) -> param.type), javac.voidType(), List.nil(), javac.methodClass());
+        if (declaringMethod.type instanceof Type.ForAll) {
+            sharedMethodType = new Type.ForAll(((Type.ForAll) declaringMethod.type).tvars, sharedMethodType);
+        }
+        sharedSymbol.type = sharedMethodType;
+
+        var existingSymbol = declaringClass.members().findFirst(name, (Symbol member) ->
+                member instanceof MethodSymbol && javac.hasSameErasure(member.type, sharedSymbol.type));
+        if (existingSymbol != null) {
+            return Optional.of((MethodSymbol) existingSymbol);
+        }
+        if (!javac.isCompiledFromSource(declaringClass)) {
+            return Optional.empty();
+        }
+        declaringClass.members().enter(sharedSymbol);
+        return Optional.of(sharedSymbol);
+    }
+
+    /**
+     * Finds the shared check method that can replace the checking code of a group of clauses.
+     *
+     * The clause group must be declared by a method with a shared check method; moreover, the currently
+     * instrumented method must bind the clauses exactly as the declaring method, i.e., with the same parameter names
+     * and with the same (or overriding) clause methods.
+     * @param checkMethod the synthetic method that holds the checker.
+     * @param conditionGroup a group of resolved conditions, declared by the same method.
+     * @return the shared check method, if the group can be checked by it.
+     */
+    private Optional<MethodSymbol> findSharedCheckMethod(JCMethodDecl checkMethod, List<ConditionClause> conditionGroup) {
+        var conditionType = conditionGroup.head.getConditionType();
+        if (conditionType.equals(ContractConditionEnum.INVARIANT) || !(conditionGroup.head.getDeclaringSymbol() instanceof MethodSymbol)) {
+            return Optional.empty();
+        }
+        var declaringMethod = (MethodSymbol) conditionGroup.head.getDeclaringSymbol();
+        var declaredClauses = constructDeclaredClauses(conditionType, declaringMethod);
+        if (!isShareable(declaringMethod, declaredClauses) || declaredClauses.size() != conditionGroup.size()) {
+            return Optional.empty();
+        }
+
+        var declaringParamNames = declaringMethod.params().map((VarSymbol param) -> param.name);
+        var checkParamNames = checkMethod.sym.params().take(declaringParamNames.size()).map((VarSymbol param) -> param.name);
+        if (!declaringParamNames.equals(checkParamNames)) {
+            return Optional.empty();
+        }
+
+        var currentClassSymbol = state.currentClassDecl().get().sym;
+        var sameClauseMethods = Streams.zip(conditionGroup.stream(), declaredClauses.stream(), (ConditionClause clause, ConditionClause declaredClause) ->
+                clause.getResolvedMethodSymbol().isPresent() &&
+                        javac.overrides(clause.getResolvedMethodSymbol().get(), declaredClause.resolveInDeclaringType().get(), currentClassSymbol))
+                .allMatch(Boolean::booleanValue);
+        if (!sameClauseMethods) {
+            return Optional.empty();
+        }
+
+        return sharedCheckMethodSymbol(conditionType, declaringMethod);
+    }
+
+    /**
+     * Builds a call to a shared check method, passing the condition checker and the parameters of the
+     * synthetic check method of the instrumented method.
+     * @param sharedCheckMethod the shared check method.
+     * @param checkMethod the synthetic method that holds the checker.
+     * @param checkerVarDef the checker variable definition.
+     * @return the call statement.
+     */
+    private JCStatement buildSharedCheckMethodCall(MethodSymbol sharedCheckMethod, JCMethodDecl checkMethod, JCVariableDecl checkerVarDef) {
+        var args = checkMethod.sym.params().take(sharedCheckMethod.params().size() - 1).prepend(checkerVarDef.sym);
+        return buildSyntheticMethodCall(sharedCheckMethod, args);
     }
 
     /**
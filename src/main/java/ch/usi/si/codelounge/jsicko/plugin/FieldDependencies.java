@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin;
+
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Kinds;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.*;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeScanner;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * The fields read and written by the methods of a class, used to check after each method only the
+ * invariants that the method may break.
+ *
+ * The analysis is conservative and intraprocedural, following only the calls to the methods declared by
+ * the class (through any receiver):
+ * <ul>
+ *     <li>a method reads all the fields it references, directly or through the methods it calls;</li>
+ *     <li>a method writes the fields it assigns, and the fields of mutable types it references (e.g., a list
+ *     it adds elements to), directly or through the non-pure methods it calls;</li>
+ *     <li>the reads and writes of a method are unknown (i.e., all the fields) if it calls a non-pure method
+ *     inherited by the class or without a body, or, for writes only, if it lets <code>this</code> escape to
+ *     other code (e.g., as an argument or by creating an instance of an inner class).</li>
+ * </ul>
+ * The analysis assumes that the state of an object is not modified through aliases of its fields exposed
+ * outside the class, and holds only for the methods of the class itself: overriding methods may read and
+ * write different fields, so instances of subclasses must be checked in full.
+ *
+ * The effects of the methods are computed once, when the class is entered, i.e., before its methods are
+ * instrumented.
+ */
+final class FieldDependencies {
+
+    private static final Set<String> IMMUTABLE_TYPES = Set.of(String.class.getName(), Boolean.class.getName(),
+            Character.class.getName(), Byte.class.getName(), Short.class.getName(), Integer.class.getName(),
+            Long.class.getName(), Float.class.getName(), Double.class.getName());
+
+    /**
+     * The direct effects of a method, i.e., excluding the methods it calls.
+     */
+    private static final class Effects {
+
+        private final Set<Symbol> readFields = new HashSet<>();
+        private final Set<Symbol> writtenFields = new HashSet<>();
+        private final Set<MethodSymbol> calledMethods = new HashSet<>();
+        private boolean unknownReads = false;
+        private boolean unknownWrites = false;
+    }
+
+    private final ClassSymbol classSymbol;
+    private final Set<Symbol> classClosure;
+    private final Predicate<Symbol> isPure;
+    private final Map<MethodSymbol, Effects> effectsByMethod;
+
+    private FieldDependencies(ClassSymbol classSymbol, Set<Symbol> classClosure, Predicate<Symbol> isPure) {
+        this.classSymbol = classSymbol;
+        this.classClosure = classClosure;
+        this.isPure = isPure;
+        this.effectsByMethod = new HashMap<>();
+    }
+
+    /**
+     * Computes the effects of the methods of a class.
+     * @param classDecl the class declaration, not yet instrumented.
+     * @param classClosure the symbols of the class and of its supertypes.
+     * @param isPure decides if a method is pure.
+     * @return the field dependencies of the class.
+     */
+    static FieldDependencies of(JCClassDecl classDecl, Set<Symbol> classClosure, Predicate<Symbol> isPure) {
+        var dependencies = new FieldDependencies(classDecl.sym, classClosure, isPure);
+        var methodDecls = classDecl.defs.stream()
+                .filter((JCTree def) -> def instanceof JCMethodDecl)
+                .map((JCTree def) -> (JCMethodDecl) def)
+                .collect(Collectors.toList());
+        methodDecls.forEach((JCMethodDecl methodDecl) -> dependencies.effectsByMethod.put(methodDecl.sym, new Effects()));
+        methodDecls.forEach((JCMethodDecl methodDecl) -> {
+            var effects = dependencies.effectsByMethod.get(methodDecl.sym);
+            if (methodDecl.body == null) {
+                effects.unknownReads = true;
+                effects.unknownWrites = true;
+            } else {
+                dependencies.new EffectsScanner(effects).scan(methodDecl.body);
+            }
+        });
+        return dependencies;
+    }
+
+    /**
+     * Returns the fields a method may read.
+     * @param methodSymbol a method of the class.
+     * @return the fields read, or empty if unknown.
+     */
+    Optional<Set<Symbol>> readFields(MethodSymbol methodSymbol) {
+        return collect(methodSymbol, (Effects effects) -> effects.unknownReads, (Effects effects) -> effects.readFields, (MethodSymbol callee) -> true);
+    }
+
+    /**
+     * Returns the fields a method may write.
+     * @param methodSymbol a method of the class.
+     * @return the fields written, or empty if unknown.
+     */
+    Optional<Set<Symbol>> writtenFields(MethodSymbol methodSymbol) {
+        return collect(methodSymbol, (Effects effects) -> effects.unknownWrites, (Effects effects) -> effects.writtenFields,
+                (MethodSymbol callee) -> !isPure.test(callee));
+    }
+
+    /**
+     * Checks if a method may break an invariant, i.e., if it may write a field that the invariant may read.
+     * @param methodSymbol a method of the class.
+     * @param invariantSymbol an invariant method, of the class or inherited.
+     * @return <code>false</code> iff the method certainly does not write any field read by the invariant.
+     */
+    boolean mayBreak(MethodSymbol methodSymbol, MethodSymbol invariantSymbol) {
+        var writtenFields = writtenFields(methodSymbol);
+        var readFields = readFields(invariantSymbol);
+        if (writtenFields.isEmpty() || readFields.isEmpty()) {
+            return true;
+        }
+        return writtenFields.get().stream().anyMatch(readFields.get()::contains);
+    }
+
+    /**
+     * Collects the fields of a kind affected by a method and by the methods it transitively calls.
+     * @param methodSymbol the method.
+     * @param unknown decides if the direct effects are unknown.
+     * @param fields the direct effects on fields.
+     * @param follow decides if the effects of a called method must be collected.
+     * @return the collected fields, or empty if unknown.
+     */
+    private Optional<Set<Symbol>> collect(MethodSymbol methodSymbol, Predicate<Effects> unknown,
+                                          Function<Effects, Set<Symbol>> fields, Predicate<MethodSymbol> follow) {
+        var collected = new HashSet<Symbol>();
+        var visited = new HashSet<MethodSymbol>();
+        var pending = new ArrayDeque<MethodSymbol>();
+        pending.push(methodSymbol);
+        while (!pending.isEmpty()) {
+            var current = pending.pop();
+            if (!visited.add(current)) {
+                continue;
+            }
+            var effects = effectsByMethod.get(current);
+            if (effects == null || unknown.test(effects)) {
+                return Optional.empty();
+            }
+            collected.addAll(fields.apply(effects));
+            effects.calledMethods.stream().filter(follow).forEach(pending::push);
+        }
+        return Optional.of(collected);
+    }
+
+    /**
+     * Scans the body of a method, collecting its direct effects.
+     */
+    private final class EffectsScanner extends TreeScanner {
+
+        private final Effects effects;
+
+        EffectsScanner(Effects effects) {
+            this.effects = effects;
+        }
+
+        @Override
+        public void visitIdent(JCIdent tree) {
+            if (isThis(tree)) {
+                effects.unknownWrites = true;
+            } else {
+                referenceField(tree.sym);
+            }
+        }
+
+        @Override
+        public void visitSelect(JCFieldAccess tree) {
+            if (isThis(tree)) {
+                effects.unknownWrites = true;
+                return;
+            }
+            if (!isThisOrSuper(tree.selected)) {
+                scan(tree.selected);
+            }
+            referenceField(tree.sym);
+        }
+
+        @Override
+        public void visitAssign(JCAssign tree) {
+            writeField(tree.lhs);
+            super.visitAssign(tree);
+        }
+
+        @Override
+        public void visitAssignop(JCAssignOp tree) {
+            writeField(tree.lhs);
+            super.visitAssignop(tree);
+        }
+
+        @Override
+        public void visitUnary(JCUnary tree) {
+            switch (tree.getTag()) {
+                case PREINC:
+                case PREDEC:
+                case POSTINC:
+                case POSTDEC:
+                    writeField(tree.arg);
+                    break;
+                default:
+                    break;
+            }
+            super.visitUnary(tree);
+        }
+
+        @Override
+        public void visitApply(JCMethodInvocation tree) {
+            var symbol = TreeInfo.symbol(tree.meth);
+            var receiver = tree.meth instanceof JCFieldAccess ? ((JCFieldAccess) tree.meth).selected : null;
+            if (symbol instanceof MethodSymbol) {
+                callMethod((MethodSymbol) symbol, receiver);
+            }
+            if (receiver != null && !isThisOrSuper(receiver)) {
+                scan(receiver);
+            }
+            scan(tree.args);
+        }
+
+        @Override
+        public void visitReference(JCMemberReference tree) {
+            if (tree.sym instanceof MethodSymbol) {
+                callMethod((MethodSymbol) tree.sym, tree.expr);
+            }
+            if (!isThisOrSuper(tree.expr)) {
+                scan(tree.expr);
+            }
+        }
+
+        @Override
+        public void visitNewClass(JCNewClass tree) {
+            var constructedClass = tree.type == null ? null : tree.type.tsym;
+            if (tree.def == null && tree.encl == null && constructedClass != null && constructedClass.hasOuterInstance()) {
+                effects.unknownWrites = true;
+            }
+            super.visitNewClass(tree);
+        }
+
+        @Override
+        public void visitClassDef(JCClassDecl tree) {
+            scan(tree.defs);
+        }
+
+        /**
+         * Records a call: the methods of the class are followed, while the other methods of its supertypes
+         * have unknown effects if they are not pure and their receiver may be <code>this</code>.
+         * @param methodSymbol the called method.
+         * @param receiver the explicit receiver of the call, or <code>null</code> if implicit.
+         */
+        private void callMethod(MethodSymbol methodSymbol, JCExpression receiver) {
+            if (methodSymbol.isConstructor()) {
+                return;
+            }
+            if (effectsByMethod.containsKey(methodSymbol)) {
+                effects.calledMethods.add(methodSymbol);
+            } else if (classClosure.contains(methodSymbol.owner) && !isPure.test(methodSymbol) && mayBeThis(receiver)) {
+                effects.unknownReads = true;
+                effects.unknownWrites = true;
+            }
+        }
+
+        private boolean mayBeThis(JCExpression receiver) {
+            return receiver == null || isThisOrSuper(receiver) ||
+                    (receiver.type != null && classClosure.contains(receiver.type.tsym));
+        }
+
+        private void referenceField(Symbol symbol) {
+            if (isField(symbol)) {
+                effects.readFields.add(symbol);
+                if (isMutable(symbol.type)) {
+                    effects.writtenFields.add(symbol);
+                }
+            }
+        }
+
+        private void writeField(JCExpression target) {
+            var symbol = TreeInfo.symbol(target);
+            if (isField(symbol)) {
+                effects.writtenFields.add(symbol);
+            }
+        }
+
+        private boolean isField(Symbol symbol) {
+            return symbol != null && symbol.kind == Kinds.Kind.VAR && symbol.owner != null && symbol.owner.kind == Kinds.Kind.TYP;
+        }
+
+        private boolean isMutable(Type type) {
+            return type != null && !type.isPrimitive() && !IMMUTABLE_TYPES.contains(type.tsym.flatName().toString()) &&
+                    (type.tsym.flags() & Flags.ENUM) == 0;
+        }
+
+        private boolean isThis(JCExpression tree) {
+            var name = TreeInfo.name(tree);
+            return name != null && name.contentEquals("this");
+        }
+
+        private boolean isThisOrSuper(JCExpression tree) {
+            var name = TreeInfo.name(tree);
+            return name != null && (name.contentEquals("this") || name.contentEquals("super"));
+        }
+    }
+}
@@ -48,10 +48,15 @@ public class JSickoContractCompiler implements Plugin {
     }
 
 
+    /**
+     * Initializes the plugin.
+     * @param task the compilation task.
+     * @param args the plugin arguments, i.e., the instrumentation profile (see {@link ContractCompilerOptions}).
+     */
     @Override
     public void init(JavacTask task, String... args) {
         Context context = ((BasicJavacTask) task).getContext();
-        ContractCompilerTaskListener contractCollectorTaskListener = new ContractCompilerTaskListener(task);
+        ContractCompilerTaskListener contractCollectorTaskListener = new ContractCompilerTaskListener(task, ContractCompilerOptions.parse(args));
         task.addTaskListener(contractCollectorTaskListener);
     }
 
@@ -27,14 +27,19 @@ import com.sun.source.tree.Tree;
 import com.sun.tools.javac.api.BasicJavacTask;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.JCTree.*;
 import com.sun.tools.javac.util.JCDiagnostic;
 import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
 
 import javax.lang.model.element.Modifier;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -48,6 +53,7 @@ class JSickoContractCompilerState {
     private final JavacUtils javac;
     private final LinkedList<InternalState> stack;
     Optional<JCCompilationUnit> _currentCompilationUnitTree = Optional.empty();
+    Optional<PreconditionElision> _preconditionElision = Optional.empty();
 
 
     private class InternalState {
@@ -63,8 +69,15 @@ class JSickoContractCompilerState {
 
         Optional<JCVariableDecl> _optionalOldValuesTableField = Optional.empty();
         Optional<JCVariableDecl> _optionalStaticOldValuesTableField = Optional.empty();
+        Optional<JCVariableDecl> _optionalConfigurationHandleField = Optional.empty();
         Optional<JCMethodDecl> _overriddenOldMethod = Optional.empty();
         Optional<Symbol.MethodSymbol> _currentOldMethodSymbol = Optional.empty();
+
+        Optional<JCMethodDecl> _invariantsCheckMethod = Optional.empty();
+        Map<String, JCMethodDecl> _partialInvariantsCheckMethods = new HashMap<>();
+        Optional<FieldDependencies> _fieldDependencies = Optional.empty();
+        Set<Name> _sharedClauseNames = Set.of();
+        Map<String, Integer> _syntheticMethodNameCounters = new HashMap<>();
     }
 
     /**
@@ -110,6 +123,7 @@ class JSickoContractCompilerState {
      */
     void exitCompilationUnit() {
         this._currentCompilationUnitTree = Optional.empty();
+        this._preconditionElision = Optional.empty();
         this.stack.clear();
     }
 
@@ -174,11 +188,17 @@ class JSickoContractCompilerState {
         curr()._currentClassDecl = Optional.empty();
         curr()._optionalOldValuesTableField = Optional.empty();
         curr()._optionalStaticOldValuesTableField = Optional.empty();
+        curr()._optionalConfigurationHandleField = Optional.empty();
         curr()._currentMethodReturnVarDecl = Optional.empty();
         curr()._currentMethodRaisesVarDecl = Optional.empty();
         curr()._overriddenOldMethod = Optional.empty();
         curr()._classInvariants = List.nil();
         curr()._currentClassHasContract = false;
+        curr()._invariantsCheckMethod = Optional.empty();
+        curr()._partialInvariantsCheckMethods.clear();
+        curr()._fieldDependencies = Optional.empty();
+        curr()._sharedClauseNames = Set.of();
+        curr()._syntheticMethodNameCounters.clear();
         this.stack.removeLast();
     }
 
@@ -344,6 +364,152 @@ class JSickoContractCompilerState {
         curr()._currentClassDecl.get().sym.members().enter(varDef.sym);
     }
 
+    /**
+     * Returns the field holding the configuration handle of the currently visited class, if declared.
+     * @return the optional field declaration.
+     */
+    Optional<JCVariableDecl> optionalConfigurationHandleField() {
+        return curr()._optionalConfigurationHandleField;
+    }
+
+    /**
+     * Appends the field holding the configuration handle to the currently visited class.
+     * @param varDef the field to append.
+     */
+    void appendConfigurationHandleField(JCVariableDecl varDef) {
+        curr()._optionalConfigurationHandleField = Optional.of(varDef);
+        appendSyntheticField(varDef);
+    }
+
+    /**
+     * Appends a synthetic field to the currently visited class.
+     * @param varDef the synthetic field declaration.
+     */
+    void appendSyntheticField(JCVariableDecl varDef) {
+        curr()._currentClassDecl.get().defs = curr()._currentClassDecl.get().defs.prepend(varDef);
+        curr()._currentClassDecl.get().sym.members().enter(varDef.sym);
+    }
+
+    /**
+     * Returns a name for a synthetic method, unique in the currently visited class.
+     *
+     * The first method requested for a given base name gets the base name itself,
+     * the following ones get a numeric suffix, so that synthetic methods of
+     * overloaded methods never clash.
+     * @param baseName the base name of the synthetic method.
+     * @return a fresh synthetic method name.
+     */
+    String freshSyntheticMethodName(String baseName) {
+        var counter = curr()._syntheticMethodNameCounters.merge(baseName, 1, Integer::sum);
+        return (counter == 1 ? baseName : baseName + "$" + (counter - 1));
+    }
+
+    /**
+     * Appends a synthetic method to the currently visited class.
+     * @param syntheticMethod the synthetic method declaration to append.
+     */
+    void appendSyntheticMethod(JCMethodDecl syntheticMethod) {
+        var classDecl = curr()._currentClassDecl.get();
+        classDecl.defs = classDecl.defs.append(syntheticMethod);
+        if (!classDecl.sym.members().includes(syntheticMethod.sym)) {
+            classDecl.sym.members().enter(syntheticMethod.sym);
+        }
+    }
+
+    /**
+     * Checks if the currently visited class already declares a method with the given symbol.
+     * @param methodSymbol a method symbol.
+     * @return <code>true</code> iff the current class declaration contains a method declaration for the symbol.
+     */
+    boolean currentClassDeclaresMethod(Symbol.MethodSymbol methodSymbol) {
+        return curr()._currentClassDecl.get().defs.stream()
+                .anyMatch((JCTree def) -> def instanceof JCMethodDecl && ((JCMethodDecl) def).sym == methodSymbol);
+    }
+
+    /**
+     * Returns the synthetic method checking the invariants of the currently visited class, if already declared.
+     * @return the invariants check method, if present.
+     */
+    Optional<JCMethodDecl> invariantsCheckMethod() {
+        return curr()._invariantsCheckMethod;
+    }
+
+    /**
+     * Sets the synthetic method checking the invariants of the currently visited class.
+     * @param invariantsCheckMethod the invariants check method declaration.
+     */
+    void setInvariantsCheckMethod(JCMethodDecl invariantsCheckMethod) {
+        curr()._invariantsCheckMethod = Optional.of(invariantsCheckMethod);
+    }
+
+    /**
+     * Returns the synthetic method checking a subset of the invariants of the currently visited class, if already declared.
+     * @param key the key of the subset of invariants.
+     * @return the invariants check method, if present.
+     */
+    Optional<JCMethodDecl> partialInvariantsCheckMethod(String key) {
+        return Optional.ofNullable(curr()._partialInvariantsCheckMethods.get(key));
+    }
+
+    /**
+     * Sets the synthetic method checking a subset of the invariants of the currently visited class.
+     * @param key the key of the subset of invariants.
+     * @param invariantsCheckMethod the invariants check method declaration.
+     */
+    void setPartialInvariantsCheckMethod(String key, JCMethodDecl invariantsCheckMethod) {
+        curr()._partialInvariantsCheckMethods.put(key, invariantsCheckMethod);
+    }
+
+    /**
+     * Returns the field dependencies of the methods of the currently visited class, if computed.
+     * @return the field dependencies, if present.
+     */
+    Optional<FieldDependencies> fieldDependencies() {
+        return curr()._fieldDependencies;
+    }
+
+    /**
+     * Returns the calls of the current compilation unit whose preconditions are proven, if computed.
+     * @return the precondition elision of the compilation unit.
+     */
+    Optional<PreconditionElision> preconditionElision() {
+        return this._preconditionElision;
+    }
+
+    /**
+     * Sets the calls of the current compilation unit whose preconditions are proven.
+     * @param preconditionElision the precondition elision.
+     */
+    void setPreconditionElision(PreconditionElision preconditionElision) {
+        this._preconditionElision = Optional.of(preconditionElision);
+    }
+
+    /**
+     * Sets the field dependencies of the methods of the currently visited class.
+     * @param fieldDependencies the field dependencies.
+     */
+    void setFieldDependencies(FieldDependencies fieldDependencies) {
+        curr()._fieldDependencies = Optional.of(fieldDependencies);
+    }
+
+    /**
+     * Returns the names of the pure invariant clauses of the currently visited class that are also
+     * postcondition clauses of some of its methods, empty if not computed.
+     * @return the names of the shared clauses.
+     */
+    Set<Name> sharedClauseNames() {
+        return curr()._sharedClauseNames;
+    }
+
+    /**
+     * Sets the names of the pure invariant clauses of the currently visited class that are also
+     * postcondition clauses of some of its methods.
+     * @param sharedClauseNames the names of the shared clauses.
+     */
+    void setSharedClauseNames(Set<Name> sharedClauseNames) {
+        curr()._sharedClauseNames = sharedClauseNames;
+    }
+
     /**
      * Returns the raises synthetic variable of the currently visited method.
      * @return the declaration of the raises variable.
@@ -368,6 +534,27 @@ class JSickoContractCompilerState {
         curr()._currentMethodRaisesVarDecl = Optional.of(varDef);
     }
 
+    /**
+     * Executes some code while the returns and raises synthetic variables of the currently visited
+     * method are temporarily bound to other declarations, e.g., the parameters of a synthetic method.
+     *
+     * @param returnVarDecl the declaration to bind to the returns synthetic variable, if any.
+     * @param raisesVarDecl the declaration to bind to the raises synthetic variable, if any.
+     * @param runnable the code to execute.
+     */
+    void withReturnAndRaisesVarDecls(Optional<JCVariableDecl> returnVarDecl, Optional<JCVariableDecl> raisesVarDecl, Runnable runnable) {
+        var previousReturnVarDecl = curr()._currentMethodReturnVarDecl;
+        var previousRaisesVarDecl = curr()._currentMethodRaisesVarDecl;
+        curr()._currentMethodReturnVarDecl = returnVarDecl;
+        curr()._currentMethodRaisesVarDecl = raisesVarDecl;
+        try {
+            runnable.run();
+        } finally {
+            curr()._currentMethodReturnVarDecl = previousReturnVarDecl;
+            curr()._currentMethodRaisesVarDecl = previousRaisesVarDecl;
+        }
+    }
+
     /**
      * Returns the invariants in the currently visited class.
      * @return the list of invariant clauses in the currently visited class.
@@ -407,6 +594,15 @@ class JSickoContractCompilerState {
         return tree.equals(curr()._currentMethodDecl.get());
     }
 
+    /**
+     * Checks if a type is a jSicko contract type, i.e., if it is or inherits an interface extending Contract.
+     * @param t any type.
+     * @return <code>true</code> iff the type has at least a contract type.
+     */
+    boolean isContractType(Type t) {
+        return !retrieveContractTypes(t).isEmpty();
+    }
+
     /**
      * Retrieves the contract types for a given type t.
      *
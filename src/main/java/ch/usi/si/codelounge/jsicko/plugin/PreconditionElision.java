@@ -0,0 +1,655 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin;
+
+import com.sun.tools.javac.code.Kinds;
+import ch.usi.si.codelounge.jsicko.plugin.utils.JavacUtils;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.*;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.util.List;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * The calls of a compilation unit whose preconditions are proven at compile time, so that the callee can skip
+ * checking them.
+ *
+ * The analysis is intraprocedural and handles only simple cases, in which each clause of the preconditions declared
+ * by the callee itself (a disjunct of its preconditions) is proven:
+ * <ul>
+ *     <li>by evaluating the clause on the constant arguments of the call, and on arguments known to be non-null
+ *     (string literals and <code>this</code>), if the clause returns an expression over its parameters and constants;</li>
+ *     <li>by an equivalent clause (returning the same expression, up to the name of the parameter) in the postconditions
+ *     of the call that initialized (or assigned) the argument in the previous statement, if the clauses have a single
+ *     parameter and do not depend on the state of their receiver.</li>
+ * </ul>
+ * Both the callee and the clause methods must be declared in the compilation unit. Only call statements whose
+ * receiver and arguments are evaluated without side effects are considered, so that nothing is executed between
+ * the statement recording the proof (see {@link ch.usi.si.codelounge.jsicko.plugin.utils.ConditionChecker#elidePrecondition})
+ * and the call.
+ *
+ * The calls are computed once, when the compilation unit is entered, i.e., before its methods are instrumented.
+ */
+final class PreconditionElision {
+
+    /**
+     * The value of an argument known to be non-null, but not constant.
+     */
+    private static final Object NON_NULL = new Object();
+
+    /**
+     * The value of the null literal.
+     */
+    private static final Object NULL = new Object();
+
+    /**
+     * A call statement whose preconditions are proven.
+     */
+    static final class ElidedCall {
+
+        private final JCStatement statement;
+        private final JCMethodInvocation invocation;
+        private final MethodSymbol callee;
+        private final MethodSymbol caller;
+        private final Optional<JCExpression> receiver;
+
+        private ElidedCall(JCStatement statement, JCMethodInvocation invocation, MethodSymbol callee, MethodSymbol caller,
+                           Optional<JCExpression> receiver) {
+            this.statement = statement;
+            this.invocation = invocation;
+            this.callee = callee;
+            this.caller = caller;
+            this.receiver = receiver;
+        }
+
+        /**
+         * Returns the statement containing the call, before which the proof must be recorded.
+         * @return the call statement.
+         */
+        JCStatement statement() {
+            return statement;
+        }
+
+        JCMethodInvocation invocation() {
+            return invocation;
+        }
+
+        MethodSymbol callee() {
+            return callee;
+        }
+
+        MethodSymbol caller() {
+            return caller;
+        }
+
+        /**
+         * Returns the local variable receiving the call, or an empty optional if the callee is static
+         * or the receiver is <code>this</code>.
+         * @return the local variable receiving the call.
+         */
+        Optional<JCExpression> receiver() {
+            return receiver;
+        }
+    }
+
+    private final JavacUtils javac;
+    private final BiFunction<ContractConditionEnum, MethodSymbol, List<ConditionClause>> declaredClauses;
+    private final Map<MethodSymbol, JCMethodDecl> methodDecls;
+    private final java.util.List<ElidedCall> elidedCalls;
+    private final Set<MethodSymbol> instrumentedCallees;
+
+    private PreconditionElision(JavacUtils javac, BiFunction<ContractConditionEnum, MethodSymbol, List<ConditionClause>> declaredClauses) {
+        this.javac = javac;
+        this.declaredClauses = declaredClauses;
+        this.methodDecls = new HashMap<>();
+        this.elidedCalls = new ArrayList<>();
+        this.instrumentedCallees = new HashSet<>();
+    }
+
+    /**
+     * Computes the calls of a compilation unit whose preconditions are proven.
+     * @param compilationUnit the compilation unit, not yet instrumented.
+     * @param javac the javac utils object for this compilation task.
+     * @param declaredClauses returns the clauses of a condition type declared by a method.
+     * @return the precondition elision of the compilation unit.
+     */
+    static PreconditionElision of(JCCompilationUnit compilationUnit, JavacUtils javac,
+                                  BiFunction<ContractConditionEnum, MethodSymbol, List<ConditionClause>> declaredClauses) {
+        var elision = new PreconditionElision(javac, declaredClauses);
+        new TreeScanner() {
+            @Override
+            public void visitMethodDef(JCMethodDecl methodDecl) {
+                elision.methodDecls.put(methodDecl.sym, methodDecl);
+                super.visitMethodDef(methodDecl);
+            }
+        }.scan(compilationUnit);
+        elision.new CallScanner().scan(compilationUnit);
+        return elision;
+    }
+
+    /**
+     * Checks if some call of the compilation unit proves the preconditions of a method.
+     * @param methodSymbol a method.
+     * @return <code>true</code> iff the method is the callee of an elided call.
+     */
+    boolean isCallee(MethodSymbol methodSymbol) {
+        return elidedCalls.stream().anyMatch((ElidedCall call) -> call.callee == methodSymbol);
+    }
+
+    /**
+     * Records that an instrumented callee skips its precondition checks for proven calls.
+     * @param methodSymbol the callee.
+     */
+    void calleeInstrumented(MethodSymbol methodSymbol) {
+        instrumentedCallees.add(methodSymbol);
+    }
+
+    /**
+     * Returns the elided calls to instrumented callees.
+     * @return the elided calls whose callee skips its precondition checks for proven calls.
+     */
+    java.util.List<ElidedCall> elidedCalls() {
+        return elidedCalls.stream().filter((ElidedCall call) -> instrumentedCallees.contains(call.callee))
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * Finds the call statements whose preconditions are proven in the blocks of the compilation unit.
+     */
+    private final class CallScanner extends TreeScanner {
+
+        private MethodSymbol caller;
+
+        @Override
+        public void visitMethodDef(JCMethodDecl methodDecl) {
+            var enclosingCaller = caller;
+            caller = methodDecl.sym;
+            super.visitMethodDef(methodDecl);
+            caller = enclosingCaller;
+        }
+
+        @Override
+        public void visitClassDef(JCClassDecl classDecl) {
+            var enclosingCaller = caller;
+            caller = null;
+            super.visitClassDef(classDecl);
+            caller = enclosingCaller;
+        }
+
+        @Override
+        public void visitLambda(JCLambda lambda) {
+            var enclosingCaller = caller;
+            caller = null;
+            super.visitLambda(lambda);
+            caller = enclosingCaller;
+        }
+
+        @Override
+        public void visitBlock(JCBlock block) {
+            if (caller != null) {
+                JCStatement previous = null;
+                for (var statement : block.stats) {
+                    findElidedCall(statement, previous).ifPresent(elidedCalls::add);
+                    previous = statement;
+                }
+            }
+            super.visitBlock(block);
+        }
+
+        private Optional<ElidedCall> findElidedCall(JCStatement statement, JCStatement previous) {
+            return callOf(statement).flatMap((JCMethodInvocation invocation) -> {
+                var calleeSymbol = TreeInfo.symbol(invocation.meth);
+                if (!(calleeSymbol instanceof MethodSymbol) || !methodDecls.containsKey(calleeSymbol)) {
+                    return Optional.empty();
+                }
+                var callee = (MethodSymbol) calleeSymbol;
+                if (callee.isConstructor() || callee.isVarArgs() || invocation.args.size() != callee.params().size()) {
+                    return Optional.empty();
+                }
+                if (!hasSimpleReceiver(invocation, callee, caller) || !hasSimpleArguments(invocation, callee) ||
+                        !isProven(invocation, callee, previous)) {
+                    return Optional.empty();
+                }
+                var selected = invocation.meth instanceof JCFieldAccess ? ((JCFieldAccess) invocation.meth).selected : null;
+                var receiver = !callee.isStatic() && isLocalVariable(selected) ? Optional.of(selected) : Optional.<JCExpression>empty();
+                return Optional.of(new ElidedCall(statement, invocation, callee, caller, receiver));
+            });
+        }
+    }
+
+    /**
+     * Returns the call of a call statement, i.e., a statement executing, returning, or assigning (to a local variable)
+     * the result of a call.
+     */
+    private static Optional<JCMethodInvocation> callOf(JCStatement statement) {
+        JCExpression expression = null;
+        if (statement instanceof JCExpressionStatement) {
+            expression = ((JCExpressionStatement) statement).expr;
+            if (expression instanceof JCAssign && isLocalVariable(((JCAssign) expression).lhs)) {
+                expression = ((JCAssign) expression).rhs;
+            }
+        } else if (statement instanceof JCVariableDecl) {
+            expression = ((JCVariableDecl) statement).init;
+        } else if (statement instanceof JCReturn) {
+            expression = ((JCReturn) statement).expr;
+        }
+        return expression instanceof JCMethodInvocation ? Optional.of((JCMethodInvocation) expression) : Optional.empty();
+    }
+
+    /**
+     * Checks that the receiver of a call is evaluated without side effects, i.e., that it is a type for static
+     * callees, and otherwise <code>this</code> (implicitly or not, and not of an enclosing class) or a local variable.
+     */
+    private boolean hasSimpleReceiver(JCMethodInvocation invocation, MethodSymbol callee, MethodSymbol caller) {
+        if (invocation.meth instanceof JCIdent) {
+            return callee.isStatic() || (!caller.isStatic() && javac.typeClosure(caller.enclClass().type).stream()
+                    .anyMatch((Type type) -> type.tsym == callee.owner));
+        }
+        var selected = ((JCFieldAccess) invocation.meth).selected;
+        if (callee.isStatic()) {
+            return TreeInfo.symbol(selected) != null && TreeInfo.symbol(selected).kind == Kinds.Kind.TYP;
+        }
+        return isThis(selected) || isLocalVariable(selected);
+    }
+
+    /**
+     * Checks that the arguments of a call are literals, constants, <code>this</code>, or local variables,
+     * not unboxed by the call.
+     */
+    private boolean hasSimpleArguments(JCMethodInvocation invocation, MethodSymbol callee) {
+        var params = callee.params();
+        for (var arg : invocation.args) {
+            var param = params.head;
+            params = params.tail;
+            var isSimple = arg instanceof JCLiteral || arg.type.constValue() != null ||
+                    (arg instanceof JCIdent && (isThis(arg) || isLocalVariable(arg)));
+            if (!isSimple || (param.type.isPrimitive() && !arg.type.isPrimitive())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isThis(JCExpression expression) {
+        return expression instanceof JCIdent && ((JCIdent) expression).name.contentEquals("this");
+    }
+
+    private static boolean isLocalVariable(JCExpression expression) {
+        return expression instanceof JCIdent && ((JCIdent) expression).sym instanceof VarSymbol &&
+                ((JCIdent) expression).sym.owner.kind == Kinds.Kind.MTH;
+    }
+
+    /**
+     * Checks if all the precondition clauses declared by the callee are proven for a call.
+     */
+    private boolean isProven(JCMethodInvocation invocation, MethodSymbol callee, JCStatement previous) {
+        List<ConditionClause> clauses;
+        try {
+            clauses = declaredClauses.apply(ContractConditionEnum.PRECONDITION, callee);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return clauses.nonEmpty() && clauses.stream().allMatch((ConditionClause clause) -> clause.resolveInDeclaringType()
+                .map((MethodSymbol clauseMethod) -> isProvenByArguments(clause, clauseMethod, invocation, callee) ||
+                        isProvenByPreviousCall(clause, clauseMethod, invocation, callee, previous))
+                .orElse(false));
+    }
+
+    private boolean isProvenByArguments(ConditionClause clause, MethodSymbol clauseMethod, JCMethodInvocation invocation, MethodSymbol callee) {
+        return returnedExpression(clauseMethod).flatMap((JCExpression expression) -> {
+            var values = new HashMap<Symbol, Object>();
+            for (var clauseParam : clauseMethod.params()) {
+                argumentValue(boundArgument(clauseParam, invocation, callee)).ifPresent((Object value) -> values.put(clauseParam, value));
+            }
+            return evaluate(expression, values);
+        }).map((Object value) -> value.equals(!clause.isNegated())).orElse(false);
+    }
+
+    private boolean isProvenByPreviousCall(ConditionClause clause, MethodSymbol clauseMethod, JCMethodInvocation invocation,
+                                           MethodSymbol callee, JCStatement previous) {
+        if (previous == null || clauseMethod.params().size() != 1 || !isStateIndependent(clauseMethod)) {
+            return false;
+        }
+        var argument = boundArgument(clauseMethod.params().head, invocation, callee);
+        if (argument == null || !isLocalVariable(argument) || !TreeInfo.symbol(argument).equals(assignedVariable(previous))) {
+            return false;
+        }
+        return callOf(previous).map((JCMethodInvocation producerCall) -> {
+            var producer = TreeInfo.symbol(producerCall.meth);
+            if (!(producer instanceof MethodSymbol)) {
+                return false;
+            }
+            List<ConditionClause> postconditions;
+            try {
+                postconditions = declaredClauses.apply(ContractConditionEnum.POSTCONDITION, (MethodSymbol) producer);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            return postconditions.stream().anyMatch((ConditionClause postcondition) -> postcondition.isNegated() == clause.isNegated() &&
+                    postcondition.resolveInDeclaringType()
+                            .filter((MethodSymbol postconditionMethod) -> postconditionMethod.params().size() == 1 &&
+                                    postconditionMethod.params().head.name.contentEquals(Constants.RETURNS_CLAUSE_PARAMETER_IDENTIFIER_STRING))
+                            .filter((MethodSymbol postconditionMethod) -> isStateIndependent(postconditionMethod) &&
+                                    isEquivalentClause(postconditionMethod, clauseMethod))
+                            .isPresent());
+        }).orElse(false);
+    }
+
+    /**
+     * Checks if two clause methods with a single parameter return the same expression, up to the name
+     * of the parameter.
+     */
+    private boolean isEquivalentClause(MethodSymbol clauseMethod, MethodSymbol otherClauseMethod) {
+        var expression = returnedExpression(clauseMethod);
+        var otherExpression = returnedExpression(otherClauseMethod);
+        return expression.isPresent() && otherExpression.isPresent() && clauseMethod.params().head.type.equals(otherClauseMethod.params().head.type) &&
+                isEquivalent(expression.get(), otherExpression.get(), clauseMethod.params().head, otherClauseMethod.params().head);
+    }
+
+    private static boolean isEquivalent(JCTree tree, JCTree otherTree, Symbol param, Symbol otherParam) {
+        if (tree == null || otherTree == null) {
+            return tree == otherTree;
+        }
+        if (!tree.hasTag(otherTree.getTag())) {
+            return false;
+        }
+        if (tree instanceof JCIdent) {
+            var symbol = ((JCIdent) tree).sym;
+            var otherSymbol = ((JCIdent) otherTree).sym;
+            return symbol == param ? otherSymbol == otherParam : symbol != null && symbol == otherSymbol;
+        } else if (tree instanceof JCLiteral) {
+            return Objects.equals(((JCLiteral) tree).value, ((JCLiteral) otherTree).value) && tree.type.hasTag(otherTree.type.getTag());
+        } else if (tree instanceof JCParens) {
+            return isEquivalent(((JCParens) tree).expr, ((JCParens) otherTree).expr, param, otherParam);
+        } else if (tree instanceof JCUnary) {
+            return isEquivalent(((JCUnary) tree).arg, ((JCUnary) otherTree).arg, param, otherParam);
+        } else if (tree instanceof JCBinary) {
+            return isEquivalent(((JCBinary) tree).lhs, ((JCBinary) otherTree).lhs, param, otherParam) &&
+                    isEquivalent(((JCBinary) tree).rhs, ((JCBinary) otherTree).rhs, param, otherParam);
+        } else if (tree instanceof JCConditional) {
+            var conditional = (JCConditional) tree;
+            var otherConditional = (JCConditional) otherTree;
+            return isEquivalent(conditional.cond, otherConditional.cond, param, otherParam) &&
+                    isEquivalent(conditional.truepart, otherConditional.truepart, param, otherParam) &&
+                    isEquivalent(conditional.falsepart, otherConditional.falsepart, param, otherParam);
+        } else if (tree instanceof JCFieldAccess) {
+            return TreeInfo.symbol(tree) == TreeInfo.symbol(otherTree) &&
+                    isEquivalent(((JCFieldAccess) tree).selected, ((JCFieldAccess) otherTree).selected, param, otherParam);
+        } else if (tree instanceof JCMethodInvocation) {
+            var invocation = (JCMethodInvocation) tree;
+            var otherInvocation = (JCMethodInvocation) otherTree;
+            if (!isEquivalent(invocation.meth, otherInvocation.meth, param, otherParam) || invocation.args.size() != otherInvocation.args.size()) {
+                return false;
+            }
+            var otherArgs = otherInvocation.args;
+            for (var arg : invocation.args) {
+                if (!isEquivalent(arg, otherArgs.head, param, otherParam)) {
+                    return false;
+                }
+                otherArgs = otherArgs.tail;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static Symbol assignedVariable(JCStatement statement) {
+        if (statement instanceof JCVariableDecl) {
+            return ((JCVariableDecl) statement).sym;
+        } else if (statement instanceof JCExpressionStatement && ((JCExpressionStatement) statement).expr instanceof JCAssign) {
+            return TreeInfo.symbol(((JCAssign) ((JCExpressionStatement) statement).expr).lhs);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the argument of a call bound to a clause parameter, i.e., to the callee parameter with the same name.
+     */
+    private static JCExpression boundArgument(VarSymbol clauseParam, JCMethodInvocation invocation, MethodSymbol callee) {
+        var args = invocation.args;
+        for (var param : callee.params()) {
+            if (param.name.equals(clauseParam.name)) {
+                return args.head;
+            }
+            args = args.tail;
+        }
+        return null;
+    }
+
+    private Optional<Object> argumentValue(JCExpression argument) {
+        if (argument == null) {
+            return Optional.empty();
+        }
+        if (isThis(argument)) {
+            return Optional.of(NON_NULL);
+        }
+        return constantValue(argument);
+    }
+
+    /**
+     * Returns the expression returned by a clause method declared in the compilation unit, if its body is a single
+     * return statement.
+     */
+    private Optional<JCExpression> returnedExpression(MethodSymbol clauseMethod) {
+        var clauseDecl = methodDecls.get(clauseMethod);
+        if (clauseDecl == null || clauseDecl.body == null || clauseDecl.body.stats.size() != 1 ||
+                !(clauseDecl.body.stats.head instanceof JCReturn)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(((JCReturn) clauseDecl.body.stats.head).expr);
+    }
+
+    /**
+     * Checks if a clause method is static, or declared in the compilation unit without referencing
+     * the state of its receiver.
+     */
+    private boolean isStateIndependent(MethodSymbol clauseMethod) {
+        if (clauseMethod.isStatic()) {
+            return true;
+        }
+        var clauseDecl = methodDecls.get(clauseMethod);
+        if (clauseDecl == null || clauseDecl.body == null) {
+            return false;
+        }
+        var isIndependent = new boolean[] { true };
+        new TreeScanner() {
+            @Override
+            public void visitIdent(JCIdent ident) {
+                var symbol = ident.sym;
+                if (isThis(ident) || ident.name.contentEquals("super") ||
+                        (symbol != null && symbol.owner != null && symbol.owner.kind == Kinds.Kind.TYP && !symbol.isStatic() &&
+                                symbol.kind != Kinds.Kind.TYP)) {
+                    isIndependent[0] = false;
+                }
+            }
+        }.scan(clauseDecl.body);
+        return isIndependent[0];
+    }
+
+    /**
+     * Evaluates an expression over constants and the known values of some variables.
+     * @param expression the expression.
+     * @param values the values of the variables, i.e., constants or {@link #NON_NULL}.
+     * @return the value of the expression, or an empty optional if it is unknown.
+     */
+    private Optional<Object> evaluate(JCExpression expression, Map<Symbol, Object> values) {
+        var constant = constantValue(expression);
+        if (constant.isPresent()) {
+            return constant;
+        }
+        if (expression instanceof JCParens) {
+            return evaluate(((JCParens) expression).expr, values);
+        } else if (expression instanceof JCIdent) {
+            return Optional.ofNullable(values.get(((JCIdent) expression).sym));
+        } else if (expression instanceof JCConditional) {
+            var conditional = (JCConditional) expression;
+            return evaluate(conditional.cond, values).filter(Boolean.class::isInstance)
+                    .flatMap((Object condition) -> evaluate((Boolean) condition ? conditional.truepart : conditional.falsepart, values));
+        } else if (expression instanceof JCUnary) {
+            var unary = (JCUnary) expression;
+            return evaluate(unary.arg, values).flatMap((Object operand) -> evaluateUnary(unary, operand));
+        } else if (expression instanceof JCBinary) {
+            return evaluateBinary((JCBinary) expression, values);
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Object> evaluateUnary(JCUnary unary, Object operand) {
+        switch (unary.getTag()) {
+            case NOT:
+                return operand instanceof Boolean ? Optional.of(!(Boolean) operand) : Optional.empty();
+            case NEG:
+                if (operand instanceof Long) {
+                    return Optional.of(narrow(unary.type, -(Long) operand));
+                }
+                return operand instanceof Double ? Optional.of(-(Double) operand) : Optional.empty();
+            case POS:
+                return Optional.of(operand);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private Optional<Object> evaluateBinary(JCBinary binary, Map<Symbol, Object> values) {
+        var left = evaluate(binary.lhs, values);
+        if (binary.hasTag(JCTree.Tag.AND) || binary.hasTag(JCTree.Tag.OR)) {
+            var shortCircuit = binary.hasTag(JCTree.Tag.OR);
+            if (left.isPresent() && left.get().equals(shortCircuit)) {
+                return left;
+            }
+            var right = evaluate(binary.rhs, values);
+            if (right.isPresent() && right.get().equals(shortCircuit)) {
+                return right;
+            }
+            return left.isPresent() && right.isPresent() ? Optional.of(!shortCircuit) : Optional.empty();
+        }
+        var right = evaluate(binary.rhs, values);
+        if (left.isEmpty() || right.isEmpty()) {
+            return Optional.empty();
+        }
+        var l = left.get();
+        var r = right.get();
+        switch (binary.getTag()) {
+            case EQ:
+                return equality(l, r);
+            case NE:
+                return equality(l, r).map((Object equal) -> !(Boolean) equal);
+            default:
+                break;
+        }
+        if (!(l instanceof Number) || !(r instanceof Number)) {
+            return Optional.empty();
+        }
+        var isIntegral = l instanceof Long && r instanceof Long;
+        var ld = ((Number) l).doubleValue();
+        var rd = ((Number) r).doubleValue();
+        switch (binary.getTag()) {
+            case LT:
+                return Optional.of(isIntegral ? (Long) l < (Long) r : ld < rd);
+            case LE:
+                return Optional.of(isIntegral ? (Long) l <= (Long) r : ld <= rd);
+            case GT:
+                return Optional.of(isIntegral ? (Long) l > (Long) r : ld > rd);
+            case GE:
+                return Optional.of(isIntegral ? (Long) l >= (Long) r : ld >= rd);
+            case PLUS:
+                return Optional.of(isIntegral ? narrow(binary.type, (Long) l + (Long) r) : ld + rd);
+            case MINUS:
+                return Optional.of(isIntegral ? narrow(binary.type, (Long) l - (Long) r) : ld - rd);
+            case MUL:
+                return Optional.of(isIntegral ? narrow(binary.type, (Long) l * (Long) r) : ld * rd);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<Object> equality(Object left, Object right) {
+        if (left == NULL || right == NULL) {
+            if (left == NULL && right == NULL) {
+                return Optional.of(true);
+            }
+            var other = left == NULL ? right : left;
+            return other == NON_NULL || other instanceof String ? Optional.of(false) : Optional.empty();
+        }
+        if (left == NON_NULL || right == NON_NULL || left instanceof String || right instanceof String) {
+            return Optional.empty();
+        }
+        if (left instanceof Number && right instanceof Number) {
+            if (left instanceof Long && right instanceof Long) {
+                return Optional.of(left.equals(right));
+            }
+            return Optional.of(((Number) left).doubleValue() == ((Number) right).doubleValue());
+        }
+        return left instanceof Boolean && right instanceof Boolean ? Optional.of(left.equals(right)) : Optional.empty();
+    }
+
+    /**
+     * Narrows the result of an integral operation to the type of the expression, e.g., to emulate int overflows.
+     */
+    private static Long narrow(Type type, long value) {
+        return type.hasTag(TypeTag.INT) ? (long) (int) value : value;
+    }
+
+    /**
+     * Returns the value of a literal or of a constant expression, normalizing integral values to longs,
+     * floating point values to doubles, and the null literal to {@link #NULL}.
+     */
+    private static Optional<Object> constantValue(JCExpression expression) {
+        if (expression.type == null) {
+            return Optional.empty();
+        }
+        if (expression instanceof JCLiteral && expression.type.hasTag(TypeTag.BOT)) {
+            return Optional.of(NULL);
+        }
+        Object value = expression instanceof JCLiteral ? ((JCLiteral) expression).value : expression.type.constValue();
+        if (value == null) {
+            return Optional.empty();
+        }
+        switch (expression.type.getTag()) {
+            case BOOLEAN:
+                return Optional.of(((Number) value).intValue() != 0);
+            case BYTE:
+            case SHORT:
+            case CHAR:
+            case INT:
+            case LONG:
+                return Optional.of(((Number) value).longValue());
+            case FLOAT:
+            case DOUBLE:
+                return Optional.of(((Number) value).doubleValue());
+            default:
+                return value instanceof String ? Optional.of(value) : Optional.empty();
+        }
+    }
+}
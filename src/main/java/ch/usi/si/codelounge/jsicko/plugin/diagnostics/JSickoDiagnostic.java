@@ -149,6 +149,14 @@ public abstract class JSickoDiagnostic {
         return new JSickoError("invariant.is.not.boolean", methodDeclMarkedAsInvariant.getName().toString(), String.valueOf(methodDeclMarkedAsInvariant.getReturnType()));
     }
 
+    public static JSickoError ImmutableClassHasMutableField(JCTree.JCClassDecl classDecl, JCTree.JCVariableDecl fieldDecl) {
+        return new JSickoError("immutable.mutable.field", classDecl.getSimpleName().toString(), fieldDecl.getName().toString());
+    }
+
+    public static JSickoError ModifiesUnknownField(JCTree.JCMethodDecl methodDecl, String fieldName) {
+        return new JSickoError("modifies.unknown.field", fieldName, methodDecl.getName().toString());
+    }
+
     public static JSickoError ClauseIsNotBoolean(ConditionClause clause, Symbol.MethodSymbol methodSymbolMarkedAsClause) {
         return new JSickoError("clause.is.not.boolean", String.valueOf(clause), methodSymbolMarkedAsClause.name.toString(), String.valueOf(methodSymbolMarkedAsClause.getReturnType()));
     }
@@ -169,8 +177,29 @@ public abstract class JSickoDiagnostic {
         return new JSickoNote("contract.interfaces", sym.toString(), contracts.map(t -> t.toString()).toString(", "));
     }
 
-    public static JSickoNote ConditionCheckNote(Symbol.MethodSymbol sym, ContractConditionEnum conditionType, List<List<ConditionClause>> groupedClauses) {
-        return new JSickoNote("condition.checks", sym.toString(), conditionType.toString().toLowerCase(), groupedClauses.map(l -> l.map(c -> c.getMethodName()).toString(", ")).toString("; "));
+    public static JSickoNote ConditionCheckNote(Symbol.MethodSymbol sym, ContractConditionEnum conditionType, List<List<ConditionClause>> groupedClauses, List<String> deduplications) {
+        var deduplicationsRep = deduplications.isEmpty() ? "" : "; deduplicated " + deduplications.toString("; ");
+        return new JSickoNote("condition.checks", sym.toString(), conditionType.toString().toLowerCase(), groupedClauses.map(l -> l.map(c -> c.getMethodName()).toString(", ")).toString("; "), deduplicationsRep);
+    }
+
+    public static JSickoNote InvariantsSkippedNote(Symbol.MethodSymbol sym, List<ConditionClause> skippedClauses) {
+        return new JSickoNote("skipped.invariants", sym.toString(), skippedClauses.map(c -> c.getMethodName()).toString(", "));
+    }
+
+    public static JSickoNote MemoizedChecksNote(Symbol.MethodSymbol sym) {
+        return new JSickoNote("memoized.checks", sym.toString());
+    }
+
+    public static JSickoNote UnmemoizedChecksNote(Symbol.MethodSymbol sym) {
+        return new JSickoNote("unmemoized.checks", sym.toString(), sym.owner.toString());
+    }
+
+    public static JSickoNote FrameConditionNote(Symbol.MethodSymbol sym, List<String> fieldNames) {
+        return new JSickoNote("frame.condition", sym.toString(), String.join(", ", fieldNames));
+    }
+
+    public static JSickoNote ElidedPreconditionNote(Symbol.MethodSymbol callee, Symbol.MethodSymbol caller) {
+        return new JSickoNote("elided.precondition", callee.toString(), caller.toString());
     }
 
     public static JSickoNote OverriddenOldMethodNote(JCTree.JCMethodDecl overriddenOldMethod) {
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breakers on violated clauses, keyed by clause and call site (i.e., instrumented method).
+ *
+ * A clause that starts failing on every call turns each call into an expensive violation. After
+ * <code>jsicko.breaker.threshold</code> violations within <code>jsicko.breaker.window</code> milliseconds
+ * (default 1000), the circuit of the clause opens: its violations are then only reported (the default
+ * <code>jsicko.breaker.mode</code>, <code>reportOnly</code>), or, with mode <code>every:N</code>, only one
+ * violation every N is signalled, and the others are dropped before building the violation. Opening emits
+ * a single summary event. After a cool-down of <code>jsicko.breaker.cooldown</code> milliseconds (default
+ * 30000) the circuit half-opens: the next violation is signalled again and reopens the circuit, while if no
+ * violation occurs within a window the circuit closes.
+ *
+ * Breakers are disabled by default (threshold 0), and are only consulted on violations: passing checks
+ * pay no overhead.
+ */
+public final class CircuitBreakers {
+
+    public static final String BREAKER_PROPERTY = "jsicko.breaker";
+    public static final String THRESHOLD_PROPERTY = BREAKER_PROPERTY + ".threshold";
+    public static final String WINDOW_PROPERTY = BREAKER_PROPERTY + ".window";
+    public static final String COOLDOWN_PROPERTY = BREAKER_PROPERTY + ".cooldown";
+    public static final String MODE_PROPERTY = BREAKER_PROPERTY + ".mode";
+
+    /**
+     * What to do with a violation.
+     */
+    enum Action {
+        /**
+         * Signal the violation as configured, i.e., throw it unless the method is report-only.
+         */
+        SIGNAL,
+        /**
+         * Only report the violation.
+         */
+        REPORT,
+        /**
+         * Drop the violation.
+         */
+        DROP
+    }
+
+    /**
+     * The breaker of a clause at a call site; all the transitions are driven by violations.
+     */
+    private static final class CircuitBreaker {
+
+        private long windowStart;
+        private int windowViolations;
+        private boolean open;
+        private long openedAt;
+        private long suppressedViolations;
+
+        synchronized Action onViolation(String key, long now) {
+            if (open) {
+                if (now - openedAt < cooldownNanos) {
+                    suppressedViolations++;
+                    return suppressedAction();
+                }
+                if (now - openedAt < cooldownNanos + windowNanos) {
+                    report(System.Logger.Level.WARNING, "[jsicko] circuit still open for " + key + ", " +
+                            suppressedViolations + " violations suppressed");
+                    openedAt = now;
+                    suppressedViolations = 0;
+                    return Action.SIGNAL;
+                }
+                open = false;
+                windowViolations = 0;
+                report(System.Logger.Level.INFO, "[jsicko] circuit closed for " + key + ", " +
+                        suppressedViolations + " violations suppressed");
+            }
+            if (now - windowStart > windowNanos) {
+                windowStart = now;
+                windowViolations = 0;
+            }
+            windowViolations++;
+            if (windowViolations >= threshold) {
+                open = true;
+                openedAt = now;
+                suppressedViolations = 0;
+                report(System.Logger.Level.WARNING, "[jsicko] circuit opened for " + key + " after " + windowViolations +
+                        " violations in " + TimeUnit.NANOSECONDS.toMillis(now - windowStart) + " ms");
+            }
+            return Action.SIGNAL;
+        }
+
+        private Action suppressedAction() {
+            if (sampling > 0) {
+                return suppressedViolations % sampling == 0 ? Action.SIGNAL : Action.DROP;
+            }
+            return Action.REPORT;
+        }
+
+        synchronized boolean isOpen() {
+            return open;
+        }
+    }
+
+    private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * The clock timing the windows and the cool-downs, in nanoseconds.
+     */
+    private static volatile LongSupplier clock = System::nanoTime;
+
+    private static volatile int threshold = 0;
+    private static long windowNanos = TimeUnit.SECONDS.toNanos(1);
+    private static long cooldownNanos = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * In <code>every:N</code> mode, N; otherwise 0, i.e., report-only mode.
+     */
+    private static long sampling = 0;
+
+    private CircuitBreakers() {}
+
+    /**
+     * The parsed breaker keys of a configuration.
+     */
+    private static final class Settings {
+
+        private final int threshold;
+        private final long windowNanos;
+        private final long cooldownNanos;
+        private final long sampling;
+
+        private Settings(Properties properties) {
+            long newWindowMillis;
+            long newCooldownMillis;
+            long newSampling = 0;
+            var mode = properties.getProperty(MODE_PROPERTY, "reportOnly").trim();
+            try {
+                this.threshold = Integer.parseInt(properties.getProperty(THRESHOLD_PROPERTY, "0").trim());
+                newWindowMillis = Long.parseLong(properties.getProperty(WINDOW_PROPERTY, "1000").trim());
+                newCooldownMillis = Long.parseLong(properties.getProperty(COOLDOWN_PROPERTY, "30000").trim());
+                if (mode.startsWith("every:")) {
+                    newSampling = Long.parseLong(mode.substring("every:".length()).trim());
+                } else if (!mode.equals("reportOnly")) {
+                    newSampling = -1;
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("[jsicko] malformed circuit breaker configuration", e);
+            }
+            if (threshold < 0 || newWindowMillis <= 0 || newCooldownMillis < 0 || newSampling < 0) {
+                throw new IllegalArgumentException("[jsicko] malformed circuit breaker configuration: threshold " + threshold +
+                        ", window " + newWindowMillis + ", cool-down " + newCooldownMillis + ", mode " + mode);
+            }
+            this.windowNanos = TimeUnit.MILLISECONDS.toNanos(newWindowMillis);
+            this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(newCooldownMillis);
+            this.sampling = newSampling;
+        }
+    }
+
+    /**
+     * Validates the breaker keys of a configuration, without applying them.
+     * @param properties the configuration properties.
+     * @throws IllegalArgumentException if the keys are malformed.
+     */
+    static void validate(Properties properties) {
+        new Settings(properties);
+    }
+
+    /**
+     * Configures the breakers, discarding the state of the previous configuration.
+     * @param properties the configuration properties.
+     */
+    static synchronized void configure(Properties properties) {
+        var settings = new Settings(properties);
+        windowNanos = settings.windowNanos;
+        cooldownNanos = settings.cooldownNanos;
+        sampling = settings.sampling;
+        breakers.clear();
+        threshold = settings.threshold;
+    }
+
+    /**
+     * Replaces the clock timing the windows and the cool-downs of the breakers (e.g., to control time in tests).
+     * The clock is not changed by reconfigurations.
+     * @param nanoClock the clock, in nanoseconds, e.g., <code>System::nanoTime</code> (the default).
+     */
+    static void setClock(LongSupplier nanoClock) {
+        clock = Objects.requireNonNull(nanoClock);
+    }
+
+    /**
+     * Decides what to do with a violation, updating the breaker of the violated clause.
+     * @param key the key of the breaker, i.e., the call site and the violated clause.
+     * @return the action to take.
+     */
+    static Action onViolation(String key) {
+        if (threshold == 0) {
+            return Action.SIGNAL;
+        }
+        return breakers.computeIfAbsent(key, (String newKey) -> new CircuitBreaker()).onViolation(key, clock.getAsLong());
+    }
+
+    /**
+     * Returns the keys of the open circuits.
+     * @return the keys of the open circuits, sorted.
+     */
+    public static Set<String> openCircuits() {
+        var open = new TreeSet<String>();
+        breakers.forEach((String key, CircuitBreaker breaker) -> {
+            if (breaker.isOpen()) {
+                open.add(key);
+            }
+        });
+        return open;
+    }
+
+    private static void report(System.Logger.Level level, String message) {
+        System.getLogger(CircuitBreakers.class.getName()).log(level, message);
+    }
+}
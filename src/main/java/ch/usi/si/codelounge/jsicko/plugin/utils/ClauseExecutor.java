@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * The pool evaluating the parallel clauses (see {@link ch.usi.si.codelounge.jsicko.Contract.Parallel}).
+ *
+ * Parallel clauses run on a fork-join pool of their own rather than on the common pool, so that contract
+ * checking does not compete with the parallel streams and tasks of the program. The pool has
+ * <code>jsicko.parallel.threads</code> daemon threads (by default, the number of available processors);
+ * with fewer than two threads there is no pool, and parallel clauses are evaluated sequentially by the
+ * calling thread.
+ */
+public final class ClauseExecutor {
+
+    public static final String THREADS_PROPERTY = "jsicko.parallel.threads";
+
+    private static volatile ForkJoinPool pool;
+    private static int threads = 0;
+
+    private ClauseExecutor() {}
+
+    /**
+     * Configures the pool, replacing it only if the number of threads changes; the previous pool
+     * completes the clauses already submitted.
+     * @param properties the configuration properties.
+     */
+    static synchronized void configure(Properties properties) {
+        var newThreads = parseThreads(properties);
+        if (newThreads == threads) {
+            return;
+        }
+        var previousPool = pool;
+        pool = newThreads < 2 ? null : new ForkJoinPool(newThreads, ClauseExecutor::newWorkerThread, null, false);
+        threads = newThreads;
+        if (previousPool != null) {
+            previousPool.shutdown();
+        }
+    }
+
+    /**
+     * Validates the threads key of a configuration, without applying it.
+     * @param properties the configuration properties.
+     * @throws IllegalArgumentException if the key is malformed.
+     */
+    static void validate(Properties properties) {
+        parseThreads(properties);
+    }
+
+    private static int parseThreads(Properties properties) {
+        int newThreads;
+        try {
+            newThreads = Integer.parseInt(properties.getProperty(THREADS_PROPERTY,
+                    Integer.toString(Runtime.getRuntime().availableProcessors())).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("[jsicko] malformed parallel clauses configuration", e);
+        }
+        if (newThreads < 1) {
+            throw new IllegalArgumentException("[jsicko] malformed parallel clauses configuration: threads " + newThreads);
+        }
+        return newThreads;
+    }
+
+    /**
+     * Returns the pool evaluating parallel clauses.
+     * @return the pool, or <code>null</code> if parallel clauses are evaluated sequentially.
+     */
+    static ForkJoinPool pool() {
+        return pool;
+    }
+
+    private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool workerPool) {
+        var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(workerPool);
+        thread.setName("jsicko-clauses-" + thread.getPoolIndex());
+        return thread;
+    }
+}
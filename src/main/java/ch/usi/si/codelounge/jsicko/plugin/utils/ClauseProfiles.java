@@ -0,0 +1,439 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Profiles of the preconditions of instrumented methods, used to order their evaluation.
+ *
+ * The preconditions of an overriding method are a disjunction of groups of conjoined clauses, one per method
+ * in the hierarchy. With <code>jsicko.ordering</code> set to <code>profiled</code> (default <code>declared</code>),
+ * the checker records the cost and the pass rate of each group and of each clause in one check every
+ * {@value #PROFILING_PERIOD}, and evaluates the groups cheapest and most likely to pass first, and the clauses of a
+ * group cheapest and most likely to fail first, stopping at the first group that passes. If all the groups are
+ * violated, the first violated clause of each group is still found in declaration order, so the reported violation
+ * does not change. Postconditions and invariants report their first violated clause, which can only be found by
+ * evaluating all the clauses declared before it: whatever the order, no evaluation would be saved, so they are
+ * always evaluated in declaration order.
+ *
+ * A profile is kept per instrumented method and shape, i.e., number of clauses of each group; overloads with the
+ * same shape share a profile, which affects the order but not the result. If a clause throws when evaluated out of
+ * declaration order (e.g., a clause guarded by a clause declared before it), the method falls back to declaration
+ * order for good.
+ *
+ * With <code>jsicko.ordering.file</code>, the profiles are loaded from the file when the configuration is read,
+ * and saved to it when the virtual machine exits, so that a run starts with the order learned by the previous ones.
+ */
+public final class ClauseProfiles {
+
+    public static final String ORDERING_PROPERTY = "jsicko.ordering";
+    public static final String FILE_PROPERTY = ORDERING_PROPERTY + ".file";
+
+    /**
+     * One check of a method every <code>PROFILING_PERIOD</code> is profiled.
+     */
+    static final int PROFILING_PERIOD = 4;
+
+    /**
+     * The number of profiled checks of a method between two updates of its order.
+     */
+    static final int REORDERING_PERIOD = 32;
+
+    /**
+     * An evaluation order: a permutation of the groups, and a permutation of the clauses that keeps the clauses
+     * of each group at the positions of the group. Clauses are numbered across groups, in declaration order.
+     */
+    static final class Ordering {
+
+        private final int[] groups;
+        private final int[] clauses;
+        private final int[] clausePositions;
+
+        Ordering(int[] groups, int[] clauses) {
+            this.groups = groups;
+            this.clauses = clauses;
+            this.clausePositions = new int[clauses.length];
+            for (int position = 0; position < clauses.length; position++) {
+                clausePositions[clauses[position]] = position;
+            }
+        }
+
+        int[] groups() {
+            return groups;
+        }
+
+        int clause(int position) {
+            return clauses[position];
+        }
+
+        int position(int clause) {
+            return clausePositions[clause];
+        }
+    }
+
+    /**
+     * The profile of the preconditions of a method with a given shape.
+     *
+     * Statistics are updated without synchronization: lost updates only skew the estimates, while the
+     * order is replaced as a whole.
+     */
+    static final class Profile {
+
+        private final String key;
+        private final int[] shape;
+        private final int[] offsets;
+        private final long[] groupEvaluations;
+        private final long[] groupPasses;
+        private final long[] groupNanos;
+        private final long[] clauseEvaluations;
+        private final long[] clausePasses;
+        private final long[] clauseNanos;
+        private long checks;
+        private long profiledChecks;
+        private volatile boolean pinned;
+        private volatile Ordering ordering;
+
+        Profile(String key, int[] shape) {
+            this.key = key;
+            this.shape = shape;
+            this.offsets = new int[shape.length + 1];
+            for (int group = 0; group < shape.length; group++) {
+                offsets[group + 1] = offsets[group] + shape[group];
+            }
+            var clauseCount = offsets[shape.length];
+            this.groupEvaluations = new long[shape.length];
+            this.groupPasses = new long[shape.length];
+            this.groupNanos = new long[shape.length];
+            this.clauseEvaluations = new long[clauseCount];
+            this.clausePasses = new long[clauseCount];
+            this.clauseNanos = new long[clauseCount];
+            this.ordering = new Ordering(IntStream.range(0, shape.length).toArray(), IntStream.range(0, clauseCount).toArray());
+        }
+
+        boolean hasShape(int[] otherShape) {
+            return Arrays.equals(shape, otherShape);
+        }
+
+        int offset(int group) {
+            return offsets[group];
+        }
+
+        Ordering ordering() {
+            return ordering;
+        }
+
+        /**
+         * Starts a check, periodically updating the order.
+         * @return <code>true</code> iff the check must be profiled.
+         */
+        boolean startCheck() {
+            if (pinned || checks++ % PROFILING_PERIOD != 0) {
+                return false;
+            }
+            if (++profiledChecks % REORDERING_PERIOD == 0) {
+                reorder();
+            }
+            return true;
+        }
+
+        void recordGroup(int group, boolean passed, long nanos) {
+            groupEvaluations[group]++;
+            groupPasses[group] += passed ? 1 : 0;
+            groupNanos[group] += nanos;
+        }
+
+        void recordClause(int clause, boolean passed, long nanos) {
+            clauseEvaluations[clause]++;
+            clausePasses[clause] += passed ? 1 : 0;
+            clauseNanos[clause] += nanos;
+        }
+
+        /**
+         * Falls back to declaration order for good.
+         */
+        void pin() {
+            pinned = true;
+            ordering = new Ordering(IntStream.range(0, shape.length).toArray(), IntStream.range(0, clauseNanos.length).toArray());
+            report(System.Logger.Level.INFO, "[jsicko] clause raised an exception out of declaration order in " + key +
+                    ", falling back to declaration order");
+        }
+
+        synchronized void reorder() {
+            if (pinned) {
+                return;
+            }
+            var groups = sortedIndexes(shape.length, (int group) ->
+                    expectedCost(groupNanos[group], groupEvaluations[group], groupPasses[group]));
+            var clauses = new int[clauseNanos.length];
+            for (int group = 0; group < shape.length; group++) {
+                var offset = offsets[group];
+                var groupClauses = sortedIndexes(shape[group], (int index) -> expectedCost(clauseNanos[offset + index],
+                        clauseEvaluations[offset + index], clauseEvaluations[offset + index] - clausePasses[offset + index]));
+                for (int index = 0; index < groupClauses.length; index++) {
+                    clauses[offset + index] = offset + groupClauses[index];
+                }
+            }
+            ordering = new Ordering(groups, clauses);
+        }
+
+        /**
+         * Estimates the cost of reaching a decision with an element, i.e., its average cost divided by the
+         * probability that it decides (a group passes, or a clause fails), with add-one smoothing. Elements
+         * never evaluated cost nothing, so that they are tried (and profiled) first.
+         */
+        private static double expectedCost(long nanos, long evaluations, long decisions) {
+            if (evaluations == 0) {
+                return 0;
+            }
+            return ((double) nanos / evaluations) * (evaluations + 2) / (decisions + 1);
+        }
+
+        private static int[] sortedIndexes(int count, IntToDoubleFunction cost) {
+            return IntStream.range(0, count).boxed()
+                    .sorted(Comparator.comparingDouble(cost::applyAsDouble))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        String statisticsRep() {
+            return statisticsRep(groupEvaluations, groupPasses, groupNanos, 0, shape.length) + "|" +
+                    statisticsRep(clauseEvaluations, clausePasses, clauseNanos, 0, clauseNanos.length);
+        }
+
+        private static String statisticsRep(long[] evaluations, long[] passes, long[] nanos, int from, int to) {
+            return IntStream.range(from, to)
+                    .mapToObj((int index) -> evaluations[index] + ":" + passes[index] + ":" + nanos[index])
+                    .collect(Collectors.joining(","));
+        }
+
+        void loadStatistics(String statisticsRep) {
+            var parts = statisticsRep.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("[jsicko] malformed clause profile for " + key + ": " + statisticsRep);
+            }
+            loadStatistics(parts[0], groupEvaluations, groupPasses, groupNanos);
+            loadStatistics(parts[1], clauseEvaluations, clausePasses, clauseNanos);
+            reorder();
+        }
+
+        private void loadStatistics(String rep, long[] evaluations, long[] passes, long[] nanos) {
+            var elements = rep.isEmpty() ? new String[0] : rep.split(",");
+            if (elements.length != evaluations.length) {
+                throw new IllegalArgumentException("[jsicko] malformed clause profile for " + key + ": expected " +
+                        evaluations.length + " elements in " + rep);
+            }
+            try {
+                for (int index = 0; index < elements.length; index++) {
+                    var values = elements[index].trim().split(":");
+                    if (values.length != 3) {
+                        throw new IllegalArgumentException("[jsicko] malformed clause profile for " + key + ": " + elements[index]);
+                    }
+                    evaluations[index] = Long.parseLong(values[0]);
+                    passes[index] = Long.parseLong(values[1]);
+                    nanos[index] = Long.parseLong(values[2]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("[jsicko] malformed clause profile for " + key, e);
+            }
+        }
+
+        String fileKey() {
+            return key + " " + Arrays.stream(shape).mapToObj(Integer::toString).collect(Collectors.joining(","));
+        }
+    }
+
+    /**
+     * The profiles, by class and method name.
+     */
+    private static final Map<String, Map<String, Profile[]>> profiles = new ConcurrentHashMap<>();
+
+    private static boolean enabled = false;
+    private static volatile Path file;
+    private static boolean saveOnExitRegistered = false;
+
+    private ClauseProfiles() {}
+
+    /**
+     * Configures the ordering, discarding the profiles of the previous configuration, and loading
+     * the profiles file if any.
+     * @param properties the configuration properties.
+     */
+    static synchronized void configure(Properties properties) {
+        var mode = parseMode(properties);
+        var fileName = properties.getProperty(FILE_PROPERTY);
+        enabled = false;
+        profiles.clear();
+        file = fileName == null ? null : Paths.get(fileName.trim());
+        if (file != null && Files.exists(file)) {
+            load(file);
+        }
+        if (file != null && !saveOnExitRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(ClauseProfiles::saveOnExit, "jsicko-clause-profiles"));
+            saveOnExitRegistered = true;
+        }
+        enabled = mode.equals("profiled");
+    }
+
+    /**
+     * Validates the ordering keys of a configuration, without applying them; the profiles file is read only
+     * when the configuration is applied.
+     * @param properties the configuration properties.
+     * @throws IllegalArgumentException if the keys are malformed.
+     */
+    static void validate(Properties properties) {
+        parseMode(properties);
+    }
+
+    private static String parseMode(Properties properties) {
+        var mode = properties.getProperty(ORDERING_PROPERTY, "declared").trim();
+        if (!mode.equals("declared") && !mode.equals("profiled")) {
+            throw new IllegalArgumentException("[jsicko] malformed clause ordering configuration: " + mode);
+        }
+        return mode;
+    }
+
+    /**
+     * Checks if preconditions are evaluated in profiled order.
+     * @return <code>true</code> iff <code>jsicko.ordering</code> is <code>profiled</code>.
+     */
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the profile of the preconditions of a method, creating it if needed.
+     * @param className the binary name of the class declaring the instrumented method.
+     * @param methodName the name of the instrumented method.
+     * @param shape the number of clauses of each group of preconditions.
+     * @return the profile.
+     */
+    static Profile profile(String className, String methodName, int[] shape) {
+        var methodProfiles = profiles.computeIfAbsent(className, (String name) -> new ConcurrentHashMap<>());
+        var profile = findProfile(methodProfiles.get(methodName), shape);
+        if (profile != null) {
+            return profile;
+        }
+        synchronized (methodProfiles) {
+            var shapeProfiles = methodProfiles.get(methodName);
+            profile = findProfile(shapeProfiles, shape);
+            if (profile == null) {
+                profile = new Profile(className + "#" + methodName, shape);
+                var newShapeProfiles = shapeProfiles == null ? new Profile[1] : Arrays.copyOf(shapeProfiles, shapeProfiles.length + 1);
+                newShapeProfiles[newShapeProfiles.length - 1] = profile;
+                methodProfiles.put(methodName, newShapeProfiles);
+            }
+            return profile;
+        }
+    }
+
+    private static Profile findProfile(Profile[] shapeProfiles, int[] shape) {
+        if (shapeProfiles != null) {
+            for (var profile : shapeProfiles) {
+                if (profile.hasShape(shape)) {
+                    return profile;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Stream<Profile> allProfiles() {
+        return profiles.values().stream()
+                .flatMap((Map<String, Profile[]> methodProfiles) -> methodProfiles.values().stream())
+                .flatMap(Arrays::stream);
+    }
+
+    /**
+     * Returns the current order of the precondition groups of each profiled method.
+     * @return the indexes of the groups in evaluation order, by method and shape (e.g.,
+     * <code>com.example.Stack#push 1,2</code>), sorted.
+     */
+    public static Map<String, List<Integer>> groupOrders() {
+        return allProfiles().collect(Collectors.toMap(Profile::fileKey,
+                (Profile profile) -> Arrays.stream(profile.ordering().groups()).boxed().collect(Collectors.toList()),
+                (List<Integer> first, List<Integer> second) -> first, TreeMap::new));
+    }
+
+    /**
+     * Saves the profiles to a file, which can be loaded by a later run through <code>jsicko.ordering.file</code>.
+     * @param target the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(Path target) throws IOException {
+        var properties = new Properties();
+        allProfiles().forEach((Profile profile) -> properties.setProperty(profile.fileKey(), profile.statisticsRep()));
+        try (OutputStream output = Files.newOutputStream(target)) {
+            properties.store(output, "jSicko clause profiles");
+        }
+    }
+
+    private static void load(Path source) {
+        var properties = new Properties();
+        try (InputStream input = Files.newInputStream(source)) {
+            properties.load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("[jsicko] cannot read clause profiles file " + source, e);
+        }
+        properties.stringPropertyNames().forEach((String fileKey) -> {
+            var shapeSeparator = fileKey.lastIndexOf(' ');
+            var methodSeparator = fileKey.lastIndexOf('#', shapeSeparator);
+            if (shapeSeparator < 0 || methodSeparator < 0) {
+                throw new IllegalArgumentException("[jsicko] malformed clause profile key " + fileKey);
+            }
+            int[] shape;
+            try {
+                shape = Arrays.stream(fileKey.substring(shapeSeparator + 1).split(",")).mapToInt(Integer::parseInt).toArray();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("[jsicko] malformed clause profile key " + fileKey, e);
+            }
+            profile(fileKey.substring(0, methodSeparator), fileKey.substring(methodSeparator + 1, shapeSeparator), shape)
+                    .loadStatistics(properties.getProperty(fileKey));
+        });
+    }
+
+    private static void saveOnExit() {
+        var target = file;
+        if (target == null) {
+            return;
+        }
+        try {
+            save(target);
+        } catch (IOException e) {
+            report(System.Logger.Level.WARNING, "[jsicko] cannot write clause profiles file " + target + ": " + e.getMessage());
+        }
+    }
+
+    private static void report(System.Logger.Level level, String message) {
+        System.getLogger(ClauseProfiles.class.getName()).log(level, message);
+    }
+}
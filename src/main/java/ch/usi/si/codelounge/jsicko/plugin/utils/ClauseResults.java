@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The results of the pure clauses evaluated at an evaluation point, keyed by the signature of the clause method.
+ *
+ * Each condition checker memoizes the clauses it evaluates more than once; the postcondition method of an
+ * instrumented method also shares its results with the invariants check, so that a pure clause without parameters
+ * that is both a postcondition and an invariant is evaluated once per call.
+ */
+public final class ClauseResults {
+
+    private Map<String, Boolean> results;
+
+    ClauseResults() {}
+
+    /**
+     * Evaluates a clause, unless its result is already known.
+     * @param clauseKey the signature of the clause method.
+     * @param clause the supplier evaluating the clause.
+     * @return the (possibly cached) result of the clause.
+     */
+    boolean evaluate(String clauseKey, BooleanSupplier clause) {
+        if (this.results == null) {
+            this.results = new HashMap<>(4);
+        }
+        var result = this.results.get(clauseKey);
+        if (result == null) {
+            result = clause.getAsBoolean();
+            this.results.put(clauseKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates a clause, unless its result is already known, when parallel clauses may ask for the same results
+     * concurrently; the clause is evaluated outside the lock, and may then be evaluated by more than one of them.
+     * @param clauseKey the signature of the clause method.
+     * @param clause the supplier evaluating the clause.
+     * @return the (possibly cached) result of the clause.
+     */
+    boolean evaluateConcurrently(String clauseKey, BooleanSupplier clause) {
+        synchronized (this) {
+            if (this.results == null) {
+                this.results = new HashMap<>(4);
+            }
+            var result = this.results.get(clauseKey);
+            if (result != null) {
+                return result;
+            }
+        }
+        var result = clause.getAsBoolean();
+        synchronized (this) {
+            this.results.put(clauseKey, result);
+        }
+        return result;
+    }
+
+}
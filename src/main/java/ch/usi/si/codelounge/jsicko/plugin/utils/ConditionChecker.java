@@ -21,9 +21,16 @@
 package ch.usi.si.codelounge.jsicko.plugin.utils;
 
 import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.plugin.Constants;
 import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -32,12 +39,33 @@ public final class ConditionChecker {
 
     private final Supplier<Optional<String>> dummy = () -> Optional.empty();
 
+    private final BooleanSupplier dummyClause = () -> true;
+
+    /**
+     * A clause evaluated concurrently with the other parallel clauses of its group.
+     */
+    private static final class ParallelClause implements Supplier<Optional<String>> {
+
+        private final Supplier<Optional<String>> clause;
+
+        ParallelClause(Supplier<Optional<String>> clause) {
+            this.clause = clause;
+        }
+
+        @Override
+        public Optional<String> get() {
+            return clause.get();
+        }
+    }
+
     private static class ConjunctConditionViolationSuppliers {
 
         private final List<Supplier<Optional<String>>> conjunctSuppliers;
+        private final long parallelClauses;
 
         ConjunctConditionViolationSuppliers(List<Supplier<Optional<String>>> conjunctSuppliers) {
             this.conjunctSuppliers = Collections.unmodifiableList(conjunctSuppliers);
+            this.parallelClauses = conjunctSuppliers.stream().filter((Supplier<Optional<String>> conjunct) -> conjunct instanceof ParallelClause).count();
         }
 
         @SafeVarargs
@@ -46,42 +74,261 @@ public final class ConditionChecker {
         }
 
         Optional<String> getFirstViolation() {
+            if (parallelClauses > 1) {
+                var pool = ClauseExecutor.pool();
+                if (pool != null) {
+                    return getFirstViolationConcurrently(pool);
+                }
+            }
             return conjunctSuppliers.stream().flatMap((Supplier<Optional<String>> conditionElem) -> conditionElem.get().stream()).findFirst();
         }
 
+        /**
+         * Evaluates the parallel clauses on the pool, while the calling thread evaluates the other clauses
+         * and collects the results in declaration order, so that the first violation (or exception) is the same as
+         * in sequential evaluation. A violated clause cancels the parallel clauses declared after it.
+         */
+        private Optional<String> getFirstViolationConcurrently(ForkJoinPool pool) {
+            var size = conjunctSuppliers.size();
+            var firstViolated = new AtomicInteger(size);
+            var evaluations = new AtomicReferenceArray<CompletableFuture<Optional<String>>>(size);
+            for (int index = 0; index < size; index++) {
+                var conjunct = conjunctSuppliers.get(index);
+                if (conjunct instanceof ParallelClause) {
+                    final var clauseIndex = index;
+                    evaluations.set(index, CompletableFuture.supplyAsync(() ->
+                            evaluateConcurrently(conjunct, clauseIndex, firstViolated, evaluations), pool));
+                }
+            }
+            try {
+                for (int index = 0; index < size; index++) {
+                    var evaluation = evaluations.get(index);
+                    var violation = evaluation == null ? conjunctSuppliers.get(index).get() : join(evaluation);
+                    if (violation.isPresent()) {
+                        return violation;
+                    }
+                }
+                return Optional.empty();
+            } finally {
+                cancelFrom(0, evaluations);
+            }
+        }
+
+        private static Optional<String> evaluateConcurrently(Supplier<Optional<String>> conjunct, int index, AtomicInteger firstViolated,
+                                                             AtomicReferenceArray<CompletableFuture<Optional<String>>> evaluations) {
+            if (index > firstViolated.get()) {
+                return Optional.empty();
+            }
+            var evaluating = evaluatingClauses.get();
+            var nested = evaluating[0];
+            evaluating[0] = true;
+            try {
+                var violation = conjunct.get();
+                if (violation.isPresent()) {
+                    firstViolated.accumulateAndGet(index, Math::min);
+                    cancelFrom(index + 1, evaluations);
+                }
+                return violation;
+            } finally {
+                evaluating[0] = nested;
+            }
+        }
+
+        private static void cancelFrom(int index, AtomicReferenceArray<CompletableFuture<Optional<String>>> evaluations) {
+            for (int laterIndex = index; laterIndex < evaluations.length(); laterIndex++) {
+                var evaluation = evaluations.get(laterIndex);
+                if (evaluation != null) {
+                    evaluation.cancel(false);
+                }
+            }
+        }
+
+        /**
+         * Waits for a parallel clause, rethrowing the exception it raised as sequential evaluation would.
+         */
+        private static Optional<String> join(CompletableFuture<Optional<String>> evaluation) {
+            try {
+                return evaluation.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+
     }
 
     public static ConditionChecker newPreconditionChecker() {
-        return new ConditionChecker(ContractConditionEnum.PRECONDITION);
+        return new ConditionChecker(ContractConditionEnum.PRECONDITION, null, Optional.empty());
     }
 
     public static ConditionChecker newPostconditionChecker() {
-        return new ConditionChecker(ContractConditionEnum.POSTCONDITION);
+        return new ConditionChecker(ContractConditionEnum.POSTCONDITION, null, Optional.empty());
     }
 
     public static ConditionChecker newInvariantChecker() {
-        return new ConditionChecker(ContractConditionEnum.INVARIANT);
+        return new ConditionChecker(ContractConditionEnum.INVARIANT, null, Optional.empty());
+    }
+
+    public static ConditionChecker newPreconditionChecker(ConfigurationHandle handle, String methodName) {
+        return new ConditionChecker(ContractConditionEnum.PRECONDITION, handle, Optional.of(methodName));
+    }
+
+    public static ConditionChecker newPostconditionChecker(ConfigurationHandle handle, String methodName) {
+        return new ConditionChecker(ContractConditionEnum.POSTCONDITION, handle, Optional.of(methodName));
+    }
+
+    public static ConditionChecker newInvariantChecker(ConfigurationHandle handle) {
+        return new ConditionChecker(ContractConditionEnum.INVARIANT, handle, Optional.empty());
+    }
+
+    /**
+     * Creates a postcondition checker sharing the results of the pure clauses with other checkers.
+     * @param handle the handle of the checked class.
+     * @param methodName the name of the checked method.
+     * @param clauseResults the shared clause results.
+     * @return the postcondition checker.
+     */
+    public static ConditionChecker newPostconditionChecker(ConfigurationHandle handle, String methodName, ClauseResults clauseResults) {
+        var checker = new ConditionChecker(ContractConditionEnum.POSTCONDITION, handle, Optional.of(methodName));
+        checker.clauseResults = clauseResults;
+        return checker;
+    }
+
+    /**
+     * Creates an invariant checker sharing the results of the pure clauses with other checkers.
+     * @param handle the handle of the checked class.
+     * @param clauseResults the shared clause results, or <code>null</code> if the invariants are checked alone.
+     * @return the invariant checker.
+     */
+    public static ConditionChecker newInvariantChecker(ConfigurationHandle handle, ClauseResults clauseResults) {
+        var checker = new ConditionChecker(ContractConditionEnum.INVARIANT, handle, Optional.empty());
+        checker.clauseResults = clauseResults;
+        return checker;
+    }
+
+    /**
+     * Creates the clause results shared by the checkers of a single evaluation point.
+     * @return empty clause results.
+     */
+    public static ClauseResults newClauseResults() {
+        return new ClauseResults();
     }
 
     private final List<ConjunctConditionViolationSuppliers> conditionViolationSuppliersGroups;
     private final ContractConditionEnum contractConditionType;
     private final Function<String, Contract.ContractConditionViolation> violationSupplier;
 
-    private ConditionChecker(ContractConditionEnum contractConditionType) {
+    /**
+     * The class and method checked, used to decide if violations are only reported; the class is null
+     * for checkers created outside instrumented code.
+     */
+    private final ConfigurationHandle handle;
+    private final String className;
+    private final Optional<String> methodName;
+
+    /**
+     * The results of the pure clauses already evaluated by this checker (and possibly by others at the same
+     * evaluation point), lazily created unless shared.
+     */
+    private ClauseResults clauseResults;
+
+    /**
+     * Whether some group has parallel clauses, which may evaluate memoized clauses concurrently.
+     */
+    private boolean hasParallelClauses;
+
+    /**
+     * Whether some clause was dropped by cost, some violation was signalled, and the last check evaluated
+     * all the clauses without signalling any violation (see {@link #isVerified()}).
+     */
+    private boolean skippedClauses;
+    private boolean signalled;
+    private boolean verified;
+
+    private ConditionChecker(ContractConditionEnum contractConditionType, ConfigurationHandle handle, Optional<String> methodName) {
         this.contractConditionType = contractConditionType;
         this.conditionViolationSuppliersGroups = new LinkedList<>();
         this.violationSupplier = contractConditionType.violationConstructor();
+        this.handle = handle;
+        this.className = handle == null ? null : handle.getClassName();
+        this.methodName = methodName;
     }
 
     @SafeVarargs
     public final void addConditionGroup(Supplier<Optional<String>>... conditionGroupViolationSuppliers) {
-        this.conditionViolationSuppliersGroups.add(new ConjunctConditionViolationSuppliers(conditionGroupViolationSuppliers));
+        var conditionGroup = new ConjunctConditionViolationSuppliers(conditionGroupViolationSuppliers);
+        if (conditionGroup.parallelClauses > 0 && !this.hasParallelClauses) {
+            this.hasParallelClauses = true;
+            if (this.clauseResults == null) {
+                this.clauseResults = new ClauseResults();
+            }
+        }
+        this.conditionViolationSuppliersGroups.add(conditionGroup);
+    }
+
+    /**
+     * Evaluates a pure clause at most once per evaluation point.
+     *
+     * Within a single evaluation point all the occurrences of a clause are bound to the same arguments,
+     * so the signature of the clause method is enough to identify its result; the compiler routes through
+     * this method only pure clauses that occur more than once in the same checker, or that are shared by the
+     * postconditions and the invariants checked by the same postcondition method. The results are looked up
+     * under a lock only if some clauses of this checker are parallel, and may then call this method concurrently.
+     * @param clauseKey the signature of the clause method.
+     * @param clause the supplier evaluating the clause.
+     * @return the (possibly cached) result of the clause.
+     */
+    public boolean evaluateClause(String clauseKey, BooleanSupplier clause) {
+        if (this.hasParallelClauses) {
+            return this.clauseResults.evaluateConcurrently(clauseKey, clause);
+        }
+        if (this.clauseResults == null) {
+            this.clauseResults = new ClauseResults();
+        }
+        return this.clauseResults.evaluate(clauseKey, clause);
+    }
+
+    /**
+     * Filters a clause by its cost, according to the runtime cost threshold of the checked method.
+     * @param cost the cost of the clause.
+     * @param clause the supplier checking the clause.
+     * @return the clause, or a supplier reporting no violation if the clause costs more than the threshold.
+     */
+    public Supplier<Optional<String>> atCost(Contract.Cost cost, Supplier<Optional<String>> clause) {
+        if (className == null || ContractConfiguration.isCostEnabled(handle, methodName, cost)) {
+            return clause;
+        }
+        this.skippedClauses = true;
+        return dummy;
+    }
+
+    /**
+     * Marks a clause as parallel, so that it is evaluated concurrently with the other parallel clauses of its group.
+     * @param clause the supplier checking the clause, possibly already filtered by cost.
+     * @return the parallel clause, or the clause itself if it was dropped by cost.
+     */
+    public Supplier<Optional<String>> inParallel(Supplier<Optional<String>> clause) {
+        if (clause == dummy) {
+            return clause;
+        }
+        return new ParallelClause(clause);
     }
 
     private static boolean enabled = true;
 
     private static IdentityHashMap<Object, Boolean> disabledObjects = new IdentityHashMap<>();
 
+    /**
+     * Set while a thread evaluates the clauses of a checker, so that the instrumented methods called by
+     * the clauses (e.g., queries on the receiver) are not checked in turn.
+     */
+    private static final ThreadLocal<boolean[]> evaluatingClauses = ThreadLocal.withInitial(() -> new boolean[1]);
+
     public static void universallyDisable() {
         ConditionChecker.enabled = false;
     }
@@ -117,14 +364,254 @@ public final class ConditionChecker {
     public final void check(Object thisObject) throws Contract.ContractConditionViolation {
         if (!enabled || (enabled && thisObject != null && disabledObjects.containsKey(thisObject)))
             return;
+        var evaluating = evaluatingClauses.get();
+        var nested = evaluating[0];
+        evaluating[0] = true;
+        try {
+            if (this.contractConditionType.equals(ContractConditionEnum.PRECONDITION)) {
+                if (ClauseProfiles.isEnabled() && className != null && this.conditionViolationSuppliersGroups.size() > 1) {
+                    checkProfiledDisjunction(ClauseProfiles.profile(className, methodName.orElse(""), shape()));
+                } else {
+                    checkDisjunction();
+                }
+            } else {
+                checkConjunction();
+            }
+            this.verified = !this.skippedClauses && !this.signalled;
+        } finally {
+            evaluating[0] = nested;
+        }
+    }
+
+    /**
+     * Checks if the last check of this checker verified the condition, i.e., if it evaluated all of its clauses
+     * (none was dropped by cost) and signalled no violation, not even one only reported or dropped.
+     * @return <code>true</code> iff the condition was verified.
+     */
+    public final boolean isVerified() {
+        return this.verified;
+    }
+
+    /**
+     * Checks if the current thread is evaluating the clauses of a checker, in which case the contracts
+     * of the instrumented methods it calls are not checked, as in JML.
+     * @return <code>true</code> iff the current thread is evaluating clauses.
+     */
+    public static boolean isEvaluatingClauses() {
+        return evaluatingClauses.get()[0];
+    }
+
+    /**
+     * The receiver and the method of the next call whose preconditions are proven at compile time, if any.
+     */
+    private static final ThreadLocal<Object[]> elidedPrecondition = ThreadLocal.withInitial(() -> new Object[2]);
+
+    /**
+     * Records that the preconditions of the next call are proven at compile time, so that the callee
+     * does not check them.
+     *
+     * The proof is recorded only if the receiver is an instance of exactly the class declaring the callee,
+     * since an overriding method may have different preconditions.
+     * @param receiver the receiver of the call, or <code>null</code> for static methods.
+     * @param type the class declaring the callee, or <code>null</code> for static methods.
+     * @param methodKey the key of the callee, i.e., its class and signature.
+     */
+    public static void elidePrecondition(Object receiver, Class<?> type, String methodKey) {
+        if (type != null && (receiver == null || receiver.getClass() != type)) {
+            return;
+        }
+        var elided = elidedPrecondition.get();
+        elided[0] = receiver;
+        elided[1] = methodKey;
+    }
+
+    /**
+     * Checks if the preconditions of the current call are proven at compile time, consuming the proof.
+     * @param receiver the receiver of the call, or <code>null</code> for static methods.
+     * @param methodKey the key of the called method.
+     * @return <code>true</code> iff the caller proved the preconditions of this call.
+     */
+    public static boolean isPreconditionElided(Object receiver, String methodKey) {
+        var elided = elidedPrecondition.get();
+        var isElided = elided[0] == receiver && methodKey.equals(elided[1]);
+        elided[0] = null;
+        elided[1] = null;
+        return isElided;
+    }
+
+    /**
+     * Checks if an object is an instance of exactly the given class, and not of a subclass.
+     *
+     * Methods checking only the invariants they may break use this check, since a subclass may declare
+     * invariants depending on fields the compiler could not see while instrumenting the superclass.
+     * @param object the object.
+     * @param type the class.
+     * @return <code>true</code> iff the class of the object is exactly the given class.
+     */
+    public static boolean hasExactClass(Object object, Class<?> type) {
+        return object.getClass() == type;
+    }
+
+    /**
+     * Checks the groups as a disjunction, i.e., as a sequence of precondition weakenings:
+     * the condition is violated iff all the groups are violated.
+     */
+    private void checkDisjunction() {
         var groupedViolations = this.conditionViolationSuppliersGroups.stream()
                 .map((ConjunctConditionViolationSuppliers conditionGroup) -> conditionGroup.getFirstViolation())
                 .collect(Collectors.toList());
         var hasViolation = groupedViolations.stream().allMatch((Optional<String> results) -> results.isPresent());
         if (hasViolation) {
             var groupedViolationReps = groupedViolations.stream().flatMap((Optional<String> violation) -> violation.stream()).collect(Collectors.toList());
-            throw this.violationSupplier.apply(groupedViolationReps.toString());
+            signal(groupedViolationReps);
+        }
+    }
+
+    /**
+     * Checks the groups as a disjunction, in the order of the profile of the checked method (see {@link ClauseProfiles}):
+     * evaluation stops at the first group that passes, while if all the groups are violated the same violations
+     * as {@link #checkDisjunction()} are signalled. If a clause throws, the method falls back to declaration order.
+     * @param profile the profile of the checked method.
+     */
+    private void checkProfiledDisjunction(ClauseProfiles.Profile profile) {
+        var groups = this.conditionViolationSuppliersGroups.toArray(new ConjunctConditionViolationSuppliers[0]);
+        List<String> violationReps;
+        try {
+            violationReps = profiledViolations(profile, groups);
+        } catch (RuntimeException e) {
+            profile.pin();
+            checkDisjunction();
+            return;
+        }
+        if (violationReps != null) {
+            signal(violationReps);
+        }
+    }
+
+    /**
+     * Evaluates the groups in the order of the profile.
+     * @return the first violation of each group in declaration order, or <code>null</code> if a group passes.
+     */
+    private List<String> profiledViolations(ClauseProfiles.Profile profile, ConjunctConditionViolationSuppliers[] groups) {
+        var profiled = profile.startCheck();
+        var ordering = profile.ordering();
+        var violatedPositions = new int[groups.length];
+        var violationReps = new String[groups.length];
+        for (var group : ordering.groups()) {
+            var start = profiled ? System.nanoTime() : 0;
+            var violatedPosition = firstViolatedPosition(profile, ordering, groups[group], group, profiled, violationReps);
+            if (profiled) {
+                profile.recordGroup(group, violatedPosition < 0, System.nanoTime() - start);
+            }
+            if (violatedPosition < 0) {
+                return null;
+            }
+            violatedPositions[group] = violatedPosition;
+        }
+        for (int group = 0; group < groups.length; group++) {
+            violationReps[group] = firstDeclaredViolation(profile.offset(group), ordering, groups[group], violatedPositions[group], violationReps[group]);
         }
-        return;
+        return Arrays.asList(violationReps);
+    }
+
+    /**
+     * Evaluates the clauses of a group in the order of the profile, up to the first violated one.
+     * @return the position of the first violated clause in the order, or -1 if the group passes.
+     */
+    private static int firstViolatedPosition(ClauseProfiles.Profile profile, ClauseProfiles.Ordering ordering,
+                                             ConjunctConditionViolationSuppliers group, int groupIndex, boolean profiled, String[] violationReps) {
+        var offset = profile.offset(groupIndex);
+        for (int position = offset; position < offset + group.conjunctSuppliers.size(); position++) {
+            var clause = ordering.clause(position);
+            var start = profiled ? System.nanoTime() : 0;
+            var violation = group.conjunctSuppliers.get(clause - offset).get();
+            if (profiled) {
+                profile.recordClause(clause, violation.isEmpty(), System.nanoTime() - start);
+            }
+            if (violation.isPresent()) {
+                violationReps[groupIndex] = violation.get();
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first violated clause of a violated group in declaration order, evaluating the clauses declared
+     * before the violated clause found that were not evaluated yet, i.e., that come after it in the order.
+     */
+    private static String firstDeclaredViolation(int offset, ClauseProfiles.Ordering ordering, ConjunctConditionViolationSuppliers group,
+                                                 int violatedPosition, String violationRep) {
+        var violatedClause = ordering.clause(violatedPosition);
+        for (int clause = offset; clause < violatedClause; clause++) {
+            if (ordering.position(clause) > violatedPosition) {
+                var violation = group.conjunctSuppliers.get(clause - offset).get();
+                if (violation.isPresent()) {
+                    return violation.get();
+                }
+            }
+        }
+        return violationRep;
+    }
+
+    private int[] shape() {
+        return this.conditionViolationSuppliersGroups.stream()
+                .mapToInt((ConjunctConditionViolationSuppliers conditionGroup) -> conditionGroup.conjunctSuppliers.size())
+                .toArray();
+    }
+
+    /**
+     * Checks the groups as a conjunction, i.e., as a sequence of postcondition strengthenings:
+     * the condition is violated by the first violation in the first violated group.
+     */
+    private void checkConjunction() {
+        var firstViolation = this.conditionViolationSuppliersGroups.stream()
+                .flatMap((ConjunctConditionViolationSuppliers conditionGroup) -> conditionGroup.getFirstViolation().stream())
+                .findFirst();
+        if (firstViolation.isPresent()) {
+            signal(List.of(firstViolation.get()));
+        }
+    }
+
+    /**
+     * Signals a violation, throwing it unless the checked method is configured as report-only,
+     * or the circuit of the violated clauses is open.
+     *
+     * Reported violations are recorded by the {@link ViolationReporter}, without building the violation
+     * (and capturing its stack trace).
+     * @param violationReps the representations of the violated clauses.
+     */
+    private void signal(List<String> violationReps) {
+        this.signalled = true;
+        if (className == null) {
+            throw this.violationSupplier.apply(violationReps.toString());
+        }
+        var key = violationKey(violationReps);
+        var action = CircuitBreakers.onViolation(key);
+        if (action == CircuitBreakers.Action.DROP) {
+            return;
+        }
+        if (action == CircuitBreakers.Action.REPORT || ContractConfiguration.isReportOnly(handle, methodName)) {
+            ViolationReporter.report(key, new ViolationReport(contractConditionType, className, methodName, violationReps.toString()));
+            return;
+        }
+        throw this.violationSupplier.apply(violationReps.toString());
+    }
+
+    private String callSite() {
+        return className + methodName.map((String name) -> "#" + name).orElse("");
+    }
+
+    /**
+     * Returns the key of a violation, i.e., the call site, the condition type and the violated clauses
+     * without the values of their parameters; circuit breakers and summaries are kept by key.
+     * @param violationReps the representations of the violated clauses.
+     * @return the violation key.
+     */
+    private String violationKey(List<String> violationReps) {
+        return violationReps.stream().map((String violationRep) -> {
+            var separatorIndex = violationRep.indexOf(Constants.CLAUSE_PARAMS_SEPARATOR_STRING);
+            return separatorIndex < 0 ? violationRep : violationRep.substring(0, separatorIndex);
+        }).collect(Collectors.joining(", ", callSite() + ": " + contractConditionType + " [", "]"));
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+/**
+ * The handle of an instrumented class to its runtime configuration.
+ *
+ * Instrumented classes keep their handle in a synthetic static field, and pass it to the checks instead of their
+ * name: the handle caches the configuration resolved for the class, so that checks read a field instead of
+ * looking up the class by name. The cache is valid as long as the configuration it was resolved from is current,
+ * and is resolved again on the first check after the configuration is replaced.
+ *
+ * @see ContractConfiguration#handle(String)
+ */
+public final class ConfigurationHandle {
+
+    private final String className;
+
+    /**
+     * The last resolution of the class configuration. The field is deliberately not volatile: a resolution is
+     * immutable, so a thread reading a stale one, or none, only resolves the class configuration again.
+     */
+    ContractConfiguration.Resolution resolution;
+
+    ConfigurationHandle(String className) {
+        this.className = className;
+    }
+
+    /**
+     * Returns the name of the class.
+     * @return the binary name of the instrumented class.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    @Override
+    public String toString() {
+        return className;
+    }
+}
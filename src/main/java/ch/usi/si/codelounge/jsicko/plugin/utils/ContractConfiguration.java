@@ -0,0 +1,718 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.Contracts;
+import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runtime enablement of contract checks, per package, class, method, and condition type.
+ *
+ * The configuration is read once, from the system properties and, optionally, from a properties
+ * file whose path is given by the <code>jsicko.config</code> system property (system properties take
+ * precedence over the file). The <code>jsicko.checks</code> key sets the default, while the keys
+ * <code>jsicko.checks.&lt;pattern&gt;</code> set the enabled condition types for a pattern, i.e.:
+ * <ul>
+ *     <li><code>com.example.*</code>: all the classes in a package and in its subpackages;</li>
+ *     <li><code>com.example.Stack</code>: a class, by binary name (e.g., <code>Outer$Inner</code>);</li>
+ *     <li><code>com.example.Stack#push</code>: all the methods of a class with a given name
+ *     (<code>new</code> for constructors).</li>
+ * </ul>
+ * Values are comma-separated lists of <code>pre</code>, <code>post</code>, <code>inv</code>, or one
+ * of <code>all</code> and <code>none</code>. The most specific pattern wins: method patterns over
+ * class patterns, class patterns over package patterns, and longer packages over shorter ones.
+ *
+ * Similarly, the <code>jsicko.sampling</code> and <code>jsicko.sampling.&lt;pattern&gt;</code> keys set which calls
+ * are checked at all: <code>always</code> (the default), <code>every:N</code> to check one call every N calls
+ * (counted per thread), <code>rate:P</code> to check each call with probability P, or <code>adaptive</code> to let
+ * the {@link OverheadController} adjust the rate of each method to an overhead budget. A call not sampled skips
+ * all of its checks, including the old values snapshot.
+ *
+ * Finally, the <code>jsicko.reportOnly</code> and <code>jsicko.reportOnly.&lt;pattern&gt;</code> keys (<code>true</code>
+ * or <code>false</code>, the default) select the classes and methods whose violations are reported instead of thrown,
+ * and the <code>jsicko.cost</code> and <code>jsicko.cost.&lt;pattern&gt;</code> keys set the most expensive
+ * {@link Contract.Cost} of the clauses checked (<code>cheap</code>, <code>normal</code>, or <code>expensive</code>,
+ * the default): e.g., production can keep only cheap guards, while test runs check everything.
+ * The <code>jsicko.invariants</code> and <code>jsicko.invariants.&lt;pattern&gt;</code> class and package keys set when
+ * invariants are checked: at the end of every instrumented call (<code>always</code>, the default), or only of the
+ * outermost instrumented call on an object (<code>outermost</code>, see {@link OutermostCalls}).
+ * The <code>jsicko.breaker</code> keys configure the {@link CircuitBreakers} of violated clauses, the
+ * <code>jsicko.report</code> keys the {@link ViolationReporter} that records the violations not thrown, and the
+ * <code>jsicko.ordering</code> keys the {@link ClauseProfiles} that order the evaluation of preconditions; finally,
+ * <code>jsicko.parallel.threads</code> sizes the {@link ClauseExecutor} evaluating parallel clauses.
+ *
+ * Patterns are resolved once per class, on its first check, and the result is cached. The configuration can be
+ * replaced at runtime (e.g., through the {@link ContractControl} MXBean), which discards all the cached results.
+ * A new configuration is validated as a whole before any of it is applied, and only the subsystems whose keys
+ * changed are reconfigured: e.g., enabling a condition type keeps the open circuits of the {@link CircuitBreakers}.
+ * The current configuration is held by a call site rather than by a volatile field: compiled code treats it as a
+ * constant, and is deoptimized when the configuration is replaced. Instrumented classes identify themselves by a
+ * {@link ConfigurationHandle}, which caches their resolved configuration: as long as the configuration is not
+ * replaced, a check reads the handle instead of looking up the class in the cache.
+ *
+ * The configuration is overridden, per thread, by the scopes opened with {@link Contracts#withChecks(Contracts.Level, Runnable)}.
+ */
+public final class ContractConfiguration {
+
+    public static final String CONFIG_FILE_PROPERTY = "jsicko.config";
+    public static final String CHECKS_PROPERTY = "jsicko.checks";
+    public static final String SAMPLING_PROPERTY = "jsicko.sampling";
+    public static final String REPORT_ONLY_PROPERTY = "jsicko.reportOnly";
+    public static final String COST_PROPERTY = "jsicko.cost";
+    public static final String INVARIANTS_PROPERTY = "jsicko.invariants";
+
+    private static final String PACKAGE_WILDCARD = ".*";
+    private static final char METHOD_SEPARATOR = '#';
+
+    /**
+     * Decides which calls of a method are checked.
+     */
+    interface Sampler {
+
+        Sampler ALWAYS = () -> true;
+
+        boolean sample();
+
+        /**
+         * Checks if the sampler needs the time spent checking the sampled calls.
+         * @return <code>true</code> iff checks must be timed and recorded with {@link #recordCheck(long)}.
+         */
+        default boolean isTimed() {
+            return false;
+        }
+
+        /**
+         * Records the time spent checking a sampled call (or part of it).
+         * @param nanos the elapsed time, in nanoseconds.
+         */
+        default void recordCheck(long nanos) {}
+    }
+
+    /**
+     * Samples the first call, and then one call every n calls, counting the calls of each thread separately.
+     */
+    private static final class EveryNthSampler implements Sampler {
+
+        private final int n;
+        private final ThreadLocal<int[]> countdown = ThreadLocal.withInitial(() -> new int[1]);
+
+        EveryNthSampler(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public boolean sample() {
+            var remaining = countdown.get();
+            if (remaining[0] == 0) {
+                remaining[0] = n - 1;
+                return true;
+            }
+            remaining[0]--;
+            return false;
+        }
+    }
+
+    /**
+     * Samples each call with a given probability.
+     */
+    private static final class ProbabilisticSampler implements Sampler {
+
+        private final double rate;
+
+        ProbabilisticSampler(double rate) {
+            this.rate = rate;
+        }
+
+        @Override
+        public boolean sample() {
+            return ThreadLocalRandom.current().nextDouble() < rate;
+        }
+    }
+
+    /**
+     * The configuration of a class, and of its methods with a specific configuration.
+     */
+    private static final class ClassConfiguration {
+
+        private final String className;
+        private final Set<ContractConditionEnum> enabledConditions;
+        private final Map<String, Set<ContractConditionEnum>> enabledConditionsByMethod;
+        private final Sampler sampler;
+        private final Map<String, Sampler> samplersByMethod;
+        private final boolean reportOnly;
+        private final Map<String, Boolean> reportOnlyByMethod;
+        private final Contract.Cost maxCost;
+        private final Map<String, Contract.Cost> maxCostByMethod;
+        private final boolean outermostInvariants;
+
+        /**
+         * Adaptive samplers are created lazily for each method, since rates are adjusted per method.
+         */
+        private final Map<String, Sampler> adaptiveSamplersByMethod;
+
+        ClassConfiguration(String className, Set<ContractConditionEnum> enabledConditions, Map<String, Set<ContractConditionEnum>> enabledConditionsByMethod,
+                           Optional<Sampler> sampler, Map<String, Sampler> samplersByMethod,
+                           boolean reportOnly, Map<String, Boolean> reportOnlyByMethod,
+                           Contract.Cost maxCost, Map<String, Contract.Cost> maxCostByMethod,
+                           boolean outermostInvariants) {
+            this.className = className;
+            this.enabledConditions = enabledConditions;
+            this.enabledConditionsByMethod = enabledConditionsByMethod;
+            this.sampler = sampler.orElse(null);
+            this.samplersByMethod = samplersByMethod;
+            this.reportOnly = reportOnly;
+            this.reportOnlyByMethod = reportOnlyByMethod;
+            this.maxCost = maxCost;
+            this.maxCostByMethod = maxCostByMethod;
+            this.outermostInvariants = outermostInvariants;
+            this.adaptiveSamplersByMethod = new ConcurrentHashMap<>();
+        }
+
+        boolean isReportOnly(Optional<String> methodName) {
+            return methodName.map(reportOnlyByMethod::get).orElse(reportOnly);
+        }
+
+        boolean isCostEnabled(Optional<String> methodName, Contract.Cost cost) {
+            return cost.compareTo(methodName.map(maxCostByMethod::get).orElse(maxCost)) <= 0;
+        }
+
+        boolean isEnabled(String methodName, ContractConditionEnum conditionType) {
+            var methodConditions = enabledConditionsByMethod.isEmpty() ? null : enabledConditionsByMethod.get(methodName);
+            return (methodConditions != null ? methodConditions : enabledConditions).contains(conditionType);
+        }
+
+        Sampler sampler(String methodName) {
+            var methodSampler = samplersByMethod.isEmpty() ? null : samplersByMethod.get(methodName);
+            if (methodSampler != null) {
+                return methodSampler;
+            }
+            return sampler != null ? sampler : adaptiveSamplersByMethod.computeIfAbsent(methodName, (String name) ->
+                    OverheadController.adaptiveSampler(className + METHOD_SEPARATOR + name));
+        }
+    }
+
+    /**
+     * The configuration of a class, resolved from a given configuration, and cached by the handle of the class.
+     */
+    static final class Resolution {
+
+        private final ContractConfiguration configuration;
+        private final ClassConfiguration classConfiguration;
+
+        private Resolution(ContractConfiguration configuration, ClassConfiguration classConfiguration) {
+            this.configuration = configuration;
+            this.classConfiguration = classConfiguration;
+        }
+    }
+
+    /**
+     * The handles of the instrumented classes, by name, which outlive the configurations.
+     */
+    private static final Map<String, ConfigurationHandle> handles = new ConcurrentHashMap<>();
+
+    private static final MutableCallSite current = new MutableCallSite(MethodHandles.constant(ContractConfiguration.class,
+            new ContractConfiguration(loadDefaultProperties())));
+    private static final MethodHandle currentGetter = current.dynamicInvoker();
+
+    static {
+        configureSubsystems(null, currentConfiguration().properties);
+        ContractControl.registerIfEnabled();
+    }
+
+    /**
+     * The level of the innermost scope of each thread. Scopes are not inherited by the threads started within
+     * them (e.g., lazily started pool workers), which would otherwise keep the level forever: they are carried
+     * to other threads only explicitly, by {@link Contracts#propagating(Runnable)}.
+     */
+    private static final ThreadLocal<Contracts.Level> currentScopeLevel = new ThreadLocal<>();
+
+    /**
+     * Set when the first scope is opened, so that programs without scopes never look up the thread local.
+     * The field is deliberately not volatile: a thread can only be in a scope opened by itself, which
+     * wrote the field.
+     */
+    private static boolean scopesOpened = false;
+
+    private final Properties properties;
+    private final Map<String, String> checksPatterns;
+    private final Map<String, String> samplingPatterns;
+    private final Map<String, String> reportOnlyPatterns;
+    private final Map<String, String> costPatterns;
+    private final Map<String, String> invariantsPatterns;
+    private final Map<String, ClassConfiguration> classConfigurations;
+
+    private ContractConfiguration(Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+        this.checksPatterns = readPatterns(properties, CHECKS_PROPERTY, "all");
+        this.samplingPatterns = readPatterns(properties, SAMPLING_PROPERTY, "always");
+        this.reportOnlyPatterns = readPatterns(properties, REPORT_ONLY_PROPERTY, "false");
+        this.costPatterns = readPatterns(properties, COST_PROPERTY, "expensive");
+        this.invariantsPatterns = readPatterns(properties, INVARIANTS_PROPERTY, "always");
+        this.classConfigurations = new ConcurrentHashMap<>();
+
+        /*
+         * Values are validated eagerly, even if they are parsed again for each class.
+         */
+        checksPatterns.values().forEach(ContractConfiguration::parseConditions);
+        samplingPatterns.values().forEach(ContractConfiguration::parseSampler);
+        reportOnlyPatterns.values().forEach(ContractConfiguration::parseBoolean);
+        costPatterns.values().forEach(ContractConfiguration::parseCost);
+        invariantsPatterns.values().forEach(ContractConfiguration::parseInvariantsMode);
+        OverheadController.validate(properties);
+        CircuitBreakers.validate(properties);
+        ViolationAggregator.validate(properties);
+        ClauseProfiles.validate(properties);
+        ClauseExecutor.validate(properties);
+        ViolationReporter.Settings.parse(properties);
+    }
+
+    /**
+     * Checks if a condition type is enabled for a method.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param methodName the name of the instrumented method (<code>new</code> for constructors).
+     * @param conditionType the condition type.
+     * @return <code>true</code> iff the condition must be checked.
+     */
+    public static boolean isEnabled(ConfigurationHandle handle, String methodName, ContractConditionEnum conditionType) {
+        var level = scopeLevel();
+        if (level != null) {
+            return level.isEnabled(conditionType);
+        }
+        return classConfiguration(handle).isEnabled(methodName, conditionType);
+    }
+
+    /**
+     * Decides if the current call of a method must be checked.
+     *
+     * Each call must be sampled at most once, since samplers may count calls. Calls made while evaluating
+     * clauses are never checked, regardless of the configuration and of scopes.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param methodName the name of the instrumented method (<code>new</code> for constructors).
+     * @return <code>true</code> iff the current call must be checked.
+     */
+    public static boolean isSampled(ConfigurationHandle handle, String methodName) {
+        if (ConditionChecker.isEvaluatingClauses()) {
+            return false;
+        }
+        var level = scopeLevel();
+        if (level != null) {
+            return level != Contracts.Level.NONE;
+        }
+        return classConfiguration(handle).sampler(methodName).sample();
+    }
+
+    /**
+     * Checks if the time spent checking a sampled call of a method must be recorded, i.e., if its sampling is
+     * adaptive. Checks within a scope are never timed.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param methodName the name of the instrumented method (<code>new</code> for constructors).
+     * @return <code>true</code> iff the checks must be timed, and reported by {@link #checkFinished}.
+     */
+    public static boolean isTimed(ConfigurationHandle handle, String methodName) {
+        if (scopeLevel() != null) {
+            return false;
+        }
+        return classConfiguration(handle).sampler(methodName).isTimed();
+    }
+
+    /**
+     * Records the time spent checking a sampled call of a method, i.e., in its precondition or postcondition method.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param methodName the name of the instrumented method (<code>new</code> for constructors).
+     * @param startNanos the value of {@link System#nanoTime()} when the checks started.
+     */
+    public static void checkFinished(ConfigurationHandle handle, String methodName, long startNanos) {
+        if (scopeLevel() != null) {
+            return;
+        }
+        var elapsed = System.nanoTime() - startNanos;
+        classConfiguration(handle).sampler(methodName).recordCheck(elapsed);
+    }
+
+    /**
+     * Checks if the violations of a method must be reported instead of thrown.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param methodName the name of the instrumented method (<code>new</code> for constructors), or
+     *                   empty for class-wide checks, i.e., invariants.
+     * @return <code>true</code> iff violations must be only reported.
+     */
+    public static boolean isReportOnly(ConfigurationHandle handle, Optional<String> methodName) {
+        return classConfiguration(handle).isReportOnly(methodName);
+    }
+
+    /**
+     * Checks if the clauses of a given cost must be checked for a method.
+     *
+     * Within a scope all the clauses are checked, regardless of their cost.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param methodName the name of the instrumented method (<code>new</code> for constructors), or
+     *                   empty for class-wide checks, i.e., invariants.
+     * @param cost the cost of the clauses.
+     * @return <code>true</code> iff the cost is within the threshold.
+     */
+    public static boolean isCostEnabled(ConfigurationHandle handle, Optional<String> methodName, Contract.Cost cost) {
+        if (scopeLevel() != null) {
+            return true;
+        }
+        return classConfiguration(handle).isCostEnabled(methodName, cost);
+    }
+
+    /**
+     * Checks if the invariants of a class are checked only when the outermost instrumented call on an object returns.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @return <code>true</code> iff invariants are checked only at outermost calls, <code>false</code> if at every call.
+     */
+    public static boolean isOutermostInvariants(ConfigurationHandle handle) {
+        return classConfiguration(handle).outermostInvariants;
+    }
+
+    /**
+     * Opens a scope on the current thread.
+     * @param level the level of the scope.
+     * @return the level of the enclosing scope, to be restored by {@link #exitScope(Contracts.Level)}.
+     */
+    public static Contracts.Level enterScope(Contracts.Level level) {
+        scopesOpened = true;
+        var previous = currentScopeLevel.get();
+        currentScopeLevel.set(Objects.requireNonNull(level));
+        return previous;
+    }
+
+    /**
+     * Closes the innermost scope of the current thread.
+     * @param previous the level of the enclosing scope, or <code>null</code> outside scopes.
+     */
+    public static void exitScope(Contracts.Level previous) {
+        if (previous == null) {
+            currentScopeLevel.remove();
+        } else {
+            currentScopeLevel.set(previous);
+        }
+    }
+
+    /**
+     * Returns the level of the innermost scope of the current thread.
+     * @return the current level, or <code>null</code> outside scopes.
+     */
+    public static Contracts.Level scopeLevel() {
+        return scopesOpened ? currentScopeLevel.get() : null;
+    }
+
+    /**
+     * Replaces the current configuration, discarding all the cached class configurations.
+     * @param properties the configuration properties, with the same keys of the system properties.
+     * @throws IllegalArgumentException if some key is malformed, in which case the current configuration is kept.
+     */
+    public static synchronized void configure(Properties properties) {
+        var configuration = new ContractConfiguration(properties);
+        configureSubsystems(currentConfiguration().properties, configuration.properties);
+        current.setTarget(MethodHandles.constant(ContractConfiguration.class, configuration));
+        MutableCallSite.syncAll(new MutableCallSite[] { current });
+    }
+
+    /**
+     * Configures the runtime subsystems whose keys changed, keeping the state (e.g., open circuits, adaptive
+     * rates, clause profiles) of the others. All the keys must have been validated already.
+     * @param previous the properties of the previous configuration, or <code>null</code> to configure all the subsystems.
+     * @param properties the properties of the new configuration.
+     */
+    private static void configureSubsystems(Properties previous, Properties properties) {
+        if (changed(previous, properties, ClauseProfiles.ORDERING_PROPERTY)) {
+            ClauseProfiles.configure(properties);
+        }
+        if (changed(previous, properties, OverheadController.OVERHEAD_PROPERTY)) {
+            OverheadController.configure(properties);
+        }
+        if (changed(previous, properties, CircuitBreakers.BREAKER_PROPERTY)) {
+            CircuitBreakers.configure(properties);
+        }
+        if (changed(previous, properties, ViolationAggregator.SUMMARY_INTERVAL_PROPERTY) ||
+                changed(previous, properties, ViolationAggregator.SUMMARY_SAMPLES_PROPERTY)) {
+            ViolationAggregator.configure(properties);
+        }
+        if (changed(previous, properties, ClauseExecutor.THREADS_PROPERTY)) {
+            ClauseExecutor.configure(properties);
+        }
+    }
+
+    private static boolean changed(Properties previous, Properties properties, String prefix) {
+        return previous == null || !keys(previous, prefix).equals(keys(properties, prefix));
+    }
+
+    private static Map<String, String> keys(Properties properties, String prefix) {
+        var keys = new HashMap<String, String>();
+        properties.stringPropertyNames().stream()
+                .filter((String key) -> key.startsWith(prefix))
+                .forEach((String key) -> keys.put(key, properties.getProperty(key)));
+        return keys;
+    }
+
+    /**
+     * Returns a copy of the properties of the current configuration.
+     * @return the configuration properties.
+     */
+    public static Properties currentProperties() {
+        var properties = new Properties();
+        properties.putAll(currentConfiguration().properties);
+        return properties;
+    }
+
+    /**
+     * Restores the configuration read from the system properties and the configuration file.
+     */
+    public static void reset() {
+        configure(loadDefaultProperties());
+    }
+
+    private static ContractConfiguration currentConfiguration() {
+        try {
+            return (ContractConfiguration) currentGetter.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("[jsicko] cannot retrieve the current configuration", e);
+        }
+    }
+
+    /**
+     * Returns the handle of a class, shared by all its checks.
+     * @param className the binary name of the instrumented class.
+     * @return the handle of the class.
+     */
+    public static ConfigurationHandle handle(String className) {
+        return handles.computeIfAbsent(className, ConfigurationHandle::new);
+    }
+
+    private static ClassConfiguration classConfiguration(ConfigurationHandle handle) {
+        var configuration = currentConfiguration();
+        var resolution = handle.resolution;
+        if (resolution == null || resolution.configuration != configuration) {
+            resolution = new Resolution(configuration,
+                    configuration.classConfigurations.computeIfAbsent(handle.getClassName(), configuration::resolve));
+            handle.resolution = resolution;
+        }
+        return resolution.classConfiguration;
+    }
+
+    private ClassConfiguration resolve(String className) {
+        var enabledConditionsByMethod = new HashMap<String, Set<ContractConditionEnum>>();
+        resolveMethodPatterns(checksPatterns, className).forEach((String methodName, String value) ->
+                enabledConditionsByMethod.put(methodName, parseConditions(value)));
+        var samplersByMethod = new HashMap<String, Sampler>();
+        resolveMethodPatterns(samplingPatterns, className).forEach((String methodName, String value) ->
+                samplersByMethod.put(methodName, parseSampler(value).orElseGet(() ->
+                        OverheadController.adaptiveSampler(className + METHOD_SEPARATOR + methodName))));
+        var reportOnlyByMethod = new HashMap<String, Boolean>();
+        resolveMethodPatterns(reportOnlyPatterns, className).forEach((String methodName, String value) ->
+                reportOnlyByMethod.put(methodName, parseBoolean(value)));
+        var reportOnly = parseBoolean(resolveClassPattern(reportOnlyPatterns, className));
+        var maxCostByMethod = new HashMap<String, Contract.Cost>();
+        resolveMethodPatterns(costPatterns, className).forEach((String methodName, String value) ->
+                maxCostByMethod.put(methodName, parseCost(value)));
+        return new ClassConfiguration(className,
+                parseConditions(resolveClassPattern(checksPatterns, className)), enabledConditionsByMethod,
+                parseSampler(resolveClassPattern(samplingPatterns, className)), samplersByMethod,
+                reportOnly, reportOnlyByMethod,
+                parseCost(resolveClassPattern(costPatterns, className)), maxCostByMethod,
+                parseInvariantsMode(resolveClassPattern(invariantsPatterns, className)));
+    }
+
+    /**
+     * Resolves the value of the most specific class or package pattern matching a class.
+     * @param patterns the patterns, with the default value associated to the empty pattern.
+     * @param className the binary name of the class.
+     * @return the value of the most specific pattern.
+     */
+    private static String resolveClassPattern(Map<String, String> patterns, String className) {
+        var classValue = patterns.get(className);
+        if (classValue != null) {
+            return classValue;
+        }
+        var packageName = className;
+        var lastDot = packageName.lastIndexOf('.');
+        while (lastDot > 0) {
+            packageName = packageName.substring(0, lastDot);
+            var packageValue = patterns.get(packageName + PACKAGE_WILDCARD);
+            if (packageValue != null) {
+                return packageValue;
+            }
+            lastDot = packageName.lastIndexOf('.');
+        }
+        return patterns.get("");
+    }
+
+    /**
+     * Resolves the method patterns of a class.
+     * @param patterns the patterns.
+     * @param className the binary name of the class.
+     * @return the values of the method patterns, by method name.
+     */
+    private static Map<String, String> resolveMethodPatterns(Map<String, String> patterns, String className) {
+        var methodPrefix = className + METHOD_SEPARATOR;
+        var valuesByMethod = new HashMap<String, String>();
+        patterns.forEach((String pattern, String value) -> {
+            if (pattern.startsWith(methodPrefix)) {
+                valuesByMethod.put(pattern.substring(methodPrefix.length()), value);
+            }
+        });
+        return valuesByMethod;
+    }
+
+    /**
+     * Parses a comma-separated list of condition types, e.g., <code>pre,inv</code>, <code>all</code>, or <code>none</code>.
+     * @param value the list of condition types.
+     * @return the set of condition types.
+     * @throws IllegalArgumentException if the value is malformed.
+     */
+    public static Set<ContractConditionEnum> parseConditions(String value) {
+        var conditions = EnumSet.noneOf(ContractConditionEnum.class);
+        for (String token : value.split(",")) {
+            switch (token.trim().toLowerCase()) {
+                case "all":
+                    conditions.addAll(EnumSet.allOf(ContractConditionEnum.class));
+                    break;
+                case "none":
+                case "":
+                    break;
+                case "pre":
+                    conditions.add(ContractConditionEnum.PRECONDITION);
+                    break;
+                case "post":
+                    conditions.add(ContractConditionEnum.POSTCONDITION);
+                    break;
+                case "inv":
+                    conditions.add(ContractConditionEnum.INVARIANT);
+                    break;
+                default:
+                    throw new IllegalArgumentException("[jsicko] unknown condition type " + token + " in checks configuration " + value);
+            }
+        }
+        return Collections.unmodifiableSet(conditions);
+    }
+
+    private static boolean parseBoolean(String value) {
+        var spec = value.trim().toLowerCase();
+        if (!spec.equals("true") && !spec.equals("false")) {
+            throw new IllegalArgumentException("[jsicko] malformed report-only configuration " + value);
+        }
+        return Boolean.parseBoolean(spec);
+    }
+
+    /**
+     * Parses a clause cost, i.e., <code>cheap</code>, <code>normal</code>, or <code>expensive</code>.
+     * @param value the cost.
+     * @return the cost.
+     * @throws IllegalArgumentException if the value is malformed.
+     */
+    public static Contract.Cost parseCost(String value) {
+        try {
+            return Contract.Cost.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("[jsicko] malformed cost configuration " + value, e);
+        }
+    }
+
+    private static boolean parseInvariantsMode(String value) {
+        var spec = value.trim().toLowerCase();
+        if (!spec.equals("always") && !spec.equals("outermost")) {
+            throw new IllegalArgumentException("[jsicko] malformed invariants configuration " + value);
+        }
+        return spec.equals("outermost");
+    }
+
+    /**
+     * Parses a sampling configuration value.
+     * @param value the configuration value.
+     * @return the sampler, or empty for adaptive sampling, whose samplers are created per method.
+     */
+    private static Optional<Sampler> parseSampler(String value) {
+        var spec = value.trim().toLowerCase();
+        try {
+            if (spec.equals("always")) {
+                return Optional.of(Sampler.ALWAYS);
+            } else if (spec.equals("adaptive")) {
+                return Optional.empty();
+            } else if (spec.startsWith("every:")) {
+                var n = Integer.parseInt(spec.substring("every:".length()).trim());
+                if (n > 0) {
+                    return Optional.of(n == 1 ? Sampler.ALWAYS : new EveryNthSampler(n));
+                }
+            } else if (spec.startsWith("rate:")) {
+                var rate = Double.parseDouble(spec.substring("rate:".length()).trim());
+                if (rate >= 0 && rate <= 1) {
+                    return Optional.of(rate == 1 ? Sampler.ALWAYS : new ProbabilisticSampler(rate));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("[jsicko] malformed sampling configuration " + value, e);
+        }
+        throw new IllegalArgumentException("[jsicko] malformed sampling configuration " + value);
+    }
+
+    /**
+     * Reads the patterns of a configuration key, associating the default value to the empty pattern.
+     * @param properties the configuration properties.
+     * @param key the configuration key, e.g., jsicko.checks.
+     * @param defaultValue the value used if the key is missing.
+     * @return the values of the patterns.
+     */
+    private static Map<String, String> readPatterns(Properties properties, String key, String defaultValue) {
+        var patterns = new HashMap<String, String>();
+        patterns.put("", properties.getProperty(key, defaultValue));
+        var patternPrefix = key + ".";
+        properties.stringPropertyNames().stream()
+                .filter((String propertyKey) -> propertyKey.startsWith(patternPrefix))
+                .forEach((String propertyKey) -> patterns.put(propertyKey.substring(patternPrefix.length()), properties.getProperty(propertyKey)));
+        return patterns;
+    }
+
+    private static Properties loadDefaultProperties() {
+        var properties = new Properties();
+        var configFile = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (configFile != null) {
+            try (InputStream input = Files.newInputStream(Paths.get(configFile))) {
+                properties.load(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException("[jsicko] cannot read checks configuration file " + configFile, e);
+            }
+        }
+        var systemProperties = System.getProperties();
+        systemProperties.stringPropertyNames().stream()
+                .filter((String key) -> key.startsWith(CHECKS_PROPERTY) || key.startsWith(SAMPLING_PROPERTY) ||
+                        key.startsWith(REPORT_ONLY_PROPERTY) || key.startsWith(COST_PROPERTY) || key.startsWith(INVARIANTS_PROPERTY) ||
+                        key.startsWith(OverheadController.OVERHEAD_PROPERTY) || key.startsWith(CircuitBreakers.BREAKER_PROPERTY) ||
+                        key.startsWith(ViolationReporter.REPORT_PROPERTY) || key.startsWith(ClauseProfiles.ORDERING_PROPERTY) ||
+                        key.startsWith(ClauseExecutor.THREADS_PROPERTY))
+                .forEach((String key) -> properties.setProperty(key, systemProperties.getProperty(key)));
+        return properties;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The <code>ContractControl</code> MXBean, registered in the platform MBean server at the first check
+ * unless the <code>jsicko.jmx</code> system property is <code>false</code>.
+ *
+ * Each change replaces the whole {@link ContractConfiguration}, so it reaches the checks of all classes
+ * (even the ones already resolved) without any per-call synchronization.
+ */
+public final class ContractControl implements ContractControlMXBean {
+
+    public static final String JMX_PROPERTY = "jsicko.jmx";
+    public static final String OBJECT_NAME = "ch.usi.si.codelounge.jsicko:type=ContractControl";
+
+    private ContractControl() {}
+
+    /**
+     * Registers the MXBean, unless disabled or already registered.
+     */
+    static void registerIfEnabled() {
+        if (!Boolean.parseBoolean(System.getProperty(JMX_PROPERTY, "true"))) {
+            return;
+        }
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new ContractControl(), name);
+            }
+        } catch (JMException | SecurityException e) {
+            System.getLogger(ContractControl.class.getName()).log(System.Logger.Level.WARNING, "[jsicko] cannot register the " + OBJECT_NAME + " MXBean", e);
+        }
+    }
+
+    @Override
+    public Map<String, String> getConfiguration() {
+        var properties = ContractConfiguration.currentProperties();
+        var configuration = new TreeMap<String, String>();
+        properties.stringPropertyNames().forEach((String key) -> configuration.put(key, properties.getProperty(key)));
+        return configuration;
+    }
+
+    @Override
+    public void setChecks(String pattern, String conditions) {
+        update((Properties properties) -> properties.setProperty(key(ContractConfiguration.CHECKS_PROPERTY, pattern), conditions));
+    }
+
+    @Override
+    public void setSampling(String pattern, String sampling) {
+        update((Properties properties) -> properties.setProperty(key(ContractConfiguration.SAMPLING_PROPERTY, pattern), sampling));
+    }
+
+    @Override
+    public void setReportOnly(String pattern, boolean reportOnly) {
+        update((Properties properties) -> properties.setProperty(key(ContractConfiguration.REPORT_ONLY_PROPERTY, pattern), Boolean.toString(reportOnly)));
+    }
+
+    @Override
+    public void setCost(String pattern, String cost) {
+        update((Properties properties) -> properties.setProperty(key(ContractConfiguration.COST_PROPERTY, pattern), cost));
+    }
+
+    @Override
+    public void clearPattern(String pattern) {
+        update((Properties properties) -> {
+            properties.remove(key(ContractConfiguration.CHECKS_PROPERTY, pattern));
+            properties.remove(key(ContractConfiguration.SAMPLING_PROPERTY, pattern));
+            properties.remove(key(ContractConfiguration.REPORT_ONLY_PROPERTY, pattern));
+            properties.remove(key(ContractConfiguration.COST_PROPERTY, pattern));
+        });
+    }
+
+    @Override
+    public void reset() {
+        ContractConfiguration.reset();
+    }
+
+    @Override
+    public Map<String, Double> getAdaptiveRates() {
+        return OverheadController.currentRates();
+    }
+
+    @Override
+    public double getLastOverhead() {
+        return OverheadController.lastOverhead();
+    }
+
+    @Override
+    public Set<String> getOpenCircuits() {
+        return CircuitBreakers.openCircuits();
+    }
+
+    @Override
+    public long getDroppedViolationReports() {
+        return ViolationReporter.droppedReports();
+    }
+
+    private static String key(String property, String pattern) {
+        return pattern == null || pattern.isEmpty() ? property : property + "." + pattern;
+    }
+
+    private static void update(Consumer<Properties> change) {
+        synchronized (ContractConfiguration.class) {
+            var properties = ContractConfiguration.currentProperties();
+            change.accept(properties);
+            ContractConfiguration.configure(properties);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Management interface to change the runtime configuration of contract checking in a running JVM.
+ *
+ * Patterns have the same syntax of the {@link ContractConfiguration} keys (e.g., <code>com.example.*</code>,
+ * <code>com.example.Stack</code>, or <code>com.example.Stack#push</code>); the empty pattern stands for the default.
+ */
+public interface ContractControlMXBean {
+
+    /**
+     * Returns the current configuration properties.
+     * @return the configuration, by key.
+     */
+    Map<String, String> getConfiguration();
+
+    /**
+     * Sets the enabled condition types for a pattern.
+     * @param pattern a package, class, or method pattern, or empty for the default.
+     * @param conditions a comma-separated list of <code>pre</code>, <code>post</code>, <code>inv</code>,
+     *                   or one of <code>all</code> and <code>none</code>.
+     */
+    void setChecks(String pattern, String conditions);
+
+    /**
+     * Sets the sampling of the calls matching a pattern.
+     * @param pattern a package, class, or method pattern, or empty for the default.
+     * @param sampling one of <code>always</code>, <code>every:N</code>, <code>rate:P</code>, and <code>adaptive</code>.
+     */
+    void setSampling(String pattern, String sampling);
+
+    /**
+     * Sets whether violations are reported instead of thrown for a pattern.
+     * @param pattern a package, class, or method pattern, or empty for the default.
+     * @param reportOnly <code>true</code> iff violations must be only reported.
+     */
+    void setReportOnly(String pattern, boolean reportOnly);
+
+    /**
+     * Sets the most expensive clauses checked for a pattern.
+     * @param pattern a package, class, or method pattern, or empty for the default.
+     * @param cost one of <code>cheap</code>, <code>normal</code>, or <code>expensive</code>.
+     */
+    void setCost(String pattern, String cost);
+
+    /**
+     * Removes all the settings of a pattern, which then falls back to less specific patterns.
+     * @param pattern a package, class, or method pattern.
+     */
+    void clearPattern(String pattern);
+
+    /**
+     * Restores the configuration read at startup from the system properties and the configuration file.
+     */
+    void reset();
+
+    /**
+     * Returns the current rates of the methods with adaptive sampling.
+     * @return the rates, by method.
+     */
+    Map<String, Double> getAdaptiveRates();
+
+    /**
+     * Returns the overhead of contract checking measured in the last adjustment period of adaptive sampling.
+     * @return the overhead, as a fraction of the process CPU time.
+     */
+    double getLastOverhead();
+
+    /**
+     * Returns the open circuits of the clause circuit breakers.
+     * @return the keys of the open circuits, i.e., the call sites and the violated clauses.
+     */
+    Set<String> getOpenCircuits();
+
+    /**
+     * Returns the number of violation reports dropped because the report buffer was full.
+     * @return the number of dropped reports.
+     */
+    long getDroppedViolationReports();
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.plugin.Constants;
+import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A scope deferring the invariant checks on some objects, for the current thread, until it is closed.
+ *
+ * Batch operations (e.g., bulk loaders and builders) call many instrumented mutators in a row, each one
+ * checking all the invariants of the object. Within the scope, the calls on the deferred objects only record
+ * themselves, and the invariants of each object are checked once when the scope closes, if any call was made:
+ * a violation reports the number of operations of the batch and the last one, which is not necessarily the
+ * one that left the object invalid, since the invariants are not checked between operations.
+ *
+ * Scopes are created by {@link ch.usi.si.codelounge.jsicko.Contracts#deferInvariants(Object...)}, and must be
+ * closed by the thread that created them, e.g., with a try-with-resources statement. Scopes nest: an object
+ * deferred by an enclosing scope is checked when the outermost scope deferring it closes.
+ */
+public final class DeferredInvariants implements AutoCloseable {
+
+    /**
+     * The calls on a deferred object.
+     */
+    private static final class Batch {
+        private int depth = 0;
+        private int operations = 0;
+        private String lastOperation;
+    }
+
+    private static final ThreadLocal<IdentityHashMap<Object, Batch>> batchesByObject = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    /**
+     * The number of open scopes in all threads, so that instrumented calls skip the lookup when there are none.
+     */
+    private static final AtomicInteger openScopes = new AtomicInteger();
+
+    private static final ClassValue<Optional<Method>> invariantsCheckMethods = new ClassValue<>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                try {
+                    var method = current.getDeclaredMethod(Constants.CHECK_INVARIANTS_METHOD_IDENTIFIER_STRING, ClauseResults.class);
+                    method.setAccessible(true);
+                    return Optional.of(method);
+                } catch (NoSuchMethodException e) {
+                    // not instrumented, or without invariants
+                }
+            }
+            return Optional.empty();
+        }
+    };
+
+    private final List<Object> objects;
+    private boolean closed = false;
+
+    private DeferredInvariants(List<Object> objects) {
+        this.objects = objects;
+    }
+
+    /**
+     * Defers the invariant checks on some objects for the current thread.
+     * @param objects the deferred objects.
+     * @return the scope, to be closed by the current thread.
+     */
+    public static DeferredInvariants defer(Object... objects) {
+        var batches = batchesByObject.get();
+        for (var object : objects) {
+            batches.computeIfAbsent(object, (Object key) -> new Batch()).depth++;
+        }
+        openScopes.incrementAndGet();
+        return new DeferredInvariants(Arrays.asList(objects));
+    }
+
+    /**
+     * Checks if the invariants must be checked at the end of the current call on a receiver, recording the call
+     * if the receiver is deferred.
+     * @param receiver the receiver of the call.
+     * @param methodName the name of the instrumented method.
+     * @return <code>true</code> iff the invariants of the receiver are not deferred by the current thread.
+     */
+    public static boolean isCheckedNow(Object receiver, String methodName) {
+        if (openScopes.get() == 0) {
+            return true;
+        }
+        var batch = batchesByObject.get().get(receiver);
+        if (batch == null) {
+            return true;
+        }
+        batch.operations++;
+        batch.lastOperation = methodName;
+        return false;
+    }
+
+    /**
+     * Closes the scope, checking the invariants of the objects deferred only by this scope, if they are enabled
+     * when the scope closes, i.e., by the current configuration and check scope of the thread, for the class declaring
+     * the invariants and the last operation of the batch.
+     * @throws Contract.InvariantViolation if the invariants of an object are violated; the violations
+     * of the other objects are suppressed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        openScopes.decrementAndGet();
+        var batches = batchesByObject.get();
+        var completed = new IdentityHashMap<Object, Batch>();
+        for (var object : objects) {
+            var batch = batches.get(object);
+            if (batch != null && --batch.depth == 0) {
+                batches.remove(object);
+                completed.put(object, batch);
+            }
+        }
+        Contract.InvariantViolation violation = null;
+        for (var entry : completed.entrySet()) {
+            try {
+                check(entry.getKey(), entry.getValue());
+            } catch (Contract.InvariantViolation e) {
+                if (violation == null) {
+                    violation = e;
+                } else {
+                    violation.addSuppressed(e);
+                }
+            }
+        }
+        if (violation != null) {
+            throw violation;
+        }
+    }
+
+    private static void check(Object object, Batch batch) {
+        if (batch.operations == 0) {
+            return;
+        }
+        var checkMethod = invariantsCheckMethods.get(object.getClass());
+        if (checkMethod.isEmpty()) {
+            return;
+        }
+        var handle = ContractConfiguration.handle(checkMethod.get().getDeclaringClass().getName());
+        if (!ContractConfiguration.isEnabled(handle, batch.lastOperation, ContractConditionEnum.INVARIANT)) {
+            return;
+        }
+        try {
+            checkMethod.get().invoke(object, (Object) null);
+        } catch (InvocationTargetException e) {
+            var cause = e.getCause();
+            if (cause instanceof Contract.InvariantViolation) {
+                var violation = new Contract.InvariantViolation(cause.getMessage() + " after operation " + batch.operations +
+                        " (" + batch.lastOperation + ") of the deferred batch on " + object.getClass().getName());
+                violation.initCause(cause);
+                throw violation;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
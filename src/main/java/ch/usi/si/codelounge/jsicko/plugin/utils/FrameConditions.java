@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Checks the frame conditions declared by {@link ch.usi.si.codelounge.jsicko.Contract.Modifies}, i.e., that
+ * a method does not modify the fields of its receiver that are not listed.
+ *
+ * Instead of cloning the receiver and comparing it deeply (as in <code>this.equals(old(this))</code>), the
+ * instrumented method captures a fingerprint of each unlisted field before the call, and compares it after
+ * the call: primitive fields are compared by value, and reference fields by identity hash code, so replacing
+ * a referenced object is detected, but modifying it in place is not. With the <code>frames=contents</code>
+ * plugin option, reference fields are also compared by hash code, i.e., by content for values, collections and
+ * arrays: this detects in-place modifications, but computing the hash code of a collection or of an array takes
+ * time linear in its size (and in the size of its elements), at every checked call. The captured fingerprints are
+ * kept in a local variable of the instrumented method, and passed to its postcondition method.
+ */
+public final class FrameConditions {
+
+    private FrameConditions() {}
+
+    /**
+     * Captures the fingerprints of the fields of a receiver before a call.
+     * @param fingerprints the fingerprints of the fields not modified by the call.
+     * @return the captured fingerprints.
+     */
+    public static long[] capture(long... fingerprints) {
+        return fingerprints;
+    }
+
+    /**
+     * Compares the fingerprints of the fields of a receiver after a call with the captured ones, signaling a
+     * postcondition violation if any changed.
+     * @param receiver the receiver of the call.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param methodName the name of the instrumented method.
+     * @param fieldNames the comma-separated names of the fields, in the order of the fingerprints.
+     * @param captured the fingerprints of the fields captured before the call.
+     * @param fingerprints the fingerprints of the fields after the call.
+     * @return <code>true</code> iff no field changed, i.e., the frame condition was verified.
+     */
+    public static boolean verify(Object receiver, ConfigurationHandle handle, String methodName, String fieldNames, long[] captured, long... fingerprints) {
+        if (Arrays.equals(captured, fingerprints)) {
+            return true;
+        }
+        var names = fieldNames.split(",");
+        var modified = new StringJoiner(", ", "frame condition; modified fields: ", "");
+        for (int i = 0; i < fingerprints.length; i++) {
+            if (captured[i] != fingerprints[i]) {
+                modified.add(names[i]);
+            }
+        }
+        var checker = ConditionChecker.newPostconditionChecker(handle, methodName);
+        checker.addConditionGroup(() -> Optional.of(modified.toString()));
+        checker.check(receiver);
+        return false;
+    }
+
+    /**
+     * Returns the fingerprint of a boolean field.
+     * @param value the value of the field.
+     * @return the fingerprint.
+     */
+    public static long bits(boolean value) {
+        return value ? 1L : 0L;
+    }
+
+    /**
+     * Returns the fingerprint of a floating point field.
+     * @param value the value of the field.
+     * @return the fingerprint.
+     */
+    public static long bits(double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * Returns the fingerprint of a reference field, i.e., the identity hash code of the referenced object.
+     * @param value the value of the field.
+     * @return the fingerprint.
+     */
+    public static long fingerprint(Object value) {
+        return value == null ? 0L : System.identityHashCode(value);
+    }
+
+    /**
+     * Returns the fingerprint of a reference field, combining the identity of the referenced object and
+     * its hash code (falling back to the identity alone if computing the hash code fails).
+     * @param value the value of the field.
+     * @return the fingerprint.
+     */
+    public static long contentFingerprint(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        return ((long) System.identityHashCode(value) << 32) | (contentHash(value) & 0xFFFFFFFFL);
+    }
+
+    private static int contentHash(Object value) {
+        try {
+            if (value instanceof Object[]) {
+                return Arrays.hashCode((Object[]) value);
+            } else if (value instanceof int[]) {
+                return Arrays.hashCode((int[]) value);
+            } else if (value instanceof long[]) {
+                return Arrays.hashCode((long[]) value);
+            } else if (value instanceof double[]) {
+                return Arrays.hashCode((double[]) value);
+            } else if (value instanceof byte[]) {
+                return Arrays.hashCode((byte[]) value);
+            } else if (value instanceof char[]) {
+                return Arrays.hashCode((char[]) value);
+            } else if (value instanceof boolean[]) {
+                return Arrays.hashCode((boolean[]) value);
+            } else if (value instanceof float[]) {
+                return Arrays.hashCode((float[]) value);
+            } else if (value instanceof short[]) {
+                return Arrays.hashCode((short[]) value);
+            }
+            return value.hashCode();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A violation listener that keeps all the reports in memory, e.g., for tests.
+ */
+public final class InMemoryViolationListener implements ViolationListener {
+
+    private final List<ViolationReport> reports = new ArrayList<>();
+    private final List<ViolationSummary> summaries = new ArrayList<>();
+
+    @Override
+    public synchronized void onViolations(List<ViolationReport> reports) {
+        this.reports.addAll(reports);
+    }
+
+    @Override
+    public synchronized void onSummaries(List<ViolationSummary> summaries) {
+        this.summaries.addAll(summaries);
+    }
+
+    /**
+     * Returns the reports received so far.
+     * @return a copy of the reports, in order of occurrence.
+     */
+    public synchronized List<ViolationReport> getReports() {
+        return List.copyOf(reports);
+    }
+
+    /**
+     * Returns the summaries received so far.
+     * @return a copy of the summaries, in order of delivery.
+     */
+    public synchronized List<ViolationSummary> getSummaries() {
+        return List.copyOf(summaries);
+    }
+
+    /**
+     * Discards the reports and the summaries received so far.
+     */
+    public synchronized void clear() {
+        reports.clear();
+        summaries.clear();
+    }
+}
@@ -28,7 +28,9 @@ import com.sun.tools.javac.api.BasicJavacTask;
 import com.sun.tools.javac.code.*;
 import com.sun.tools.javac.code.Symbol.*;
 import com.sun.tools.javac.comp.Attr;
+import com.sun.tools.javac.comp.Enter;
 import  com.sun.tools.javac.comp.TransTypes;
+import com.sun.tools.javac.jvm.ByteCodes;
 import com.sun.tools.javac.tree.JCTree.*;
 import com.sun.tools.javac.tree.TreeMaker;
 import com.sun.tools.javac.util.*;
@@ -36,6 +38,7 @@ import com.sun.tools.javac.util.*;
 import javax.tools.JavaFileObject;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -47,6 +50,7 @@ public final class JavacUtils {
     private final TreeMaker factory;
     private final TransTypes transTypes;
     private final Attr attr;
+    private final Enter enter;
 
     private final Log log;
     private final JCDiagnostic.Factory diagnosticFactory;
@@ -70,6 +74,7 @@ public final class JavacUtils {
 
         this.transTypes = TransTypes.instance(task.getContext());
         this.attr = Attr.instance(task.getContext());
+        this.enter = Enter.instance(task.getContext());
 
         var javaUtilCollectioniteratorMethodSymbol = retrieveMemberFromClassByName(symtab.java_base, Collection.class.getCanonicalName(), "iterator");
 
@@ -144,7 +149,7 @@ public final class JavacUtils {
         var selector = factory.Select(baseExpression, sym);
         var apply = factory.Apply(List.nil(), selector, args);
         if (sym.isVarArgs()) {
-            var paramType =  sym.params.head.type;
+            var paramType =  sym.params.last().type;
             apply.varargsElement = ((Type.ArrayType) paramType).getComponentType();
         }
         return apply.setType(selector.type.getReturnType());
@@ -170,6 +175,32 @@ public final class JavacUtils {
         }).collect(List.collector());
     }
 
+    /**
+     * Checks if a type is an array, a collection, or a map, i.e., a container whose content can change
+     * even if it is referenced by a final field.
+     * @param t a type.
+     * @return <code>true</code> iff the type is an array, or a subtype of {@link Collection} or {@link Map}.
+     */
+    public boolean isContainerType(Type t) {
+        if (t.hasTag(TypeTag.ARRAY)) {
+            return true;
+        }
+        if (!t.hasTag(TypeTag.CLASS)) {
+            return false;
+        }
+        var erasure = types.erasure(t);
+        return types.isSubtype(erasure, typeErasure(retrieveType(javaBaseModule(), Collection.class.getCanonicalName()))) ||
+                types.isSubtype(erasure, typeErasure(retrieveType(javaBaseModule(), Map.class.getCanonicalName())));
+    }
+
+    public Type supertype(Type t) {
+        return types.supertype(t);
+    }
+
+    public boolean overrides(MethodSymbol method, MethodSymbol other) {
+        return method.overrides(other, method.enclClass(), types, true);
+    }
+
     public boolean hasVoidReturnType(JCMethodDecl methodDecl) {
         var methodReturnType = methodDecl.getReturnType();
         return (methodReturnType instanceof JCPrimitiveTypeTree) && ((JCPrimitiveTypeTree) methodReturnType).typetag.equals(TypeTag.VOID);
@@ -415,6 +446,10 @@ public final class JavacUtils {
         return symtab.booleanType;
     }
 
+    public Type longArrayType() {
+        return new Type.ArrayType(symtab.longType, symtab.arrayClass);
+    }
+
     public Type voidType() {
         return symtab.voidType;
     }
@@ -423,6 +458,10 @@ public final class JavacUtils {
         return symtab.botType;
     }
 
+    public ClassSymbol methodClass() {
+        return symtab.methodClass;
+    }
+
     public void setOperator(JCBinary binary) {
         Type.MethodType opType = new Type.MethodType(
                 List.of(stringType(), stringType()), stringType(), List.nil(), symtab.methodClass);
@@ -430,8 +469,23 @@ public final class JavacUtils {
         binary.type = stringType();
     }
 
+    public void setReferenceInequalityOperator(JCBinary binary) {
+        Type.MethodType opType = new Type.MethodType(
+                List.of(objectType(), objectType()), booleanType(), List.nil(), symtab.methodClass);
+        binary.operator = new OperatorSymbol.OperatorSymbol(this.Name("!="), opType, ByteCodes.if_acmpne, symtab.noSymbol);
+        binary.type = booleanType();
+    }
+
     public void visitLambda(JCLambda lambda) {
-        var t = (VarSymbol) retrieveMemberFromClassByName(this.unnamedModule(), "ch.usi.si.codelounge.jsicko.plugin.utils.ConditionChecker","dummy").get();
+        visitLambda(lambda, "dummy");
+    }
+
+    public void visitClauseLambda(JCLambda lambda) {
+        visitLambda(lambda, "dummyClause");
+    }
+
+    private void visitLambda(JCLambda lambda, String dummyFieldName) {
+        var t = (VarSymbol) retrieveMemberFromClassByName(this.unnamedModule(), "ch.usi.si.codelounge.jsicko.plugin.utils.ConditionChecker", dummyFieldName).get();
         lambda.type = t.type;
         lambda.target = t.type;
     }
@@ -443,13 +497,38 @@ public final class JavacUtils {
     }
 
     public JCExpression falseLiteral() {
-        return zeroValue(booleanType());
+        return zeroValue(booleanType()).setType(booleanType());
+    }
+
+    public JCExpression trueLiteral() {
+        return factory.Literal(TypeTag.BOOLEAN, 1).setType(booleanType());
     }
 
     public boolean isTypeAssignable(VarSymbol a, VarSymbol b) {
-        var aType = a.type.isPrimitive() ? a.type : a.erasure(this.types);
-        var bType = b.type.isPrimitive() ? b.type : b.erasure(this.types);
-        return this.types.isAssignable(aType, bType);
+        return isErasedTypeAssignable(a.type, b.type);
+    }
+
+    public boolean isErasedTypeAssignable(Type t, Type s) {
+        var tType = t.isPrimitive() ? t : types.erasure(t);
+        var sType = s.isPrimitive() ? s : types.erasure(s);
+        return this.types.isAssignable(tType, sType);
+    }
+
+    public boolean hasSameErasure(Type t, Type s) {
+        return types.isSameType(types.erasure(t), types.erasure(s));
+    }
+
+    public boolean overrides(MethodSymbol method, MethodSymbol other, TypeSymbol origin) {
+        return method.equals(other) || method.overrides(other, origin, types, true);
+    }
+
+    /**
+     * Checks if a class is being compiled from source in the current compilation task.
+     * @param classSymbol a class symbol.
+     * @return <code>true</code> iff the class has been entered from a source file of this compilation.
+     */
+    public boolean isCompiledFromSource(ClassSymbol classSymbol) {
+        return this.enter.getEnv(classSymbol) != null;
     }
 
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Tracks the instrumented calls in progress on each receiver, per thread, to check invariants only when the
+ * outermost call on an object returns (i.e., visible-state semantics).
+ *
+ * By default, invariants are checked at the end of every instrumented call, so a method calling n instrumented
+ * methods on the same object checks them n+1 times. With <code>jsicko.invariants=outermost</code> (or
+ * <code>jsicko.invariants.&lt;pattern&gt;=outermost</code>, see {@link ContractConfiguration}), calls on objects of
+ * the matching classes are tracked, and nested calls on the same object skip the invariants check.
+ *
+ * Instrumented methods track a call only if the mode is enabled when the call starts, and end the tracking of
+ * the calls they tracked, so changing the configuration at runtime never unbalances the tracking.
+ */
+public final class OutermostCalls {
+
+    private static final ThreadLocal<IdentityHashMap<Object, int[]>> depthsByReceiver = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private OutermostCalls() {}
+
+    /**
+     * Starts tracking an instrumented call, if invariants of its class are checked only at outermost calls.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param receiver the receiver of the call.
+     * @return <code>true</code> iff the call is tracked, and must be ended by {@link #untrack(Object)}.
+     */
+    public static boolean track(ConfigurationHandle handle, Object receiver) {
+        if (!ContractConfiguration.isOutermostInvariants(handle)) {
+            return false;
+        }
+        var depths = depthsByReceiver.get();
+        var depth = depths.get(receiver);
+        if (depth == null) {
+            depth = new int[1];
+            depths.put(receiver, depth);
+        }
+        depth[0]++;
+        return true;
+    }
+
+    /**
+     * Ends the tracking of an instrumented call.
+     * @param receiver the receiver of the call.
+     */
+    public static void untrack(Object receiver) {
+        var depths = depthsByReceiver.get();
+        var depth = depths.get(receiver);
+        if (depth != null && --depth[0] == 0) {
+            depths.remove(receiver);
+        }
+    }
+
+    /**
+     * Checks if the invariants must be checked at the end of the current call on a receiver.
+     * @param handle the handle of the class declaring the instrumented method.
+     * @param receiver the receiver of the call.
+     * @return <code>true</code> iff invariants are checked at every call, or the current call is the outermost
+     * one on the receiver.
+     */
+    public static boolean isOutermost(ConfigurationHandle handle, Object receiver) {
+        if (!ContractConfiguration.isOutermostInvariants(handle)) {
+            return true;
+        }
+        var depth = depthsByReceiver.get().get(receiver);
+        return depth == null || depth[0] <= 1;
+    }
+}
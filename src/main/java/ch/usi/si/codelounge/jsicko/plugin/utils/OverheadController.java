@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adjusts the check rate of the methods with adaptive sampling, so that the time spent in contract
+ * checking (saving old values and evaluating clauses) stays under a budget, as a fraction of the
+ * CPU time of the process.
+ *
+ * The controller periodically estimates the cost of checking a call of each method, and the cost of checking
+ * all of its calls. The budget is then shared fairly among methods: methods whose full checking costs less
+ * than their share (e.g., cold methods) are always checked, and the remaining budget is split among the others
+ * (e.g., hot methods), whose rate is lowered accordingly. Rates drop immediately when the budget is exceeded,
+ * and ramp up again (doubling at each period) when load drops.
+ *
+ * The controller is configured with the <code>jsicko.overhead.budget</code> (default 0.02, i.e., 2%),
+ * <code>jsicko.overhead.interval</code> (the period in milliseconds, default 1000; 0 disables the periodic
+ * adjustment) and <code>jsicko.overhead.minRate</code> (default 0.001) keys of the {@link ContractConfiguration}.
+ */
+public final class OverheadController {
+
+    public static final String OVERHEAD_PROPERTY = "jsicko.overhead";
+    public static final String BUDGET_PROPERTY = OVERHEAD_PROPERTY + ".budget";
+    public static final String INTERVAL_PROPERTY = OVERHEAD_PROPERTY + ".interval";
+    public static final String MIN_RATE_PROPERTY = OVERHEAD_PROPERTY + ".minRate";
+
+    /**
+     * Samples the calls of a method with a rate adjusted by the controller.
+     */
+    static final class AdaptiveSampler implements ContractConfiguration.Sampler {
+
+        private final String methodRep;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder sampledCalls = new LongAdder();
+        private final LongAdder checkNanos = new LongAdder();
+        private volatile double rate = 1;
+
+        /**
+         * The estimated cost of checking a call, in nanoseconds, or a negative value if still unknown.
+         * Accessed only by the controller.
+         */
+        private double costPerCall = -1;
+
+        AdaptiveSampler(String methodRep) {
+            this.methodRep = methodRep;
+        }
+
+        @Override
+        public boolean sample() {
+            calls.increment();
+            var currentRate = rate;
+            if (currentRate >= 1 || ThreadLocalRandom.current().nextDouble() < currentRate) {
+                sampledCalls.increment();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isTimed() {
+            return true;
+        }
+
+        @Override
+        public void recordCheck(long nanos) {
+            checkNanos.add(nanos);
+        }
+    }
+
+    /**
+     * The adaptive samplers, by method representation: they outlive the configurations that do not change the
+     * overhead keys, so that, e.g., enabling or disabling a condition type does not reset the adjusted rates.
+     */
+    private static final Map<String, AdaptiveSampler> samplers = new ConcurrentHashMap<>();
+
+    private static double budget = 0.02;
+    private static long intervalMillis = 1000;
+    private static double minRate = 0.001;
+
+    private static ScheduledExecutorService scheduler;
+    private static ScheduledFuture<?> periodicAdjustment;
+    private static long lastProcessCpuNanos = -1;
+    private static volatile double lastOverhead = 0;
+
+    private OverheadController() {}
+
+    /**
+     * The parsed overhead keys of a configuration.
+     */
+    private static final class Settings {
+
+        private final double budget;
+        private final long intervalMillis;
+        private final double minRate;
+
+        private Settings(Properties properties) {
+            try {
+                this.budget = Double.parseDouble(properties.getProperty(BUDGET_PROPERTY, "0.02"));
+                this.intervalMillis = Long.parseLong(properties.getProperty(INTERVAL_PROPERTY, "1000"));
+                this.minRate = Double.parseDouble(properties.getProperty(MIN_RATE_PROPERTY, "0.001"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("[jsicko] malformed overhead configuration", e);
+            }
+            if (budget <= 0 || intervalMillis < 0 || minRate < 0 || minRate > 1) {
+                throw new IllegalArgumentException("[jsicko] malformed overhead configuration: budget " + budget +
+                        ", interval " + intervalMillis + ", minimum rate " + minRate);
+            }
+        }
+    }
+
+    /**
+     * Validates the overhead keys of a configuration, without applying them.
+     * @param properties the configuration properties.
+     * @throws IllegalArgumentException if the keys are malformed.
+     */
+    static void validate(Properties properties) {
+        new Settings(properties);
+    }
+
+    /**
+     * Configures the controller, discarding the samplers of the previous configuration.
+     * @param properties the configuration properties.
+     */
+    static synchronized void configure(Properties properties) {
+        var settings = new Settings(properties);
+        budget = settings.budget;
+        intervalMillis = settings.intervalMillis;
+        minRate = settings.minRate;
+        samplers.clear();
+        lastOverhead = 0;
+        if (periodicAdjustment != null) {
+            periodicAdjustment.cancel(false);
+            periodicAdjustment = null;
+        }
+    }
+
+    /**
+     * Returns the adaptive sampler of a method, creating and registering it, and starting the periodic adjustment,
+     * if needed.
+     * @param methodRep the representation of the sampled method, i.e., <code>Class#method</code>.
+     * @return the adaptive sampler.
+     */
+    static synchronized AdaptiveSampler adaptiveSampler(String methodRep) {
+        var sampler = samplers.computeIfAbsent(methodRep, AdaptiveSampler::new);
+        if (periodicAdjustment == null && intervalMillis > 0) {
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor((Runnable runnable) -> {
+                    var thread = new Thread(runnable, "jsicko-overhead-controller");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            lastProcessCpuNanos = processCpuNanos();
+            periodicAdjustment = scheduler.scheduleAtFixedRate(OverheadController::adjustRates, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return sampler;
+    }
+
+    /**
+     * Returns the current check rates of the methods with adaptive sampling.
+     * @return the rates, by method representation (<code>Class#method</code>).
+     */
+    public static Map<String, Double> currentRates() {
+        var rates = new TreeMap<String, Double>();
+        samplers.values().forEach((AdaptiveSampler sampler) -> rates.put(sampler.methodRep, sampler.rate));
+        return rates;
+    }
+
+    /**
+     * Returns the overhead measured in the last adjustment period, as a fraction of the process CPU time.
+     * @return the last measured overhead.
+     */
+    public static double lastOverhead() {
+        return lastOverhead;
+    }
+
+    private static synchronized void adjustRates() {
+        var processCpuNanos = processCpuNanos();
+        var elapsedCpuNanos = processCpuNanos - lastProcessCpuNanos;
+        lastProcessCpuNanos = processCpuNanos;
+        if (elapsedCpuNanos > 0) {
+            adjustRates(elapsedCpuNanos);
+        }
+    }
+
+    /**
+     * Adjusts the rates of the adaptive samplers, given the CPU time consumed by the process since the
+     * last adjustment. This is called periodically, but can also be called explicitly, e.g., when the
+     * periodic adjustment is disabled.
+     * @param elapsedCpuNanos the CPU time consumed by the process since the last adjustment, in nanoseconds.
+     */
+    public static synchronized void adjustRates(long elapsedCpuNanos) {
+        var fullCosts = new HashMap<AdaptiveSampler, Double>();
+        var totalCheckNanos = 0L;
+        for (AdaptiveSampler sampler : samplers.values()) {
+            var calls = sampler.calls.sumThenReset();
+            var sampledCalls = sampler.sampledCalls.sumThenReset();
+            var checkNanos = sampler.checkNanos.sumThenReset();
+            totalCheckNanos += checkNanos;
+            if (sampledCalls > 0) {
+                var costPerCall = (double) checkNanos / sampledCalls;
+                sampler.costPerCall = sampler.costPerCall < 0 ? costPerCall : (sampler.costPerCall + costPerCall) / 2;
+            }
+            if (sampler.costPerCall >= 0) {
+                fullCosts.put(sampler, sampler.costPerCall * calls);
+            }
+        }
+        lastOverhead = (double) totalCheckNanos / elapsedCpuNanos;
+
+        var remainingBudget = budget * elapsedCpuNanos;
+        var remainingSamplers = fullCosts.size();
+        var byFullCost = new ArrayList<>(fullCosts.entrySet());
+        byFullCost.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<AdaptiveSampler, Double> entry : byFullCost) {
+            var share = remainingBudget / remainingSamplers;
+            var fullCost = entry.getValue();
+            var targetRate = fullCost <= share ? 1 : share / fullCost;
+            remainingBudget -= Math.min(fullCost, share);
+            remainingSamplers--;
+
+            var sampler = entry.getKey();
+            var rate = targetRate < sampler.rate ? targetRate : Math.min(targetRate, sampler.rate * 2);
+            sampler.rate = Math.max(minRate, Math.min(1, rate));
+        }
+    }
+
+    private static long processCpuNanos() {
+        var operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+        if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+            var processCpuTime = ((com.sun.management.OperatingSystemMXBean) operatingSystem).getProcessCpuTime();
+            if (processCpuTime >= 0) {
+                return processCpuTime;
+            }
+        }
+        return System.nanoTime() * Runtime.getRuntime().availableProcessors();
+    }
+}
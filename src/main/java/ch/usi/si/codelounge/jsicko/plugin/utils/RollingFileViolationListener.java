@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A violation listener that appends the reports (and summaries) to a file, one per line, rolling it over when it
+ * exceeds a maximum size: the file <code>f</code> is renamed to <code>f.1</code>, <code>f.1</code> to
+ * <code>f.2</code>, and so on, keeping at most a given number of rolled files.
+ */
+public final class RollingFileViolationListener implements ViolationListener {
+
+    private final Path file;
+    private final long maxSize;
+    private final int maxFiles;
+    private BufferedWriter writer;
+    private long size;
+
+    /**
+     * Constructs a rolling file listener.
+     * @param file the path of the current file.
+     * @param maxSize the maximum size of a file, in bytes.
+     * @param maxFiles the maximum number of rolled files kept.
+     */
+    public RollingFileViolationListener(Path file, long maxSize, int maxFiles) {
+        if (maxSize <= 0 || maxFiles < 0) {
+            throw new IllegalArgumentException("[jsicko] malformed rolling file configuration: maximum size " + maxSize +
+                    ", maximum files " + maxFiles);
+        }
+        this.file = file;
+        this.maxSize = maxSize;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public void onViolations(List<ViolationReport> reports) {
+        write(reports);
+    }
+
+    @Override
+    public void onSummaries(List<ViolationSummary> summaries) {
+        write(summaries);
+    }
+
+    private synchronized void write(List<?> entries) {
+        try {
+            for (var entry : entries) {
+                var line = entry.toString() + System.lineSeparator();
+                var lineSize = line.getBytes(StandardCharsets.UTF_8).length;
+                if (writer == null) {
+                    open();
+                }
+                if (size > 0 && size + lineSize > maxSize) {
+                    roll();
+                }
+                writer.write(line);
+                size += lineSize;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("[jsicko] cannot write violation reports to " + file, e);
+        }
+    }
+
+    private void open() throws IOException {
+        var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        if (maxFiles > 0) {
+            Files.deleteIfExists(rolledFile(maxFiles));
+        }
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            var rolled = rolledFile(i);
+            if (Files.exists(rolled)) {
+                Files.move(rolled, rolledFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file, rolledFile(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        open();
+    }
+
+    private Path rolledFile(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the reported violations by key, i.e., by call site, condition type and violated clauses.
+ *
+ * With <code>jsicko.report.summaryInterval</code> set to a positive number of milliseconds (default 0, i.e.,
+ * disabled), the {@link ViolationReporter} delivers one {@link ViolationSummary} per key and interval instead
+ * of one report per violation, so that a clause failing on every call does not flood the listeners. Each
+ * summary keeps the number of violations, the time of the first and last one, and up to
+ * <code>jsicko.report.summarySamples</code> (default 3) of their messages.
+ *
+ * Recording a violation only updates striped counters and accumulators, so concurrent violations of the same
+ * clause do not contend on a single memory location. Counts are exact, while summaries drained concurrently
+ * with a violation may attribute its timestamps or its sample to the next interval.
+ */
+final class ViolationAggregator {
+
+    static final String SUMMARY_INTERVAL_PROPERTY = ViolationReporter.REPORT_PROPERTY + ".summaryInterval";
+    static final String SUMMARY_SAMPLES_PROPERTY = ViolationReporter.REPORT_PROPERTY + ".summarySamples";
+
+    /**
+     * The violations of a key in the current interval.
+     */
+    private static final class Aggregate {
+
+        private final ContractConditionEnum conditionType;
+        private final String className;
+        private final Optional<String> methodName;
+        private final LongAdder count = new LongAdder();
+        private final LongAccumulator firstTimestamp = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator lastTimestamp = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private final AtomicReferenceArray<String> samples;
+        private final AtomicInteger sampled = new AtomicInteger();
+
+        Aggregate(ViolationReport report, int maxSamples) {
+            this.conditionType = report.getConditionType();
+            this.className = report.getClassName();
+            this.methodName = report.getMethodName();
+            this.samples = new AtomicReferenceArray<>(maxSamples);
+        }
+
+        void record(ViolationReport report) {
+            count.increment();
+            firstTimestamp.accumulate(report.getTimestamp());
+            lastTimestamp.accumulate(report.getTimestamp());
+            if (sampled.get() < samples.length()) {
+                var index = sampled.getAndIncrement();
+                if (index < samples.length()) {
+                    samples.set(index, report.getMessage());
+                }
+            }
+        }
+
+        Optional<ViolationSummary> drain(String key) {
+            var violations = count.sumThenReset();
+            if (violations == 0) {
+                return Optional.empty();
+            }
+            var sampleMessages = new ArrayList<String>(samples.length());
+            for (int i = 0; i < samples.length(); i++) {
+                var message = samples.getAndSet(i, null);
+                if (message != null) {
+                    sampleMessages.add(message);
+                }
+            }
+            sampled.set(0);
+            return Optional.of(new ViolationSummary(key, conditionType, className, methodName, violations,
+                    firstTimestamp.getThenReset(), lastTimestamp.getThenReset(), sampleMessages));
+        }
+    }
+
+    private static final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    private static volatile long intervalNanos = 0;
+    private static int maxSamples = 3;
+    private static long lastDrain = System.nanoTime();
+
+    private ViolationAggregator() {}
+
+    /**
+     * Configures the aggregation; violations already aggregated are kept, and summarized at the next drain.
+     * @param properties the configuration properties.
+     */
+    static synchronized void configure(Properties properties) {
+        var newIntervalMillis = parseInterval(properties);
+        var newMaxSamples = parseMaxSamples(properties);
+        if (newMaxSamples != maxSamples) {
+            aggregates.clear();
+        }
+        maxSamples = newMaxSamples;
+        intervalNanos = TimeUnit.MILLISECONDS.toNanos(newIntervalMillis);
+    }
+
+    /**
+     * Validates the summary keys of a configuration, without applying them.
+     * @param properties the configuration properties.
+     * @throws IllegalArgumentException if the keys are malformed.
+     */
+    static void validate(Properties properties) {
+        parseInterval(properties);
+        parseMaxSamples(properties);
+    }
+
+    private static long parseInterval(Properties properties) {
+        long intervalMillis;
+        try {
+            intervalMillis = Long.parseLong(properties.getProperty(SUMMARY_INTERVAL_PROPERTY, "0").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("[jsicko] malformed violation summary configuration", e);
+        }
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("[jsicko] malformed violation summary configuration: interval " + intervalMillis);
+        }
+        return intervalMillis;
+    }
+
+    private static int parseMaxSamples(Properties properties) {
+        int samples;
+        try {
+            samples = Integer.parseInt(properties.getProperty(SUMMARY_SAMPLES_PROPERTY, "3").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("[jsicko] malformed violation summary configuration", e);
+        }
+        if (samples < 0) {
+            throw new IllegalArgumentException("[jsicko] malformed violation summary configuration: samples " + samples);
+        }
+        return samples;
+    }
+
+    /**
+     * Records a violation report, if aggregation is enabled.
+     * @param key the key of the violation, i.e., the call site, the condition type and the violated clauses.
+     * @param report the violation report.
+     * @return <code>true</code> iff the report was aggregated, <code>false</code> if aggregation is disabled.
+     */
+    static boolean record(String key, ViolationReport report) {
+        if (intervalNanos == 0) {
+            return false;
+        }
+        var aggregate = aggregates.get(key);
+        if (aggregate == null) {
+            aggregate = aggregates.computeIfAbsent(key, (String newKey) -> new Aggregate(report, maxSamples));
+        }
+        aggregate.record(report);
+        return true;
+    }
+
+    /**
+     * Checks if the current interval is over.
+     * @param now the current time, as returned by {@link System#nanoTime()}.
+     * @return <code>true</code> iff aggregation is enabled and the current interval is over.
+     */
+    static synchronized boolean isDue(long now) {
+        return intervalNanos > 0 && now - lastDrain >= intervalNanos;
+    }
+
+    /**
+     * Ends the current interval, summarizing its violations.
+     * @return the summaries of the keys violated in the interval.
+     */
+    static List<ViolationSummary> drain() {
+        synchronized (ViolationAggregator.class) {
+            lastDrain = System.nanoTime();
+        }
+        var summaries = new ArrayList<ViolationSummary>();
+        aggregates.forEach((String key, Aggregate aggregate) -> aggregate.drain(key).ifPresent(summaries::add));
+        return summaries;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.util.List;
+
+/**
+ * Receives the reports of the violations that are recorded rather than thrown, e.g., in report-only mode.
+ *
+ * Listeners are registered with {@link ViolationReporter#addListener(ViolationListener)}, and are called in
+ * batches by the reporter thread, never by the thread that violated the contract.
+ */
+public interface ViolationListener {
+
+    /**
+     * Receives a batch of violation reports, in order of occurrence.
+     * @param reports the violation reports.
+     */
+    void onViolations(List<ViolationReport> reports);
+
+    /**
+     * Receives the summaries of an interval, when violations are aggregated (see {@link ViolationAggregator});
+     * by default, summaries are ignored.
+     * @param summaries the violation summaries, one per call site and violated clauses.
+     */
+    default void onSummaries(List<ViolationSummary> summaries) {}
+
+}
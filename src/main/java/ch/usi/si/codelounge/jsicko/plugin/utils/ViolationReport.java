@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The report of a violation recorded rather than thrown.
+ */
+public final class ViolationReport {
+
+    private final long timestamp;
+    private final String threadName;
+    private final ContractConditionEnum conditionType;
+    private final String className;
+    private final Optional<String> methodName;
+    private final String message;
+
+    ViolationReport(ContractConditionEnum conditionType, String className, Optional<String> methodName, String message) {
+        this.timestamp = System.currentTimeMillis();
+        this.threadName = Thread.currentThread().getName();
+        this.conditionType = conditionType;
+        this.className = className;
+        this.methodName = methodName;
+        this.message = message;
+    }
+
+    /**
+     * Returns the time of the violation.
+     * @return the time of the violation, in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the name of the thread that violated the contract.
+     * @return the name of the thread.
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * Returns the type of the violated condition.
+     * @return the condition type.
+     */
+    public ContractConditionEnum getConditionType() {
+        return conditionType;
+    }
+
+    /**
+     * Returns the binary name of the class declaring the checked method.
+     * @return the class name.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the name of the checked method.
+     * @return the method name (<code>new</code> for constructors), or empty for invariants.
+     */
+    public Optional<String> getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Returns the violation message, i.e., the violated clauses and the values of their parameters.
+     * @return the violation message.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestamp) + " [" + threadName + "] " + conditionType + " violated in " +
+                className + methodName.map((String name) -> "#" + name).orElse("") + ": " + message;
+    }
+}
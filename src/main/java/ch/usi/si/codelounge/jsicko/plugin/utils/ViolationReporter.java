@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records the violations that are reported rather than thrown, off the thread that violated the contract.
+ *
+ * Reports are published to a bounded lock-free ring buffer, and a background daemon thread drains them in
+ * batches to the registered {@link ViolationListener}s (or, if there are none, to a {@link System.Logger}).
+ * Publishing never blocks: when the buffer is full the report is dropped and counted.
+ *
+ * The reporter is configured once, at its initialization, by the <code>jsicko.report.bufferSize</code> (default 8192,
+ * rounded up to a power of two) and <code>jsicko.report.file</code> keys of the {@link ContractConfiguration}. The
+ * latter registers a {@link RollingFileViolationListener} on the given file, rolled over when it exceeds
+ * <code>jsicko.report.file.maxSize</code> bytes (default 10 MB), keeping <code>jsicko.report.file.maxFiles</code>
+ * rolled files (default 5). Since they are read only once, these keys are validated with every configuration, which is
+ * rejected if they are malformed, rather than failing the initialization of the reporter.
+ *
+ * When the {@link ViolationAggregator} is enabled, violations are aggregated rather than buffered, and the
+ * reporter thread delivers their summaries at the end of each interval.
+ *
+ * A listener that fails, even with an error, is logged and skipped for the current batch only: the reporter
+ * thread never dies, since no other thread would deliver the reports.
+ */
+public final class ViolationReporter {
+
+    public static final String REPORT_PROPERTY = "jsicko.report";
+    public static final String BUFFER_SIZE_PROPERTY = REPORT_PROPERTY + ".bufferSize";
+    public static final String FILE_PROPERTY = REPORT_PROPERTY + ".file";
+    public static final String FILE_MAX_SIZE_PROPERTY = FILE_PROPERTY + ".maxSize";
+    public static final String FILE_MAX_FILES_PROPERTY = FILE_PROPERTY + ".maxFiles";
+
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * A bounded multiple-producer, single-consumer ring buffer.
+     *
+     * Producers claim a sequence number with a CAS on the tail, as long as the buffer is not full, and then
+     * publish the report in its slot. The consumer takes the reports in sequence order, clearing their slots,
+     * and stops at the first slot claimed but not yet published.
+     */
+    private static final class RingBuffer {
+
+        private final AtomicReferenceArray<ViolationReport> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head = 0;
+
+        RingBuffer(int capacity) {
+            var size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        boolean offer(ViolationReport report) {
+            while (true) {
+                var sequence = tail.get();
+                if (sequence - head > mask) {
+                    return false;
+                }
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    slots.lazySet((int) sequence & mask, report);
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Takes the published reports, up to a maximum; called only by the consumer.
+         */
+        int drainTo(List<ViolationReport> batch, int maxReports) {
+            var taken = 0;
+            var sequence = head;
+            while (taken < maxReports) {
+                var index = (int) sequence & mask;
+                var report = slots.get(index);
+                if (report == null) {
+                    break;
+                }
+                slots.lazySet(index, null);
+                batch.add(report);
+                sequence++;
+                taken++;
+            }
+            head = sequence;
+            return taken;
+        }
+
+        long published() {
+            return tail.get();
+        }
+    }
+
+    /**
+     * The parsed report keys of a configuration. The class is nested, so that {@link ContractConfiguration} can
+     * validate the keys of each configuration eagerly without initializing (i.e., starting) the reporter.
+     */
+    static final class Settings {
+
+        private final int bufferSize;
+        private final Path file;
+        private final long fileMaxSize;
+        private final int fileMaxFiles;
+
+        private Settings(int bufferSize, Path file, long fileMaxSize, int fileMaxFiles) {
+            this.bufferSize = bufferSize;
+            this.file = file;
+            this.fileMaxSize = fileMaxSize;
+            this.fileMaxFiles = fileMaxFiles;
+        }
+
+        /**
+         * Parses the report keys of a configuration.
+         * @param properties the configuration properties.
+         * @return the parsed keys.
+         * @throws IllegalArgumentException if the keys are malformed.
+         */
+        static Settings parse(Properties properties) {
+            int bufferSize;
+            long fileMaxSize;
+            int fileMaxFiles;
+            try {
+                bufferSize = Integer.parseInt(properties.getProperty(BUFFER_SIZE_PROPERTY, "8192").trim());
+                fileMaxSize = Long.parseLong(properties.getProperty(FILE_MAX_SIZE_PROPERTY, "10485760").trim());
+                fileMaxFiles = Integer.parseInt(properties.getProperty(FILE_MAX_FILES_PROPERTY, "5").trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("[jsicko] malformed violation report configuration", e);
+            }
+            if (bufferSize <= 0 || fileMaxSize <= 0 || fileMaxFiles < 0) {
+                throw new IllegalArgumentException("[jsicko] malformed violation report configuration: buffer size " +
+                        bufferSize + ", maximum file size " + fileMaxSize + ", maximum files " + fileMaxFiles);
+            }
+            var fileName = properties.getProperty(FILE_PROPERTY);
+            Path file;
+            try {
+                file = fileName == null ? null : Paths.get(fileName.trim());
+            } catch (InvalidPathException e) {
+                throw new IllegalArgumentException("[jsicko] malformed violation report file " + fileName, e);
+            }
+            return new Settings(bufferSize, file, fileMaxSize, fileMaxFiles);
+        }
+    }
+
+    private static final RingBuffer buffer;
+    private static final List<ViolationListener> listeners = new CopyOnWriteArrayList<>();
+    private static final LongAdder droppedReports = new LongAdder();
+    private static final AtomicLong deliveredReports = new AtomicLong();
+    private static final AtomicLong summaryRequests = new AtomicLong();
+    private static volatile long summariesDelivered = 0;
+    private static final Thread drainer;
+
+    static {
+        var settings = Settings.parse(ContractConfiguration.currentProperties());
+        buffer = new RingBuffer(settings.bufferSize);
+        if (settings.file != null) {
+            listeners.add(new RollingFileViolationListener(settings.file, settings.fileMaxSize, settings.fileMaxFiles));
+        }
+        drainer = new Thread(ViolationReporter::drainLoop, "jsicko-violation-reporter");
+        drainer.setDaemon(true);
+        drainer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(TimeUnit.SECONDS.toMillis(1)), "jsicko-violation-reporter-shutdown"));
+    }
+
+    private ViolationReporter() {}
+
+    /**
+     * Records a violation report, without blocking.
+     * @param key the key of the violation, i.e., the call site, the condition type and the violated clauses.
+     * @param report the violation report.
+     * @return <code>true</code> iff the report was recorded, <code>false</code> if it was dropped.
+     */
+    static boolean report(String key, ViolationReport report) {
+        if (ViolationAggregator.record(key, report) || buffer.offer(report)) {
+            return true;
+        }
+        droppedReports.increment();
+        return false;
+    }
+
+    /**
+     * Registers a listener.
+     * @param listener the listener.
+     */
+    public static void addListener(ViolationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     * @param listener the listener.
+     */
+    public static void removeListener(ViolationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of reports dropped because the buffer was full.
+     * @return the number of dropped reports.
+     */
+    public static long droppedReports() {
+        return droppedReports.sum();
+    }
+
+    /**
+     * Waits until all the reports recorded so far are delivered to the listeners, ending the current
+     * summary interval.
+     * @param timeoutMillis the maximum time to wait, in milliseconds.
+     * @return <code>true</code> iff all the reports and summaries were delivered within the timeout.
+     */
+    public static boolean flush(long timeoutMillis) {
+        var target = buffer.published();
+        var summaryTarget = summaryRequests.incrementAndGet();
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (deliveredReports.get() < target || summariesDelivered < summaryTarget) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.unpark(drainer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    private static void drainLoop() {
+        var batch = new ArrayList<ViolationReport>(MAX_BATCH_SIZE);
+        while (true) {
+            var requestedSummaries = summaryRequests.get();
+            if (requestedSummaries != summariesDelivered || ViolationAggregator.isDue(System.nanoTime())) {
+                var summaries = ViolationAggregator.drain();
+                if (!summaries.isEmpty()) {
+                    deliverSummaries(List.copyOf(summaries));
+                }
+                summariesDelivered = requestedSummaries;
+            }
+            if (buffer.drainTo(batch, MAX_BATCH_SIZE) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            deliver(List.copyOf(batch));
+            deliveredReports.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+
+    private static void deliver(List<ViolationReport> batch) {
+        if (listeners.isEmpty()) {
+            var logger = System.getLogger(ViolationReporter.class.getName());
+            batch.forEach((ViolationReport report) -> logger.log(System.Logger.Level.WARNING, "[jsicko] " + report));
+            return;
+        }
+        for (var listener : listeners) {
+            try {
+                listener.onViolations(batch);
+            } catch (Throwable e) {
+                System.getLogger(ViolationReporter.class.getName()).log(System.Logger.Level.ERROR,
+                        "[jsicko] violation listener " + listener + " failed", e);
+            }
+        }
+    }
+
+    private static void deliverSummaries(List<ViolationSummary> summaries) {
+        if (listeners.isEmpty()) {
+            var logger = System.getLogger(ViolationReporter.class.getName());
+            summaries.forEach((ViolationSummary summary) -> logger.log(System.Logger.Level.WARNING, "[jsicko] " + summary));
+            return;
+        }
+        for (var listener : listeners) {
+            try {
+                listener.onSummaries(summaries);
+            } catch (Throwable e) {
+                System.getLogger(ViolationReporter.class.getName()).log(System.Logger.Level.ERROR,
+                        "[jsicko] violation listener " + listener + " failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The summary of the reported violations of the same clauses at the same call site within a summary interval.
+ */
+public final class ViolationSummary {
+
+    private final String key;
+    private final ContractConditionEnum conditionType;
+    private final String className;
+    private final Optional<String> methodName;
+    private final long count;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final List<String> sampleMessages;
+
+    ViolationSummary(String key, ContractConditionEnum conditionType, String className, Optional<String> methodName,
+                     long count, long firstTimestamp, long lastTimestamp, List<String> sampleMessages) {
+        this.key = key;
+        this.conditionType = conditionType;
+        this.className = className;
+        this.methodName = methodName;
+        this.count = count;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.sampleMessages = List.copyOf(sampleMessages);
+    }
+
+    /**
+     * Returns the key of the summarized violations, i.e., the call site, the condition type and the
+     * violated clauses, without the values of their parameters.
+     * @return the key of the summarized violations.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the type of the violated condition.
+     * @return the condition type.
+     */
+    public ContractConditionEnum getConditionType() {
+        return conditionType;
+    }
+
+    /**
+     * Returns the binary name of the class declaring the checked method.
+     * @return the class name.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the name of the checked method.
+     * @return the method name (<code>new</code> for constructors), or empty for invariants.
+     */
+    public Optional<String> getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Returns the number of violations in the interval.
+     * @return the number of violations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the time of the first violation in the interval.
+     * @return the time of the first violation, in milliseconds since the epoch.
+     */
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     * Returns the time of the last violation in the interval.
+     * @return the time of the last violation, in milliseconds since the epoch.
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Returns the messages of some of the violations in the interval, i.e., the violated clauses and the
+     * values of their parameters.
+     * @return the sample messages, in no particular order.
+     */
+    public List<String> getSampleMessages() {
+        return sampleMessages;
+    }
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(lastTimestamp) + " " + key + " violated " + count + " times since " +
+                Instant.ofEpochMilli(firstTimestamp) + ", e.g., " + sampleMessages;
+    }
+}
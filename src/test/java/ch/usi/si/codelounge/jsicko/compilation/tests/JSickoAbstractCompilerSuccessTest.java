@@ -39,7 +39,7 @@ public abstract class JSickoAbstractCompilerSuccessTest {
 
     @BeforeAll
     public void compile() throws IOException {
-        this.results = TestCompiler.compile(this.getQualifiedClassName(), this.getFileName());
+        this.results = TestCompiler.compile(this.getQualifiedClassName(), this.getFileName(), this.getPluginOptions());
     }
 
     @Test
@@ -47,10 +47,18 @@ public abstract class JSickoAbstractCompilerSuccessTest {
         Assertions.assertEquals(0, results.getErrors().size(), "Compilation of MissingClauseParameter.java should have no errors (actual size " + results.getErrors().size() + ")");
     }
 
+    protected CompilationResults getResults() {
+        return results;
+    }
+
     /*
      * Test parameters
      */
     protected abstract String getQualifiedClassName();
     protected abstract String getFileName();
 
+    protected String[] getPluginOptions() {
+        return new String[0];
+    }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Locale;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSickoCompilerDuplicateClausesTest extends JSickoAbstractCompilerSuccessTest {
+
+    @Override
+    protected String getQualifiedClassName() {
+        return "ch.usi.si.codelounge.jsicko.compilation.tests.DuplicateClauses";
+    }
+
+    @Override
+    protected String getFileName() {
+        return "DuplicateClauses.java";
+    }
+
+    @Test
+    public void duplicatePreconditionDisjunctIsFolded() {
+        assertConditionCheckNote("creating precondition checks positive; deduplicated (clause positive in Right#set(int) && clause small in Right#set(int)) (folded into (clause positive in Left#set(int)))");
+    }
+
+    @Test
+    public void duplicatePostconditionClauseIsRemoved() {
+        assertConditionCheckNote("creating postcondition checks small, positive; deduplicated clause positive in Left#set(int) (same as clause positive in Right#set(int))");
+    }
+
+    @Test
+    public void cheapestDuplicateClauseIsKept() {
+        assertConditionCheckNote("creating postcondition checks positive; deduplicated clause positive in Expensive#put(int) (same as clause positive in Cheap#put(int))");
+    }
+
+    @Test
+    public void duplicateInvariantIsRemoved() {
+        assertConditionCheckNote("creating invariant checks consistent; deduplicated");
+    }
+
+    private void assertConditionCheckNote(String expectedMessage) {
+        var found = getResults().getNotes().stream()
+                .map(note -> note.getMessage(Locale.getDefault()))
+                .anyMatch(message -> message.contains(expectedMessage));
+        Assertions.assertTrue(found, "Missing condition check note containing: " + expectedMessage);
+    }
+
+}
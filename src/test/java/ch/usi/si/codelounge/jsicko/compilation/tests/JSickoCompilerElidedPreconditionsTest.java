@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import ch.usi.si.codelounge.jsicko.compilation.utils.CompilationResults;
+import ch.usi.si.codelounge.jsicko.compilation.utils.TestCompiler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSickoCompilerElidedPreconditionsTest extends JSickoAbstractCompilerSuccessTest {
+
+    private CompilationResults elidedResults;
+
+    @Override
+    protected String getQualifiedClassName() {
+        return "ch.usi.si.codelounge.jsicko.compilation.tests.ElidedPreconditions";
+    }
+
+    @Override
+    protected String getFileName() {
+        return "ElidedPreconditions.java";
+    }
+
+    @BeforeAll
+    public void compileWithElision() throws IOException {
+        elidedResults = TestCompiler.compile(getQualifiedClassName(), getFileName(), "elision=on");
+    }
+
+    @Test
+    public void elisionCompilesWithoutErrors() {
+        Assertions.assertEquals(0, elidedResults.getErrors().size(), "Unexpected errors: " + elidedResults.getErrors());
+    }
+
+    @Test
+    public void constantArgumentsProvePreconditions() {
+        Assertions.assertEquals(3, countNotes(elidedResults, "In method constantArguments(): precondition of set(int,int) proven"));
+        Assertions.assertEquals(1, countNotes(elidedResults, "In method constantArguments(): precondition of setLabel(java.lang.String) proven"));
+        Assertions.assertEquals(1, countNotes(elidedResults, "In method constantArguments(): precondition of twice(int) proven"));
+    }
+
+    @Test
+    public void unprovenArgumentsAreChecked() {
+        Assertions.assertEquals(1, countNotes(elidedResults, "In method unprovenArguments(int): precondition"));
+    }
+
+    @Test
+    public void previousPostconditionProvesPrecondition() {
+        Assertions.assertEquals(1, countNotes(elidedResults, "In method previousPostcondition(): precondition of grow(int) proven"));
+    }
+
+    @Test
+    public void statefulPreconditionIsChecked() {
+        Assertions.assertEquals(0, countNotes(elidedResults, "In method statefulPrecondition(): precondition"));
+    }
+
+    @Test
+    public void elisionIsOffByDefault() {
+        Assertions.assertEquals(0, countNotes(getResults(), "proven, skipping its checks"));
+    }
+
+    @Test
+    public void malformedOptionIsRejected() {
+        Assertions.assertThrows(RuntimeException.class, () -> TestCompiler.compile(getQualifiedClassName(), getFileName(), "elision=maybe"));
+    }
+
+    private long countNotes(CompilationResults results, String message) {
+        return results.getNotes().stream()
+                .map(note -> note.getMessage(Locale.getDefault()))
+                .filter(note -> note.contains(message))
+                .count();
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import ch.usi.si.codelounge.jsicko.compilation.utils.TestCompiler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSickoCompilerIncrementalInvariantsTest extends JSickoAbstractCompilerSuccessTest {
+
+    @Override
+    protected String getQualifiedClassName() {
+        return "ch.usi.si.codelounge.jsicko.compilation.tests.IncrementalInvariants";
+    }
+
+    @Override
+    protected String getFileName() {
+        return "IncrementalInvariants.java";
+    }
+
+    @Test
+    public void invariantsNotReadingWrittenFieldsAreSkipped() {
+        assertNote("For method setHigh(int): skipping invariant checks non_negative_low, bounded_log");
+        assertNote("For method incrementLow(): skipping invariant checks bounded_log");
+        assertNote("For method touch(): skipping invariant checks non_negative_low, ordered, bounded_log");
+    }
+
+    @Test
+    public void mutatedFieldsAreWritten() {
+        assertNote("For method record(int): skipping invariant checks non_negative_low, ordered");
+    }
+
+    @Test
+    public void fieldsWrittenByCalledMethodsAreWritten() {
+        assertNote("For method moveTo(int,int): skipping invariant checks bounded_log");
+    }
+
+    @Test
+    public void escapingReceiverChecksAllInvariants() {
+        Assertions.assertFalse(hasNote("For method register(java.util.function.Consumer<ch.usi.si.codelounge.jsicko.compilation.tests.IncrementalInvariants.Range>): skipping"),
+                "Invariants skipped on escaping receiver");
+    }
+
+    @Test
+    public void constructorsCheckAllInvariants() {
+        Assertions.assertFalse(hasNote("For method Range(): skipping"), "Invariants skipped in constructor");
+    }
+
+    @Test
+    public void allInvariantsAreCheckedOnRequest() throws IOException {
+        var results = TestCompiler.compile(getQualifiedClassName(), getFileName(), "invariants=all");
+        Assertions.assertTrue(results.getNotes().stream()
+                .map(note -> note.getMessage(Locale.getDefault()))
+                .noneMatch(note -> note.contains("skipping invariant checks")), "Invariants skipped");
+    }
+
+    @Test
+    public void malformedOptionIsRejected() {
+        Assertions.assertThrows(RuntimeException.class, () -> TestCompiler.compile(getQualifiedClassName(), getFileName(), "invariants=some"));
+    }
+
+    private boolean hasNote(String message) {
+        return getResults().getNotes().stream()
+                .map(note -> note.getMessage(Locale.getDefault()))
+                .anyMatch(note -> note.contains(message));
+    }
+
+    private void assertNote(String expectedMessage) {
+        Assertions.assertTrue(hasNote(expectedMessage), "Missing note containing: " + expectedMessage);
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Locale;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSickoCompilerInstrumentationProfileTest extends JSickoAbstractCompilerSuccessTest {
+
+    @Override
+    protected String getQualifiedClassName() {
+        return "ch.usi.si.codelounge.jsicko.compilation.tests.InstrumentationProfile";
+    }
+
+    @Override
+    protected String getFileName() {
+        return "InstrumentationProfile.java";
+    }
+
+    @Override
+    protected String[] getPluginOptions() {
+        return new String[] { "checks=pre,inv", "cost=cheap", "visibility=public",
+                "exclude=ch.usi.si.codelounge.jsicko.compilation.tests.InstrumentationProfile$Excluded" };
+    }
+
+    @Test
+    public void onlyCheapPreconditionsAreInstrumented() {
+        assertNote("For method put(int): creating precondition checks non_negative");
+        Assertions.assertFalse(hasNote("checks small"), "Expensive precondition instrumented");
+    }
+
+    @Test
+    public void onlyCheapInvariantsAreInstrumented() {
+        assertNote("For method put(int): creating invariant checks non_negative_value");
+    }
+
+    @Test
+    public void postconditionsAreNotInstrumented() {
+        Assertions.assertFalse(hasNote("creating postcondition checks"), "Postconditions instrumented");
+        Assertions.assertFalse(hasNote(".enter("), "Old values saved without postconditions");
+    }
+
+    @Test
+    public void nonPublicClassesAreNotInstrumented() {
+        Assertions.assertFalse(hasNote("For method hide(int)"), "Non-public class instrumented");
+    }
+
+    @Test
+    public void excludedClassesAreNotInstrumented() {
+        Assertions.assertFalse(hasNote("For method skip(int)"), "Excluded class instrumented");
+    }
+
+    private boolean hasNote(String message) {
+        return getResults().getNotes().stream()
+                .map(note -> note.getMessage(Locale.getDefault()))
+                .anyMatch(note -> note.contains(message));
+    }
+
+    private void assertNote(String expectedMessage) {
+        Assertions.assertTrue(hasNote(expectedMessage), "Missing note containing: " + expectedMessage);
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import ch.usi.si.codelounge.jsicko.compilation.utils.TestCompiler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Locale;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSickoCompilerOldValuesOffTest extends JSickoAbstractCompilerSuccessTest {
+
+    @Override
+    protected String getQualifiedClassName() {
+        return "ch.usi.si.codelounge.jsicko.compilation.tests.InstrumentationProfile";
+    }
+
+    @Override
+    protected String getFileName() {
+        return "InstrumentationProfile.java";
+    }
+
+    @Override
+    protected String[] getPluginOptions() {
+        return new String[] { "old=off" };
+    }
+
+    @Test
+    public void allConditionsAreInstrumented() {
+        assertNote("For method put(int): creating precondition checks non_negative, small");
+        assertNote("For method put(int): creating postcondition checks value_increased");
+        assertNote("For method put(int): creating invariant checks non_negative_value, bounded_value");
+        assertNote("For method hide(int): creating precondition checks non_negative");
+        assertNote("For method skip(int): creating precondition checks non_negative");
+    }
+
+    @Test
+    public void oldValuesAreNotSaved() {
+        Assertions.assertFalse(hasNote(".enter("), "Old values saved");
+    }
+
+    @Test
+    public void malformedOptionsAreRejected() {
+        Assertions.assertThrows(RuntimeException.class, () -> TestCompiler.compile(getQualifiedClassName(), getFileName(), "checks=sometimes"));
+        Assertions.assertThrows(RuntimeException.class, () -> TestCompiler.compile(getQualifiedClassName(), getFileName(), "colour=blue"));
+    }
+
+    private boolean hasNote(String message) {
+        return getResults().getNotes().stream()
+                .map(note -> note.getMessage(Locale.getDefault()))
+                .anyMatch(note -> note.contains(message));
+    }
+
+    private void assertNote(String expectedMessage) {
+        Assertions.assertTrue(hasNote(expectedMessage), "Missing note containing: " + expectedMessage);
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import ch.usi.si.codelounge.jsicko.compilation.utils.CompilationResults;
+import ch.usi.si.codelounge.jsicko.compilation.utils.TestCompiler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSickoCompilerPurityVerificationTest extends JSickoAbstractCompilerSuccessTest {
+
+    @Override
+    protected String getQualifiedClassName() {
+        return "ch.usi.si.codelounge.jsicko.compilation.tests.PurityVerification";
+    }
+
+    @Override
+    protected String getFileName() {
+        return "PurityVerification.java";
+    }
+
+    @Test
+    public void pureClauseIsCheckedByFingerprint() {
+        Assertions.assertTrue(hasNote(getResults(), "For method peek(): checking that fields size, elements are not modified"),
+                "Purity clause not checked as a frame condition");
+    }
+
+    @Test
+    public void negatedPureClauseIsNotRewritten() {
+        Assertions.assertFalse(hasNote(getResults(), "For method push(int): checking that fields"),
+                "Negated purity clause checked as a frame condition");
+    }
+
+    @Test
+    public void pureMethodsAreTrustedByDefault() {
+        Assertions.assertFalse(hasNote(getResults(), "For method size(): checking that fields"), "Pure method verified");
+    }
+
+    @Test
+    public void pureMethodsAreVerifiedOnRequest() throws IOException {
+        var results = TestCompiler.compile(getQualifiedClassName(), getFileName(), "purity=fingerprint");
+        Assertions.assertTrue(hasNote(results, "For method size(): checking that fields size, elements are not modified"),
+                "Pure method not verified");
+    }
+
+    @Test
+    public void malformedOptionIsRejected() {
+        Assertions.assertThrows(RuntimeException.class, () -> TestCompiler.compile(getQualifiedClassName(), getFileName(), "purity=deep"));
+    }
+
+    @Test
+    public void referenceFieldsAreFingerprintedByIdentityByDefault() {
+        Assertions.assertTrue(hasNote(getResults(), "FrameConditions.fingerprint(elements)"), "Array field not fingerprinted");
+        Assertions.assertFalse(hasNote(getResults(), "contentFingerprint("), "Array field content hashed by default");
+    }
+
+    @Test
+    public void referenceFieldsAreFingerprintedByContentOnRequest() throws IOException {
+        var results = TestCompiler.compile(getQualifiedClassName(), getFileName(), "frames=contents");
+        Assertions.assertTrue(hasNote(results, "FrameConditions.contentFingerprint(elements)"), "Array field content not hashed");
+    }
+
+    @Test
+    public void malformedFramesOptionIsRejected() {
+        Assertions.assertThrows(RuntimeException.class, () -> TestCompiler.compile(getQualifiedClassName(), getFileName(), "frames=deep"));
+    }
+
+    private boolean hasNote(CompilationResults results, String message) {
+        return results.getNotes().stream()
+                .map(note -> note.getMessage(Locale.getDefault()))
+                .anyMatch(note -> note.contains(message));
+    }
+
+}
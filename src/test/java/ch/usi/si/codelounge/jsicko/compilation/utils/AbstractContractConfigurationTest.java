@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.utils;
+
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import org.junit.jupiter.api.AfterEach;
+
+import java.util.Properties;
+
+/**
+ * Base class of the tests changing the runtime configuration of contract checks, which is restored after each test.
+ */
+public abstract class AbstractContractConfigurationTest {
+
+    /**
+     * Replaces the runtime configuration.
+     * @param keyValues the configuration properties, as alternating keys and values.
+     */
+    protected static void configure(String... keyValues) {
+        var properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        ContractConfiguration.configure(properties);
+    }
+
+    @AfterEach
+    public void resetConfiguration() {
+        ContractConfiguration.reset();
+    }
+}
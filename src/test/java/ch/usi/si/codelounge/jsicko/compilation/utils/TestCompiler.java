@@ -56,7 +56,7 @@ public abstract class TestCompiler {
         }
     }
 
-    public static CompilationResults compile(String qualifiedClassName, String fileName) throws IOException {
+    public static CompilationResults compile(String qualifiedClassName, String fileName, String... pluginOptions) throws IOException {
         StringWriter output = new StringWriter();
 
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
@@ -66,7 +66,7 @@ public abstract class TestCompiler {
                 = Collections.singletonList(new SimpleSourceFile(qualifiedClassName, fileName));
         List<String> arguments = new ArrayList<>();
         arguments.addAll(asList("-classpath", System.getProperty("java.class.path"),
-                "-Xplugin:" + JSickoContractCompiler.NAME));
+                "-Xplugin:" + String.join(" ", JSickoContractCompiler.NAME, String.join(" ", pluginOptions)).trim()));
         var diagnosticListener = new CompilationErrorsDiagnosticListener();
         JavaCompiler.CompilationTask task
                 = compiler.getTask(output, fileManager, diagnosticListener, arguments, null,
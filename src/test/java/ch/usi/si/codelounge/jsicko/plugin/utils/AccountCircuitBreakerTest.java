@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.plugin.utils;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.tutorials.configuration.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountCircuitBreakerTest extends AbstractContractConfigurationTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private static int countViolations(Runnable call, int times) {
+        var violations = 0;
+        for (int i = 0; i < times; i++) {
+            try {
+                call.run();
+            } catch (Contract.ContractConditionViolation e) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
+    private void advanceClock(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @BeforeEach
+    public void useTestClock() {
+        CircuitBreakers.setClock(now::get);
+    }
+
+    @AfterEach
+    public void useSystemClock() {
+        CircuitBreakers.setClock(System::nanoTime);
+    }
+
+    @Test
+    public void breakersAreDisabledByDefaultTest() {
+        var account = new Account();
+        assertEquals(10, countViolations(() -> account.buggyDeposit(1), 10));
+        assertTrue(CircuitBreakers.openCircuits().isEmpty());
+    }
+
+    @Test
+    public void circuitOpensAfterThresholdTest() {
+        configure(CircuitBreakers.THRESHOLD_PROPERTY, "3",
+                CircuitBreakers.WINDOW_PROPERTY, "60000");
+        var account = new Account();
+        assertEquals(3, countViolations(() -> account.buggyDeposit(1), 10));
+        assertEquals(20, account.getBalance());
+        assertEquals(1, CircuitBreakers.openCircuits().size());
+        var key = CircuitBreakers.openCircuits().iterator().next();
+        assertTrue(key.startsWith(Account.class.getName() + "#buggyDeposit"), key);
+        assertTrue(key.contains("balance_increased"), key);
+    }
+
+    @Test
+    public void circuitsAreKeyedByClauseAndCallSiteTest() {
+        configure(CircuitBreakers.THRESHOLD_PROPERTY, "3",
+                CircuitBreakers.WINDOW_PROPERTY, "60000");
+        var account = new Account();
+        countViolations(() -> account.buggyDeposit(1), 5);
+        assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-1));
+    }
+
+    @Test
+    public void sampledModeTest() {
+        configure(CircuitBreakers.THRESHOLD_PROPERTY, "2",
+                CircuitBreakers.WINDOW_PROPERTY, "60000",
+                CircuitBreakers.MODE_PROPERTY, "every:4");
+        var account = new Account();
+        assertEquals(2, countViolations(() -> account.buggyDeposit(1), 2));
+        assertEquals(3, countViolations(() -> account.buggyDeposit(1), 12));
+    }
+
+    @Test
+    public void halfOpenCircuitSignalsAndReopensTest() {
+        configure(CircuitBreakers.THRESHOLD_PROPERTY, "2",
+                CircuitBreakers.WINDOW_PROPERTY, "60000",
+                CircuitBreakers.COOLDOWN_PROPERTY, "2000");
+        var account = new Account();
+        assertEquals(2, countViolations(() -> account.buggyDeposit(1), 5));
+        advanceClock(2100);
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1));
+        assertEquals(0, countViolations(() -> account.buggyDeposit(1), 5));
+        assertFalse(CircuitBreakers.openCircuits().isEmpty());
+    }
+
+    @Test
+    public void circuitClosesWhenViolationsStopTest() {
+        configure(CircuitBreakers.THRESHOLD_PROPERTY, "2",
+                CircuitBreakers.WINDOW_PROPERTY, "50",
+                CircuitBreakers.COOLDOWN_PROPERTY, "0");
+        var account = new Account();
+        assertEquals(2, countViolations(() -> account.buggyDeposit(1), 2));
+        assertFalse(CircuitBreakers.openCircuits().isEmpty());
+        advanceClock(100);
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1));
+        assertTrue(CircuitBreakers.openCircuits().isEmpty());
+    }
+
+    @Test
+    public void malformedModeTest() {
+        assertThrows(IllegalArgumentException.class, () -> configure(CircuitBreakers.THRESHOLD_PROPERTY, "2",
+                CircuitBreakers.MODE_PROPERTY, "sometimes"));
+    }
+
+}
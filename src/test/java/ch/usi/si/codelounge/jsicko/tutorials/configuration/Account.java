@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.configuration;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+
+import java.util.Properties;
+
+import static ch.usi.si.codelounge.jsicko.Contract.old;
+
+public class Account implements Contract {
+
+    private int balance;
+
+    @Invariant
+    @Pure
+    public boolean balance_non_negative() {
+        return balance >= 0;
+    }
+
+    @Pure
+    public boolean positive_amount(int amount) {
+        return amount > 0;
+    }
+
+    @Pure
+    public boolean balance_increased(int amount) {
+        return balance == old(this).balance + amount;
+    }
+
+    @Requires("positive_amount")
+    @Ensures("balance_increased")
+    public void deposit(int amount) {
+        balance += amount;
+    }
+
+    @Pure
+    public boolean balance_decreased(int amount) {
+        return balance == old(this).balance - amount;
+    }
+
+    @Requires("positive_amount")
+    @Ensures("balance_decreased")
+    public void withdraw(int amount) {
+        balance -= amount;
+    }
+
+    @Ensures("balance_increased")
+    public void buggyDeposit(int amount) {
+        balance += amount + 1;
+    }
+
+    @Ensures("balance_increased")
+    public void reconfiguringDeposit(int amount, Properties configuration) {
+        ContractConfiguration.configure(configuration);
+        balance += amount;
+    }
+
+    @Pure
+    public int getBalance() {
+        return balance;
+    }
+
+}
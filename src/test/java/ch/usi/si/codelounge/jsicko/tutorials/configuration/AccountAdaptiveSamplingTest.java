@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.configuration;
+
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.utils.OverheadController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccountAdaptiveSamplingTest extends AbstractContractConfigurationTest {
+
+    private static final String DEPOSIT = Account.class.getName() + "#deposit";
+    private static final String WITHDRAW = Account.class.getName() + "#withdraw";
+    private static final double MIN_RATE = 0.01;
+
+    @BeforeEach
+    public void configureAdaptiveSampling() {
+        configure("jsicko.sampling." + Account.class.getName(), "adaptive",
+                OverheadController.BUDGET_PROPERTY, "0.02",
+                OverheadController.INTERVAL_PROPERTY, "0",
+                OverheadController.MIN_RATE_PROPERTY, Double.toString(MIN_RATE));
+    }
+
+    private static void runWorkload(Account account, int deposits, int withdrawals) {
+        for (int i = 0; i < deposits; i++) {
+            account.deposit(2);
+        }
+        for (int i = 0; i < withdrawals; i++) {
+            account.withdraw(1);
+        }
+    }
+
+    @Test
+    public void ratesAreLoweredAndRampedUpTest() throws Throwable {
+        var account = new Account();
+        runWorkload(account, 1000, 0);
+        assertEquals(1.0, (double) OverheadController.currentRates().get(DEPOSIT));
+
+        OverheadController.adjustRates(1);
+        assertEquals(MIN_RATE, (double) OverheadController.currentRates().get(DEPOSIT));
+        assertTrue(OverheadController.lastOverhead() > 1);
+
+        runWorkload(account, 1000, 0);
+        OverheadController.adjustRates(Long.MAX_VALUE / 4);
+        assertEquals(2 * MIN_RATE, (double) OverheadController.currentRates().get(DEPOSIT));
+    }
+
+    @Test
+    public void coldMethodsKeepFullCheckingTest() throws Throwable {
+        var account = new Account();
+        var hugeCpuTime = Long.MAX_VALUE / 4;
+        runWorkload(account, 10000, 10);
+        OverheadController.adjustRates(hugeCpuTime);
+        var checkNanos = OverheadController.lastOverhead() * hugeCpuTime;
+
+        /*
+         * The next budget is half the time spent in checking by the same workload.
+         */
+        runWorkload(account, 10000, 10);
+        OverheadController.adjustRates((long) (checkNanos / 0.02 / 2));
+        var rates = OverheadController.currentRates();
+        assertEquals(1.0, (double) rates.get(WITHDRAW));
+        assertTrue(rates.get(DEPOSIT) < 1.0, rates.toString());
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.configuration;
+
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
+import ch.usi.si.codelounge.jsicko.plugin.utils.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountReportingTest extends AbstractContractConfigurationTest {
+
+    private final InMemoryViolationListener listener = new InMemoryViolationListener();
+
+    @BeforeEach
+    public void addListener() {
+        ViolationReporter.flush(1000);
+        ViolationReporter.addListener(listener);
+    }
+
+    @AfterEach
+    public void removeListener() {
+        ViolationReporter.flush(1000);
+        ViolationReporter.removeListener(listener);
+    }
+
+    @Test
+    public void reportedViolationsReachListenersTest() {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true");
+        var account = new Account();
+        account.buggyDeposit(1);
+        account.buggyDeposit(2);
+        assertTrue(ViolationReporter.flush(1000));
+
+        var reports = listener.getReports();
+        assertEquals(2, reports.size());
+        var report = reports.get(0);
+        assertEquals(ContractConditionEnum.POSTCONDITION, report.getConditionType());
+        assertEquals(Account.class.getName(), report.getClassName());
+        assertEquals(Optional.of("buggyDeposit"), report.getMethodName());
+        assertEquals(Thread.currentThread().getName(), report.getThreadName());
+        assertTrue(report.getMessage().contains("balance_increased"), report.getMessage());
+        assertTrue(reports.get(1).getMessage().contains("amount: 2"), reports.get(1).getMessage());
+    }
+
+    @Test
+    public void invariantReportsHaveNoMethodTest() {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true");
+        new Account().withdraw(5);
+        assertTrue(ViolationReporter.flush(1000));
+
+        var reports = listener.getReports();
+        assertEquals(1, reports.size());
+        assertEquals(ContractConditionEnum.INVARIANT, reports.get(0).getConditionType());
+        assertEquals(Optional.empty(), reports.get(0).getMethodName());
+    }
+
+    @Test
+    public void fullBufferDropsReportsWithoutBlockingTest() throws InterruptedException {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true");
+        var release = new CountDownLatch(1);
+        ViolationListener blockingListener = (List<ViolationReport> reports) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ViolationReporter.addListener(blockingListener);
+        try {
+            var dropped = ViolationReporter.droppedReports();
+            var account = new Account();
+            for (int i = 0; i < 20000; i++) {
+                account.buggyDeposit(1);
+            }
+            assertTrue(ViolationReporter.droppedReports() > dropped);
+        } finally {
+            release.countDown();
+            ViolationReporter.removeListener(blockingListener);
+        }
+        assertTrue(ViolationReporter.flush(5000));
+    }
+
+    @Test
+    public void rollingFileListenerTest() throws IOException {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true");
+        var directory = Files.createTempDirectory("jsicko-reports");
+        var file = directory.resolve("violations.log");
+        var fileListener = new RollingFileViolationListener(file, 1000, 2);
+        ViolationReporter.addListener(fileListener);
+        try {
+            var account = new Account();
+            for (int i = 0; i < 30; i++) {
+                account.buggyDeposit(1);
+            }
+            assertTrue(ViolationReporter.flush(1000));
+        } finally {
+            ViolationReporter.removeListener(fileListener);
+        }
+
+        assertTrue(Files.size(file) <= 1000);
+        assertTrue(Files.exists(directory.resolve("violations.log.1")));
+        assertTrue(Files.exists(directory.resolve("violations.log.2")));
+        assertFalse(Files.exists(directory.resolve("violations.log.3")));
+        var lines = Files.readAllLines(file);
+        assertFalse(lines.isEmpty());
+        assertTrue(lines.get(0).contains("Postcondition violated in " + Account.class.getName() + "#buggyDeposit"), lines.get(0));
+    }
+
+    @Test
+    public void failingListenersDoNotStopDeliveryTest() {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true");
+        ViolationListener failingListener = (List<ViolationReport> reports) -> {
+            throw new AssertionError("listener failure");
+        };
+        ViolationReporter.addListener(failingListener);
+        try {
+            var account = new Account();
+            account.buggyDeposit(1);
+            assertTrue(ViolationReporter.flush(1000));
+            account.buggyDeposit(2);
+            assertTrue(ViolationReporter.flush(1000));
+        } finally {
+            ViolationReporter.removeListener(failingListener);
+        }
+        assertEquals(2, listener.getReports().size());
+    }
+
+    @Test
+    public void malformedReportConfigurationTest() {
+        assertThrows(IllegalArgumentException.class, () -> configure(ViolationReporter.BUFFER_SIZE_PROPERTY, "0"));
+        assertThrows(IllegalArgumentException.class, () -> configure(ViolationReporter.FILE_MAX_SIZE_PROPERTY, "large"));
+        assertThrows(IllegalArgumentException.class, () -> configure(ViolationReporter.FILE_MAX_FILES_PROPERTY, "-1"));
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.configuration;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AccountSamplingTest extends AbstractContractConfigurationTest {
+
+    private static final String ACCOUNT_CLASS = Account.class.getName();
+
+    private static int countViolations(Runnable call, int times) {
+        var violations = 0;
+        for (int i = 0; i < times; i++) {
+            try {
+                call.run();
+            } catch (Contract.ContractConditionViolation e) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
+    @Test
+    public void everyNthCallTest() throws Throwable {
+        configure("jsicko.sampling." + ACCOUNT_CLASS, "every:3");
+        var account = new Account();
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1));
+        account.buggyDeposit(1);
+        account.buggyDeposit(1);
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1));
+    }
+
+    @Test
+    public void samplingIsCountedPerMethodTest() throws Throwable {
+        configure("jsicko.sampling." + ACCOUNT_CLASS, "every:10");
+        var account = new Account();
+        assertEquals(3, countViolations(() -> account.buggyDeposit(1), 30));
+        assertEquals(3, countViolations(() -> account.deposit(-1), 30));
+    }
+
+    @Test
+    public void samplingIsCountedPerThreadTest() throws Throwable {
+        configure("jsicko.sampling", "every:2");
+        var account = new Account();
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1));
+
+        var otherThreadViolations = new AtomicInteger();
+        var otherThread = new Thread(() -> otherThreadViolations.set(countViolations(() -> new Account().buggyDeposit(1), 1)));
+        otherThread.start();
+        otherThread.join();
+
+        assertEquals(1, otherThreadViolations.get());
+        account.buggyDeposit(1);
+    }
+
+    @Test
+    public void zeroRateSkipsAllChecksTest() throws Throwable {
+        configure("jsicko.sampling.ch.usi.si.codelounge.jsicko.tutorials.*", "rate:0");
+        var account = new Account();
+        account.deposit(-5);
+        account.buggyDeposit(5);
+        assertEquals(1, account.getBalance());
+    }
+
+    @Test
+    public void methodSamplingOverridesClassSamplingTest() throws Throwable {
+        configure("jsicko.sampling." + ACCOUNT_CLASS, "rate:0",
+                "jsicko.sampling." + ACCOUNT_CLASS + "#buggyDeposit", "always");
+        var account = new Account();
+        account.deposit(-5);
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(5));
+    }
+
+    @Test
+    public void malformedSamplingTest() throws Throwable {
+        assertThrows(IllegalArgumentException.class, () -> configure("jsicko.sampling", "every:0"));
+        assertThrows(IllegalArgumentException.class, () -> configure("jsicko.sampling", "rate:half"));
+        assertThrows(IllegalArgumentException.class, () -> configure("jsicko.sampling", "sometimes"));
+    }
+
+}
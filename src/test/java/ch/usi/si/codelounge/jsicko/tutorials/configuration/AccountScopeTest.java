@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.configuration;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.Contracts;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountScopeTest extends AbstractContractConfigurationTest {
+
+    @Test
+    public void scopeEnablesChecksTest() throws Exception {
+        configure(ContractConfiguration.CHECKS_PROPERTY, "none");
+        var account = new Account();
+        account.deposit(-5);
+        Contracts.withChecks(Contracts.Level.ALL, () ->
+                assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-5)));
+        account.deposit(-5);
+    }
+
+    @Test
+    public void scopeDisablesChecksTest() throws Exception {
+        var account = new Account();
+        Contracts.withChecks(Contracts.Level.NONE, () -> account.deposit(-5));
+        assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-5));
+    }
+
+    @Test
+    public void scopeBypassesSamplingTest() throws Exception {
+        configure(ContractConfiguration.SAMPLING_PROPERTY, "rate:0");
+        var account = new Account();
+        Contracts.withChecks(Contracts.Level.ALL, () ->
+                assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1)));
+    }
+
+    @Test
+    public void preconditionsLevelTest() throws Exception {
+        var account = new Account();
+        Contracts.withChecks(Contracts.Level.PRECONDITIONS, () -> {
+            account.buggyDeposit(1);
+            assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-5));
+        });
+    }
+
+    @Test
+    public void nestedScopesTest() throws Exception {
+        var account = new Account();
+        var balance = Contracts.withChecks(Contracts.Level.NONE, () -> {
+            Contracts.withChecks(Contracts.Level.ALL, () ->
+                    assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-5)));
+            assertEquals(Optional.of(Contracts.Level.NONE), Contracts.currentLevel());
+            account.deposit(-5);
+            return account.getBalance();
+        });
+        assertEquals(-5, (int) balance);
+        assertEquals(Optional.empty(), Contracts.currentLevel());
+    }
+
+    @Test
+    public void scopeIsNotInheritedByThreadsTest() throws Exception {
+        configure(ContractConfiguration.CHECKS_PROPERTY, "none");
+        var violation = new AtomicReference<Throwable>();
+        Runnable deposit = () -> {
+            try {
+                new Account().deposit(-5);
+            } catch (Contract.PreconditionViolation e) {
+                violation.set(e);
+            }
+        };
+        Contracts.withChecks(Contracts.Level.ALL, () -> {
+            var thread = new Thread(deposit);
+            thread.start();
+            thread.join();
+            return thread;
+        });
+        assertNull(violation.get());
+
+        Contracts.withChecks(Contracts.Level.ALL, () -> {
+            var thread = new Thread(Contracts.propagating(deposit));
+            thread.start();
+            thread.join();
+            return thread;
+        });
+        assertNotNull(violation.get());
+    }
+
+    @Test
+    public void scopeIsPropagatedToExecutorsTest() throws Exception {
+        configure(ContractConfiguration.CHECKS_PROPERTY, "none");
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> new Account().deposit(-5)).get();
+            Runnable deposit = () -> new Account().deposit(-5);
+            var task = Contracts.withChecks(Contracts.Level.ALL, () -> Contracts.propagating(deposit));
+            var exception = assertThrows(Exception.class, () -> executor.submit(task).get());
+            assertTrue(exception.getCause() instanceof Contract.PreconditionViolation);
+            executor.submit(() -> new Account().deposit(-5)).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
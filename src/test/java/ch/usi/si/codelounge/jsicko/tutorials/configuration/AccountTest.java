@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.configuration;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AccountTest extends AbstractContractConfigurationTest {
+
+    private static final String ACCOUNT_CLASS = Account.class.getName();
+
+    @Test
+    public void allChecksEnabledByDefaultTest() throws Throwable {
+        var account = new Account();
+        assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-5));
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(5));
+    }
+
+    @Test
+    public void classPatternTest() throws Throwable {
+        configure("jsicko.checks." + ACCOUNT_CLASS, "post,inv");
+        var account = new Account();
+        assertThrows(Contract.InvariantViolation.class, () -> account.deposit(-5));
+    }
+
+    @Test
+    public void packagePatternTest() throws Throwable {
+        configure("jsicko.checks.ch.usi.si.codelounge.jsicko.*", "none");
+        var account = new Account();
+        account.deposit(-5);
+        account.buggyDeposit(5);
+        assertEquals(1, account.getBalance());
+    }
+
+    @Test
+    public void methodPatternOverridesClassPatternTest() throws Throwable {
+        configure("jsicko.checks." + ACCOUNT_CLASS, "none",
+                "jsicko.checks." + ACCOUNT_CLASS + "#buggyDeposit", "post");
+        var account = new Account();
+        account.deposit(-5);
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(5));
+    }
+
+    @Test
+    public void classPatternOverridesPackagePatternTest() throws Throwable {
+        configure("jsicko.checks.ch.usi.si.codelounge.jsicko.tutorials.*", "none",
+                "jsicko.checks." + ACCOUNT_CLASS, "pre");
+        var account = new Account();
+        assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-5));
+        account.buggyDeposit(5);
+    }
+
+    @Test
+    public void defaultChecksTest() throws Throwable {
+        configure("jsicko.checks", "inv");
+        var account = new Account();
+        account.buggyDeposit(5);
+        assertThrows(Contract.InvariantViolation.class, () -> account.deposit(-10));
+    }
+
+    @Test
+    public void postconditionsEnabledDuringCallTest() throws Throwable {
+        configure("jsicko.checks." + ACCOUNT_CLASS, "pre,inv");
+        var account = new Account();
+        var configuration = new Properties();
+        configuration.setProperty("jsicko.checks." + ACCOUNT_CLASS, "pre,post,inv");
+        account.reconfiguringDeposit(5, configuration);
+        account.deposit(5);
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(5));
+    }
+
+    @Test
+    public void postconditionsDisabledDuringCallTest() throws Throwable {
+        var account = new Account();
+        var configuration = new Properties();
+        configuration.setProperty("jsicko.checks." + ACCOUNT_CLASS, "pre,inv");
+        account.reconfiguringDeposit(5, configuration);
+        account.buggyDeposit(5);
+        configure("jsicko.checks." + ACCOUNT_CLASS, "pre,post,inv");
+        account.deposit(5);
+        assertEquals(16, account.getBalance());
+    }
+
+    @Test
+    public void unknownConditionTypeTest() throws Throwable {
+        assertThrows(IllegalArgumentException.class, () -> configure("jsicko.checks", "pre,postconditions"));
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.configuration;
+
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.ContractConditionEnum;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import ch.usi.si.codelounge.jsicko.plugin.utils.InMemoryViolationListener;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ViolationReporter;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ViolationSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountViolationSummaryTest extends AbstractContractConfigurationTest {
+
+    private final InMemoryViolationListener listener = new InMemoryViolationListener();
+
+    @BeforeEach
+    public void addListener() {
+        ViolationReporter.flush(1000);
+        ViolationReporter.addListener(listener);
+    }
+
+    @AfterEach
+    public void removeListener() {
+        ViolationReporter.flush(1000);
+        ViolationReporter.removeListener(listener);
+    }
+
+    @Test
+    public void violationsAreSummarizedTest() {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true",
+                "jsicko.report.summaryInterval", "60000");
+        var account = new Account();
+        for (int i = 1; i <= 1000; i++) {
+            account.buggyDeposit(i);
+        }
+        assertTrue(ViolationReporter.flush(1000));
+
+        assertTrue(listener.getReports().isEmpty());
+        var summaries = listener.getSummaries();
+        assertEquals(1, summaries.size());
+        var summary = summaries.get(0);
+        assertEquals(1000, summary.getCount());
+        assertEquals(ContractConditionEnum.POSTCONDITION, summary.getConditionType());
+        assertEquals(Account.class.getName(), summary.getClassName());
+        assertEquals(Optional.of("buggyDeposit"), summary.getMethodName());
+        assertTrue(summary.getKey().contains("balance_increased"), summary.getKey());
+        assertFalse(summary.getKey().contains("amount:"), summary.getKey());
+        assertTrue(summary.getFirstTimestamp() <= summary.getLastTimestamp());
+        assertEquals(3, summary.getSampleMessages().size());
+        assertTrue(summary.getSampleMessages().get(0).contains("amount: "), summary.getSampleMessages().get(0));
+    }
+
+    @Test
+    public void summariesAreKeyedByCallSiteTest() {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true",
+                "jsicko.report.summaryInterval", "60000",
+                "jsicko.report.summarySamples", "1");
+        var account = new Account();
+        for (int i = 0; i < 10; i++) {
+            account.buggyDeposit(1);
+            new Account().withdraw(1000);
+        }
+        assertTrue(ViolationReporter.flush(1000));
+
+        var summaries = new ArrayList<>(listener.getSummaries());
+        summaries.sort(Comparator.comparing(ViolationSummary::getConditionType));
+        assertEquals(2, summaries.size());
+        assertEquals(ContractConditionEnum.POSTCONDITION, summaries.get(0).getConditionType());
+        assertEquals(ContractConditionEnum.INVARIANT, summaries.get(1).getConditionType());
+        summaries.forEach((ViolationSummary summary) -> {
+            assertEquals(10, summary.getCount());
+            assertEquals(1, summary.getSampleMessages().size());
+        });
+    }
+
+    @Test
+    public void concurrentViolationsAreCountedTest() throws InterruptedException {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true",
+                "jsicko.report.summaryInterval", "60000");
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            var thread = new Thread(() -> {
+                var account = new Account();
+                for (int j = 0; j < 10000; j++) {
+                    account.buggyDeposit(1);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertTrue(ViolationReporter.flush(1000));
+
+        var summaries = listener.getSummaries();
+        assertEquals(40000, summaries.stream().mapToLong(ViolationSummary::getCount).sum());
+        assertTrue(summaries.stream().allMatch((ViolationSummary summary) -> summary.getSampleMessages().size() <= 3));
+    }
+
+    @Test
+    public void summariesArePeriodicTest() throws InterruptedException {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true",
+                "jsicko.report.summaryInterval", "50");
+        new Account().buggyDeposit(1);
+        var deadline = System.currentTimeMillis() + 5000;
+        while (listener.getSummaries().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, listener.getSummaries().size());
+        assertEquals(1, listener.getSummaries().get(0).getCount());
+    }
+
+    @Test
+    public void malformedSummaryConfigurationTest() {
+        assertThrows(IllegalArgumentException.class, () -> configure("jsicko.report.summaryInterval", "-1"));
+        assertThrows(IllegalArgumentException.class, () -> configure("jsicko.report.summarySamples", "some"));
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.configuration;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.utils.CircuitBreakers;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractControl;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractControlMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ContractControlTest extends AbstractContractConfigurationTest {
+
+    private static final String ACCOUNT_CLASS = Account.class.getName();
+
+    private ContractControlMXBean control;
+
+    @BeforeEach
+    public void connect() throws Exception {
+        new Account().deposit(1);
+        control = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(), new ObjectName(ContractControl.OBJECT_NAME), ContractControlMXBean.class);
+    }
+
+    @Test
+    public void checksCanBeToggledOnHotCodeTest() throws Throwable {
+        var account = new Account();
+        for (int i = 0; i < 20000; i++) {
+            account.deposit(1);
+        }
+
+        control.setChecks(ACCOUNT_CLASS, "none");
+        account.deposit(-5);
+        assertEquals("none", control.getConfiguration().get("jsicko.checks." + ACCOUNT_CLASS));
+
+        control.clearPattern(ACCOUNT_CLASS);
+        assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-5));
+    }
+
+    @Test
+    public void methodChecksTest() throws Throwable {
+        control.setChecks("", "none");
+        control.setChecks(ACCOUNT_CLASS + "#buggyDeposit", "post");
+        var account = new Account();
+        account.deposit(-5);
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(5));
+    }
+
+    @Test
+    public void reportOnlyTest() throws Throwable {
+        control.setReportOnly(ACCOUNT_CLASS + "#buggyDeposit", true);
+        var account = new Account();
+        account.buggyDeposit(5);
+        assertEquals(6, account.getBalance());
+        assertThrows(Contract.PreconditionViolation.class, () -> account.deposit(-5));
+    }
+
+    @Test
+    public void samplingTest() throws Throwable {
+        control.setSampling(ACCOUNT_CLASS, "every:2");
+        var account = new Account();
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1));
+        account.buggyDeposit(1);
+    }
+
+    @Test
+    public void resetTest() throws Throwable {
+        control.setChecks(ACCOUNT_CLASS, "none");
+        control.reset();
+        assertThrows(Contract.PreconditionViolation.class, () -> new Account().deposit(-5));
+    }
+
+    @Test
+    public void openCircuitsSurviveUnrelatedChangesTest() throws Throwable {
+        configure(CircuitBreakers.THRESHOLD_PROPERTY, "2",
+                CircuitBreakers.WINDOW_PROPERTY, "60000");
+        var account = new Account();
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1));
+        assertThrows(Contract.PostconditionViolation.class, () -> account.buggyDeposit(1));
+
+        control.setChecks(ACCOUNT_CLASS, "all");
+        assertFalse(CircuitBreakers.openCircuits().isEmpty());
+        account.buggyDeposit(1);
+    }
+
+    @Test
+    public void malformedValuesAreRejectedTest() throws Throwable {
+        assertThrows(RuntimeException.class, () -> control.setChecks(ACCOUNT_CLASS, "sometimes"));
+        assertThrows(Contract.PreconditionViolation.class, () -> new Account().deposit(-5));
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.cost;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static ch.usi.si.codelounge.jsicko.Contract.old;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.forAllInts;
+
+/**
+ * A bag of non-negative integers kept sorted, whose contract mixes clauses of different costs.
+ */
+public class SortedBag implements Contract {
+
+    private final List<Integer> elements = new ArrayList<>();
+
+    @Invariant(cost = Cost.EXPENSIVE)
+    @Pure
+    public boolean is_sorted() {
+        return forAllInts(1, elements.size(), (int i) -> elements.get(i - 1) <= elements.get(i));
+    }
+
+    @Pure
+    public boolean non_negative_arg(int element) {
+        return element >= 0;
+    }
+
+    @Pure
+    public boolean size_increased() {
+        return elements.size() == old(this).elements.size() + 1;
+    }
+
+    @Pure
+    public boolean contains_arg(int element) {
+        return elements.contains(element);
+    }
+
+    @Requires(value = "non_negative_arg", cost = Cost.CHEAP)
+    @Ensures("size_increased")
+    @Ensures(value = "contains_arg", cost = Cost.EXPENSIVE)
+    public void add(int element) {
+        var index = 0;
+        while (index < elements.size() && elements.get(index) < element) {
+            index++;
+        }
+        elements.add(index, element);
+    }
+
+    @Requires(value = "non_negative_arg", cost = Cost.CHEAP)
+    @Ensures(value = "contains_arg", cost = Cost.EXPENSIVE)
+    public void buggyAdd(int element) {
+        elements.add(element + 1);
+    }
+
+    @Requires(value = "non_negative_arg", cost = Cost.CHEAP)
+    @Ensures("size_increased")
+    public void unsortedAdd(int element) {
+        elements.add(0, element);
+    }
+
+    @Pure
+    public int size() {
+        return elements.size();
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.cost;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.Contracts;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SortedBagTest extends AbstractContractConfigurationTest {
+
+    private static final String BAG_CLASS = SortedBag.class.getName();
+
+    @Test
+    public void allCostsCheckedByDefaultTest() {
+        var bag = new SortedBag();
+        bag.add(3);
+        bag.add(1);
+        assertEquals(2, bag.size());
+        assertThrows(Contract.PostconditionViolation.class, () -> bag.buggyAdd(2));
+        assertThrows(Contract.InvariantViolation.class, () -> bag.unsortedAdd(5));
+    }
+
+    @Test
+    public void repeatedAnnotationsAreConjoinedTest() {
+        assertThrows(Contract.PreconditionViolation.class, () -> new SortedBag().add(-1));
+    }
+
+    @Test
+    public void normalThresholdSkipsExpensiveClausesTest() {
+        configure(ContractConfiguration.COST_PROPERTY, "normal");
+        var bag = new SortedBag();
+        bag.buggyAdd(2);
+        bag.unsortedAdd(5);
+        assertEquals(2, bag.size());
+        assertThrows(Contract.PreconditionViolation.class, () -> bag.add(-1));
+    }
+
+    @Test
+    public void cheapThresholdKeepsOnlyCheapClausesTest() {
+        configure(ContractConfiguration.COST_PROPERTY, "cheap");
+        var bag = new SortedBag();
+        bag.buggyAdd(2);
+        bag.unsortedAdd(5);
+        assertThrows(Contract.PreconditionViolation.class, () -> bag.add(-1));
+    }
+
+    @Test
+    public void methodThresholdTest() {
+        configure(ContractConfiguration.COST_PROPERTY, "cheap",
+                ContractConfiguration.COST_PROPERTY + "." + BAG_CLASS + "#buggyAdd", "expensive");
+        var bag = new SortedBag();
+        bag.unsortedAdd(5);
+        assertThrows(Contract.PostconditionViolation.class, () -> bag.buggyAdd(2));
+    }
+
+    @Test
+    public void scopeChecksAllCostsTest() throws Exception {
+        configure(ContractConfiguration.COST_PROPERTY, "cheap");
+        var bag = new SortedBag();
+        Contracts.withChecks(Contracts.Level.ALL, () ->
+                assertThrows(Contract.PostconditionViolation.class, () -> bag.buggyAdd(2)));
+    }
+
+    @Test
+    public void malformedCostTest() {
+        assertThrows(IllegalArgumentException.class, () -> configure(ContractConfiguration.COST_PROPERTY, "free"));
+    }
+
+}
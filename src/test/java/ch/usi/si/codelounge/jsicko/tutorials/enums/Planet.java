@@ -25,6 +25,7 @@ import ch.usi.si.codelounge.jsicko.Contract;
 /**
  * Enum that represent a particular room type.
  */
+@Contract.Immutable
 public enum Planet implements Contract {
     MERCURY (3.303e+23, 2.4397e6),
     VENUS   (4.869e+24, 6.0518e6),
@@ -93,15 +94,18 @@ public enum Planet implements Contract {
         return Math.abs(this.surfaceGravity() - G * this.mass() / Math.pow(this.radius(), 2.0)) < 1e-10;
     }
 
+    @Pure
     @Ensures("approx_planet_masses")
     public double mass() { return mass; }
 
+    @Pure
     @Ensures("approx_planet_radiuses")
     public double radius() { return radius; }
 
     // universal gravitational constant  (m3 kg-1 s-2)
     public static final double G = 6.67300E-11;
 
+    @Pure
     @Ensures("approx_surface_gravity")
     double surfaceGravity() {
         return G * mass / (radius * radius);
@@ -24,6 +24,7 @@ package ch.usi.si.codelounge.jsicko.tutorials.enums;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class PlanetTest {
 
@@ -31,5 +32,17 @@ public class PlanetTest {
         Planet roomType = Planet.MARS;
         assertEquals(roomType.surfaceGravity(),3.711, 1e-2);
     }
+
+    @Test void marsMassTest() {
+        assertEquals(6.421e+23, Planet.MARS.mass());
+        assertEquals(3.3972e6, Planet.MARS.radius());
+    }
+
+    @Test void massesTest() {
+        for (var planet : Planet.values()) {
+            assertTrue(planet.mass() > 0);
+            assertTrue(planet.radius() > 0);
+        }
+    }
 }
 
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.frames;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A bank account whose operations declare the fields they modify: the fields not listed are checked
+ * to be unchanged after each call, without cloning the account. Its queries are checked to be pure
+ * in the same way. Since reference fields are compared by identity, the history is copied and replaced
+ * at each movement, rather than modified in place. Some operations are buggy.
+ */
+public class Account implements Contract {
+
+    private long balance;
+    private double limit;
+    private boolean active;
+    private String owner;
+    private List<Long> history;
+
+    public Account() {
+        this.limit = 100.0;
+        this.active = true;
+        this.owner = "";
+        this.history = new ArrayList<>();
+    }
+
+    @Requires("positive_amount")
+    @Modifies("balance, history")
+    public void deposit(long amount) {
+        balance += amount;
+        history = append(history, amount);
+    }
+
+    /**
+     * Buggy: it records the withdrawal in the history.
+     */
+    @Requires("positive_amount")
+    @Modifies("balance")
+    public void withdraw(long amount) {
+        balance -= amount;
+        history = append(history, -amount);
+    }
+
+    @Modifies({"owner"})
+    public void rename(String owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Buggy: it deactivates the account if it is empty.
+     */
+    @Modifies({})
+    public boolean audit() {
+        active = balance > 0;
+        return active;
+    }
+
+    /**
+     * Buggy: it changes the limit, besides charging the fee.
+     */
+    @Modifies({"balance", "history"})
+    public void chargeFee() {
+        balance -= 1;
+        history = append(history, -1L);
+        limit -= 1.0;
+    }
+
+    @Modifies({})
+    public void reconfigure(Properties configuration) {
+        ContractConfiguration.configure(configuration);
+    }
+
+    @Ensures("pure")
+    public long lastMovement() {
+        return history.isEmpty() ? 0 : history.get(history.size() - 1);
+    }
+
+    /**
+     * Buggy: it clears the history it returns.
+     */
+    @Ensures("pure")
+    public String statement() {
+        var statement = history.toString();
+        history = new ArrayList<>();
+        return statement;
+    }
+
+    private static List<Long> append(List<Long> history, long movement) {
+        var appended = new ArrayList<>(history);
+        appended.add(movement);
+        return appended;
+    }
+
+    @Pure
+    public boolean positive_amount(long amount) {
+        return amount > 0;
+    }
+
+    @Pure
+    public long getBalance() {
+        return balance;
+    }
+
+    @Pure
+    public String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.frames;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountTest extends AbstractContractConfigurationTest {
+
+    @Test
+    public void listedFieldsCanBeModifiedTest() {
+        var account = new Account();
+        account.deposit(10);
+        account.deposit(5);
+        account.rename("alice");
+        assertEquals(15, account.getBalance());
+        assertEquals("alice", account.getOwner());
+        assertTrue(account.audit());
+    }
+
+    @Test
+    public void unlistedCollectionModifiedTest() {
+        var account = new Account();
+        var violation = assertThrows(Contract.PostconditionViolation.class, () -> account.withdraw(10));
+        assertTrue(violation.getMessage().contains("history"));
+    }
+
+    @Test
+    public void emptyFrameTest() {
+        var account = new Account();
+        var violation = assertThrows(Contract.PostconditionViolation.class, account::audit);
+        assertTrue(violation.getMessage().contains("active"));
+    }
+
+    @Test
+    public void unlistedPrimitiveFieldsModifiedTest() {
+        var account = new Account();
+        var violation = assertThrows(Contract.PostconditionViolation.class, account::chargeFee);
+        assertTrue(violation.getMessage().contains("limit"));
+        assertFalse(violation.getMessage().contains("balance"));
+    }
+
+    @Test
+    public void pureQueryTest() {
+        var account = new Account();
+        account.deposit(10);
+        assertEquals(10, account.lastMovement());
+        assertEquals(10, account.lastMovement());
+    }
+
+    @Test
+    public void impureQueryTest() {
+        var account = new Account();
+        account.deposit(10);
+        var violation = assertThrows(Contract.PostconditionViolation.class, account::statement);
+        assertTrue(violation.getMessage().contains("history"));
+    }
+
+    @Test
+    public void postconditionsToggledDuringCallsTest() {
+        var account = new Account();
+        var withoutPostconditions = new Properties();
+        withoutPostconditions.setProperty("jsicko.checks", "pre,inv");
+        account.reconfigure(withoutPostconditions);
+        account.deposit(10);
+        account.reconfigure(new Properties());
+        account.deposit(5);
+        assertEquals(15, account.getBalance());
+        assertThrows(Contract.PostconditionViolation.class, () -> account.withdraw(10));
+    }
+}
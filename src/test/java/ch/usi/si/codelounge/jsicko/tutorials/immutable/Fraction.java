@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.immutable;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+/**
+ * An immutable fraction: its invariant is checked only when it is constructed, and the
+ * postconditions of its queries only at their first call on each fraction.
+ */
+@Contract.Immutable
+public final class Fraction implements Contract {
+
+    /**
+     * The number of evaluations of the invariant and of the postcondition of {@link #doubleValue()} and {@link #floorValue()}.
+     */
+    static int invariantChecks = 0;
+    static int postconditionChecks = 0;
+
+    private final int numerator;
+    private final int denominator;
+
+    public Fraction(int numerator, int denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    @Invariant
+    @Pure
+    public boolean positive_denominator() {
+        invariantChecks++;
+        return denominator > 0;
+    }
+
+    @Pure
+    public boolean same_value(double returns) {
+        postconditionChecks++;
+        return Math.abs(returns * denominator - numerator) < 1e-9;
+    }
+
+    @Pure
+    @Ensures("same_value")
+    public double doubleValue() {
+        return (double) numerator / denominator;
+    }
+
+    /**
+     * Buggy: it rounds the value down.
+     */
+    @Pure
+    @Ensures("same_value")
+    public double floorValue() {
+        return Math.floor((double) numerator / denominator);
+    }
+
+    @Pure
+    public Fraction negate() {
+        return new Fraction(-numerator, denominator);
+    }
+
+    @Pure
+    public Fraction times(Fraction other) {
+        return new Fraction(numerator * other.numerator, denominator * other.denominator);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.immutable;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ViolationReporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FractionTest extends AbstractContractConfigurationTest {
+
+    @BeforeEach
+    public void resetCounters() {
+        Fraction.invariantChecks = 0;
+        Fraction.postconditionChecks = 0;
+    }
+
+    @Test
+    public void invariantCheckedOnlyByConstructorsTest() {
+        var half = new Fraction(1, 2);
+        assertEquals(1, Fraction.invariantChecks);
+        var product = half.times(half).negate();
+        assertEquals(3, Fraction.invariantChecks);
+        product.doubleValue();
+        assertEquals(3, Fraction.invariantChecks);
+    }
+
+    @Test
+    public void invalidFractionTest() {
+        assertThrows(Contract.InvariantViolation.class, () -> new Fraction(1, 0));
+        assertThrows(Contract.InvariantViolation.class, () -> new Fraction(1, -2));
+    }
+
+    @Test
+    public void postconditionCheckedOncePerInstanceTest() {
+        var half = new Fraction(1, 2);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0.5, half.doubleValue());
+        }
+        assertEquals(1, Fraction.postconditionChecks);
+        var third = new Fraction(1, 3);
+        third.doubleValue();
+        third.doubleValue();
+        assertEquals(2, Fraction.postconditionChecks);
+    }
+
+    @Test
+    public void violatedPostconditionCheckedAgainTest() {
+        var half = new Fraction(1, 2);
+        assertThrows(Contract.PostconditionViolation.class, half::floorValue);
+        assertThrows(Contract.PostconditionViolation.class, half::floorValue);
+        assertEquals(2, Fraction.postconditionChecks);
+    }
+
+    @Test
+    public void reportedPostconditionCheckedAgainTest() {
+        configure(ContractConfiguration.REPORT_ONLY_PROPERTY, "true");
+        var half = new Fraction(1, 2);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0.0, half.floorValue());
+        }
+        assertEquals(3, Fraction.postconditionChecks);
+        ViolationReporter.flush(1000);
+    }
+
+    @Test
+    public void disabledPostconditionNotMemoizedTest() {
+        configure("jsicko.checks", "pre,inv");
+        var half = new Fraction(1, 2);
+        half.doubleValue();
+        assertEquals(0, Fraction.postconditionChecks);
+        ContractConfiguration.reset();
+        half.doubleValue();
+        half.doubleValue();
+        assertEquals(1, Fraction.postconditionChecks);
+    }
+}
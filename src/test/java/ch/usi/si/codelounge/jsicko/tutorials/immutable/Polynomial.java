@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.immutable;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+/**
+ * An immutable polynomial, whose coefficients are stored in an array: since the content of the
+ * array may change, the postconditions of its queries are checked at every call.
+ */
+@Contract.Immutable
+public final class Polynomial implements Contract {
+
+    /**
+     * The number of evaluations of the postcondition of {@link #degree()}.
+     */
+    static int postconditionChecks = 0;
+
+    private final int[] coefficients;
+
+    public Polynomial(int... coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    @Pure
+    public boolean non_zero_leading_coefficient(int returns) {
+        postconditionChecks++;
+        return returns == 0 || coefficients[returns] != 0;
+    }
+
+    @Pure
+    @Ensures("non_zero_leading_coefficient")
+    public int degree() {
+        var degree = coefficients.length - 1;
+        while (degree > 0 && coefficients[degree] == 0) {
+            degree--;
+        }
+        return degree;
+    }
+}
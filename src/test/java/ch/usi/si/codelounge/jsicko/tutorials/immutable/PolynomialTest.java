@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.immutable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PolynomialTest {
+
+    @BeforeEach
+    public void resetCounters() {
+        Polynomial.postconditionChecks = 0;
+    }
+
+    @Test
+    public void postconditionWithArrayFieldCheckedAtEveryCallTest() {
+        var polynomial = new Polynomial(1, 2, 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, polynomial.degree());
+        }
+        assertEquals(3, Polynomial.postconditionChecks);
+    }
+}
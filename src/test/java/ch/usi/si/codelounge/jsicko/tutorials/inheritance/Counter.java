@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package ch.usi.si.codelounge.jsicko.tutorials.inheritance;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import static ch.usi.si.codelounge.jsicko.Contract.old;
+
+public interface Counter extends Contract {
+
+    @Pure
+    int value();
+
+    @Requires("amount_positive")
+    @Ensures("value_increased_by_amount")
+    void increment(int amount);
+
+    @Pure
+    default boolean amount_positive(int amount) {
+        return amount > 0;
+    }
+
+    @Pure
+    default boolean value_increased_by_amount(int amount) {
+        return value() == old(this).value() + amount;
+    }
+
+    /**
+     * An implementation inheriting the contract as is.
+     */
+    class SimpleCounter implements Counter {
+
+        private int value;
+
+        @Override
+        public int value() {
+            return value;
+        }
+
+        @Override
+        public void increment(int amount) {
+            value += amount;
+        }
+    }
+
+    /**
+     * A wrong implementation, violating the inherited postcondition.
+     */
+    class DoublingCounter implements Counter {
+
+        private int value;
+
+        @Override
+        public int value() {
+            return value;
+        }
+
+        @Override
+        public void increment(int amount) {
+            value += 2 * amount;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package ch.usi.si.codelounge.jsicko.tutorials.inheritance;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CounterTest {
+
+    @Test
+    public void incrementTest() throws Throwable {
+        var counter = new Counter.SimpleCounter();
+        counter.increment(3);
+        assertEquals(3, counter.value());
+    }
+
+    @Test
+    public void inheritedPreconditionTest() throws Throwable {
+        var counter = new Counter.SimpleCounter();
+        assertThrows(Contract.PreconditionViolation.class, () -> counter.increment(0));
+    }
+
+    @Test
+    public void inheritedPostconditionTest() throws Throwable {
+        var counter = new Counter.DoublingCounter();
+        assertThrows(Contract.PostconditionViolation.class, () -> counter.increment(1));
+    }
+
+    @Test
+    public void inheritedClausesAreCheckedOnlyInDeclaringTypeTest() throws Throwable {
+        var sharedCheckMethods = Arrays.stream(Counter.class.getDeclaredMethods())
+                .filter(Method::isSynthetic)
+                .filter((Method method) -> method.getName().startsWith("$pre$increment") || method.getName().startsWith("$post$increment"))
+                .count();
+        assertEquals(2, sharedCheckMethods);
+
+        var clauseLambdas = Arrays.stream(Counter.SimpleCounter.class.getDeclaredMethods())
+                .filter((Method method) -> method.getName().startsWith("lambda$"))
+                .count();
+        assertEquals(0, clauseLambdas);
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package ch.usi.si.codelounge.jsicko.tutorials.inlining;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+/**
+ * A minimal contract class whose pure getter is small enough,
+ * once its postcondition is outlined, to be inlined by the JIT.
+ */
+public class Thermometer implements Contract {
+
+    private final double kelvin;
+
+    public Thermometer(double kelvin) {
+        this.kelvin = kelvin;
+    }
+
+    @Pure
+    protected boolean returns_above_absolute_zero(double returns) {
+        return returns >= -273.15;
+    }
+
+    @Pure
+    @Ensures("returns_above_absolute_zero")
+    public double celsius() {
+        return kelvin - 273.15;
+    }
+
+    /**
+     * Calls the instrumented getter in a hot loop, so that
+     * the caller gets compiled and the inlining decision is printed.
+     */
+    public static void main(String[] args) {
+        var thermometer = new Thermometer(300.0);
+        double sum = 0.0;
+        for (int i = 0; i < 2_000_000; i++) {
+            sum += thermometer.celsius();
+        }
+        System.out.println(sum);
+    }
+}
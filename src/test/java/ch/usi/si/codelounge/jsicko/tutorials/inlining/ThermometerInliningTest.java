@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package ch.usi.si.codelounge.jsicko.tutorials.inlining;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link Thermometer#main(String[])} in a child JVM with {@code -XX:+PrintInlining}
+ * and checks that the instrumented getter is inlined into its hot caller.
+ *
+ * The outlined precondition and postcondition methods are kept out of line, as they
+ * would be in a larger program where they are compiled separately, so that the getter
+ * is not itself compiled into a big method before its caller gets hot.
+ */
+public class ThermometerInliningTest {
+
+    private static final String GETTER = Thermometer.class.getName().replace('.', '/') + "::celsius";
+    private static final String GETTER_DOTTED = Thermometer.class.getName() + "::celsius";
+
+    @Test
+    public void instrumentedGetterIsInlined() throws Exception {
+        var inliningLines = printInlining(Thermometer.class).stream()
+                .filter((String line) -> line.contains(GETTER) || line.contains(GETTER_DOTTED))
+                .collect(Collectors.toList());
+
+        assertFalse(inliningLines.isEmpty(), "no inlining decision printed for " + GETTER_DOTTED);
+        assertTrue(inliningLines.stream().anyMatch((String line) -> line.contains("inline (hot)")), String.join("\n", inliningLines));
+        assertFalse(inliningLines.stream().anyMatch((String line) -> line.contains("too big")), String.join("\n", inliningLines));
+    }
+
+    private static List<String> printInlining(Class<?> mainClass) throws Exception {
+        var javaExecutable = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        var process = new ProcessBuilder(javaExecutable,
+                "-cp", System.getProperty("java.class.path"),
+                "-XX:+UnlockDiagnosticVMOptions",
+                "-XX:+PrintInlining",
+                "-XX:-TieredCompilation",
+                "-XX:CompileCommand=quiet",
+                "-XX:CompileCommand=dontinline," + mainClass.getName() + "::$pre$*",
+                "-XX:CompileCommand=dontinline," + mainClass.getName() + "::$post$*",
+                mainClass.getName())
+                .redirectErrorStream(true)
+                .start();
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            var lines = reader.lines().collect(Collectors.toList());
+            assertEquals(0, process.waitFor(), String.join("\n", lines));
+            return lines;
+        }
+    }
+}
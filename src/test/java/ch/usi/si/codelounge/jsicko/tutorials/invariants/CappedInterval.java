@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.invariants;
+
+/**
+ * An interval whose (redefined) invariant on the lower bound also reads the upper bound:
+ * the methods inherited from {@link Interval} must check it, even if they do not on intervals.
+ */
+public class CappedInterval extends Interval {
+
+    static final int CAP = 10;
+
+    @Override
+    @Invariant
+    @Pure
+    public boolean non_negative_low() {
+        return super.non_negative_low() && high <= CAP;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.invariants;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+/**
+ * An interval whose bounds are set independently: setting the upper bound cannot break
+ * the invariant on the lower bound, which is then not checked.
+ */
+public class Interval implements Contract {
+
+    /**
+     * The number of evaluations of the invariant on the lower bound.
+     */
+    static int lowChecks = 0;
+
+    protected int low;
+    protected int high;
+
+    @Invariant
+    @Pure
+    public boolean non_negative_low() {
+        lowChecks++;
+        return low >= 0;
+    }
+
+    @Invariant
+    @Pure
+    public boolean ordered() {
+        return low <= high;
+    }
+
+    public void setLow(int low) {
+        this.low = low;
+    }
+
+    public void setHigh(int high) {
+        this.high = high;
+    }
+
+    @Pure
+    public int width() {
+        return high - low;
+    }
+}
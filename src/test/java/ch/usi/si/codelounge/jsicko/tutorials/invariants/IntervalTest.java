@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.invariants;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalTest {
+
+    @BeforeEach
+    public void resetCounter() {
+        Interval.lowChecks = 0;
+    }
+
+    @Test
+    public void unaffectedInvariantsAreNotCheckedTest() {
+        var interval = new Interval();
+        Interval.lowChecks = 0;
+        interval.setHigh(10);
+        assertEquals(0, Interval.lowChecks);
+        interval.setLow(5);
+        assertEquals(1, Interval.lowChecks);
+    }
+
+    @Test
+    public void affectedInvariantsAreCheckedTest() {
+        var interval = new Interval();
+        assertThrows(Contract.InvariantViolation.class, () -> interval.setHigh(-1));
+        assertThrows(Contract.InvariantViolation.class, () -> new Interval().setLow(-1));
+    }
+
+    @Test
+    public void subclassesCheckAllInvariantsTest() {
+        var interval = new CappedInterval();
+        Interval.lowChecks = 0;
+        interval.setHigh(5);
+        assertEquals(1, Interval.lowChecks);
+        assertThrows(Contract.InvariantViolation.class, () -> interval.setHigh(20));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.invariants;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static ch.usi.si.codelounge.jsicko.ContractUtils.forAllInts;
+
+/**
+ * A sorted list of integers, whose batch operations are implemented by calling its own
+ * public methods, breaking the invariant between the calls.
+ */
+public class SortedInts implements Contract {
+
+    /**
+     * The number of invariant evaluations, to measure the cost of checking invariants.
+     */
+    static int invariantChecks = 0;
+
+    private final List<Integer> elements = new ArrayList<>();
+
+    @Invariant
+    @Pure
+    public boolean is_sorted() {
+        invariantChecks++;
+        return forAllInts(1, elements.size(), (int i) -> elements.get(i - 1) <= elements.get(i));
+    }
+
+    public void add(int element) {
+        var index = 0;
+        while (index < elements.size() && elements.get(index) < element) {
+            index++;
+        }
+        elements.add(index, element);
+    }
+
+    public void addAll(int... elements) {
+        for (var element : elements) {
+            add(element);
+        }
+    }
+
+    public void set(int index, int element) {
+        elements.set(index, element);
+    }
+
+    /**
+     * Increments all the elements, one at a time: the list is unsorted until the last
+     * equal element is incremented.
+     */
+    public void incrementAll() {
+        for (int i = 0; i < size(); i++) {
+            set(i, get(i) + 1);
+        }
+    }
+
+    @Pure
+    public int get(int index) {
+        return elements.get(index);
+    }
+
+    @Pure
+    public int size() {
+        return elements.size();
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.invariants;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.Contracts;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortedIntsTest extends AbstractContractConfigurationTest {
+
+    @BeforeEach
+    public void resetCounter() {
+        SortedInts.invariantChecks = 0;
+    }
+
+    @Test
+    public void invariantsCheckedAtEveryCallByDefaultTest() {
+        var ints = new SortedInts();
+        ints.addAll(3, 1, 2, 5);
+        assertEquals(5, SortedInts.invariantChecks);
+    }
+
+    @Test
+    public void invariantsCheckedAtOutermostCallTest() {
+        configure(ContractConfiguration.INVARIANTS_PROPERTY, "outermost");
+        var ints = new SortedInts();
+        SortedInts.invariantChecks = 0;
+        ints.addAll(3, 1, 2, 5);
+        assertEquals(1, SortedInts.invariantChecks);
+        ints.add(4);
+        assertEquals(2, SortedInts.invariantChecks);
+    }
+
+    @Test
+    public void intermediateStatesViolateInvariantsByDefaultTest() {
+        var ints = new SortedInts();
+        ints.addAll(1, 1);
+        assertThrows(Contract.InvariantViolation.class, ints::incrementAll);
+    }
+
+    @Test
+    public void intermediateStatesAreNotCheckedAtNestedCallsTest() {
+        configure(ContractConfiguration.INVARIANTS_PROPERTY, "outermost");
+        var ints = new SortedInts();
+        ints.addAll(1, 1);
+        ints.incrementAll();
+        assertEquals(2, ints.get(0));
+        assertEquals(2, ints.get(1));
+    }
+
+    @Test
+    public void outermostCallsAreCheckedTest() {
+        configure(ContractConfiguration.INVARIANTS_PROPERTY, "outermost");
+        var ints = new SortedInts();
+        ints.addAll(1, 2);
+        assertThrows(Contract.InvariantViolation.class, () -> ints.set(0, 100));
+        SortedInts.invariantChecks = 0;
+        ints.set(0, 1);
+        assertEquals(1, SortedInts.invariantChecks);
+        ints.addAll(3, 4);
+        assertEquals(2, SortedInts.invariantChecks);
+    }
+
+    @Test
+    public void outermostModeByClassTest() {
+        configure(ContractConfiguration.INVARIANTS_PROPERTY + "." + SortedInts.class.getName(), "outermost");
+        var ints = new SortedInts();
+        SortedInts.invariantChecks = 0;
+        ints.addAll(1, 2, 3);
+        assertEquals(1, SortedInts.invariantChecks);
+    }
+
+    @Test
+    public void malformedInvariantsConfigurationTest() {
+        assertThrows(IllegalArgumentException.class, () -> configure(ContractConfiguration.INVARIANTS_PROPERTY, "sometimes"));
+    }
+
+    @Test
+    public void deferredInvariantsCheckedOnceTest() {
+        var ints = new SortedInts();
+        SortedInts.invariantChecks = 0;
+        try (var batch = Contracts.deferInvariants(ints)) {
+            ints.addAll(3, 1, 2, 5);
+            ints.add(4);
+            assertEquals(0, SortedInts.invariantChecks);
+        }
+        assertEquals(1, SortedInts.invariantChecks);
+        ints.add(6);
+        assertEquals(2, SortedInts.invariantChecks);
+    }
+
+    @Test
+    public void deferredInvariantsAllowIntermediateStatesTest() {
+        var ints = new SortedInts();
+        ints.addAll(1, 2);
+        try (var batch = Contracts.deferInvariants(ints)) {
+            ints.set(0, 100);
+            ints.set(0, 1);
+        }
+        assertEquals(1, ints.get(0));
+    }
+
+    @Test
+    public void deferredViolationReportsLastOperationTest() {
+        var ints = new SortedInts();
+        ints.addAll(1, 2);
+        var violation = assertThrows(Contract.InvariantViolation.class, () -> {
+            try (var batch = Contracts.deferInvariants(ints)) {
+                ints.add(3);
+                ints.set(0, 100);
+            }
+        });
+        assertTrue(violation.getMessage().contains("after operation 2 (set)"), violation.getMessage());
+    }
+
+    @Test
+    public void deferredInvariantsDisabledAtCloseAreNotCheckedTest() {
+        var ints = new SortedInts();
+        ints.addAll(1, 2);
+        try (var batch = Contracts.deferInvariants(ints)) {
+            ints.set(0, 100);
+            configure(ContractConfiguration.CHECKS_PROPERTY, "pre,post");
+        }
+        ContractConfiguration.reset();
+        var batch = Contracts.deferInvariants(ints);
+        ints.set(0, 200);
+        Contracts.withChecks(Contracts.Level.NONE, batch::close);
+        assertEquals(200, ints.get(0));
+    }
+
+    @Test
+    public void nestedDeferralsCheckAtOutermostScopeTest() {
+        var ints = new SortedInts();
+        var others = new SortedInts();
+        SortedInts.invariantChecks = 0;
+        try (var outer = Contracts.deferInvariants(ints)) {
+            try (var inner = Contracts.deferInvariants(ints, others)) {
+                ints.add(1);
+                others.add(1);
+            }
+            assertEquals(1, SortedInts.invariantChecks);
+            ints.add(2);
+            assertEquals(1, SortedInts.invariantChecks);
+        }
+        assertEquals(2, SortedInts.invariantChecks);
+    }
+
+}
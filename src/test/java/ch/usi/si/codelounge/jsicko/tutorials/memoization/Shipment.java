@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.memoization;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+/**
+ * A shipment whose precondition is weakened by its implementation: both weakenings
+ * share the hasWeight clause, which is evaluated once per precondition check.
+ */
+public interface Shipment extends Contract {
+
+    @Pure
+    boolean hasWeight();
+
+    @Pure
+    boolean isExpress();
+
+    @Requires({"hasWeight", "isExpress"})
+    void ship();
+
+    class Parcel implements Shipment {
+
+        static int weightEvaluations = 0;
+
+        private final int weight;
+        private final boolean express;
+        private final boolean insured;
+
+        public Parcel() {
+            this(0, false, false);
+        }
+
+        public Parcel(int weight, boolean express, boolean insured) {
+            this.weight = weight;
+            this.express = express;
+            this.insured = insured;
+        }
+
+        @Pure
+        @Override
+        public boolean hasWeight() {
+            weightEvaluations++;
+            return weight > 0;
+        }
+
+        @Pure
+        @Override
+        public boolean isExpress() {
+            return express;
+        }
+
+        @Pure
+        public boolean isInsured() {
+            return insured;
+        }
+
+        @Override
+        @Requires({"hasWeight", "isInsured"})
+        public void ship() {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.memoization;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShipmentTest {
+
+    @BeforeEach
+    public void resetEvaluations() {
+        Shipment.Parcel.weightEvaluations = 0;
+    }
+
+    @Test
+    public void sharedClauseIsEvaluatedOnceTest() throws Throwable {
+        var parcel = new Shipment.Parcel(3, false, false);
+        assertThrows(Contract.PreconditionViolation.class, parcel::ship);
+        assertEquals(1, Shipment.Parcel.weightEvaluations);
+    }
+
+    @Test
+    public void sharedClauseIsEvaluatedOnceForEachCheckTest() throws Throwable {
+        var parcel = new Shipment.Parcel(3, false, true);
+        parcel.ship();
+        parcel.ship();
+        assertEquals(2, Shipment.Parcel.weightEvaluations);
+    }
+
+    @Test
+    public void memoizedClauseViolationTest() throws Throwable {
+        var parcel = new Shipment.Parcel(0, true, true);
+        assertThrows(Contract.PreconditionViolation.class, parcel::ship);
+        assertEquals(1, Shipment.Parcel.weightEvaluations);
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.memoization;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+/**
+ * A stock whose invariant is also a postcondition of one of its methods: the shared clause
+ * is evaluated once when the method returns.
+ */
+public class Stock implements Contract {
+
+    static int quantityEvaluations = 0;
+
+    private int quantity;
+
+    @Invariant
+    @Pure
+    public boolean non_negative_quantity() {
+        quantityEvaluations++;
+        return quantity >= 0;
+    }
+
+    @Ensures("non_negative_quantity")
+    public void add(int amount) {
+        quantity += amount;
+    }
+
+    public void remove(int amount) {
+        quantity -= amount;
+    }
+}
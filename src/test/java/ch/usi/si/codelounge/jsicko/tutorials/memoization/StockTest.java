@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.memoization;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StockTest {
+
+    @BeforeEach
+    public void resetEvaluations() {
+        Stock.quantityEvaluations = 0;
+    }
+
+    @Test
+    public void invariantSharedWithPostconditionIsEvaluatedOnceTest() throws Throwable {
+        var stock = new Stock();
+        stock.add(3);
+        assertEquals(1, Stock.quantityEvaluations);
+        stock.add(2);
+        assertEquals(2, Stock.quantityEvaluations);
+    }
+
+    @Test
+    public void sharedClauseViolationTest() throws Throwable {
+        var stock = new Stock();
+        assertThrows(Contract.InvariantViolation.class, () -> stock.add(-1));
+        assertEquals(1, Stock.quantityEvaluations);
+    }
+
+    @Test
+    public void invariantAloneIsEvaluatedOnceTest() throws Throwable {
+        var stock = new Stock();
+        stock.add(3);
+        stock.remove(1);
+        assertEquals(2, Stock.quantityEvaluations);
+    }
+
+}
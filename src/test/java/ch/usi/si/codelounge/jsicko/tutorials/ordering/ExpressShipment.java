@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.ordering;
+
+/**
+ * Express shipments, which can also go to any local destination: the cheap precondition
+ * weakens the expensive one of {@link Shipment}, and usually decides the check alone.
+ */
+public class ExpressShipment extends Shipment {
+
+    @Pure
+    public boolean local_destination(String destination) {
+        return destination != null && destination.startsWith("Lugano");
+    }
+
+    @Override
+    @Requires("local_destination")
+    public void ship(String destination) {
+        record(destination);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.ordering;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ClauseProfiles;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ContractConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressShipmentTest extends AbstractContractConfigurationTest {
+
+    private static final String PROFILE_KEY = ExpressShipment.class.getName() + "#ship 2,1";
+
+    private static void shipLocally(ExpressShipment shipment, int times) {
+        for (int i = 0; i < times; i++) {
+            shipment.ship("Lugano " + i);
+        }
+    }
+
+    @BeforeEach
+    public void resetLookups() {
+        Shipment.registryLookups = 0;
+    }
+
+    @Test
+    public void declaredOrderByDefaultTest() {
+        var shipment = new ExpressShipment();
+        shipLocally(shipment, 200);
+        assertEquals(200, shipment.shipped());
+        assertEquals(200, Shipment.registryLookups);
+        assertTrue(ClauseProfiles.groupOrders().isEmpty());
+    }
+
+    @Test
+    public void profiledOrderSkipsExpensiveGroupTest() {
+        configure(ClauseProfiles.ORDERING_PROPERTY, "profiled");
+        var shipment = new ExpressShipment();
+        shipLocally(shipment, 400);
+        assertEquals(400, shipment.shipped());
+        assertTrue(Shipment.registryLookups < 200, "registry looked up " + Shipment.registryLookups + " times");
+        assertEquals(List.of(1, 0), ClauseProfiles.groupOrders().get(PROFILE_KEY));
+    }
+
+    @Test
+    public void reportedViolationIsUnchangedTest() {
+        var shipment = new ExpressShipment();
+        var declaredViolation = assertThrows(Contract.PreconditionViolation.class, () -> shipment.ship("Nowhere"));
+        configure(ClauseProfiles.ORDERING_PROPERTY, "profiled");
+        shipLocally(shipment, 400);
+        var profiledViolation = assertThrows(Contract.PreconditionViolation.class, () -> shipment.ship("Nowhere"));
+        assertEquals(declaredViolation.getMessage(), profiledViolation.getMessage());
+        shipment.ship("Destination 3");
+    }
+
+    @Test
+    public void guardedClauseFallsBackToDeclaredOrderTest() {
+        configure(ClauseProfiles.ORDERING_PROPERTY, "profiled");
+        var shipment = new ExpressShipment();
+        shipLocally(shipment, 400);
+        for (int i = 0; i < 3; i++) {
+            var violation = assertThrows(Contract.PreconditionViolation.class, () -> shipment.ship(null));
+            assertTrue(violation.getMessage().contains("non_null_destination"), violation.getMessage());
+        }
+    }
+
+    @Test
+    public void profilesAreSavedAndLoadedTest() throws IOException {
+        var file = Files.createTempFile("jsicko-profiles", ".properties");
+        try {
+            configure(ClauseProfiles.ORDERING_PROPERTY, "profiled");
+            shipLocally(new ExpressShipment(), 400);
+            var learnedOrders = ClauseProfiles.groupOrders();
+            ClauseProfiles.save(file);
+            ContractConfiguration.reset();
+            assertTrue(ClauseProfiles.groupOrders().isEmpty());
+            configure(ClauseProfiles.ORDERING_PROPERTY, "profiled",
+                    ClauseProfiles.FILE_PROPERTY, file.toString());
+            assertEquals(learnedOrders, ClauseProfiles.groupOrders());
+            Shipment.registryLookups = 0;
+            shipLocally(new ExpressShipment(), 10);
+            assertEquals(0, Shipment.registryLookups);
+        } finally {
+            ContractConfiguration.reset();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void malformedOrderingTest() {
+        assertThrows(IllegalArgumentException.class, () -> configure(ClauseProfiles.ORDERING_PROPERTY, "fastest"));
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.ordering;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Shipments to the destinations of a registry, whose precondition is expensive to check.
+ */
+public class Shipment implements Contract {
+
+    /**
+     * Counts the lookups in the registry, to observe how often the precondition is evaluated.
+     */
+    static int registryLookups = 0;
+
+    private static final List<String> REGISTRY = IntStream.range(0, 1000)
+            .mapToObj((int index) -> "Destination " + index)
+            .collect(Collectors.toUnmodifiableList());
+
+    private final List<String> shipped = new ArrayList<>();
+
+    @Pure
+    public boolean non_null_destination(String destination) {
+        return destination != null;
+    }
+
+    @Pure
+    public boolean registered_destination(String destination) {
+        registryLookups++;
+        return REGISTRY.contains(destination);
+    }
+
+    @Requires({"non_null_destination", "registered_destination"})
+    public void ship(String destination) {
+        record(destination);
+    }
+
+    @Pure
+    public int shipped() {
+        return shipped.size();
+    }
+
+    protected void record(String destination) {
+        shipped.add(destination);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.parallel;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ch.usi.si.codelounge.jsicko.Contract.old;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.forAllInts;
+
+/**
+ * A sorted inventory of distinct bounded quantities, whose expensive postconditions are
+ * evaluated concurrently.
+ */
+@Contract.Parallel
+public class Inventory implements Contract {
+
+    static final int MAX_QUANTITY = 1000;
+
+    /**
+     * The names of the threads evaluating each clause, to observe where clauses run.
+     */
+    static final Map<String, Set<String>> evaluatingThreads = new ConcurrentHashMap<>();
+
+    private final List<Integer> quantities = new ArrayList<>();
+
+    static boolean evaluating(String clause) {
+        evaluatingThreads.computeIfAbsent(clause, (String newClause) -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+        return true;
+    }
+
+    @Pure
+    public boolean non_negative_arg(int quantity) {
+        return quantity >= 0;
+    }
+
+    @Pure
+    public boolean is_sorted() {
+        return evaluating("is_sorted") && forAllInts(1, quantities.size(), (int i) -> quantities.get(i - 1) <= quantities.get(i));
+    }
+
+    @Pure
+    public boolean all_unique() {
+        return evaluating("all_unique") && quantities.stream().distinct().count() == quantities.size();
+    }
+
+    @Pure
+    public boolean within_bounds() {
+        return evaluating("within_bounds") && quantities.stream().allMatch((Integer quantity) -> quantity <= MAX_QUANTITY);
+    }
+
+    @Pure
+    public boolean size_increased() {
+        return evaluating("size_increased") && quantities.size() == old(this).quantities.size() + 1;
+    }
+
+    @Requires(value = "non_negative_arg", cost = Cost.CHEAP)
+    @Ensures(value = {"is_sorted", "all_unique", "within_bounds", "size_increased"}, cost = Cost.EXPENSIVE)
+    public void add(int quantity) {
+        var index = 0;
+        while (index < quantities.size() && quantities.get(index) < quantity) {
+            index++;
+        }
+        quantities.add(index, quantity);
+    }
+
+    @Ensures(value = {"is_sorted", "all_unique", "within_bounds"}, cost = Cost.EXPENSIVE)
+    public void prepend(int quantity) {
+        quantities.add(0, quantity);
+    }
+
+    @Ensures(value = {"is_sorted", "all_unique", "within_bounds"}, cost = Cost.EXPENSIVE)
+    public void append(int quantity) {
+        quantities.add(quantity);
+    }
+
+    @Pure
+    public int size() {
+        return quantities.size();
+    }
+}
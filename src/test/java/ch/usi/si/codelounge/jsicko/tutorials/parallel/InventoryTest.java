@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.parallel;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import ch.usi.si.codelounge.jsicko.compilation.utils.AbstractContractConfigurationTest;
+import ch.usi.si.codelounge.jsicko.plugin.utils.ClauseExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryTest extends AbstractContractConfigurationTest {
+
+    private static void configureThreads(int threads) {
+        configure(ClauseExecutor.THREADS_PROPERTY, Integer.toString(threads));
+    }
+
+    private static Inventory inventoryOf(int... quantities) {
+        var inventory = new Inventory();
+        for (var quantity : quantities) {
+            inventory.add(quantity);
+        }
+        return inventory;
+    }
+
+    private static boolean evaluatedOnlyByPool(String clause) {
+        var threads = Inventory.evaluatingThreads.getOrDefault(clause, Set.of());
+        return !threads.isEmpty() && threads.stream().allMatch((String thread) -> thread.startsWith("jsicko-clauses-"));
+    }
+
+    private static String violationOf(Consumer<Inventory> buggyCall) {
+        var inventory = inventoryOf(1, 5, 9);
+        var message = assertThrows(Contract.PostconditionViolation.class, () -> buggyCall.accept(inventory)).getMessage();
+        return message.substring(0, message.indexOf("; params"));
+    }
+
+    @BeforeEach
+    public void configurePool() {
+        configureThreads(4);
+        Inventory.evaluatingThreads.clear();
+    }
+
+    @Test
+    public void parallelClausesRunOnPoolTest() {
+        var inventory = inventoryOf(7, 3, 5, 1);
+        assertEquals(4, inventory.size());
+        assertTrue(evaluatedOnlyByPool("is_sorted"), Inventory.evaluatingThreads.toString());
+        assertTrue(evaluatedOnlyByPool("all_unique"), Inventory.evaluatingThreads.toString());
+        assertTrue(evaluatedOnlyByPool("within_bounds"), Inventory.evaluatingThreads.toString());
+        assertTrue(evaluatedOnlyByPool("size_increased"), Inventory.evaluatingThreads.toString());
+    }
+
+    @Test
+    public void firstDeclaredViolationIsReportedTest() {
+        for (int i = 0; i < 50; i++) {
+            var unsorted = violationOf((Inventory inventory) -> inventory.prepend(Inventory.MAX_QUANTITY + 1));
+            assertTrue(unsorted.contains("is_sorted"), unsorted);
+            assertFalse(unsorted.contains("within_bounds"), unsorted);
+            var duplicate = violationOf((Inventory inventory) -> inventory.append(9));
+            assertTrue(duplicate.contains("all_unique"), duplicate);
+            var outOfBounds = violationOf((Inventory inventory) -> inventory.append(Inventory.MAX_QUANTITY + 1));
+            assertTrue(outOfBounds.contains("within_bounds"), outOfBounds);
+        }
+    }
+
+    @Test
+    public void resultsMatchSequentialEvaluationTest() {
+        var parallelViolation = violationOf((Inventory inventory) -> inventory.prepend(Inventory.MAX_QUANTITY + 1));
+        configureThreads(1);
+        Inventory.evaluatingThreads.clear();
+        var sequentialViolation = violationOf((Inventory inventory) -> inventory.prepend(Inventory.MAX_QUANTITY + 1));
+        assertEquals(sequentialViolation, parallelViolation);
+        assertEquals(Set.of(Thread.currentThread().getName()), Inventory.evaluatingThreads.get("is_sorted"));
+    }
+
+    @Test
+    public void onlyExpensiveClausesRunOnPoolTest() {
+        var shelf = new Shelf();
+        shelf.put("jar");
+        assertTrue(evaluatedOnlyByPool("no_empty_items"), Inventory.evaluatingThreads.toString());
+        assertTrue(evaluatedOnlyByPool("no_blank_items"), Inventory.evaluatingThreads.toString());
+        assertEquals(Set.of(Thread.currentThread().getName()), Inventory.evaluatingThreads.get("not_empty"));
+        assertThrows(Contract.PostconditionViolation.class, () -> shelf.put(" "));
+    }
+
+    @Test
+    public void malformedThreadsTest() {
+        assertThrows(IllegalArgumentException.class, () -> configureThreads(0));
+    }
+
+}
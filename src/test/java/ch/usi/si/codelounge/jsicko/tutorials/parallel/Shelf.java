@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.parallel;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A shelf marking only some of its clauses as parallel: only the expensive ones are evaluated concurrently.
+ */
+public class Shelf implements Contract {
+
+    private final List<String> items = new ArrayList<>();
+
+    @Pure
+    public boolean no_empty_items() {
+        return Inventory.evaluating("no_empty_items") && items.stream().noneMatch(String::isEmpty);
+    }
+
+    @Pure
+    public boolean no_blank_items() {
+        return Inventory.evaluating("no_blank_items") && items.stream().noneMatch(String::isBlank);
+    }
+
+    @Pure
+    public boolean not_empty() {
+        return Inventory.evaluating("not_empty") && !items.isEmpty();
+    }
+
+    @Ensures(value = {"no_empty_items", "no_blank_items"}, cost = Cost.EXPENSIVE, parallel = true)
+    @Ensures(value = "not_empty", parallel = true)
+    public void put(String item) {
+        items.add(item);
+    }
+}
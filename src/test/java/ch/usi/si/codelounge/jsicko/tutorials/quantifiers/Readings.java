@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.quantifiers;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static ch.usi.si.codelounge.jsicko.Contract.old;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.count;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.exists;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.forAll;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.forAllInts;
+
+/**
+ * Sensor readings kept in parallel arrays, whose contracts quantify over the arrays without boxing.
+ */
+public class Readings implements Contract {
+
+    private long[] timestamps = new long[4];
+    private double[] values = new double[4];
+    private String[] sensors = new String[4];
+    private int size = 0;
+
+    @Invariant
+    @Pure
+    public boolean increasing_timestamps() {
+        return forAllInts(1, size, (int i) -> timestamps[i - 1] < timestamps[i]);
+    }
+
+    @Invariant
+    @Pure
+    public boolean finite_values() {
+        return forAll(values, 0, size, Double::isFinite);
+    }
+
+    @Invariant
+    @Pure
+    public boolean known_sensors() {
+        return forAll(sensors, 0, size, Objects::nonNull);
+    }
+
+    @Pure
+    public boolean later_timestamp(long timestamp) {
+        return forAll(timestamps, 0, size, (long previous) -> previous < timestamp);
+    }
+
+    @Pure
+    public boolean one_more_reading(String sensor) {
+        return count(sensors, 0, size, sensor::equals) == old(this).readingsOf(sensor) + 1;
+    }
+
+    @Pure
+    public boolean non_negative_counts(int[] returns) {
+        return forAll(returns, (int count) -> count >= 0) && Arrays.stream(returns).sum() == size;
+    }
+
+    @Requires("later_timestamp")
+    @Ensures("one_more_reading")
+    public void record(long timestamp, String sensor, double value) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, 2 * size);
+            values = Arrays.copyOf(values, 2 * size);
+            sensors = Arrays.copyOf(sensors, 2 * size);
+        }
+        timestamps[size] = timestamp;
+        sensors[size] = sensor;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Records a reading dividing by a zero calibration, breaking the invariant.
+     */
+    public void recordUncalibrated(long timestamp, String sensor, double value) {
+        record(timestamp, sensor, value / 0.0);
+    }
+
+    @Pure
+    public long readingsOf(String sensor) {
+        return count(sensors, 0, size, sensor::equals);
+    }
+
+    @Pure
+    public boolean anyAbove(double threshold) {
+        return exists(values, 0, size, (double value) -> value > threshold);
+    }
+
+    @Ensures("non_negative_counts")
+    public int[] countsBelow(double... thresholds) {
+        var counts = new int[thresholds.length + 1];
+        for (int i = 0; i < size; i++) {
+            var bucket = 0;
+            while (bucket < thresholds.length && values[i] >= thresholds[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.tutorials.quantifiers;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+import org.junit.jupiter.api.Test;
+
+import static ch.usi.si.codelounge.jsicko.ContractUtils.count;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.exists;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.existsInt;
+import static ch.usi.si.codelounge.jsicko.ContractUtils.forAll;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadingsTest {
+
+    private static Readings readings() {
+        var readings = new Readings();
+        readings.record(10, "north", 12.5);
+        readings.record(20, "south", 18.0);
+        readings.record(30, "north", 21.5);
+        readings.record(40, "east", 9.0);
+        readings.record(50, "north", 15.0);
+        return readings;
+    }
+
+    @Test
+    public void recordTest() {
+        var readings = readings();
+        assertEquals(3, readings.readingsOf("north"));
+        assertTrue(readings.anyAbove(20));
+        assertFalse(readings.anyAbove(30));
+        assertArrayEquals(new int[] { 1, 3, 1 }, readings.countsBelow(10, 20));
+    }
+
+    @Test
+    public void earlierTimestampTest() {
+        var readings = readings();
+        assertThrows(Contract.PreconditionViolation.class, () -> readings.record(50, "west", 1.0));
+    }
+
+    @Test
+    public void infiniteValueTest() {
+        var readings = readings();
+        assertThrows(Contract.InvariantViolation.class, () -> readings.recordUncalibrated(60, "west", 1.0));
+    }
+
+    @Test
+    public void arrayQuantifiersTest() {
+        int[] ints = { 1, 2, 3, 4 };
+        long[] longs = { 1L, 2L, 3L, 4L };
+        double[] doubles = { 0.5, 1.5, 2.5 };
+        String[] strings = { "a", "bb", "ccc" };
+        assertTrue(forAll(ints, (int i) -> i > 0));
+        assertFalse(forAll(ints, 1, 4, (int i) -> i < 4));
+        assertTrue(forAll(ints, 0, 3, (int i) -> i < 4));
+        assertTrue(exists(longs, (long l) -> l == 3L));
+        assertFalse(exists(longs, 0, 2, (long l) -> l == 3L));
+        assertEquals(2, count(doubles, (double d) -> d > 1));
+        assertEquals(1, count(doubles, 0, 2, (double d) -> d > 1));
+        assertTrue(forAll(strings, (String s) -> !s.isEmpty()));
+        assertEquals(2, count(strings, 1, 3, (String s) -> s.length() > 1));
+        assertTrue(forAll(new int[0], (int i) -> false));
+        assertFalse(exists(strings, 1, 1, (String s) -> true));
+    }
+
+    @Test
+    public void arrayQuantifiersStopAtFirstWitnessTest() {
+        int[] evaluated = { 0 };
+        assertFalse(forAll(new int[] { 1, -1, 2, 3 }, (int i) -> ++evaluated[0] > 0 && i > 0));
+        assertEquals(2, evaluated[0]);
+        evaluated[0] = 0;
+        assertTrue(existsInt(0, 100, (int i) -> ++evaluated[0] > 0 && i == 4));
+        assertEquals(5, evaluated[0]);
+    }
+
+    @Test
+    public void invalidRangeTest() {
+        assertThrows(IndexOutOfBoundsException.class, () -> forAll(new int[2], 1, 3, (int i) -> true));
+        assertThrows(IndexOutOfBoundsException.class, () -> exists(new String[2], 2, 1, (String s) -> true));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2018 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+public interface DuplicateClauses {
+
+    interface Base extends Contract {
+
+        @Pure
+        default boolean positive(int x) {
+            return x > 0;
+        }
+
+        @Pure
+        default boolean small(int x) {
+            return x < 100;
+        }
+
+        @Invariant
+        @Pure
+        default boolean consistent() {
+            return true;
+        }
+    }
+
+    interface Left extends Base {
+
+        @Requires("positive")
+        @Ensures("positive")
+        void set(int x);
+    }
+
+    interface Right extends Base {
+
+        @Requires({"positive", "small"})
+        @Ensures({"small", "positive"})
+        void set(int x);
+    }
+
+    interface Cheap extends Base {
+
+        @Ensures(value = "positive", cost = Cost.CHEAP)
+        void put(int x);
+    }
+
+    interface Expensive extends Base {
+
+        @Ensures(value = "positive", cost = Cost.EXPENSIVE)
+        void put(int x);
+    }
+
+    class Impl implements Left, Right, Cheap, Expensive {
+
+        @Override
+        @Invariant
+        @Pure
+        public boolean consistent() {
+            return true;
+        }
+
+        @Override
+        public void set(int x) {
+        }
+
+        @Override
+        public void put(int x) {
+        }
+    }
+
+}
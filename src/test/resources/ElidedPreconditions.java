@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+public class ElidedPreconditions implements Contract {
+
+    private static final int CAPACITY = 16;
+
+    private final int[] elements = new int[CAPACITY];
+    private String label = "";
+    private int size = 1;
+
+    @Pure
+    public boolean valid_index(int index) {
+        return index >= 0 && index < CAPACITY;
+    }
+
+    @Pure
+    public boolean non_null_label(String label) {
+        return label != null;
+    }
+
+    @Pure
+    public boolean positive_result(int returns) {
+        return returns > 0;
+    }
+
+    @Pure
+    public boolean positive_amount(int amount) {
+        return amount > 0;
+    }
+
+    @Pure
+    public boolean not_empty(int amount) {
+        return size > 0;
+    }
+
+    @Pure
+    public static boolean positive_count(int count) {
+        return count > 0;
+    }
+
+    @Requires("valid_index")
+    public void set(int index, int value) {
+        elements[index] = value;
+    }
+
+    @Requires("non_null_label")
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    @Ensures("positive_result")
+    public int next() {
+        return size + 1;
+    }
+
+    @Requires("positive_amount")
+    public void grow(int amount) {
+        size += amount;
+    }
+
+    @Requires("not_empty")
+    public void shrink(int amount) {
+        size -= amount;
+    }
+
+    @Requires("positive_count")
+    public static int twice(int count) {
+        return 2 * count;
+    }
+
+    public void constantArguments() {
+        set(0, 1);
+        this.set(CAPACITY - 1, 2);
+        setLabel("label");
+        var result = ElidedPreconditions.twice(3);
+        var other = new ElidedPreconditions();
+        other.set(2, result);
+    }
+
+    public void unprovenArguments(int index) {
+        set(CAPACITY, 1);
+        set(index, 2);
+        set(-1 + 1, 3);
+    }
+
+    public void previousPostcondition() {
+        int amount = next();
+        grow(amount);
+    }
+
+    public void statefulPrecondition() {
+        int amount = next();
+        shrink(amount);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class IncrementalInvariants {
+
+    public static class Range implements Contract {
+
+        private int low;
+        private int high;
+        private final List<Integer> log = new ArrayList<>();
+
+        @Invariant
+        @Pure
+        public boolean non_negative_low() {
+            return low >= 0;
+        }
+
+        @Invariant
+        @Pure
+        public boolean ordered() {
+            return low <= high;
+        }
+
+        @Invariant
+        @Pure
+        public boolean bounded_log() {
+            return log.size() < 1000;
+        }
+
+        public void setHigh(int high) {
+            this.high = high;
+        }
+
+        public void incrementLow() {
+            low++;
+        }
+
+        public void moveTo(int low, int high) {
+            this.high = high;
+            setLow(low);
+        }
+
+        private void setLow(int low) {
+            this.low = low;
+        }
+
+        public void record(int value) {
+            log.add(value);
+        }
+
+        public void touch() {
+        }
+
+        public void register(Consumer<Range> listener) {
+            listener.accept(this);
+        }
+
+        @Pure
+        public int width() {
+            return high - low;
+        }
+    }
+
+}
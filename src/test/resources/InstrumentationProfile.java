@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2019 Andrea Mocci and CodeLounge https://codelounge.si.usi.ch
+ *
+ * This file is part of jSicko - Java SImple Contract checKer.
+ *
+ *  jSicko is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ * jSicko is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with jSicko.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package ch.usi.si.codelounge.jsicko.compilation.tests;
+
+import ch.usi.si.codelounge.jsicko.Contract;
+
+import static ch.usi.si.codelounge.jsicko.Contract.old;
+
+public class InstrumentationProfile {
+
+    public static class Api implements Contract {
+
+        private int value;
+
+        @Invariant(cost = Cost.CHEAP)
+        @Pure
+        public boolean non_negative_value() {
+            return value >= 0;
+        }
+
+        @Invariant(cost = Cost.EXPENSIVE)
+        @Pure
+        public boolean bounded_value() {
+            return value < 1000;
+        }
+
+        @Pure
+        public boolean non_negative(int x) {
+            return x >= 0;
+        }
+
+        @Pure
+        public boolean small(int x) {
+            return x < 100;
+        }
+
+        @Pure
+        public boolean value_increased(int x) {
+            return value == old(this).value + x;
+        }
+
+        @Requires(value = "non_negative", cost = Cost.CHEAP)
+        @Requires(value = "small", cost = Cost.EXPENSIVE)
+        @Ensures("value_increased")
+        public void put(int x) {
+            value += x;
+        }
+    }
+
+    static class Hidden implements Contract {
+
+        @Pure
+        public boolean non_negative(int x) {
+            return x >= 0;
+        }
+
+        @Requires(value = "non_negative", cost = Cost.CHEAP)
+        public void hide(int x) {
+        }
+    }
+
+    public static class Excluded implements Contract {
+
+        @Pure
+        public boolean non_negative(int x) {
+            return x >= 0;
+        }
+
+        @Requires(value = "non_negative", cost = Cost.CHEAP)
+        public void skip(int x) {
+        }
+    }
+
+}